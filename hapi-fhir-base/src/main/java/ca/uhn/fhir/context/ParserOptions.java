@@ -46,6 +46,7 @@ public class ParserOptions {
 	private boolean myAutoContainReferenceTargetsWithNoId = true;
 	private Set<String> myEncodeElementsForSummaryMode = null;
 	private Set<String> myDontEncodeElementsForSummaryMode = null;
+	private boolean myUseStreamingJsonParser = false;
 
 	/**
 	 * If set to {@literal true} (which is the default), contained resources may be specified by
@@ -324,4 +325,51 @@ public class ParserOptions {
 	public Set<String> getDontEncodeElementsForSummaryMode() {
 		return myDontEncodeElementsForSummaryMode;
 	}
+
+	/**
+	 * If set to {@literal true} (default is {@literal false}), the JSON parser will build the resource
+	 * model directly from the token stream of the content being parsed instead of first loading the
+	 * complete JSON document into an intermediate tree. This substantially reduces the memory allocated
+	 * when parsing large resources such as Bundles.
+	 * <p>
+	 * The streaming parser does not behave exactly like the default parser:
+	 * </p>
+	 * <ul>
+	 * <li>A <code>_name</code> property carrying the id or extensions of a complex element is ignored
+	 * if it appears after the element itself in the JSON object.</li>
+	 * <li>Primitive elements are delivered to the model (and to the
+	 * {@link ca.uhn.fhir.parser.IParserErrorHandler parser error handler}) after the complex elements
+	 * which share their parent object.</li>
+	 * <li>Syntax errors detected while streaming are reported with their own message codes.</li>
+	 * </ul>
+	 *
+	 * @since 7.6.0
+	 */
+	public boolean isUseStreamingJsonParser() {
+		return myUseStreamingJsonParser;
+	}
+
+	/**
+	 * If set to {@literal true} (default is {@literal false}), the JSON parser will build the resource
+	 * model directly from the token stream of the content being parsed instead of first loading the
+	 * complete JSON document into an intermediate tree. This substantially reduces the memory allocated
+	 * when parsing large resources such as Bundles.
+	 * <p>
+	 * The streaming parser does not behave exactly like the default parser:
+	 * </p>
+	 * <ul>
+	 * <li>A <code>_name</code> property carrying the id or extensions of a complex element is ignored
+	 * if it appears after the element itself in the JSON object.</li>
+	 * <li>Primitive elements are delivered to the model (and to the
+	 * {@link ca.uhn.fhir.parser.IParserErrorHandler parser error handler}) after the complex elements
+	 * which share their parent object.</li>
+	 * <li>Syntax errors detected while streaming are reported with their own message codes.</li>
+	 * </ul>
+	 *
+	 * @since 7.6.0
+	 */
+	public ParserOptions setUseStreamingJsonParser(boolean theUseStreamingJsonParser) {
+		myUseStreamingJsonParser = theUseStreamingJsonParser;
+		return this;
+	}
 }
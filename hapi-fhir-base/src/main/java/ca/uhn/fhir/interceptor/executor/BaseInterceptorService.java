@@ -36,6 +36,7 @@ import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.ClassUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
@@ -44,14 +45,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.AnnotatedElement;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
@@ -72,6 +78,9 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 			AttributeKey.stringKey("hapifhir.interceptor.class_name");
 	private static final AttributeKey<String> OTEL_INTERCEPTOR_METHOD_NAME_ATT_KEY =
 			AttributeKey.stringKey("hapifhir.interceptor.method_name");
+	private static final BaseInvoker[] EMPTY_INVOKER_ARRAY = new BaseInvoker[0];
+	private static final MethodType HOOK_INVOKER_TYPE =
+			MethodType.methodType(Object.class, Object.class, Object[].class);
 
 	private final List<Object> myInterceptors = new ArrayList<>();
 	private final ListMultimap<POINTCUT, BaseInvoker> myGlobalInvokers = ArrayListMultimap.create();
@@ -79,6 +88,12 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	private final Object myRegistryMutex = new Object();
 	private final Class<POINTCUT> myPointcutType;
 	private volatile EnumSet<POINTCUT> myRegisteredPointcuts;
+	/**
+	 * Immutable, pre-sorted invokers for each pointcut that has at least one hook. The map
+	 * is replaced (never modified) whenever the registry changes, so hook dispatch can read
+	 * it without locking or copying.
+	 */
+	private volatile Map<POINTCUT, BaseInvoker[]> myInvokersByPointcut;
 	private String myName;
 	private boolean myWarnOnInterceptorWithNoHooks = true;
 
@@ -98,7 +113,7 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 		super();
 		myName = theName;
 		myPointcutType = thePointcutType;
-		rebuildRegisteredPointcutSet();
+		rebuildInvokerCache();
 	}
 
 	/**
@@ -126,7 +141,7 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 				myInterceptors.add(theInterceptor);
 			}
 
-			rebuildRegisteredPointcutSet();
+			rebuildInvokerCache();
 		}
 	}
 
@@ -187,7 +202,7 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 				}
 			}
 
-			rebuildRegisteredPointcutSet();
+			rebuildInvokerCache();
 		}
 	}
 
@@ -212,16 +227,28 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 			myInterceptors.add(theInterceptor);
 			sortByOrderAnnotation(myInterceptors);
 
-			rebuildRegisteredPointcutSet();
+			rebuildInvokerCache();
 
 			return true;
 		}
 	}
 
-	private void rebuildRegisteredPointcutSet() {
+	/**
+	 * Must be called (while holding {@link #myRegistryMutex}) any time the
+	 * global or anonymous invokers are modified
+	 */
+	private void rebuildInvokerCache() {
 		EnumSet<POINTCUT> registeredPointcuts = EnumSet.noneOf(myPointcutType);
 		registeredPointcuts.addAll(myAnonymousInvokers.keySet());
 		registeredPointcuts.addAll(myGlobalInvokers.keySet());
+
+		Map<POINTCUT, BaseInvoker[]> invokersByPointcut = new EnumMap<>(myPointcutType);
+		for (POINTCUT next : registeredPointcuts) {
+			List<BaseInvoker> invokers = union(myGlobalInvokers.get(next), myAnonymousInvokers.get(next));
+			invokersByPointcut.put(next, invokers.toArray(EMPTY_INVOKER_ARRAY));
+		}
+
+		myInvokersByPointcut = invokersByPointcut;
 		myRegisteredPointcuts = registeredPointcuts;
 	}
 
@@ -240,7 +267,7 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 			boolean removed = myInterceptors.removeIf(t -> t == theInterceptor);
 			removed |= myGlobalInvokers.entries().removeIf(t -> t.getValue().getInterceptor() == theInterceptor);
 			removed |= myAnonymousInvokers.entries().removeIf(t -> t.getValue().getInterceptor() == theInterceptor);
-			rebuildRegisteredPointcutSet();
+			rebuildInvokerCache();
 			return removed;
 		}
 	}
@@ -287,16 +314,23 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	}
 
 	private Object doCallHooks(POINTCUT thePointcut, HookParams theParams, Object theRetVal) {
-		// use new list for loop to avoid ConcurrentModificationException in case invoker gets added while looping
-		List<BaseInvoker> invokers = new ArrayList<>(getInvokersForPointcut(thePointcut));
+		// The cached array is never modified once published, so it is safe to iterate even if
+		// an interceptor gets registered or unregistered while we're looping
+		BaseInvoker[] invokers = myInvokersByPointcut.get(thePointcut);
+		if (invokers == null) {
+			return theRetVal;
+		}
+
+		Class<?> pointcutReturnType = thePointcut.getReturnType();
+		boolean booleanReturnType = pointcutReturnType.equals(getBooleanReturnType());
+		boolean voidReturnType = pointcutReturnType.equals(void.class);
 
 		/*
 		 * Call each hook in order
 		 */
 		for (BaseInvoker nextInvoker : invokers) {
 			Object nextOutcome = nextInvoker.invoke(theParams);
-			Class<?> pointcutReturnType = thePointcut.getReturnType();
-			if (pointcutReturnType.equals(getBooleanReturnType())) {
+			if (booleanReturnType) {
 				Boolean nextOutcomeAsBoolean = (Boolean) nextOutcome;
 				if (Boolean.FALSE.equals(nextOutcomeAsBoolean)) {
 					ourLog.trace("callHooks({}) for invoker({}) returned false", thePointcut, nextInvoker);
@@ -305,7 +339,7 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 				} else {
 					theRetVal = true;
 				}
-			} else if (!pointcutReturnType.equals(void.class)) {
+			} else if (!voidReturnType) {
 				if (nextOutcome != null) {
 					theRetVal = nextOutcome;
 					break;
@@ -324,20 +358,14 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	}
 
 	/**
-	 * Returns an ordered list of invokers for the given pointcut. Note that
-	 * a new and stable list is returned to.. do whatever you want with it.
+	 * Returns an ordered and unmodifiable list of invokers for the given pointcut
 	 */
 	private List<BaseInvoker> getInvokersForPointcut(POINTCUT thePointcut) {
-		List<BaseInvoker> invokers;
-
-		synchronized (myRegistryMutex) {
-			List<BaseInvoker> globalInvokers = myGlobalInvokers.get(thePointcut);
-			List<BaseInvoker> anonymousInvokers = myAnonymousInvokers.get(thePointcut);
-			List<BaseInvoker> threadLocalInvokers = null;
-			invokers = union(globalInvokers, anonymousInvokers, threadLocalInvokers);
+		BaseInvoker[] invokers = myInvokersByPointcut.get(thePointcut);
+		if (invokers == null) {
+			return Collections.emptyList();
 		}
-
-		return invokers;
+		return Collections.unmodifiableList(Arrays.asList(invokers));
 	}
 
 	/**
@@ -486,7 +514,9 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	private class HookInvoker extends BaseInvoker {
 
 		private final Method myMethod;
+		private final MethodHandle myMethodHandle;
 		private final Class<?>[] myParameterTypes;
+		private final Class<?>[] myBoxedParameterTypes;
 		private final int[] myParameterIndexes;
 		private final POINTCUT myPointcut;
 
@@ -517,13 +547,37 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 			}
 
 			myParameterIndexes = new int[myParameterTypes.length];
+			myBoxedParameterTypes = new Class<?>[myParameterTypes.length];
 			Map<Class<?>, AtomicInteger> typeToCount = new HashMap<>();
 			for (int i = 0; i < myParameterTypes.length; i++) {
+				myBoxedParameterTypes[i] = ClassUtils.primitiveToWrapper(myParameterTypes[i]);
 				AtomicInteger counter = typeToCount.computeIfAbsent(myParameterTypes[i], t -> new AtomicInteger(0));
 				myParameterIndexes[i] = counter.getAndIncrement();
 			}
 
 			myMethod.setAccessible(true);
+			myMethodHandle = createMethodHandle(theHookMethod, myParameterTypes.length);
+		}
+
+		/**
+		 * Creates a handle with the signature <code>(Object interceptor, Object[] args)Object</code>
+		 * so that every hook can be invoked through the same call site. Void methods return
+		 * <code>null</code> and primitive return values are boxed. Static hook methods ignore
+		 * the interceptor argument.
+		 */
+		private MethodHandle createMethodHandle(Method theHookMethod, int theParameterCount) {
+			MethodHandle retVal;
+			try {
+				retVal = MethodHandles.lookup().unreflect(theHookMethod);
+			} catch (IllegalAccessException e) {
+				throw new InternalErrorException(
+						Msg.code(2545) + "Unable to access interceptor hook method: " + theHookMethod, e);
+			}
+			retVal = retVal.asSpreader(Object[].class, theParameterCount);
+			if (Modifier.isStatic(theHookMethod.getModifiers())) {
+				retVal = MethodHandles.dropArguments(retVal, 0, Object.class);
+			}
+			return retVal.asType(HOOK_INVOKER_TYPE);
 		}
 
 		@Override
@@ -553,13 +607,18 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 					Object nextParamValue = theParams.get(nextParamType, nextParamIndex);
 					args[i] = nextParamValue;
 				}
+				if (!isAssignableToParameter(i, args[i])) {
+					throw new InternalErrorException(
+							Msg.code(2569) + "Argument type mismatch for parameter " + i + " of " + myMethod);
+				}
 			}
 
 			// Invoke the method
 			try {
 				return invokeMethod(args);
-			} catch (InvocationTargetException e) {
-				Throwable targetException = e.getTargetException();
+			} catch (WrongMethodTypeException e) {
+				throw new InternalErrorException(Msg.code(1911) + e);
+			} catch (Throwable targetException) {
 				if (myPointcut.isShouldLogAndSwallowException(targetException)) {
 					ourLog.error("Exception thrown by interceptor: " + targetException.toString(), targetException);
 					return null;
@@ -572,13 +631,22 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 							Msg.code(1910) + "Failure invoking interceptor for pointcut(s) " + getPointcut(),
 							targetException);
 				}
-			} catch (Exception e) {
-				throw new InternalErrorException(Msg.code(1911) + e);
 			}
 		}
 
+		/**
+		 * Method handles don't reject invalid arguments before calling the hook the way
+		 * {@link Method#invoke(Object, Object...)} does, so they are checked here
+		 */
+		private boolean isAssignableToParameter(int theIndex, Object theValue) {
+			if (theValue == null) {
+				return !myParameterTypes[theIndex].isPrimitive();
+			}
+			return myBoxedParameterTypes[theIndex].isInstance(theValue);
+		}
+
 		@WithSpan("hapifhir.interceptor")
-		private Object invokeMethod(Object[] args) throws InvocationTargetException, IllegalAccessException {
+		private Object invokeMethod(Object[] args) throws Throwable {
 			// Add attributes to the opentelemetry span
 			Span currentSpan = Span.current();
 			currentSpan.setAttribute(OTEL_INTERCEPTOR_POINTCUT_NAME_ATT_KEY, myPointcut.name());
@@ -587,7 +655,7 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 					myMethod.getDeclaringClass().getName());
 			currentSpan.setAttribute(OTEL_INTERCEPTOR_METHOD_NAME_ATT_KEY, myMethod.getName());
 
-			return myMethod.invoke(getInterceptor(), args);
+			return (Object) myMethodHandle.invokeExact(getInterceptor(), args);
 		}
 	}
 
@@ -236,6 +236,10 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 
 	@Override
 	public <T extends IBaseResource> T doParseResource(Class<T> theResourceType, Reader theReader) {
+		if (getContext().getParserOptions().isUseStreamingJsonParser()) {
+			return new JsonStreamingParser(this, theReader).parseResource(theResourceType);
+		}
+
 		JsonLikeStructure jsonStructure = new JacksonStructure();
 		jsonStructure.load(theReader);
 
@@ -246,7 +250,10 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 
 	public <T extends IBaseResource> T doParseResource(Class<T> theResourceType, JsonLikeStructure theJsonStructure) {
 		BaseJsonLikeObject object = theJsonStructure.getRootObject();
+		return doParseResource(theResourceType, object);
+	}
 
+	<T extends IBaseResource> T doParseResource(Class<T> theResourceType, BaseJsonLikeObject object) {
 		BaseJsonLikeValue resourceTypeObj = object.get("resourceType");
 		if (resourceTypeObj == null || !resourceTypeObj.isString() || isBlank(resourceTypeObj.getAsString())) {
 			throw new DataFormatException(
@@ -797,7 +804,7 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 		}
 	}
 
-	private boolean isSupportsFhirComment() {
+	boolean isSupportsFhirComment() {
 		if (myIsSupportsFhirComment == null) {
 			myIsSupportsFhirComment = !getContext().getVersion().getVersion().isNewerThan(FhirVersionEnum.DSTU2_1);
 		}
@@ -1243,7 +1250,7 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 		return object.getAsArray();
 	}
 
-	private void parseAlternates(
+	void parseAlternates(
 			BaseJsonLikeValue theAlternateVal,
 			ParserState<?> theState,
 			String theElementName,
@@ -1305,7 +1312,7 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 		}
 	}
 
-	private void parseChildren(BaseJsonLikeObject theObject, ParserState<?> theState) {
+	void parseChildren(BaseJsonLikeObject theObject, ParserState<?> theState) {
 		int allUnderscoreNames = 0;
 		int handledUnderscoreNames = 0;
 
@@ -1388,7 +1395,7 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 		}
 	}
 
-	private void parseChildren(
+	void parseChildren(
 			ParserState<?> theState,
 			String theName,
 			BaseJsonLikeValue theJsonVal,
@@ -1466,89 +1473,93 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 	}
 
 	private void parseExtension(ParserState<?> theState, BaseJsonLikeArray theValues, boolean theIsModifier) {
+		for (int i = 0; i < theValues.size(); i++) {
+			BaseJsonLikeObject nextExtObj = BaseJsonLikeValue.asObject(theValues.get(i));
+			parseExtension(theState, nextExtObj, theIsModifier);
+		}
+	}
+
+	void parseExtension(ParserState<?> theState, BaseJsonLikeObject theExtension, boolean theIsModifier) {
 		int allUnderscoreNames = 0;
 		int handledUnderscoreNames = 0;
 
-		for (int i = 0; i < theValues.size(); i++) {
-			BaseJsonLikeObject nextExtObj = BaseJsonLikeValue.asObject(theValues.get(i));
-			BaseJsonLikeValue jsonElement = nextExtObj.get("url");
-			String url;
-			if (null == jsonElement || !(jsonElement.isScalar())) {
-				String parentElementName;
-				if (theIsModifier) {
-					parentElementName = "modifierExtension";
-				} else {
-					parentElementName = "extension";
-				}
-				getErrorHandler()
-						.missingRequiredElement(new ParseLocation().setParentElementName(parentElementName), "url");
-				url = null;
+		BaseJsonLikeValue jsonElement = theExtension.get("url");
+		String url;
+		if (null == jsonElement || !(jsonElement.isScalar())) {
+			String parentElementName;
+			if (theIsModifier) {
+				parentElementName = "modifierExtension";
 			} else {
-				url = getExtensionUrl(jsonElement.getAsString());
+				parentElementName = "extension";
 			}
-			theState.enteringNewElementExtension(null, url, theIsModifier, getServerBaseUrl());
-			for (Iterator<String> keyIter = nextExtObj.keyIterator(); keyIter.hasNext(); ) {
-				String next = keyIter.next();
-				if ("url".equals(next)) {
-					continue;
-				} else if ("extension".equals(next)) {
-					BaseJsonLikeArray jsonVal = BaseJsonLikeValue.asArray(nextExtObj.get(next));
-					parseExtension(theState, jsonVal, false);
-				} else if ("modifierExtension".equals(next)) {
-					BaseJsonLikeArray jsonVal = BaseJsonLikeValue.asArray(nextExtObj.get(next));
-					parseExtension(theState, jsonVal, true);
-				} else if (next.charAt(0) == '_') {
-					allUnderscoreNames++;
-					continue;
-				} else {
-					BaseJsonLikeValue jsonVal = nextExtObj.get(next);
-					String alternateName = '_' + next;
-					BaseJsonLikeValue alternateVal = nextExtObj.get(alternateName);
-					if (alternateVal != null) {
-						handledUnderscoreNames++;
-					}
-					parseChildren(theState, next, jsonVal, alternateVal, alternateName, false);
+			getErrorHandler()
+					.missingRequiredElement(new ParseLocation().setParentElementName(parentElementName), "url");
+			url = null;
+		} else {
+			url = getExtensionUrl(jsonElement.getAsString());
+		}
+		theState.enteringNewElementExtension(null, url, theIsModifier, getServerBaseUrl());
+		for (Iterator<String> keyIter = theExtension.keyIterator(); keyIter.hasNext(); ) {
+			String next = keyIter.next();
+			if ("url".equals(next)) {
+				continue;
+			} else if ("extension".equals(next)) {
+				BaseJsonLikeArray jsonVal = BaseJsonLikeValue.asArray(theExtension.get(next));
+				parseExtension(theState, jsonVal, false);
+			} else if ("modifierExtension".equals(next)) {
+				BaseJsonLikeArray jsonVal = BaseJsonLikeValue.asArray(theExtension.get(next));
+				parseExtension(theState, jsonVal, true);
+			} else if (next.charAt(0) == '_') {
+				allUnderscoreNames++;
+				continue;
+			} else {
+				BaseJsonLikeValue jsonVal = theExtension.get(next);
+				String alternateName = '_' + next;
+				BaseJsonLikeValue alternateVal = theExtension.get(alternateName);
+				if (alternateVal != null) {
+					handledUnderscoreNames++;
 				}
+				parseChildren(theState, next, jsonVal, alternateVal, alternateName, false);
 			}
+		}
 
-			/*
-			 * This happens if an element has an extension but no actual value. I.e.
-			 * if a resource has a "_status" element but no corresponding "status"
-			 * element. This could be used to handle a null value with an extension
-			 * for example.
-			 */
-			if (allUnderscoreNames > handledUnderscoreNames) {
-				for (Iterator<String> keyIter = nextExtObj.keyIterator(); keyIter.hasNext(); ) {
-					String alternateName = keyIter.next();
-					if (alternateName.startsWith("_") && alternateName.length() > 1) {
-						BaseJsonLikeValue nextValue = nextExtObj.get(alternateName);
-						if (nextValue != null) {
-							if (nextValue.isObject()) {
-								String nextName = alternateName.substring(1);
-								if (nextExtObj.get(nextName) == null) {
-									theState.enteringNewElement(null, nextName);
-									parseAlternates(nextValue, theState, alternateName, alternateName);
-									theState.endingElement();
-								}
-							} else {
-								getErrorHandler()
-										.incorrectJsonType(
-												null,
-												alternateName,
-												ValueType.OBJECT,
-												null,
-												nextValue.getJsonType(),
-												null);
+		/*
+		 * This happens if an element has an extension but no actual value. I.e.
+		 * if a resource has a "_status" element but no corresponding "status"
+		 * element. This could be used to handle a null value with an extension
+		 * for example.
+		 */
+		if (allUnderscoreNames > handledUnderscoreNames) {
+			for (Iterator<String> keyIter = theExtension.keyIterator(); keyIter.hasNext(); ) {
+				String alternateName = keyIter.next();
+				if (alternateName.startsWith("_") && alternateName.length() > 1) {
+					BaseJsonLikeValue nextValue = theExtension.get(alternateName);
+					if (nextValue != null) {
+						if (nextValue.isObject()) {
+							String nextName = alternateName.substring(1);
+							if (theExtension.get(nextName) == null) {
+								theState.enteringNewElement(null, nextName);
+								parseAlternates(nextValue, theState, alternateName, alternateName);
+								theState.endingElement();
 							}
+						} else {
+							getErrorHandler()
+									.incorrectJsonType(
+											null,
+											alternateName,
+											ValueType.OBJECT,
+											null,
+											nextValue.getJsonType(),
+											null);
 						}
 					}
 				}
 			}
-			theState.endingElement();
 		}
+		theState.endingElement();
 	}
 
-	private void parseFhirComments(BaseJsonLikeValue theObject, ParserState<?> theState) {
+	void parseFhirComments(BaseJsonLikeValue theObject, ParserState<?> theState) {
 		if (isSupportsFhirComment()) {
 			if (theObject.isArray()) {
 				BaseJsonLikeArray comments = theObject.getAsArray();
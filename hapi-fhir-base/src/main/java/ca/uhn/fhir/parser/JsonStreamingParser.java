@@ -0,0 +1,379 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.parser.json.BaseJsonLikeArray;
+import ca.uhn.fhir.parser.json.BaseJsonLikeObject;
+import ca.uhn.fhir.parser.json.BaseJsonLikeValue;
+import ca.uhn.fhir.parser.json.BaseJsonLikeValue.ScalarType;
+import ca.uhn.fhir.parser.json.BaseJsonLikeValue.ValueType;
+import ca.uhn.fhir.parser.json.jackson.JacksonStructure;
+import com.fasterxml.jackson.core.JsonToken;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Builds the resource model by driving a {@link ParserState} directly from the Jackson token
+ * stream, instead of first loading the whole document into a {@link ca.uhn.fhir.parser.json.JsonLikeStructure}.
+ * Complex elements are handed to the model as soon as they are read, so a large Bundle is never held
+ * in memory twice.
+ * <p>
+ * Primitive values are buffered until their parent object closes, since the <code>_name</code>
+ * property holding their id and extensions may appear anywhere in that object. An object which can't
+ * be streamed (a resource whose first property is not <code>resourceType</code>, or an extension whose
+ * first property is not <code>url</code>) is read into a tree and handed to the regular
+ * {@link JsonParser} logic. A <code>_name</code> property for a complex element is only honoured if
+ * it precedes the element itself.
+ * </p>
+ *
+ * @see ca.uhn.fhir.context.ParserOptions#setUseStreamingJsonParser(boolean)
+ */
+class JsonStreamingParser {
+
+	private final JsonParser myParser;
+	private final com.fasterxml.jackson.core.JsonParser myJson;
+
+	JsonStreamingParser(JsonParser theParser, Reader theReader) {
+		myParser = theParser;
+		myJson = JacksonStructure.createStreamingParser(theReader);
+	}
+
+	<T extends IBaseResource> T parseResource(Class<T> theResourceType) {
+		try {
+			T retVal = doParseResource(theResourceType);
+
+			JsonToken trailingToken = myJson.nextToken();
+			if (trailingToken != null) {
+				throw new DataFormatException(Msg.code(2564)
+						+ "Failed to parse JSON encoded FHIR content: Trailing token (of type " + trailingToken
+						+ ") found after resource");
+			}
+
+			return retVal;
+		} catch (IOException e) {
+			throw JacksonStructure.toDataFormatException(e);
+		} finally {
+			try {
+				myJson.close();
+			} catch (IOException e) {
+				// ignore, the underlying reader is not closed by the parser
+			}
+		}
+	}
+
+	private <T extends IBaseResource> T doParseResource(Class<T> theResourceType) throws IOException {
+		myJson.nextToken();
+
+		JsonToken token = myJson.nextToken();
+		if (token != JsonToken.FIELD_NAME || !"resourceType".equals(myJson.currentName())) {
+			BaseJsonLikeObject object = JacksonStructure.readRemainingFields(myJson);
+			return myParser.doParseResource(theResourceType, object);
+		}
+
+		String resourceType = null;
+		if (myJson.nextToken() == JsonToken.VALUE_STRING) {
+			resourceType = myJson.getText();
+		}
+		if (isBlank(resourceType)) {
+			throw new DataFormatException(
+					Msg.code(2565) + "Invalid JSON content detected, missing required element: 'resourceType'");
+		}
+
+		ParserState<? extends IBaseResource> state = ParserState.getPreResourceInstance(
+				myParser, theResourceType, myParser.getContext(), true, myParser.getErrorHandler());
+		state.enteringNewElement(null, resourceType);
+
+		parseChildren(state, false);
+
+		state.endingElement();
+		state.endingElement();
+
+		@SuppressWarnings("unchecked")
+		T retVal = (T) state.getObject();
+
+		return retVal;
+	}
+
+	/**
+	 * Reads the properties of the object the stream is positioned in, up to and including its
+	 * closing token.
+	 */
+	private void parseChildren(ParserState<?> theState, boolean theExtension) throws IOException {
+		List<String> childNames = null;
+		List<String> primitiveNames = null;
+		List<BaseJsonLikeValue> primitiveValues = null;
+		Map<String, BaseJsonLikeValue> alternates = Collections.emptyMap();
+
+		while (myJson.nextToken() == JsonToken.FIELD_NAME) {
+			String name = myJson.currentName();
+			JsonToken token = myJson.nextToken();
+
+			if (theExtension) {
+				if ("url".equals(name)) {
+					myJson.skipChildren();
+					continue;
+				}
+			} else if ("resourceType".equals(name)) {
+				if (theState.isToplevelResourceElement()) {
+					myJson.skipChildren();
+					continue;
+				}
+			} else if ("fhir_comments".equals(name)) {
+				myParser.parseFhirComments(JacksonStructure.readValue(myJson), theState);
+				continue;
+			}
+
+			if ("extension".equals(name)) {
+				parseExtensions(theState, name, false);
+				continue;
+			} else if ("modifierExtension".equals(name)) {
+				parseExtensions(theState, name, true);
+				continue;
+			} else if (name.startsWith("_")) {
+				if (alternates.isEmpty()) {
+					alternates = new LinkedHashMap<>();
+				}
+				alternates.put(name, JacksonStructure.readValue(myJson));
+				continue;
+			}
+
+			if (childNames == null) {
+				childNames = new ArrayList<>();
+			}
+			childNames.add(name);
+
+			if (token == JsonToken.START_OBJECT) {
+				parseObject(theState, name, alternates.get('_' + name), false);
+				continue;
+			}
+
+			BaseJsonLikeValue value;
+			if (token == JsonToken.START_ARRAY) {
+				if (myJson.nextToken() == JsonToken.START_OBJECT) {
+					parseArray(theState, name, alternates.get('_' + name));
+					continue;
+				}
+				value = JacksonStructure.readRemainingElements(myJson);
+			} else {
+				value = JacksonStructure.readValue(myJson);
+			}
+
+			if (primitiveNames == null) {
+				primitiveNames = new ArrayList<>();
+				primitiveValues = new ArrayList<>();
+			}
+			primitiveNames.add(name);
+			primitiveValues.add(value);
+		}
+
+		if (primitiveNames != null) {
+			for (int i = 0; i < primitiveNames.size(); i++) {
+				String name = primitiveNames.get(i);
+				String alternateName = '_' + name;
+				myParser.parseChildren(
+						theState, name, primitiveValues.get(i), alternates.get(alternateName), alternateName, false);
+			}
+		}
+
+		/*
+		 * This happens if an element has an extension but no actual value. I.e.
+		 * if a resource has a "_status" element but no corresponding "status"
+		 * element. This could be used to handle a null value with an extension
+		 * for example.
+		 */
+		for (Map.Entry<String, BaseJsonLikeValue> nextAlternate : alternates.entrySet()) {
+			String alternateName = nextAlternate.getKey();
+			if (alternateName.length() <= 1) {
+				continue;
+			}
+			String nextName = alternateName.substring(1);
+			if (childNames != null && childNames.contains(nextName)) {
+				continue;
+			}
+
+			BaseJsonLikeValue nextValue = nextAlternate.getValue();
+			if (nextValue.isObject()) {
+				theState.enteringNewElement(null, nextName);
+				myParser.parseAlternates(nextValue, theState, alternateName, alternateName);
+				theState.endingElement();
+			} else {
+				myParser.getErrorHandler()
+						.incorrectJsonType(null, alternateName, ValueType.OBJECT, null, nextValue.getJsonType(), null);
+			}
+		}
+	}
+
+	/**
+	 * Reads an object valued element, with the stream positioned on its opening token
+	 */
+	private void parseObject(
+			ParserState<?> theState, String theName, BaseJsonLikeValue theAlternateVal, boolean theInArray)
+			throws IOException {
+		if ("id".equals(theName)) {
+			myParser.getErrorHandler()
+					.incorrectJsonType(null, "id", ValueType.SCALAR, ScalarType.STRING, ValueType.OBJECT, null);
+		}
+		if (!theInArray && theState.elementIsRepeating(theName)) {
+			myParser.getErrorHandler().incorrectJsonType(null, theName, ValueType.ARRAY, null, ValueType.OBJECT, null);
+		}
+
+		String alternateName = '_' + theName;
+		theState.enteringNewElement(null, theName);
+		myParser.parseAlternates(theAlternateVal, theState, alternateName, alternateName);
+		if (theState.isPreResource()) {
+			parseContainedResource(theState);
+		} else {
+			parseChildren(theState, false);
+		}
+		theState.endingElement();
+	}
+
+	private void parseContainedResource(ParserState<?> theState) throws IOException {
+		JsonToken token = myJson.nextToken();
+		if (token == JsonToken.FIELD_NAME && "resourceType".equals(myJson.currentName())) {
+			if (myJson.nextToken() != JsonToken.VALUE_STRING) {
+				throw new DataFormatException(Msg.code(2566)
+						+ "Missing required element 'resourceType' from JSON resource object, unable to parse");
+			}
+			theState.enteringNewElement(null, myJson.getText());
+			parseChildren(theState, false);
+		} else {
+			BaseJsonLikeObject object = JacksonStructure.readRemainingFields(myJson);
+			BaseJsonLikeValue resourceType = object.get("resourceType");
+			if (resourceType == null || !resourceType.isString()) {
+				throw new DataFormatException(Msg.code(2567)
+						+ "Missing required element 'resourceType' from JSON resource object, unable to parse");
+			}
+			theState.enteringNewElement(null, resourceType.getAsString());
+			myParser.parseChildren(object, theState);
+		}
+		theState.endingElement();
+	}
+
+	/**
+	 * Reads an array whose first element is an object, with the stream positioned on the
+	 * opening token of that first element
+	 */
+	private void parseArray(ParserState<?> theState, String theName, BaseJsonLikeValue theAlternateVal)
+			throws IOException {
+		String alternateName = '_' + theName;
+		if ("id".equals(theName)) {
+			myParser.getErrorHandler()
+					.incorrectJsonType(null, "id", ValueType.SCALAR, ScalarType.STRING, ValueType.ARRAY, null);
+		}
+
+		BaseJsonLikeValue alternateVal = theAlternateVal;
+		if (alternateVal != null && !alternateVal.isArray()) {
+			myParser.getErrorHandler()
+					.incorrectJsonType(null, alternateName, ValueType.ARRAY, null, alternateVal.getJsonType(), null);
+			alternateVal = null;
+		}
+		BaseJsonLikeArray alternateArray = BaseJsonLikeValue.asArray(alternateVal); // could be null
+
+		int index = 0;
+		for (JsonToken token = myJson.currentToken(); token != JsonToken.END_ARRAY; token = myJson.nextToken()) {
+			BaseJsonLikeValue nextAlternate = null;
+			if (alternateArray != null && alternateArray.size() > index) {
+				nextAlternate = alternateArray.get(index);
+			}
+			if (token == JsonToken.START_OBJECT) {
+				parseObject(theState, theName, nextAlternate, true);
+			} else {
+				BaseJsonLikeValue nextValue = JacksonStructure.readValue(myJson);
+				myParser.parseChildren(theState, theName, nextValue, nextAlternate, alternateName, true);
+			}
+			index++;
+		}
+	}
+
+	/**
+	 * Reads an <code>extension</code> or <code>modifierExtension</code> array, with the stream
+	 * positioned on its opening token
+	 */
+	private void parseExtensions(ParserState<?> theState, String theName, boolean theIsModifier) throws IOException {
+		JsonToken token = myJson.currentToken();
+		if (token == JsonToken.VALUE_NULL) {
+			return;
+		}
+		if (token != JsonToken.START_ARRAY) {
+			throw new DataFormatException(
+					Msg.code(2568) + "Syntax error parsing JSON FHIR structure: Expected ARRAY at element '" + theName
+							+ "', found '" + toValueType(token) + "'");
+		}
+
+		while ((token = myJson.nextToken()) != JsonToken.END_ARRAY) {
+			if (token == JsonToken.START_OBJECT) {
+				parseExtension(theState, theIsModifier);
+			} else {
+				myParser.getErrorHandler()
+						.incorrectJsonType(null, theName, ValueType.OBJECT, null, toValueType(token), null);
+				myJson.skipChildren();
+			}
+		}
+	}
+
+	private void parseExtension(ParserState<?> theState, boolean theIsModifier) throws IOException {
+		JsonToken token = myJson.nextToken();
+		if (token != JsonToken.FIELD_NAME || !"url".equals(myJson.currentName())) {
+			BaseJsonLikeObject extension = JacksonStructure.readRemainingFields(myJson);
+			myParser.parseExtension(theState, extension, theIsModifier);
+			return;
+		}
+
+		myJson.nextToken();
+		BaseJsonLikeValue urlValue = JacksonStructure.readValue(myJson);
+		String url;
+		if (urlValue.isScalar()) {
+			url = myParser.getExtensionUrl(urlValue.getAsString());
+		} else {
+			String parentElementName = theIsModifier ? "modifierExtension" : "extension";
+			myParser.getErrorHandler()
+					.missingRequiredElement(new ParseLocation().setParentElementName(parentElementName), "url");
+			url = null;
+		}
+
+		theState.enteringNewElementExtension(null, url, theIsModifier, myParser.getServerBaseUrl());
+		parseChildren(theState, true);
+		theState.endingElement();
+	}
+
+	private static ValueType toValueType(JsonToken theToken) {
+		switch (theToken) {
+			case START_OBJECT:
+				return ValueType.OBJECT;
+			case START_ARRAY:
+				return ValueType.ARRAY;
+			case VALUE_NULL:
+				return ValueType.NULL;
+			default:
+				return ValueType.SCALAR;
+		}
+	}
+}
@@ -284,6 +284,53 @@ public class InterceptorServiceTest {
 		assertThat(interceptor1.myLastString1).isSameAs("B");
 	}
 
+	@Test
+	public void testInvokeGlobalAndAnonymousInterceptorMethods_RegisteredDuringInvocation() {
+		InterceptorService svc = new InterceptorService();
+
+		MyTestInterceptorTwo interceptor2 = new MyTestInterceptorTwo();
+		MyTestAnonymousInterceptorOne anonymousInterceptor = new MyTestAnonymousInterceptorOne();
+		svc.registerAnonymousInterceptor(Pointcut.TEST_RB, 200, anonymousInterceptor);
+		svc.registerAnonymousInterceptor(Pointcut.TEST_RB, 50, (thePointcut, theArgs) -> svc.registerInterceptor(interceptor2));
+		svc.registerInterceptor(new MyTestInterceptorOne());
+
+		// The interceptor registered while invoking should only be called the next time around
+		assertTrue(svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B")));
+		assertThat(myInvocations).containsExactly("MyTestInterceptorOne.testRb", "MyTestAnonymousInterceptorOne.testRb");
+
+		myInvocations.clear();
+		assertTrue(svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B")));
+		assertThat(myInvocations).containsExactly("MyTestInterceptorOne.testRb", "MyTestAnonymousInterceptorOne.testRb", "MyTestInterceptorTwo.testRb");
+
+		myInvocations.clear();
+		svc.unregisterInterceptor(anonymousInterceptor);
+		assertTrue(svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B")));
+		assertThat(myInvocations).containsExactly("MyTestInterceptorOne.testRb", "MyTestInterceptorTwo.testRb");
+	}
+
+	@Test
+	public void testInvokeStaticHookMethod() {
+		InterceptorService svc = new InterceptorService();
+		MyStaticHookInterceptor.ourLastString0 = null;
+		svc.registerInterceptor(new MyStaticHookInterceptor());
+
+		assertTrue(svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B")));
+		assertEquals("A", MyStaticHookInterceptor.ourLastString0);
+	}
+
+	@Test
+	public void testInvokeHookWithInvalidArgument() {
+		InterceptorService svc = new InterceptorService();
+		svc.registerInterceptor(new MyPrimitiveParamInterceptor());
+
+		try {
+			svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B"));
+			fail();
+		} catch (InternalErrorException e) {
+			assertThat(e.getMessage()).startsWith(Msg.code(2569) + "Argument type mismatch for parameter 0");
+		}
+	}
+
 	@Test
 	public void testInvokeUsingSupplierArg() {
 		InterceptorService svc = new InterceptorService();
@@ -653,6 +700,23 @@ public class InterceptorServiceTest {
 		}
 	}
 
+	public static class MyStaticHookInterceptor {
+		private static String ourLastString0;
+
+		@Hook(Pointcut.TEST_RB)
+		public static boolean testRb(String theString0) {
+			ourLastString0 = theString0;
+			return true;
+		}
+	}
+
+	public static class MyPrimitiveParamInterceptor {
+		@Hook(Pointcut.TEST_RB)
+		public boolean testRb(int theValue) {
+			return true;
+		}
+	}
+
 	public class MyTestAnonymousInterceptorOne implements IAnonymousInterceptor {
 		private String myLastString0;
 		@Override
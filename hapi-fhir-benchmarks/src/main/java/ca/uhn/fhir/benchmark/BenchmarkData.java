@@ -0,0 +1,177 @@
+/*-
+ * #%L
+ * HAPI FHIR - JMH Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmark;
+
+import org.hl7.fhir.r4.model.Address;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.CodeType;
+import org.hl7.fhir.r4.model.CodeableConcept;
+import org.hl7.fhir.r4.model.ContactPoint;
+import org.hl7.fhir.r4.model.DateTimeType;
+import org.hl7.fhir.r4.model.DateType;
+import org.hl7.fhir.r4.model.Enumerations;
+import org.hl7.fhir.r4.model.ExplanationOfBenefit;
+import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.Money;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Quantity;
+import org.hl7.fhir.r4.model.Reference;
+
+import java.math.BigDecimal;
+
+/**
+ * Builds synthetic but realistically shaped R4 resources for the benchmarks, so that
+ * no fixture files or network access are required.
+ */
+public final class BenchmarkData {
+
+	private BenchmarkData() {
+		// nothing
+	}
+
+	/**
+	 * Creates a transaction Bundle with one Patient and <code>theObservationsPerPatient</code>
+	 * Observations plus one ExplanationOfBenefit for each of <code>thePatientCount</code> patients.
+	 */
+	public static Bundle createTransactionBundle(int thePatientCount, int theObservationsPerPatient) {
+		Bundle retVal = new Bundle();
+		retVal.setType(Bundle.BundleType.TRANSACTION);
+
+		for (int i = 0; i < thePatientCount; i++) {
+			String patientFullUrl = "urn:uuid:patient-" + i;
+			Patient patient = createPatient(i);
+			retVal.addEntry()
+					.setFullUrl(patientFullUrl)
+					.setResource(patient)
+					.getRequest()
+					.setMethod(Bundle.HTTPVerb.POST)
+					.setUrl("Patient");
+
+			for (int j = 0; j < theObservationsPerPatient; j++) {
+				Observation observation = createObservation(j);
+				observation.setSubject(new Reference(patientFullUrl));
+				retVal.addEntry()
+						.setFullUrl("urn:uuid:observation-" + i + "-" + j)
+						.setResource(observation)
+						.getRequest()
+						.setMethod(Bundle.HTTPVerb.POST)
+						.setUrl("Observation");
+			}
+
+			ExplanationOfBenefit eob = createExplanationOfBenefit(i);
+			eob.setPatient(new Reference(patientFullUrl));
+			retVal.addEntry()
+					.setFullUrl("urn:uuid:eob-" + i)
+					.setResource(eob)
+					.getRequest()
+					.setMethod(Bundle.HTTPVerb.POST)
+					.setUrl("ExplanationOfBenefit");
+		}
+
+		return retVal;
+	}
+
+	public static Patient createPatient(int theIndex) {
+		Patient retVal = new Patient();
+		retVal.getMeta().addProfile("http://hl7.org/fhir/us/core/StructureDefinition/us-core-patient");
+		retVal.addIdentifier()
+				.setUse(Identifier.IdentifierUse.USUAL)
+				.setSystem("http://hospital.example.org/mrn")
+				.setValue("MRN" + theIndex);
+		retVal.addName()
+				.setFamily("Family" + theIndex)
+				.addGiven("Given" + theIndex)
+				.addGiven("Middle")
+				.addPrefix("Mr.");
+		retVal.setGender(Enumerations.AdministrativeGender.MALE);
+		retVal.setBirthDateElement(new DateType("1970-01-" + (10 + theIndex % 18)));
+		retVal.addTelecom()
+				.setSystem(ContactPoint.ContactPointSystem.PHONE)
+				.setValue("555-000-" + theIndex);
+		retVal.addAddress()
+				.setUse(Address.AddressUse.HOME)
+				.addLine(theIndex + " Main Street")
+				.setCity("Toronto")
+				.setState("ON")
+				.setPostalCode("M5V 2T6")
+				.setCountry("CA");
+		retVal.addExtension(
+				"http://hl7.org/fhir/us/core/StructureDefinition/us-core-birthsex",
+				new CodeType("M"));
+		return retVal;
+	}
+
+	public static Observation createObservation(int theIndex) {
+		Observation retVal = new Observation();
+		retVal.setStatus(Observation.ObservationStatus.FINAL);
+		retVal.addCategory(new CodeableConcept()
+				.addCoding()
+				.setSystem("http://terminology.hl7.org/CodeSystem/observation-category")
+				.setCode("vital-signs"));
+		retVal.getCode()
+				.addCoding()
+				.setSystem("http://loinc.org")
+				.setCode("8867-4")
+				.setDisplay("Heart rate");
+		retVal.setEffective(new DateTimeType("2023-05-0" + (1 + theIndex % 9) + "T10:00:00Z"));
+		retVal.setValue(new Quantity()
+				.setValue(60 + theIndex % 40)
+				.setUnit("beats/minute")
+				.setSystem("http://unitsofmeasure.org")
+				.setCode("/min"));
+		retVal.addComponent()
+				.setCode(new CodeableConcept()
+						.addCoding()
+						.setSystem("http://loinc.org")
+						.setCode("8480-6"))
+				.setValue(new Quantity()
+						.setValue(120)
+						.setSystem("http://unitsofmeasure.org")
+						.setCode("mm[Hg]"));
+		return retVal;
+	}
+
+	public static ExplanationOfBenefit createExplanationOfBenefit(int theIndex) {
+		ExplanationOfBenefit retVal = new ExplanationOfBenefit();
+		retVal.setStatus(ExplanationOfBenefit.ExplanationOfBenefitStatus.ACTIVE);
+		retVal.addIdentifier().setSystem("http://payer.example.org/claim").setValue("CLAIM" + theIndex);
+		retVal.getType()
+				.addCoding()
+				.setSystem("http://terminology.hl7.org/CodeSystem/claim-type")
+				.setCode("professional");
+		retVal.setUse(ExplanationOfBenefit.Use.CLAIM);
+		retVal.setCreatedElement(new DateTimeType("2023-06-01T00:00:00Z"));
+		retVal.setInsurer(new Reference("Organization/payer"));
+		retVal.setProvider(new Reference("Practitioner/provider-" + theIndex));
+		retVal.setOutcome(ExplanationOfBenefit.RemittanceOutcome.COMPLETE);
+		for (int i = 0; i < 10; i++) {
+			ExplanationOfBenefit.ItemComponent item = retVal.addItem();
+			item.setSequence(i + 1);
+			item.getProductOrService()
+					.addCoding()
+					.setSystem("http://www.ama-assn.org/go/cpt")
+					.setCode("9921" + i);
+			item.setServiced(new DateType("2023-05-15"));
+			item.setNet(new Money().setValue(new BigDecimal("125.00")).setCurrency("USD"));
+		}
+		return retVal;
+	}
+}
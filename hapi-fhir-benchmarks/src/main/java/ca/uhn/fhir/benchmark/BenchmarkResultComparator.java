@@ -0,0 +1,128 @@
+/*-
+ * #%L
+ * HAPI FHIR - JMH Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmark;
+
+import ca.uhn.fhir.i18n.Msg;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH result files (produced with <code>-rf json</code>) and logs the relative change
+ * of every benchmark present in both. Exits with a non-zero status if any benchmark regressed by
+ * more than the given threshold (in percent, default 10).
+ * <p>
+ * Usage: <code>BenchmarkResultComparator baseline.json current.json [thresholdPercent]</code>
+ * </p>
+ */
+public class BenchmarkResultComparator {
+	private static final Logger ourLog = LoggerFactory.getLogger(BenchmarkResultComparator.class);
+	private static final ObjectMapper ourObjectMapper = new ObjectMapper();
+
+	public static void main(String[] theArgs) throws IOException {
+		if (theArgs.length < 2) {
+			throw new IllegalArgumentException(
+					Msg.code(2547) + "Usage: BenchmarkResultComparator <baseline.json> <current.json> [thresholdPercent]");
+		}
+		double threshold = theArgs.length > 2 ? Double.parseDouble(theArgs[2]) : 10.0;
+
+		Map<String, Score> baseline = readScores(new File(theArgs[0]));
+		Map<String, Score> current = readScores(new File(theArgs[1]));
+
+		int regressions = 0;
+		for (Map.Entry<String, Score> next : current.entrySet()) {
+			Score before = baseline.get(next.getKey());
+			if (before == null) {
+				ourLog.info("{}: {} {} (no baseline)", next.getKey(), next.getValue().myScore, next.getValue().myUnit);
+				continue;
+			}
+			double change = percentWorse(before, next.getValue());
+			boolean regressed = change > threshold;
+			if (regressed) {
+				regressions++;
+			}
+			ourLog.info(
+					"{}: {} -> {} {} ({}{}%){}",
+					next.getKey(),
+					before.myScore,
+					next.getValue().myScore,
+					next.getValue().myUnit,
+					change > 0 ? "+" : "",
+					String.format("%.1f", change),
+					regressed ? " REGRESSION" : "");
+		}
+
+		if (regressions > 0) {
+			ourLog.error("{} benchmark(s) regressed by more than {}%", regressions, threshold);
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Returns how much worse the current score is than the baseline, in percent. For throughput
+	 * modes a lower score is worse, for time-based modes a higher score is worse.
+	 */
+	static double percentWorse(Score theBaseline, Score theCurrent) {
+		if (theBaseline.myScore == 0) {
+			return 0;
+		}
+		double delta = (theCurrent.myScore - theBaseline.myScore) / theBaseline.myScore * 100.0;
+		return "thrpt".equals(theCurrent.myMode) ? -delta : delta;
+	}
+
+	static Map<String, Score> readScores(File theFile) throws IOException {
+		Map<String, Score> retVal = new LinkedHashMap<>();
+		JsonNode root = ourObjectMapper.readTree(theFile);
+		for (JsonNode next : root) {
+			StringBuilder key = new StringBuilder(next.path("benchmark").asText());
+			JsonNode params = next.path("params");
+			params.fields().forEachRemaining(t -> key.append(' ')
+					.append(t.getKey())
+					.append('=')
+					.append(t.getValue().asText()));
+
+			JsonNode metric = next.path("primaryMetric");
+			Score score = new Score(
+					next.path("mode").asText(),
+					metric.path("score").asDouble(),
+					metric.path("scoreUnit").asText());
+			retVal.put(key.toString(), score);
+		}
+		return retVal;
+	}
+
+	static class Score {
+		private final String myMode;
+		private final double myScore;
+		private final String myUnit;
+
+		Score(String theMode, double theScore, String theUnit) {
+			myMode = theMode;
+			myScore = theScore;
+			myUnit = theUnit;
+		}
+	}
+}
@@ -0,0 +1,101 @@
+/*-
+ * #%L
+ * HAPI FHIR - JMH Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmark;
+
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.HookParams;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.interceptor.executor.InterceptorService;
+import ca.uhn.fhir.rest.api.server.IPreResourceShowDetails;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.api.server.SimplePreResourceShowDetails;
+import ca.uhn.fhir.rest.api.server.SystemRequestDetails;
+import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
+import org.hl7.fhir.r4.model.Patient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-call overhead of {@link InterceptorService} dispatch for a
+ * frequently invoked pointcut, with a varying number of registered interceptors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterceptorServiceBenchmark {
+
+	@Param({"0", "1", "15"})
+	public int myInterceptorCount;
+
+	private InterceptorService myInterceptorService;
+	private RequestDetails myRequestDetails;
+	private IPreResourceShowDetails myShowDetails;
+
+	@Setup
+	public void setup() {
+		myInterceptorService = new InterceptorService();
+		for (int i = 0; i < myInterceptorCount; i++) {
+			myInterceptorService.registerInterceptor(new CountingInterceptor());
+		}
+		myRequestDetails = new SystemRequestDetails();
+		myShowDetails = new SimplePreResourceShowDetails(new Patient().setActive(true));
+	}
+
+	@Benchmark
+	public boolean hasHooks() {
+		return myInterceptorService.hasHooks(Pointcut.STORAGE_PRESHOW_RESOURCES);
+	}
+
+	@Benchmark
+	public boolean callHooks() {
+		HookParams params = new HookParams()
+				.add(IPreResourceShowDetails.class, myShowDetails)
+				.add(RequestDetails.class, myRequestDetails)
+				.addIfMatchesType(ServletRequestDetails.class, myRequestDetails);
+		return myInterceptorService.callHooks(Pointcut.STORAGE_PRESHOW_RESOURCES, params);
+	}
+
+	public static class CountingInterceptor {
+		private long myCount;
+
+		@Hook(Pointcut.STORAGE_PRESHOW_RESOURCES)
+		public void preShow(IPreResourceShowDetails theDetails, RequestDetails theRequestDetails) {
+			myCount += theDetails.size();
+		}
+
+		public long getCount() {
+			return myCount;
+		}
+	}
+}
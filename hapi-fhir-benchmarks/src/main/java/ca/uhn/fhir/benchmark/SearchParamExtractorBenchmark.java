@@ -0,0 +1,97 @@
+/*-
+ * #%L
+ * HAPI FHIR - JMH Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmark;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.jpa.model.config.PartitionSettings;
+import ca.uhn.fhir.jpa.model.entity.StorageSettings;
+import ca.uhn.fhir.jpa.searchparam.extractor.ISearchParamExtractor;
+import ca.uhn.fhir.jpa.searchparam.extractor.SearchParamExtractorR4;
+import ca.uhn.fhir.rest.server.util.FhirContextSearchParamRegistry;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Extracts the search index rows for a single resource of each benchmarked type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchParamExtractorBenchmark {
+
+	@Param({"Patient", "Observation", "ExplanationOfBenefit"})
+	public String myResourceType;
+
+	private ISearchParamExtractor myExtractor;
+	private IBaseResource myResource;
+
+	@Setup
+	public void setup() {
+		FhirContext ctx = FhirContext.forR4Cached();
+		myExtractor = new SearchParamExtractorR4(
+				new StorageSettings(), new PartitionSettings(), ctx, new FhirContextSearchParamRegistry(ctx));
+
+		switch (myResourceType) {
+			case "Patient":
+				myResource = BenchmarkData.createPatient(1);
+				break;
+			case "Observation":
+				myResource = BenchmarkData.createObservation(1);
+				break;
+			case "ExplanationOfBenefit":
+				myResource = BenchmarkData.createExplanationOfBenefit(1);
+				break;
+			default:
+				throw new IllegalArgumentException(Msg.code(2544) + "Unknown resource type: " + myResourceType);
+		}
+	}
+
+	@Benchmark
+	public void extractAll(Blackhole theBlackhole) {
+		theBlackhole.consume(myExtractor.extractSearchParamTokens(myResource));
+		theBlackhole.consume(myExtractor.extractSearchParamStrings(myResource));
+		theBlackhole.consume(myExtractor.extractSearchParamDates(myResource));
+		theBlackhole.consume(myExtractor.extractSearchParamQuantity(myResource));
+		theBlackhole.consume(myExtractor.extractSearchParamUri(myResource));
+		theBlackhole.consume(myExtractor.extractResourceLinks(myResource, false));
+	}
+
+	@Benchmark
+	public Object extractTokens() {
+		return myExtractor.extractSearchParamTokens(myResource);
+	}
+}
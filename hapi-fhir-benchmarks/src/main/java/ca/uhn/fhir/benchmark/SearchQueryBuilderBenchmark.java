@@ -0,0 +1,145 @@
+/*-
+ * #%L
+ * HAPI FHIR - JMH Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmark;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.jpa.config.HibernatePropertiesProvider;
+import ca.uhn.fhir.jpa.model.config.PartitionSettings;
+import ca.uhn.fhir.jpa.model.dialect.HapiFhirH2Dialect;
+import ca.uhn.fhir.jpa.search.builder.predicate.DatePredicateBuilder;
+import ca.uhn.fhir.jpa.search.builder.predicate.ResourceTablePredicateBuilder;
+import ca.uhn.fhir.jpa.search.builder.predicate.StringPredicateBuilder;
+import ca.uhn.fhir.jpa.search.builder.sql.GeneratedSql;
+import ca.uhn.fhir.jpa.search.builder.sql.SearchQueryBuilder;
+import ca.uhn.fhir.jpa.search.builder.sql.SqlObjectFactory;
+import ca.uhn.fhir.rest.param.DateParam;
+import com.healthmarketscience.sqlbuilder.Condition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates the SQL for a typical <code>Patient?family=X&amp;birthdate=geY&amp;_sort=_lastUpdated</code>
+ * search using the H2 dialect. No database connection is required.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchQueryBuilderBenchmark {
+
+	private AnnotationConfigApplicationContext myAppCtx;
+	private FhirContext myFhirContext;
+	private JpaStorageSettings myStorageSettings;
+	private PartitionSettings myPartitionSettings;
+	private SqlObjectFactory mySqlObjectFactory;
+	private HibernatePropertiesProvider myDialectProvider;
+
+	@Setup
+	public void setup() {
+		myAppCtx = new AnnotationConfigApplicationContext(SearchQueryBuilderBenchmarkConfig.class);
+		myFhirContext = FhirContext.forR4Cached();
+		myStorageSettings = myAppCtx.getBean(JpaStorageSettings.class);
+		myPartitionSettings = new PartitionSettings();
+		mySqlObjectFactory = myAppCtx.getBean(SqlObjectFactory.class);
+		myDialectProvider = new HibernatePropertiesProvider();
+		myDialectProvider.setDialectForUnitTest(new HapiFhirH2Dialect());
+	}
+
+	@TearDown
+	public void tearDown() {
+		myAppCtx.close();
+	}
+
+	@Benchmark
+	public GeneratedSql generate() {
+		SearchQueryBuilder builder = new SearchQueryBuilder(
+				myFhirContext,
+				myStorageSettings,
+				myPartitionSettings,
+				RequestPartitionId.allPartitions(),
+				"Patient",
+				mySqlObjectFactory,
+				myDialectProvider,
+				false);
+
+		StringPredicateBuilder stringPredicateBuilder = builder.addStringPredicateBuilder(null);
+		builder.addPredicate(stringPredicateBuilder.createPredicateExact("Patient", "family", "SMITH"));
+
+		DatePredicateBuilder datePredicateBuilder =
+				builder.addDatePredicateBuilder(stringPredicateBuilder.getResourceIdColumn());
+		Condition datePredicate =
+				datePredicateBuilder.createPredicateDateWithoutIdentityPredicate(new DateParam("ge1970-01-01"), null);
+		builder.addPredicate(datePredicateBuilder.combineWithHashIdentityPredicate("Patient", "birthdate", datePredicate));
+
+		builder.addSortDate(builder.getOrCreateResourceTablePredicateBuilder().getColumnLastUpdated(), true);
+
+		return builder.generate(0, 50);
+	}
+
+	@Configuration
+	public static class SearchQueryBuilderBenchmarkConfig {
+
+		@Bean
+		public JpaStorageSettings storageSettings() {
+			return new JpaStorageSettings();
+		}
+
+		@Bean
+		public SqlObjectFactory sqlObjectFactory() {
+			return new SqlObjectFactory();
+		}
+
+		@Bean
+		@org.springframework.context.annotation.Scope("prototype")
+		public ResourceTablePredicateBuilder resourceTablePredicateBuilder(SearchQueryBuilder theSearchQueryBuilder) {
+			return new ResourceTablePredicateBuilder(theSearchQueryBuilder);
+		}
+
+		@Bean
+		@org.springframework.context.annotation.Scope("prototype")
+		public StringPredicateBuilder stringPredicateBuilder(SearchQueryBuilder theSearchQueryBuilder) {
+			return new StringPredicateBuilder(theSearchQueryBuilder);
+		}
+
+		@Bean
+		@org.springframework.context.annotation.Scope("prototype")
+		public DatePredicateBuilder datePredicateBuilder(SearchQueryBuilder theSearchQueryBuilder) {
+			return new DatePredicateBuilder(theSearchQueryBuilder);
+		}
+	}
+}
@@ -0,0 +1,85 @@
+/*-
+ * #%L
+ * HAPI FHIR - JMH Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmark;
+
+import ca.uhn.fhir.jpa.api.dao.IFhirSystemDao;
+import ca.uhn.fhir.jpa.test.config.TestR4Config;
+import ca.uhn.fhir.rest.api.server.SystemRequestDetails;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Meta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processes a FHIR transaction of (by default) 1000 create entries against the JPA server
+ * backed by an in-memory H2 database. Each Patient is accompanied by eight Observations and
+ * one ExplanationOfBenefit, so this is dominated by search index row writes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TransactionBenchmark {
+
+	private static final int OBSERVATIONS_PER_PATIENT = 8;
+
+	/**
+	 * Each patient contributes 10 entries (Patient, 8 Observations and an ExplanationOfBenefit)
+	 */
+	@Param({"100"})
+	public int myPatientCount;
+
+	private AnnotationConfigApplicationContext myAppCtx;
+	private IFhirSystemDao<Bundle, Meta> mySystemDao;
+	private Bundle myBundle;
+
+	@SuppressWarnings("unchecked")
+	@Setup
+	public void setup() {
+		myAppCtx = new AnnotationConfigApplicationContext(TestR4Config.class);
+		mySystemDao = myAppCtx.getBean("mySystemDaoR4", IFhirSystemDao.class);
+		myBundle = BenchmarkData.createTransactionBundle(myPatientCount, OBSERVATIONS_PER_PATIENT);
+	}
+
+	@TearDown
+	public void tearDown() {
+		myAppCtx.close();
+	}
+
+	@Benchmark
+	public Bundle transaction() {
+		return mySystemDao.transaction(new SystemRequestDetails(), myBundle);
+	}
+}
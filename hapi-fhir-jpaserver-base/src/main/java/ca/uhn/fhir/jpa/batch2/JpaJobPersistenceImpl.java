@@ -68,6 +68,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
@@ -327,6 +328,18 @@ public class JpaJobPersistenceImpl implements IJobPersistence {
 		theCallback.accept(updated);
 	}
 
+	@Override
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	public void enqueueWorkChunksForProcessing(Collection<String> theChunkIds, Consumer<Set<String>> theCallback) {
+		List<String> lockedChunkIds =
+				myWorkChunkRepository.lockChunkIdsWithStatusSkipLocked(theChunkIds, WorkChunkStatusEnum.READY);
+		if (!lockedChunkIds.isEmpty()) {
+			myWorkChunkRepository.updateChunksStatus(
+					lockedChunkIds, WorkChunkStatusEnum.READY, WorkChunkStatusEnum.QUEUED);
+		}
+		theCallback.accept(new HashSet<>(lockedChunkIds));
+	}
+
 	@Override
 	public int updatePollWaitingChunksForJobIfReady(String theInstanceId) {
 		return myWorkChunkRepository.updateWorkChunksForPollWaiting(
@@ -20,6 +20,7 @@
 package ca.uhn.fhir.jpa.config;
 
 import ca.uhn.fhir.jpa.api.IDaoRegistry;
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
 import ca.uhn.fhir.jpa.api.dao.IFhirSystemDao;
 import ca.uhn.fhir.jpa.config.util.ResourceCountCacheUtil;
 import ca.uhn.fhir.jpa.config.util.ValidationSupportConfigUtil;
@@ -36,12 +37,17 @@ import ca.uhn.fhir.jpa.validation.JpaValidationSupportChain;
 import ca.uhn.fhir.rest.api.IResourceSupportedSvc;
 import ca.uhn.fhir.rest.server.util.ISearchParamRegistry;
 import org.hl7.fhir.common.hapi.validation.support.CachingValidationSupport;
+import org.hl7.fhir.common.hapi.validation.support.PersistentValidationCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Primary;
 
+import java.nio.file.Paths;
+
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
 @Configuration
 @Import({JpaConfig.class})
 public class HapiJpaConfig {
@@ -66,8 +72,17 @@ public class HapiJpaConfig {
 
 	@Primary
 	@Bean
-	public CachingValidationSupport validationSupportChain(JpaValidationSupportChain theJpaValidationSupportChain) {
-		return ValidationSupportConfigUtil.newCachingValidationSupport(theJpaValidationSupportChain);
+	public CachingValidationSupport validationSupportChain(
+			JpaValidationSupportChain theJpaValidationSupportChain, JpaStorageSettings theStorageSettings) {
+		CachingValidationSupport retVal =
+				ValidationSupportConfigUtil.newCachingValidationSupport(theJpaValidationSupportChain);
+		if (isNotBlank(theStorageSettings.getValidationCacheDirectory())) {
+			String fileName = "validation-cache-"
+					+ theJpaValidationSupportChain.getFhirContext().getVersion().getVersion().name() + ".bin";
+			retVal.setPersistentCache(new PersistentValidationCache(
+					Paths.get(theStorageSettings.getValidationCacheDirectory()).resolve(fileName)));
+		}
+		return retVal;
 	}
 
 	@Bean
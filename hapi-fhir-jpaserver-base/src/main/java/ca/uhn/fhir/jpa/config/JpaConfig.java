@@ -106,6 +106,7 @@ import ca.uhn.fhir.jpa.sched.HapiSchedulerServiceImpl;
 import ca.uhn.fhir.jpa.search.ISynchronousSearchSvc;
 import ca.uhn.fhir.jpa.search.PersistedJpaBundleProvider;
 import ca.uhn.fhir.jpa.search.PersistedJpaBundleProviderFactory;
+import ca.uhn.fhir.jpa.search.PersistedJpaKeysetBundleProvider;
 import ca.uhn.fhir.jpa.search.PersistedJpaSearchFirstPageBundleProvider;
 import ca.uhn.fhir.jpa.search.ResourceSearchUrlSvc;
 import ca.uhn.fhir.jpa.search.SearchStrategyFactory;
@@ -135,6 +136,7 @@ import ca.uhn.fhir.jpa.search.builder.sql.SqlObjectFactory;
 import ca.uhn.fhir.jpa.search.builder.tasks.SearchTask;
 import ca.uhn.fhir.jpa.search.cache.DatabaseSearchCacheSvcImpl;
 import ca.uhn.fhir.jpa.search.cache.DatabaseSearchResultCacheSvcImpl;
+import ca.uhn.fhir.jpa.search.cache.FileSegmentSearchResultCacheSvcImpl;
 import ca.uhn.fhir.jpa.search.cache.ISearchCacheSvc;
 import ca.uhn.fhir.jpa.search.cache.ISearchResultCacheSvc;
 import ca.uhn.fhir.jpa.search.elastic.IndexNamePrefixLayoutStrategy;
@@ -199,8 +201,11 @@ import org.springframework.scheduling.concurrent.ConcurrentTaskScheduler;
 import org.springframework.scheduling.concurrent.ScheduledExecutorFactoryBean;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import java.nio.file.Paths;
 import java.util.Date;
 
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
 @Configuration
 // repositoryFactoryBeanClass: EnversRevisionRepositoryFactoryBean is needed primarily for unit testing
 @EnableJpaRepositories(
@@ -227,6 +232,7 @@ public class JpaConfig {
 	public static final String PERSISTED_JPA_BUNDLE_PROVIDER_BY_SEARCH = "PersistedJpaBundleProvider_BySearch";
 	public static final String PERSISTED_JPA_SEARCH_FIRST_PAGE_BUNDLE_PROVIDER =
 			"PersistedJpaSearchFirstPageBundleProvider";
+	public static final String PERSISTED_JPA_KEYSET_BUNDLE_PROVIDER = "PersistedJpaKeysetBundleProvider";
 	public static final String HISTORY_BUILDER = "HistoryBuilder";
 	private static final String HAPI_DEFAULT_SCHEDULER_GROUP = "HAPI";
 
@@ -367,6 +373,10 @@ public class JpaConfig {
 
 	@Bean
 	public ISearchResultCacheSvc searchResultCacheSvc() {
+		if (isNotBlank(myStorageSettings.getSearchResultCacheDirectory())) {
+			return new FileSegmentSearchResultCacheSvcImpl(
+					Paths.get(myStorageSettings.getSearchResultCacheDirectory()));
+		}
 		return new DatabaseSearchResultCacheSvcImpl();
 	}
 
@@ -572,6 +582,13 @@ public class JpaConfig {
 		return new PersistedJpaBundleProvider(theRequest, theSearch);
 	}
 
+	@Bean(name = PERSISTED_JPA_KEYSET_BUNDLE_PROVIDER)
+	@Scope("prototype")
+	public PersistedJpaKeysetBundleProvider newPersistedJpaKeysetBundleProvider(
+			RequestDetails theRequest, Search theSearch, String thePageId) {
+		return new PersistedJpaKeysetBundleProvider(theRequest, theSearch, thePageId);
+	}
+
 	@Bean(name = PERSISTED_JPA_SEARCH_FIRST_PAGE_BUNDLE_PROVIDER)
 	@Scope("prototype")
 	public PersistedJpaSearchFirstPageBundleProvider newPersistedJpaSearchFirstPageBundleProvider(
@@ -215,6 +215,14 @@ public abstract class BaseHapiFhirSystemDao<T extends IBaseBundle, MT> extends B
 					prefetchByField("date", "myParamsDate", ResourceTable::isParamsDatePopulated, entityChunk);
 					prefetchByField(
 							"quantity", "myParamsQuantity", ResourceTable::isParamsQuantityPopulated, entityChunk);
+					prefetchByField(
+							"quantityNormalized",
+							"myParamsQuantityNormalized",
+							ResourceTable::isParamsQuantityNormalizedPopulated,
+							entityChunk);
+					prefetchByField("number", "myParamsNumber", ResourceTable::isParamsNumberPopulated, entityChunk);
+					prefetchByField("uri", "myParamsUri", ResourceTable::isParamsUriPopulated, entityChunk);
+					prefetchByField("coords", "myParamsCoords", ResourceTable::isParamsCoordsPopulated, entityChunk);
 					prefetchByField("resourceLinks", "myResourceLinks", ResourceTable::isHasLinks, entityChunk);
 
 					prefetchByJoinClause(
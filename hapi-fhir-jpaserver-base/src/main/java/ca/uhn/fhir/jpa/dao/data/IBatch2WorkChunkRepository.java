@@ -21,10 +21,14 @@ package ca.uhn.fhir.jpa.dao.data;
 
 import ca.uhn.fhir.batch2.model.WorkChunkStatusEnum;
 import ca.uhn.fhir.jpa.entity.Batch2WorkChunkEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.Collection;
@@ -128,6 +132,25 @@ public interface IBatch2WorkChunkRepository
 			@Param("oldStatus") WorkChunkStatusEnum theOldStatus,
 			@Param("newStatus") WorkChunkStatusEnum theNewStatus);
 
+	/**
+	 * Locks the given chunks which are in the given status, and returns their IDs. Chunks which
+	 * are already locked by another transaction are skipped instead of waited for, on databases
+	 * which support {@literal SKIP LOCKED} (a lock timeout of -2 is Hibernate's SKIP_LOCKED).
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+	@Query("SELECT e.myId FROM Batch2WorkChunkEntity e WHERE e.myId IN (:ids) AND e.myStatus = :status")
+	List<String> lockChunkIdsWithStatusSkipLocked(
+			@Param("ids") Collection<String> theChunkIds, @Param("status") WorkChunkStatusEnum theStatus);
+
+	@Modifying
+	@Query(
+			"UPDATE Batch2WorkChunkEntity e SET e.myStatus = :newStatus WHERE e.myId IN (:ids) AND e.myStatus = :oldStatus")
+	int updateChunksStatus(
+			@Param("ids") Collection<String> theChunkIds,
+			@Param("oldStatus") WorkChunkStatusEnum theOldStatus,
+			@Param("newStatus") WorkChunkStatusEnum theNewStatus);
+
 	@Modifying
 	@Query(
 			"UPDATE Batch2WorkChunkEntity e SET e.myStatus = :newStatus WHERE e.myInstanceId = :instanceId AND e.myTargetStepId = :stepId AND e.myStatus IN ( :oldStatuses )")
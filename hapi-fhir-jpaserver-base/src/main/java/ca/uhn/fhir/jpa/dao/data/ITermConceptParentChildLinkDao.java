@@ -19,6 +19,7 @@
  */
 package ca.uhn.fhir.jpa.dao.data;
 
+import ca.uhn.fhir.jpa.entity.TermConcept;
 import ca.uhn.fhir.jpa.entity.TermConceptParentChildLink;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -26,6 +27,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface ITermConceptParentChildLinkDao
 		extends JpaRepository<TermConceptParentChildLink, Long>, IHapiFhirJpaRepository {
@@ -33,6 +35,9 @@ public interface ITermConceptParentChildLinkDao
 	@Query("SELECT t.myParentPid FROM TermConceptParentChildLink t WHERE t.myChildPid = :child_pid")
 	Collection<Long> findAllWithChild(@Param("child_pid") Long theConceptPid);
 
+	@Query("SELECT t.myChild FROM TermConceptParentChildLink t WHERE t.myParentPid IN (:parent_pids)")
+	List<TermConcept> findChildrenByParentPids(@Param("parent_pids") Collection<Long> theParentPids);
+
 	@Modifying
 	@Query("DELETE FROM TermConceptParentChildLink WHERE myCodeSystemVersionPid = :cs_pid")
 	int deleteByCodeSystemVersion(@Param("cs_pid") Long thePid);
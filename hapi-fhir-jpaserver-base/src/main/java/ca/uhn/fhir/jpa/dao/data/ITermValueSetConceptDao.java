@@ -26,6 +26,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -75,10 +76,31 @@ public interface ITermValueSetConceptDao extends JpaRepository<TermValueSetConce
 			@Param("system_version") String theSystemVersion,
 			@Param("codeval") String theCode);
 
-	@Query("SELECT vsc.myId FROM TermValueSetConcept vsc WHERE vsc.myValueSetPid = :pid ORDER BY vsc.myId")
+	@Query("SELECT vsc.myId FROM TermValueSetConcept vsc WHERE vsc.myValueSetPid = :pid ORDER BY vsc.myOrder, vsc.myId")
 	List<Long> findIdsByTermValueSetId(@Param("pid") Long theValueSetId);
 
+	/**
+	 * Returns a page of rows containing the PID, system, system version, code, display, source concept PID,
+	 * source concept parent PIDs (both the varchar and the legacy LOB column) and order of each concept
+	 */
+	@Query(
+			"SELECT vsc.myId, vsc.mySystem, vsc.mySystemVer, vsc.myCode, vsc.myDisplay, vsc.mySourceConceptPid, vsc.mySourceConceptDirectParentPidsVc, vsc.mySourceConceptDirectParentPids, vsc.myOrder FROM TermValueSetConcept vsc WHERE vsc.myValueSetPid = :pid AND vsc.myId > :after_pid ORDER BY vsc.myId")
+	List<Object[]> findConceptSummariesByTermValueSetId(
+			Pageable thePage, @Param("pid") Long theValueSetId, @Param("after_pid") Long theAfterPid);
+
+	@Query("DELETE FROM TermValueSetConcept vsc WHERE vsc.myId IN (:pids)")
+	@Modifying
+	void deleteByPids(@Param("pids") Collection<Long> thePids);
+
 	@Query("UPDATE TermValueSetConcept vsc SET vsc.myOrder = :order WHERE vsc.myId = :pid")
 	@Modifying
 	void updateOrderById(@Param("pid") Long theId, @Param("order") int theOrder);
+
+	@Query("UPDATE TermValueSetConcept vsc SET vsc.myOrder = vsc.myOrder + :delta WHERE vsc.myValueSetPid = :pid")
+	@Modifying
+	void addToOrderByTermValueSetId(@Param("pid") Long theValueSetId, @Param("delta") int theDelta);
+
+	@Query("UPDATE TermValueSetConcept vsc SET vsc.myOrder = vsc.myOrder + :delta WHERE vsc.myId IN (:pids)")
+	@Modifying
+	void addToOrderByPids(@Param("pids") Collection<Long> thePids, @Param("delta") int theDelta);
 }
@@ -20,11 +20,15 @@
 package ca.uhn.fhir.jpa.dao.data;
 
 import ca.uhn.fhir.jpa.entity.TermValueSetConceptDesignation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface ITermValueSetConceptDesignationDao
 		extends JpaRepository<TermValueSetConceptDesignation, Long>, IHapiFhirJpaRepository {
 
@@ -34,4 +38,17 @@ public interface ITermValueSetConceptDesignationDao
 	@Query("DELETE FROM TermValueSetConceptDesignation vscd WHERE vscd.myValueSetPid = :pid")
 	@Modifying
 	void deleteByTermValueSetId(@Param("pid") Long theValueSetId);
+
+	/**
+	 * Returns a page of rows containing the PID, concept PID, language, use system, use code, use display
+	 * and value of each designation
+	 */
+	@Query(
+			"SELECT vscd.myId, vscd.myConceptPid, vscd.myLanguage, vscd.myUseSystem, vscd.myUseCode, vscd.myUseDisplay, vscd.myValue FROM TermValueSetConceptDesignation vscd WHERE vscd.myValueSetPid = :pid AND vscd.myId > :after_pid ORDER BY vscd.myId")
+	List<Object[]> findDesignationSummariesByTermValueSetId(
+			Pageable thePage, @Param("pid") Long theValueSetId, @Param("after_pid") Long theAfterPid);
+
+	@Query("DELETE FROM TermValueSetConceptDesignation vscd WHERE vscd.myConceptPid IN (:concept_pids)")
+	@Modifying
+	void deleteByConceptPids(@Param("concept_pids") Collection<Long> theConceptPids);
 }
@@ -148,8 +148,10 @@ public class DaoSearchParamSynchronizer {
 		 */
 		newParams = new HashSet<>(newParams);
 
+		// Diff against the hashed collections so that this is linear even for resources
+		// with many thousands of index rows
 		List<T> paramsToRemove = subtract(theExistingParams, newParams);
-		List<T> paramsToAdd = subtract(newParams, theExistingParams);
+		List<T> paramsToAdd = subtract(newParams, existingParamsAsSet);
 
 		if (theAddParamPreSaveHook != null) {
 			theAddParamPreSaveHook.preSave(paramsToRemove, paramsToAdd);
@@ -169,7 +171,18 @@ public class DaoSearchParamSynchronizer {
 		}
 
 		for (T next : paramsToAdd) {
-			myEntityManager.merge(next);
+			if (next.getId() == null) {
+				/*
+				 * Brand new rows are persisted directly rather than merged. Merging a
+				 * transient entity makes Hibernate copy it into a new managed instance,
+				 * whereas persisting simply queues the row for insertion so that all new
+				 * index rows in the transaction are flushed together as JDBC batches
+				 * (see hibernate.order_inserts and hibernate.jdbc.batch_size).
+				 */
+				myEntityManager.persist(next);
+			} else {
+				myEntityManager.merge(next);
+			}
 		}
 
 		// TODO:  are there any unintended consequences to fixing this bug?
@@ -194,12 +207,14 @@ public class DaoSearchParamSynchronizer {
 			Collection<T> theNewParams,
 			List<T> theParamsToRemove) {
 
+		Set<T> paramsToAdd = new HashSet<>(theParamsToAdd);
+		Set<T> paramsToRemove = new HashSet<>(theParamsToRemove);
 		theExistingParams.stream()
 				.filter(BaseResourceIndexedSearchParam.class::isInstance)
 				.map(BaseResourceIndexedSearchParam.class::cast)
 				.filter(this::isSearchParameterUpdateRequired)
-				.filter(sp -> !theParamsToAdd.contains(sp))
-				.filter(sp -> !theParamsToRemove.contains(sp))
+				.filter(sp -> !paramsToAdd.contains(sp))
+				.filter(sp -> !paramsToRemove.contains(sp))
 				.forEach(sp -> {
 					// force hibernate to update Search Parameter entity by resetting SP_UPDATED value
 					sp.setUpdated(new Date());
@@ -161,10 +161,7 @@ public class IdHelperService implements IIdHelperService<JpaPid> {
 		assert myDontCheckActiveTransactionForUnitTest || TransactionSynchronizationManager.isSynchronizationActive()
 				: "no transaction active";
 
-		String resourceIdToUse = theResourceId;
-		if (resourceIdToUse.contains("/")) {
-			resourceIdToUse = theResourceId.substring(resourceIdToUse.indexOf("/") + 1);
-		}
+		String resourceIdToUse = stripResourceType(theResourceId);
 		IdDt id = new IdDt(theResourceType, resourceIdToUse);
 		Map<String, List<IResourceLookup<JpaPid>>> matches =
 				translateForcedIdToPids(theRequestPartitionId, Collections.singletonList(id), theExcludeDeleted);
@@ -180,13 +177,17 @@ public class IdHelperService implements IIdHelperService<JpaPid> {
 			 *  1. There are two resources with the exact same resource type and forced id
 			 *  2. The unique constraint on this column-pair has been dropped
 			 */
-			String msg = myFhirCtx.getLocalizer().getMessage(IdHelperService.class, "nonUniqueForcedId");
-			throw new PreconditionFailedException(Msg.code(1099) + msg);
+			throw newNonUniqueForcedIdException();
 		}
 
 		return matches.get(resourceIdToUse).get(0);
 	}
 
+	private PreconditionFailedException newNonUniqueForcedIdException() {
+		String msg = myFhirCtx.getLocalizer().getMessage(IdHelperService.class, "nonUniqueForcedId");
+		return new PreconditionFailedException(Msg.code(1099) + msg);
+	}
+
 	/**
 	 * Returns a mapping of Id -> IResourcePersistentId.
 	 * If any resource is not found, it will throw ResourceNotFound exception (and no map will be returned)
@@ -215,41 +216,139 @@ public class IdHelperService implements IIdHelperService<JpaPid> {
 		Validate.isTrue(!theIds.isEmpty(), "theIds must not be empty");
 
 		Map<String, JpaPid> retVals = new HashMap<>();
+		List<String> forcedIds = new ArrayList<>();
 		for (String id : theIds) {
-			JpaPid retVal;
 			if (!idRequiresForcedId(id)) {
 				// is already a PID
-				retVal = JpaPid.fromId(Long.parseLong(id));
-				retVals.put(id, retVal);
+				retVals.put(id, JpaPid.fromId(Long.parseLong(id)));
 			} else {
-				// is a forced id
-				// we must resolve!
-				if (myStorageSettings.isDeleteEnabled()) {
-					retVal = resolveResourceIdentity(theRequestPartitionId, theResourceType, id, theExcludeDeleted)
-							.getPersistentId();
-					retVals.put(id, retVal);
-				} else {
-					// fetch from cache... adding to cache if not available
-					String key = toForcedIdToPidKey(theRequestPartitionId, theResourceType, id);
-					retVal = myMemoryCacheService.getThenPutAfterCommit(
-							MemoryCacheService.CacheEnum.FORCED_ID_TO_PID, key, t -> {
-								List<IIdType> ids = Collections.singletonList(new IdType(theResourceType, id));
-								// fetches from cache using a function that checks cache first...
-								List<JpaPid> resolvedIds =
-										resolveResourcePersistentIdsWithCache(theRequestPartitionId, ids);
-								if (resolvedIds.isEmpty()) {
-									throw new ResourceNotFoundException(Msg.code(1100) + ids.get(0));
-								}
-								return resolvedIds.get(0);
-							});
-					retVals.put(id, retVal);
-				}
+				// is a forced id, we must resolve!
+				forcedIds.add(id);
+			}
+		}
+
+		if (!forcedIds.isEmpty()) {
+			if (myStorageSettings.isDeleteEnabled()) {
+				resolveForcedIdsWithoutCache(
+						theRequestPartitionId, theResourceType, forcedIds, theExcludeDeleted, retVals);
+			} else {
+				resolveForcedIdsWithCache(theRequestPartitionId, theResourceType, forcedIds, retVals);
 			}
 		}
 
 		return retVals;
 	}
 
+	/**
+	 * Resolves a collection of forced IDs of a single resource type using one query per
+	 * resource type (as opposed to one query per ID). Resources may have been deleted, so
+	 * nothing is cached.
+	 */
+	private void resolveForcedIdsWithoutCache(
+			RequestPartitionId theRequestPartitionId,
+			String theResourceType,
+			List<String> theForcedIds,
+			boolean theExcludeDeleted,
+			Map<String, JpaPid> theOutput) {
+		List<IIdType> ids = new ArrayList<>(theForcedIds.size());
+		for (String next : theForcedIds) {
+			ids.add(new IdDt(theResourceType, stripResourceType(next)));
+		}
+		Map<String, List<IResourceLookup<JpaPid>>> matches =
+				translateForcedIdToPids(theRequestPartitionId, ids, theExcludeDeleted);
+
+		for (String next : theForcedIds) {
+			List<IResourceLookup<JpaPid>> nextMatches = matches.get(stripResourceType(next));
+			if (nextMatches == null) {
+				// The database may have matched using a different case than the one that was
+				// requested, so fall back to resolving this ID individually (this also throws
+				// the appropriate exception if the ID really doesn't exist)
+				theOutput.put(
+						next,
+						resolveResourceIdentity(theRequestPartitionId, theResourceType, next, theExcludeDeleted)
+								.getPersistentId());
+			} else if (nextMatches.size() > 1) {
+				throw newNonUniqueForcedIdException();
+			} else {
+				theOutput.put(next, nextMatches.get(0).getPersistentId());
+			}
+		}
+	}
+
+	/**
+	 * Resolves a collection of forced IDs of a single resource type, first using the
+	 * {@link MemoryCacheService.CacheEnum#FORCED_ID_TO_PID} cache and then resolving all
+	 * of the cache misses using chunked queries.
+	 */
+	private void resolveForcedIdsWithCache(
+			RequestPartitionId theRequestPartitionId,
+			String theResourceType,
+			List<String> theForcedIds,
+			Map<String, JpaPid> theOutput) {
+		List<String> keys = new ArrayList<>(theForcedIds.size());
+		for (String next : theForcedIds) {
+			keys.add(toForcedIdToPidKey(theRequestPartitionId, theResourceType, next));
+		}
+		Map<String, JpaPid> cached =
+				myMemoryCacheService.getAllPresent(MemoryCacheService.CacheEnum.FORCED_ID_TO_PID, keys);
+
+		List<IIdType> idsToResolve = new ArrayList<>();
+		for (int i = 0; i < theForcedIds.size(); i++) {
+			JpaPid cachedPid = cached.get(keys.get(i));
+			if (cachedPid != null) {
+				theOutput.put(theForcedIds.get(i), cachedPid);
+			} else {
+				idsToResolve.add(new IdType(theResourceType, theForcedIds.get(i)));
+			}
+		}
+		if (idsToResolve.isEmpty()) {
+			return;
+		}
+
+		// A single miss is resolved individually below, so only batch when there are several.
+		// doResolvePersistentIds also adds everything it resolves to the cache.
+		Map<String, JpaPid> forcedIdToPid = new HashMap<>();
+		if (idsToResolve.size() > 1) {
+			List<JpaPid> resolved = new ArrayList<>(idsToResolve.size());
+			new QueryChunker<IIdType>()
+					.chunk(
+							idsToResolve,
+							SearchBuilder.getMaximumPageSize() / 2,
+							ids -> doResolvePersistentIds(theRequestPartitionId, ids, resolved));
+			for (JpaPid next : resolved) {
+				forcedIdToPid.putIfAbsent(next.getAssociatedResourceId().getIdPart(), next);
+			}
+		}
+
+		for (IIdType next : idsToResolve) {
+			String forcedId = next.getIdPart();
+			JpaPid pid = forcedIdToPid.get(forcedId);
+			if (pid == null) {
+				// The database may have matched using a different case than the one that was
+				// requested, so fall back to resolving this ID individually
+				String key = toForcedIdToPidKey(theRequestPartitionId, theResourceType, forcedId);
+				pid = myMemoryCacheService.getThenPutAfterCommit(
+						MemoryCacheService.CacheEnum.FORCED_ID_TO_PID, key, t -> {
+							List<IIdType> ids = Collections.singletonList(next);
+							List<JpaPid> resolvedIds =
+									resolveResourcePersistentIdsWithCache(theRequestPartitionId, ids);
+							if (resolvedIds.isEmpty()) {
+								throw new ResourceNotFoundException(Msg.code(1100) + ids.get(0));
+							}
+							return resolvedIds.get(0);
+						});
+			}
+			theOutput.put(forcedId, pid);
+		}
+	}
+
+	private static String stripResourceType(String theResourceId) {
+		if (theResourceId.contains("/")) {
+			return theResourceId.substring(theResourceId.indexOf("/") + 1);
+		}
+		return theResourceId;
+	}
+
 	/**
 	 * Given a resource type and ID, determines the internal persistent ID for the resource.
 	 *
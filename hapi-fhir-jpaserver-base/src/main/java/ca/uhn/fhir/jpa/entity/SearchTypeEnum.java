@@ -23,4 +23,11 @@ public enum SearchTypeEnum {
 	EVERYTHING,
 	SEARCH,
 	HISTORY,
+	/**
+	 * A search which is paged using keyset (seek) pagination, meaning that
+	 * the results are never stored in the search result table.
+	 *
+	 * @since 7.6.0
+	 */
+	KEYSET_SEARCH,
 }
@@ -65,6 +65,7 @@ import org.hl7.fhir.r4.model.Coding;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
@@ -95,6 +96,7 @@ public class TermConcept implements Serializable {
 	public static final int MAX_DISP_LENGTH = 500;
 	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(TermConcept.class);
 	private static final long serialVersionUID = 1L;
+	private static final String PARENT_PIDS_NONE = "NONE";
 
 	@OneToMany(
 			fetch = FetchType.LAZY,
@@ -373,6 +375,28 @@ public class TermConcept implements Serializable {
 		return nonNull(myParentPidsVc) ? myParentPidsVc : myParentPids;
 	}
 
+	/**
+	 * Returns the PIDs of all ancestors of this concept (i.e. its parents, their parents, etc.)
+	 * as they were computed when this concept was stored. Returns an empty set if this concept
+	 * has no parents (in which case they are stored as {@literal NONE}), or if its ancestors
+	 * have not been computed yet.
+	 *
+	 * @since 7.6.0
+	 */
+	public Set<Long> getAncestorPids() {
+		String parentPids = getParentPidsAsString();
+		if (parentPids == null || parentPids.isEmpty()) {
+			return Collections.emptySet();
+		}
+		Set<Long> retVal = new HashSet<>();
+		for (String next : parentPids.split(" ")) {
+			if (!next.isEmpty() && !PARENT_PIDS_NONE.equals(next)) {
+				retVal.add(Long.parseLong(next));
+			}
+		}
+		return retVal;
+	}
+
 	public List<TermConceptParentChildLink> getParents() {
 		if (myParents == null) {
 			myParents = new ArrayList<>();
@@ -440,7 +464,14 @@ public class TermConcept implements Serializable {
 				Long parentConceptId = parent.getId();
 				Validate.notNull(parentConceptId);
 				if (theParentPids.add(parentConceptId)) {
-					parentPids(parent, theParentPids);
+					// Parents are always stored before their children, so if the parent already
+					// has its ancestors computed we can use them instead of walking the hierarchy
+					// all the way up again for every single concept
+					if (parent.getParentPidsAsString() != null) {
+						theParentPids.addAll(parent.getAncestorPids());
+					} else {
+						parentPids(parent, theParentPids);
+					}
 				}
 			}
 		}
@@ -474,7 +505,7 @@ public class TermConcept implements Serializable {
 		}
 
 		if (b.length() == 0) {
-			b.append("NONE");
+			b.append(PARENT_PIDS_NONE);
 		}
 
 		setParentPids(b.toString());
@@ -21,6 +21,7 @@ package ca.uhn.fhir.jpa.search;
 
 import ca.uhn.fhir.jpa.api.dao.DaoRegistry;
 import ca.uhn.fhir.jpa.dao.SearchBuilderFactory;
+import ca.uhn.fhir.jpa.entity.SearchTypeEnum;
 import ca.uhn.fhir.jpa.partition.IRequestPartitionHelperSvc;
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
@@ -65,7 +66,30 @@ public class DatabaseBackedPagingProvider extends BasePagingProvider {
 	@Override
 	public synchronized IBundleProvider retrieveResultList(RequestDetails theRequestDetails, String theId) {
 		PersistedJpaBundleProvider provider = myPersistedJpaBundleProviderFactory.newInstance(theRequestDetails, theId);
-		return validateAndReturnBundleProvider(provider);
+		provider = validateAndReturnBundleProvider(provider);
+		if (provider != null && provider.getSearchEntity().getSearchType() == SearchTypeEnum.KEYSET_SEARCH) {
+			provider = myPersistedJpaBundleProviderFactory.newInstanceKeyset(
+					theRequestDetails, provider.getSearchEntity(), PersistedJpaKeysetBundleProvider.FIRST_PAGE_ID);
+		}
+		return provider;
+	}
+
+	/**
+	 * Page IDs are only used by searches which are paged using keyset pagination
+	 *
+	 * @see ca.uhn.fhir.jpa.api.config.JpaStorageSettings#setKeysetPagingEnabled(boolean)
+	 */
+	@Override
+	public synchronized IBundleProvider retrieveResultList(
+			RequestDetails theRequestDetails, String theSearchId, String thePageId) {
+		PersistedJpaBundleProvider provider =
+				myPersistedJpaBundleProviderFactory.newInstance(theRequestDetails, theSearchId);
+		provider = validateAndReturnBundleProvider(provider);
+		if (provider == null || provider.getSearchEntity().getSearchType() != SearchTypeEnum.KEYSET_SEARCH) {
+			return null;
+		}
+		return myPersistedJpaBundleProviderFactory.newInstanceKeyset(
+				theRequestDetails, provider.getSearchEntity(), thePageId);
 	}
 
 	/**
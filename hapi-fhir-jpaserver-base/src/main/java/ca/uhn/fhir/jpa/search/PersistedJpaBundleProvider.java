@@ -207,7 +207,8 @@ public class PersistedJpaBundleProvider implements IBundleProvider {
 		}
 
 		// Interceptor broadcast: STORAGE_PRESHOW_RESOURCES
-		{
+		if (CompositeInterceptorBroadcaster.hasHooks(
+				Pointcut.STORAGE_PRESHOW_RESOURCES, myInterceptorBroadcaster, myRequest)) {
 			SimplePreResourceShowDetails showDetails = new SimplePreResourceShowDetails(retVal);
 			HookParams params = new HookParams()
 					.add(IPreResourceShowDetails.class, showDetails)
@@ -472,7 +473,8 @@ public class PersistedJpaBundleProvider implements IBundleProvider {
 			List<JpaPid> thePids,
 			ResponsePage.ResponsePageBuilder theResponsePageBuilder) {
 		List<JpaPid> includedPidList = new ArrayList<>();
-		if (mySearchEntity.getSearchType() == SearchTypeEnum.SEARCH) {
+		if (mySearchEntity.getSearchType() == SearchTypeEnum.SEARCH
+				|| mySearchEntity.getSearchType() == SearchTypeEnum.KEYSET_SEARCH) {
 			Integer maxIncludes = myStorageSettings.getMaximumIncludesToLoadPerPage();
 
 			// Load non-iterate _revincludes
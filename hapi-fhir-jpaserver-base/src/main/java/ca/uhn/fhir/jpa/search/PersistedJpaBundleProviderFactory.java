@@ -53,6 +53,16 @@ public class PersistedJpaBundleProviderFactory {
 		return (PersistedJpaBundleProvider) retVal;
 	}
 
+	/**
+	 * @param thePageId The page ID from a paging link, or {@link PersistedJpaKeysetBundleProvider#FIRST_PAGE_ID}
+	 * @since 7.6.0
+	 */
+	public PersistedJpaKeysetBundleProvider newInstanceKeyset(
+			RequestDetails theRequest, Search theSearch, String thePageId) {
+		return (PersistedJpaKeysetBundleProvider) myApplicationContext.getBean(
+				JpaConfig.PERSISTED_JPA_KEYSET_BUNDLE_PROVIDER, theRequest, theSearch, thePageId);
+	}
+
 	public PersistedJpaSearchFirstPageBundleProvider newInstanceFirstPage(
 			RequestDetails theRequestDetails,
 			SearchTask theTask,
@@ -0,0 +1,256 @@
+/*
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.search;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.jpa.api.dao.DaoRegistry;
+import ca.uhn.fhir.jpa.api.dao.IFhirResourceDao;
+import ca.uhn.fhir.jpa.dao.IResultIterator;
+import ca.uhn.fhir.jpa.dao.ISearchBuilder;
+import ca.uhn.fhir.jpa.dao.SearchBuilderFactory;
+import ca.uhn.fhir.jpa.entity.Search;
+import ca.uhn.fhir.jpa.entity.SearchTypeEnum;
+import ca.uhn.fhir.jpa.model.dao.JpaPid;
+import ca.uhn.fhir.jpa.model.entity.ResourceTable;
+import ca.uhn.fhir.jpa.model.search.SearchKeysetPosition;
+import ca.uhn.fhir.jpa.model.search.SearchRuntimeDetails;
+import ca.uhn.fhir.jpa.searchparam.SearchParameterMap;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
+import ca.uhn.fhir.rest.server.method.ResponsePage;
+import jakarta.annotation.Nonnull;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hl7.fhir.instance.model.api.IAnyResource;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.apache.commons.lang3.StringUtils.split;
+
+/**
+ * Bundle provider for searches which are paged using keyset (seek) pagination. Instead
+ * of reading result PIDs out of the search result table, every page re-runs the search
+ * query starting after the sort key of the last resource on the previous page. The sort
+ * key is carried in the page ID of the paging links.
+ *
+ * @see ca.uhn.fhir.jpa.api.config.JpaStorageSettings#setKeysetPagingEnabled(boolean)
+ * @since 7.6.0
+ */
+public class PersistedJpaKeysetBundleProvider extends PersistedJpaBundleProvider {
+
+	/**
+	 * Page ID for the first page of a keyset paged search
+	 */
+	public static final String FIRST_PAGE_ID = "first";
+
+	private static final Logger ourLog = LoggerFactory.getLogger(PersistedJpaKeysetBundleProvider.class);
+	private static final char PAGE_ID_SEPARATOR = '|';
+
+	@Autowired
+	private FhirContext myFhirContext;
+
+	@Autowired
+	private DaoRegistry myDaoRegistry;
+
+	@Autowired
+	private SearchBuilderFactory<JpaPid> mySearchBuilderFactory;
+
+	@PersistenceContext
+	private EntityManager myEntityManager;
+
+	private final String myCurrentPageId;
+	private final SearchKeysetPosition myPosition;
+	private final Integer myPageSize;
+	private String myNextPageId;
+
+	/**
+	 * Constructor
+	 *
+	 * @param theSearch The search entity, which must be of type {@link SearchTypeEnum#KEYSET_SEARCH}
+	 * @param thePageId The page ID from the paging link, or {@link #FIRST_PAGE_ID}
+	 */
+	public PersistedJpaKeysetBundleProvider(RequestDetails theRequest, Search theSearch, String thePageId) {
+		super(theRequest, theSearch);
+		assert theSearch.getSearchType() == SearchTypeEnum.KEYSET_SEARCH;
+
+		myCurrentPageId = thePageId;
+		if (FIRST_PAGE_ID.equals(thePageId)) {
+			myPosition = SearchKeysetPosition.firstPage();
+			myPageSize = null;
+		} else {
+			String[] parts = split(decodePageId(thePageId), PAGE_ID_SEPARATOR);
+			if (parts.length != 3) {
+				throw newInvalidPageIdException(thePageId);
+			}
+			try {
+				myPageSize = Integer.parseInt(parts[0]);
+				long resourcePid = Long.parseLong(parts[1]);
+				Object sortValue;
+				if (isSortById(theSearch)) {
+					sortValue = parts[2];
+				} else {
+					sortValue = new Date(Long.parseLong(parts[2]));
+				}
+				myPosition = SearchKeysetPosition.after(sortValue, resourcePid);
+			} catch (NumberFormatException e) {
+				throw newInvalidPageIdException(thePageId);
+			}
+		}
+	}
+
+	@Override
+	public String getCurrentPageId() {
+		return myCurrentPageId;
+	}
+
+	@Override
+	public String getNextPageId() {
+		return myNextPageId;
+	}
+
+	/**
+	 * The total is never calculated for keyset paged searches
+	 */
+	@Override
+	public Integer size() {
+		return null;
+	}
+
+	@Nonnull
+	@Override
+	public List<IBaseResource> getResources(
+			int theFromIndex, int theToIndex, @Nonnull ResponsePage.ResponsePageBuilder theResponsePageBuilder) {
+		ensureSearchEntityLoaded();
+		Search search = getSearchEntity();
+
+		// When we are serving a page link, the page size is the one that was used to build the link
+		int fromIndex = theFromIndex;
+		int toIndex = theToIndex;
+		if (myPageSize != null && fromIndex == 0) {
+			toIndex = myPageSize;
+		}
+
+		SearchParameterMap params = search.getSearchParameterMap()
+				.orElseThrow(() -> new InternalErrorException(
+						Msg.code(2550) + "No search parameters stored for search " + search.getUuid()));
+		String resourceName = search.getResourceType();
+		Class<? extends IBaseResource> resourceType =
+				myFhirContext.getResourceDefinition(resourceName).getImplementingClass();
+		IFhirResourceDao<?> dao = myDaoRegistry.getResourceDao(resourceName);
+		ISearchBuilder<JpaPid> sb = mySearchBuilderFactory.newSearchBuilder(dao, resourceName, resourceType);
+		sb.setKeysetPosition(myPosition);
+
+		// we request 1 more resource than we need so we know if there is a next page
+		int maxResultsToFetch = toIndex + 1;
+		sb.setMaxResultsToFetch(maxResultsToFetch);
+
+		int finalToIndex = toIndex;
+		return myTxService
+				.withRequest(myRequest)
+				.withRequestPartitionId(getRequestPartitionId())
+				.readOnly()
+				.execute(() -> {
+					List<JpaPid> pids = fetchPids(sb, params, search.getUuid(), maxResultsToFetch);
+					theResponsePageBuilder.setTotalRequestedResourcesFetched(Math.max(0, pids.size() - fromIndex));
+
+					int pageStart = Math.min(fromIndex, pids.size());
+					int pageEnd = Math.min(finalToIndex, pids.size());
+					List<JpaPid> pagePids = new ArrayList<>(pids.subList(pageStart, pageEnd));
+
+					if (pids.size() > finalToIndex && !pagePids.isEmpty()) {
+						JpaPid lastPid = pagePids.get(pagePids.size() - 1);
+						myNextPageId = createPageId(search, finalToIndex - fromIndex, lastPid);
+					} else {
+						myNextPageId = null;
+					}
+
+					if (pagePids.isEmpty()) {
+						return Collections.emptyList();
+					}
+					return toResourceList(sb, pagePids, theResponsePageBuilder);
+				});
+	}
+
+	private List<JpaPid> fetchPids(
+			ISearchBuilder<JpaPid> theSearchBuilder,
+			SearchParameterMap theParams,
+			String theSearchUuid,
+			int theMaxResultsToFetch) {
+		List<JpaPid> retVal = new ArrayList<>();
+		SearchRuntimeDetails searchRuntimeDetails = new SearchRuntimeDetails(myRequest, theSearchUuid);
+		try (IResultIterator<JpaPid> resultIter = theSearchBuilder.createQuery(
+				theParams, searchRuntimeDetails, myRequest, getRequestPartitionId())) {
+			while (resultIter.hasNext() && retVal.size() < theMaxResultsToFetch) {
+				retVal.add(resultIter.next());
+			}
+		} catch (IOException e) {
+			ourLog.error("IO failure during database access", e);
+			throw new InternalErrorException(Msg.code(2551) + e);
+		}
+		ourLog.trace("Keyset search {} at position {} returned {} pids", theSearchUuid, myPosition, retVal.size());
+		return retVal;
+	}
+
+	private String createPageId(Search theSearch, int thePageSize, JpaPid theLastPid) {
+		ResourceTable lastResource = myEntityManager.find(ResourceTable.class, theLastPid.getId());
+		String sortValue;
+		if (isSortById(theSearch)) {
+			sortValue = lastResource.getFhirId();
+		} else {
+			sortValue = Long.toString(lastResource.getUpdatedDate().getTime());
+		}
+		String pageId = thePageSize + String.valueOf(PAGE_ID_SEPARATOR) + theLastPid.getId() + PAGE_ID_SEPARATOR
+				+ sortValue;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(pageId.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static boolean isSortById(Search theSearch) {
+		return theSearch
+				.getSearchParameterMap()
+				.map(t -> t.getSort() != null && IAnyResource.SP_RES_ID.equals(t.getSort().getParamName()))
+				.orElse(false);
+	}
+
+	private static String decodePageId(String thePageId) {
+		try {
+			return new String(Base64.getUrlDecoder().decode(thePageId), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException e) {
+			throw newInvalidPageIdException(thePageId);
+		}
+	}
+
+	private static InvalidRequestException newInvalidPageIdException(String thePageId) {
+		return new InvalidRequestException(Msg.code(2552) + "Invalid " + Constants.PARAM_PAGEID + " value: "
+				+ thePageId);
+	}
+}
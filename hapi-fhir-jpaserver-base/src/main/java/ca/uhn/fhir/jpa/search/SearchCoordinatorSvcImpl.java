@@ -32,13 +32,17 @@ import ca.uhn.fhir.jpa.api.dao.IFhirResourceDao;
 import ca.uhn.fhir.jpa.api.svc.ISearchCoordinatorSvc;
 import ca.uhn.fhir.jpa.config.SearchConfig;
 import ca.uhn.fhir.jpa.dao.BaseStorageDao;
+import ca.uhn.fhir.jpa.dao.IResultIterator;
 import ca.uhn.fhir.jpa.dao.ISearchBuilder;
 import ca.uhn.fhir.jpa.dao.SearchBuilderFactory;
 import ca.uhn.fhir.jpa.dao.search.ResourceNotFoundInIndexException;
 import ca.uhn.fhir.jpa.dao.tx.HapiTransactionService;
 import ca.uhn.fhir.jpa.entity.Search;
+import ca.uhn.fhir.jpa.entity.SearchTypeEnum;
 import ca.uhn.fhir.jpa.model.dao.JpaPid;
+import ca.uhn.fhir.jpa.model.search.SearchRuntimeDetails;
 import ca.uhn.fhir.jpa.model.search.SearchStatusEnum;
+import ca.uhn.fhir.jpa.search.builder.SearchBuilder;
 import ca.uhn.fhir.jpa.search.builder.StorageInterceptorHooksFacade;
 import ca.uhn.fhir.jpa.search.builder.tasks.SearchContinuationTask;
 import ca.uhn.fhir.jpa.search.builder.tasks.SearchTask;
@@ -48,6 +52,7 @@ import ca.uhn.fhir.jpa.search.cache.ISearchResultCacheSvc;
 import ca.uhn.fhir.jpa.search.cache.SearchCacheStatusEnum;
 import ca.uhn.fhir.jpa.searchparam.SearchParameterMap;
 import ca.uhn.fhir.jpa.util.QueryParameterUtils;
+import ca.uhn.fhir.jpa.util.SearchParameterMapCalculator;
 import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.rest.api.CacheControlDirective;
 import ca.uhn.fhir.rest.api.Constants;
@@ -75,8 +80,10 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -269,6 +276,11 @@ public class SearchCoordinatorSvcImpl implements ISearchCoordinatorSvc<JpaPid> {
 					.execute(searchCallback);
 			QueryParameterUtils.verifySearchHasntFailedOrThrowInternalErrorException(search);
 
+			// The results were stored somewhere this server can't read, e.g. on another node
+			if (searchTask == null && !mySearchResultCacheSvc.canFetchResults(search)) {
+				return executeSearchAgain(search, theFrom, theTo, theRequestDetails, theRequestPartitionId);
+			}
+
 			if (search.getStatus() == SearchStatusEnum.FINISHED) {
 				ourLog.trace("Search entity marked as finished with {} results", search.getNumFound());
 				break;
@@ -350,6 +362,52 @@ public class SearchCoordinatorSvcImpl implements ISearchCoordinatorSvc<JpaPid> {
 		return pids;
 	}
 
+	/**
+	 * Serves a page of a search whose stored results can't be fetched by this server by
+	 * executing the search again, up to the end of the requested page
+	 */
+	private List<JpaPid> executeSearchAgain(
+			Search theSearch,
+			int theFrom,
+			int theTo,
+			@Nullable RequestDetails theRequestDetails,
+			RequestPartitionId theRequestPartitionId) {
+		SearchParameterMap params = theSearch
+				.getSearchParameterMap()
+				.orElseThrow(() -> myExceptionSvc.newUnknownSearchException(theSearch.getUuid()));
+		String resourceType = theSearch.getResourceType();
+		IFhirResourceDao<?> dao = myDaoRegistry.getResourceDao(resourceType);
+		Class<? extends IBaseResource> resourceTypeClass =
+				myContext.getResourceDefinition(resourceType).getImplementingClass();
+		ISearchBuilder<JpaPid> sb = mySearchBuilderFactory.newSearchBuilder(dao, resourceType, resourceTypeClass);
+		sb.setMaxResultsToFetch(theTo);
+
+		ourLog.info(
+				"Results of search {} are not available on this server, executing it again for results {}-{}",
+				theSearch.getUuid(),
+				theFrom,
+				theTo);
+		return myTxService
+				.withRequest(theRequestDetails)
+				.withRequestPartitionId(theRequestPartitionId)
+				.readOnly()
+				.execute(() -> {
+					List<JpaPid> pids = new ArrayList<>();
+					SearchRuntimeDetails searchRuntimeDetails =
+							new SearchRuntimeDetails(theRequestDetails, theSearch.getUuid());
+					try (IResultIterator<JpaPid> resultIter = sb.createQuery(
+							params, searchRuntimeDetails, theRequestDetails, theRequestPartitionId)) {
+						while (resultIter.hasNext() && pids.size() < theTo) {
+							pids.add(resultIter.next());
+						}
+					} catch (IOException e) {
+						ourLog.error("IO failure during database access", e);
+						throw new InternalErrorException(Msg.code(2563) + e);
+					}
+					return new ArrayList<>(pids.subList(Math.min(theFrom, pids.size()), pids.size()));
+				});
+	}
+
 	@Override
 	public IBundleProvider registerSearch(
 			final IFhirResourceDao<?> theCallingDao,
@@ -407,6 +465,11 @@ public class SearchCoordinatorSvcImpl implements ISearchCoordinatorSvc<JpaPid> {
 					theParams, theRequestDetails, searchUuid, sb, loadSynchronousUpTo, theRequestPartitionId);
 		}
 
+		if (isKeysetPagingEligible(theParams)) {
+			ourLog.debug("Search {} is using keyset paging", searchUuid);
+			return submitKeysetSearch(theParams, theRequestDetails, theRequestPartitionId, search);
+		}
+
 		/*
 		 * See if there are any cached searches whose results we can return
 		 * instead
@@ -435,6 +498,59 @@ public class SearchCoordinatorSvcImpl implements ISearchCoordinatorSvc<JpaPid> {
 		return retVal;
 	}
 
+	/**
+	 * Keyset paging applies to searches sorted by a single column of the resource
+	 * table whose results would otherwise be stored in the search result table.
+	 */
+	private boolean isKeysetPagingEligible(SearchParameterMap theParams) {
+		if (!myStorageSettings.isKeysetPagingEnabled()) {
+			return false;
+		}
+		if (!SearchBuilder.isKeysetPagingSort(theParams.getSort())) {
+			return false;
+		}
+		if (theParams.getEverythingMode() != null || theParams.isLastN() || theParams.isDeleteExpunge()) {
+			return false;
+		}
+		if (theParams.containsKey(Constants.PARAM_CONTENT)
+				|| theParams.containsKey(Constants.PARAM_TEXT)
+				|| myStorageSettings.isAdvancedHSearchIndexing()) {
+			return false;
+		}
+		SearchTotalModeEnum totalMode = theParams.getSearchTotalMode() != null
+				? theParams.getSearchTotalMode()
+				: myStorageSettings.getDefaultTotalMode();
+		return !SearchParameterMapCalculator.isWantCount(totalMode)
+				&& !SearchParameterMapCalculator.isWantOnlyCount(theParams);
+	}
+
+	/**
+	 * Keyset paged searches don't run a background search task. We only store the
+	 * search entity so that paging requests can find the search parameters again,
+	 * and each page runs its own query.
+	 */
+	@Nonnull
+	private PersistedJpaKeysetBundleProvider submitKeysetSearch(
+			SearchParameterMap theParams,
+			RequestDetails theRequestDetails,
+			RequestPartitionId theRequestPartitionId,
+			Search theSearch) {
+		theSearch.setSearchType(SearchTypeEnum.KEYSET_SEARCH);
+		theSearch.setStatus(SearchStatusEnum.FINISHED);
+		theSearch.setSearchParameterMap(theParams);
+
+		Search search = myTxService
+				.withRequest(theRequestDetails)
+				.withRequestPartitionId(theRequestPartitionId)
+				.execute(() -> mySearchCacheSvc.save(theSearch, theRequestPartitionId));
+
+		PersistedJpaKeysetBundleProvider retVal = myPersistedJpaBundleProviderFactory.newInstanceKeyset(
+				theRequestDetails, search, PersistedJpaKeysetBundleProvider.FIRST_PAGE_ID);
+		retVal.setRequestPartitionId(theRequestPartitionId);
+		retVal.setCacheStatus(SearchCacheStatusEnum.NOT_TRIED);
+		return retVal;
+	}
+
 	private void validateSearch(SearchParameterMap theParams) {
 		validateIncludes(theParams.getIncludes(), Constants.PARAM_INCLUDE);
 		validateIncludes(theParams.getRevIncludes(), Constants.PARAM_REVINCLUDE);
@@ -640,7 +756,13 @@ public class SearchCoordinatorSvcImpl implements ISearchCoordinatorSvc<JpaPid> {
 
 		Optional<Search> candidate = mySearchCacheSvc.findCandidatesForReuse(
 				theResourceType, theQueryString, createdCutoff, theRequestPartitionId);
-		return candidate.orElse(null);
+
+		// Keyset paged searches don't store their results so they can't be reused, and neither
+		// can searches whose results this server can't read
+		return candidate
+				.filter(t -> t.getSearchType() != SearchTypeEnum.KEYSET_SEARCH)
+				.filter(mySearchResultCacheSvc::canFetchResults)
+				.orElse(null);
 	}
 
 	@Nullable
@@ -50,10 +50,13 @@ import ca.uhn.fhir.jpa.entity.ResourceSearchView;
 import ca.uhn.fhir.jpa.interceptor.JpaPreResourceAccessDetails;
 import ca.uhn.fhir.jpa.model.config.PartitionSettings;
 import ca.uhn.fhir.jpa.model.dao.JpaPid;
+import ca.uhn.fhir.jpa.model.dao.JpaPidList;
+import ca.uhn.fhir.jpa.model.dao.JpaPidSet;
 import ca.uhn.fhir.jpa.model.entity.BaseResourceIndexedSearchParam;
 import ca.uhn.fhir.jpa.model.entity.IBaseResourceEntity;
 import ca.uhn.fhir.jpa.model.entity.ResourceTag;
 import ca.uhn.fhir.jpa.model.search.SearchBuilderLoadIncludesParameters;
+import ca.uhn.fhir.jpa.model.search.SearchKeysetPosition;
 import ca.uhn.fhir.jpa.model.search.SearchRuntimeDetails;
 import ca.uhn.fhir.jpa.model.search.StorageProcessingMessage;
 import ca.uhn.fhir.jpa.search.SearchConstants;
@@ -198,6 +201,7 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 	private Set<JpaPid> myPidSet;
 	private boolean myHasNextIteratorQuery = false;
 	private RequestPartitionId myRequestPartitionId;
+	private SearchKeysetPosition myKeysetPosition;
 
 	@Autowired(required = false)
 	private IFulltextSearchSvc myFulltextSearchSvc;
@@ -349,7 +353,13 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 	 */
 	@Override
 	public void setPreviouslyAddedResourcePids(@Nonnull List<JpaPid> thePidSet) {
-		myPidSet = new HashSet<>(thePidSet);
+		myPidSet = new JpaPidSet(thePidSet);
+	}
+
+	@Override
+	public void setKeysetPosition(@Nonnull SearchKeysetPosition thePosition) {
+		Validate.notNull(thePosition, "thePosition must not be null");
+		myKeysetPosition = thePosition;
 	}
 
 	@SuppressWarnings("ConstantConditions")
@@ -365,7 +375,7 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 		init(theParams, theSearchRuntimeDetails.getSearchUuid(), theRequestPartitionId);
 
 		if (myPidSet == null) {
-			myPidSet = new HashSet<>();
+			myPidSet = new JpaPidSet();
 		}
 
 		return new QueryIterator(theSearchRuntimeDetails, theRequest);
@@ -715,6 +725,14 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 			queryStack3.setUseAggregate(true);
 		}
 
+		/*
+		 * Keyset paging - Only return results that sort after the last result
+		 * of the previous page
+		 */
+		if (myKeysetPosition != null && !myKeysetPosition.isFirstPage()) {
+			addKeysetPositionPredicate(sqlBuilder, sort);
+		}
+
 		/*
 		 * Sort
 		 *
@@ -725,6 +743,11 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 			assert !theCountOnlyFlag;
 
 			createSort(queryStack3, sort, theParams);
+
+			// Keyset paging needs a unique ordering, so resources sharing a sort value are ordered by PID
+			if (myKeysetPosition != null) {
+				queryStack3.addSortOnResourcePID(isAscending(sort));
+			}
 		}
 
 		/*
@@ -733,6 +756,38 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 		executeSearch(theOffset, theSearchQueryExecutors, sqlBuilder);
 	}
 
+	private void addKeysetPositionPredicate(SearchQueryBuilder theSqlBuilder, SortSpec theSort) {
+		if (!isKeysetPagingSort(theSort)) {
+			throw new InvalidRequestException(
+					Msg.code(2549) + "Keyset paging is only supported for searches sorted by a single "
+							+ Constants.PARAM_LASTUPDATED + " or " + IAnyResource.SP_RES_ID + " parameter");
+		}
+
+		boolean sortById = IAnyResource.SP_RES_ID.equals(theSort.getParamName());
+		theSqlBuilder.addPredicateKeysetPosition(
+				sortById,
+				isAscending(theSort),
+				myKeysetPosition.getSortValue(),
+				myKeysetPosition.getResourcePid());
+	}
+
+	/**
+	 * Can the given sort be used for keyset paging? This is the case if the search
+	 * is sorted on a single column of the resource table.
+	 *
+	 * @since 7.6.0
+	 */
+	public static boolean isKeysetPagingSort(@Nullable SortSpec theSort) {
+		return theSort != null
+				&& theSort.getChain() == null
+				&& (IAnyResource.SP_RES_ID.equals(theSort.getParamName())
+						|| Constants.PARAM_LASTUPDATED.equals(theSort.getParamName()));
+	}
+
+	private static boolean isAscending(SortSpec theSort) {
+		return (theSort.getOrder() == null) || (theSort.getOrder() == SortOrderEnum.ASC);
+	}
+
 	private void executeSearch(
 			Integer theOffset, List<ISearchQueryExecutor> theSearchQueryExecutors, SearchQueryBuilder sqlBuilder) {
 		GeneratedSql generatedSql = sqlBuilder.generate(theOffset, myMaxResultsToFetch);
@@ -1406,9 +1461,9 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 			findVersionFieldName = MY_TARGET_RESOURCE_VERSION;
 		}
 
-		List<JpaPid> nextRoundMatches = new ArrayList<>(matches);
+		List<JpaPid> nextRoundMatches = new JpaPidList(matches);
 		HashSet<JpaPid> allAdded = new HashSet<>();
-		HashSet<JpaPid> original = new HashSet<>(matches);
+		Set<JpaPid> original = new JpaPidSet(matches);
 		ArrayList<Include> includes = new ArrayList<>(currentIncludes);
 
 		int roundCounts = 0;
@@ -2211,7 +2266,7 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 		private JpaPid myNext;
 
 		IncludesIterator(Set<JpaPid> thePidSet, RequestDetails theRequest) {
-			myCurrentPids = new HashSet<>(thePidSet);
+			myCurrentPids = new JpaPidSet(thePidSet);
 			myCurrentIterator = null;
 			myRequest = theRequest;
 		}
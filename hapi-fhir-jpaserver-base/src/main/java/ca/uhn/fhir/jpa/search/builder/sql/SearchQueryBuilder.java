@@ -104,6 +104,7 @@ public class SearchQueryBuilder {
 	private final Dialect myDialect;
 	private boolean myMatchNothing;
 	private ResourceTablePredicateBuilder myResourceTableRoot;
+	private ResourceTablePredicateBuilder myResourceTableJoinedToRoot;
 	private boolean myHaveAtLeastOnePredicate;
 	private BaseJoiningPredicateBuilder myFirstPredicateBuilder;
 	private boolean dialectIsMsSql;
@@ -654,6 +655,24 @@ public class SearchQueryBuilder {
 		return myResourceTableRoot;
 	}
 
+	/**
+	 * Returns the HFJ_RESOURCE table that sorts and keyset predicates on resource table columns
+	 * should use. This is the query root if the root is HFJ_RESOURCE, otherwise a single
+	 * HFJ_RESOURCE table joined to the root which is reused by every caller.
+	 */
+	public ResourceTablePredicateBuilder getOrCreateResourceTableJoinedToRoot() {
+		if (myResourceTableJoinedToRoot == null) {
+			BaseJoiningPredicateBuilder firstPredicateBuilder = getOrCreateFirstPredicateBuilder();
+			if (firstPredicateBuilder instanceof ResourceTablePredicateBuilder) {
+				myResourceTableJoinedToRoot = (ResourceTablePredicateBuilder) firstPredicateBuilder;
+			} else {
+				myResourceTableJoinedToRoot =
+						addResourceTablePredicateBuilder(firstPredicateBuilder.getResourceIdColumn());
+			}
+		}
+		return myResourceTableJoinedToRoot;
+	}
+
 	/**
 	 * The SQL Builder library has one annoying limitation, which is that it does not use/understand bind variables
 	 * for its generated SQL. So we work around this by replacing our contents with a string in the SQL consisting
@@ -759,6 +778,41 @@ public class SearchQueryBuilder {
 		return false;
 	}
 
+	/**
+	 * Adds a keyset (seek) predicate which only matches resources sorting after the
+	 * given position, where the position is a value of the sort column plus a
+	 * resource PID used to break ties.
+	 *
+	 * @param theSortById   If true, the sort column is the FHIR ID, otherwise it is the last updated timestamp
+	 * @param theAscending  Is the sort ascending
+	 * @param theSortValue  The sort column value of the last resource on the previous page
+	 * @param theResourcePid The PID of the last resource on the previous page
+	 */
+	public void addPredicateKeysetPosition(
+			boolean theSortById, boolean theAscending, Object theSortValue, long theResourcePid) {
+		ResourceTablePredicateBuilder resourceTable = getOrCreateResourceTableJoinedToRoot();
+		DbColumn sortColumn = theSortById ? resourceTable.getColumnFhirId() : resourceTable.getColumnLastUpdated();
+		DbColumn resourceIdColumn = resourceTable.getResourceIdColumn();
+
+		String sortValuePlaceholder = generatePlaceholder(theSortValue);
+		String resourceIdPlaceholder = generatePlaceholder(theResourcePid);
+		Condition predicate;
+		if (theAscending) {
+			predicate = ComboCondition.or(
+					BinaryCondition.greaterThan(sortColumn, sortValuePlaceholder),
+					ComboCondition.and(
+							BinaryCondition.equalTo(sortColumn, sortValuePlaceholder),
+							BinaryCondition.greaterThan(resourceIdColumn, resourceIdPlaceholder)));
+		} else {
+			predicate = ComboCondition.or(
+					BinaryCondition.lessThan(sortColumn, sortValuePlaceholder),
+					ComboCondition.and(
+							BinaryCondition.equalTo(sortColumn, sortValuePlaceholder),
+							BinaryCondition.lessThan(resourceIdColumn, resourceIdPlaceholder)));
+		}
+		addPredicate(predicate);
+	}
+
 	public void addResourceIdsPredicate(List<Long> thePidList) {
 		DbColumn resourceIdColumn = getOrCreateFirstPredicateBuilder().getResourceIdColumn();
 		InCondition predicate = new InCondition(resourceIdColumn, generatePlaceholders(thePidList));
@@ -34,6 +34,7 @@ import ca.uhn.fhir.jpa.dao.tx.HapiTransactionService;
 import ca.uhn.fhir.jpa.entity.Search;
 import ca.uhn.fhir.jpa.interceptor.JpaPreResourceAccessDetails;
 import ca.uhn.fhir.jpa.model.dao.JpaPid;
+import ca.uhn.fhir.jpa.model.dao.JpaPidList;
 import ca.uhn.fhir.jpa.model.search.SearchRuntimeDetails;
 import ca.uhn.fhir.jpa.model.search.SearchStatusEnum;
 import ca.uhn.fhir.jpa.search.cache.ISearchCacheSvc;
@@ -97,10 +98,10 @@ public class SearchTask implements Callable<Void> {
 	private final SearchParameterMap myParams;
 	private final IDao myCallingDao;
 	private final String myResourceType;
-	private final ArrayList<JpaPid> mySyncedPids = new ArrayList<>();
+	private final JpaPidList mySyncedPids = new JpaPidList();
 	private final CountDownLatch myInitialCollectionLatch = new CountDownLatch(1);
 	private final CountDownLatch myCompletionLatch;
-	private final ArrayList<JpaPid> myUnsyncedPids = new ArrayList<>();
+	private final JpaPidList myUnsyncedPids = new JpaPidList();
 	private final RequestDetails myRequest;
 	private final RequestPartitionId myRequestPartitionId;
 	private final SearchRuntimeDetails mySearchRuntimeDetails;
@@ -293,7 +294,7 @@ public class SearchTask implements Callable<Void> {
 						doSaveSearch();
 					}
 
-					ArrayList<JpaPid> unsyncedPids = myUnsyncedPids;
+					JpaPidList unsyncedPids = myUnsyncedPids;
 					int countBlocked = 0;
 
 					// Interceptor call: STORAGE_PREACCESS_RESOURCES
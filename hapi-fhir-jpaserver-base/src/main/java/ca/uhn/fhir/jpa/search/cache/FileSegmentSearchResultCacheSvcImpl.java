@@ -0,0 +1,301 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.search.cache;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.jpa.entity.Search;
+import ca.uhn.fhir.jpa.model.dao.JpaPid;
+import ca.uhn.fhir.jpa.model.dao.JpaPidList;
+import ca.uhn.fhir.jpa.model.sched.HapiJob;
+import ca.uhn.fhir.jpa.model.sched.IHasScheduledJobs;
+import ca.uhn.fhir.jpa.model.sched.ISchedulerService;
+import ca.uhn.fhir.jpa.model.sched.ScheduledJobDefinition;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.time.DateUtils;
+import org.quartz.JobExecutionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Search result cache which stores the result PIDs of each search in a segment file in a
+ * local directory instead of in the HFJ_SEARCH_RESULT table. Each segment is a flat array of
+ * 8 byte PIDs in result order, so pages are read with a single positional read and no
+ * database round trip is needed to page through results.
+ * <p>
+ * Segments which have not been accessed for longer than
+ * {@link JpaStorageSettings#getExpireSearchResultsAfterMillis()} are deleted by a local
+ * scheduled job.
+ * </p>
+ * <p>
+ * Because segments are local to the node which executed the search, a search is only reused
+ * by that node. A paging request arriving on another node, or after the segment was lost,
+ * is served by executing the search again, so servers running more than one node should
+ * route paging requests for a given search to the same node (e.g. using sticky sessions).
+ * This implementation is only used if it is explicitly enabled.
+ * </p>
+ *
+ * @see JpaStorageSettings#setSearchResultCacheDirectory(String)
+ * @since 7.6.0
+ */
+public class FileSegmentSearchResultCacheSvcImpl implements ISearchResultCacheSvc, IHasScheduledJobs {
+	private static final Logger ourLog = LoggerFactory.getLogger(FileSegmentSearchResultCacheSvcImpl.class);
+	private static final String SEGMENT_PREFIX = "search-";
+	private static final String SEGMENT_SUFFIX = ".pids";
+	private static final int BYTES_PER_PID = Long.BYTES;
+
+	private final Path myDirectory;
+	private final Map<String, Long> myLastAccessMillis = new ConcurrentHashMap<>();
+
+	@Autowired
+	private JpaStorageSettings myStorageSettings;
+
+	private Long myNowForUnitTest;
+
+	/**
+	 * Constructor
+	 *
+	 * @param theDirectory The directory to store segment files in. It will be created if it does not exist.
+	 */
+	public FileSegmentSearchResultCacheSvcImpl(Path theDirectory) {
+		Validate.notNull(theDirectory, "theDirectory must not be null");
+		myDirectory = theDirectory;
+		try {
+			Files.createDirectories(myDirectory);
+		} catch (IOException e) {
+			throw new InternalErrorException(
+					Msg.code(2555) + "Unable to create search result cache directory " + myDirectory + ": " + e, e);
+		}
+	}
+
+	@Override
+	public void storeResults(
+			Search theSearch,
+			List<JpaPid> thePreviouslyStoredResourcePids,
+			List<JpaPid> theNewResourcePids,
+			RequestDetails theRequestDetails,
+			RequestPartitionId theRequestPartitionId) {
+		Path segment = getSegmentPath(theSearch);
+		ourLog.debug(
+				"Storing {} results with {} previous for search {} in {}",
+				theNewResourcePids.size(),
+				thePreviouslyStoredResourcePids.size(),
+				theSearch.getUuid(),
+				segment);
+
+		ByteBuffer buffer = ByteBuffer.allocate(theNewResourcePids.size() * BYTES_PER_PID);
+		if (theNewResourcePids instanceof JpaPidList) {
+			JpaPidList pids = (JpaPidList) theNewResourcePids;
+			for (int i = 0; i < pids.size(); i++) {
+				buffer.putLong(pids.getId(i));
+			}
+		} else {
+			for (JpaPid next : theNewResourcePids) {
+				buffer.putLong(next.getId());
+			}
+		}
+		buffer.flip();
+
+		// The first write for a search replaces any segment left behind under the same name
+		StandardOpenOption truncate = thePreviouslyStoredResourcePids.isEmpty()
+				? StandardOpenOption.TRUNCATE_EXISTING
+				: StandardOpenOption.WRITE;
+		long position = (long) thePreviouslyStoredResourcePids.size() * BYTES_PER_PID;
+		try (FileChannel channel =
+				FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE, truncate)) {
+			while (buffer.hasRemaining()) {
+				position += channel.write(buffer, position);
+			}
+		} catch (IOException e) {
+			throw new InternalErrorException(
+					Msg.code(2556) + "Failed to store results for search " + theSearch.getUuid() + ": " + e, e);
+		}
+		touch(segment);
+	}
+
+	@Override
+	public List<JpaPid> fetchResultPids(
+			Search theSearch,
+			int theFrom,
+			int theTo,
+			RequestDetails theRequestDetails,
+			RequestPartitionId theRequestPartitionId) {
+		List<JpaPid> retVal = readPids(theSearch, theFrom, theTo);
+		if (retVal != null) {
+			ourLog.debug("fetchResultPids for range {}-{} returned {} pids", theFrom, theTo, retVal.size());
+		}
+		return retVal;
+	}
+
+	@Override
+	public List<JpaPid> fetchAllResultPids(
+			Search theSearch, RequestDetails theRequestDetails, RequestPartitionId theRequestPartitionId) {
+		List<JpaPid> retVal = readPids(theSearch, 0, Integer.MAX_VALUE);
+		if (retVal != null) {
+			ourLog.trace("fetchAllResultPids returned {} pids", retVal.size());
+		}
+		return retVal;
+	}
+
+	/**
+	 * Returns <code>false</code> if there is no local segment for the search, which is the case
+	 * if it was executed by another node or its segment has expired
+	 */
+	@Override
+	public boolean canFetchResults(Search theSearch) {
+		return theSearch.getId() != null && Files.exists(getSegmentPath(theSearch));
+	}
+
+	/**
+	 * Deletes any segments which have not been accessed within the search result expiry time
+	 */
+	public void pollForExpiredSegmentsAndDeleteThem() {
+		if (!myStorageSettings.isExpireSearchResults()) {
+			return;
+		}
+		long cutoff = now() - myStorageSettings.getExpireSearchResultsAfterMillis();
+
+		int deleted = 0;
+		try (DirectoryStream<Path> segments =
+				Files.newDirectoryStream(myDirectory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+			for (Path next : segments) {
+				String fileName = next.getFileName().toString();
+				Long lastAccess = myLastAccessMillis.get(fileName);
+				if (lastAccess == null) {
+					// Left over from a previous run of this node
+					lastAccess = Files.getLastModifiedTime(next).toMillis();
+				}
+				if (lastAccess < cutoff) {
+					myLastAccessMillis.remove(fileName);
+					Files.deleteIfExists(next);
+					deleted++;
+				}
+			}
+		} catch (IOException e) {
+			ourLog.warn("Failed to delete expired search result segments in {}: {}", myDirectory, e.toString());
+		}
+
+		if (deleted > 0) {
+			ourLog.info("Deleted {} expired search result segments", deleted);
+		}
+	}
+
+	@Override
+	public void scheduleJobs(ISchedulerService theSchedulerService) {
+		ScheduledJobDefinition jobDetail = new ScheduledJobDefinition();
+		jobDetail.setId(getClass().getName());
+		jobDetail.setJobClass(Job.class);
+		theSchedulerService.scheduleLocalJob(DateUtils.MILLIS_PER_MINUTE, jobDetail);
+	}
+
+	@VisibleForTesting
+	void setStorageSettingsForUnitTest(JpaStorageSettings theStorageSettings) {
+		myStorageSettings = theStorageSettings;
+	}
+
+	@VisibleForTesting
+	void setNowForUnitTest(Long theNowForUnitTest) {
+		myNowForUnitTest = theNowForUnitTest;
+	}
+
+	/**
+	 * @return The PIDs in the given range, or <code>null</code> if there is no segment for the search
+	 */
+	private List<JpaPid> readPids(Search theSearch, int theFrom, int theTo) {
+		Path segment = getSegmentPath(theSearch);
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+			long available = channel.size() / BYTES_PER_PID;
+			int to = (int) Math.min(theTo, available);
+			if (theFrom >= to) {
+				touch(segment);
+				return Collections.emptyList();
+			}
+
+			ByteBuffer buffer = ByteBuffer.allocate((to - theFrom) * BYTES_PER_PID);
+			long position = (long) theFrom * BYTES_PER_PID;
+			while (buffer.hasRemaining()) {
+				int read = channel.read(buffer, position);
+				if (read < 0) {
+					break;
+				}
+				position += read;
+			}
+			buffer.flip();
+
+			JpaPidList retVal = new JpaPidList(to - theFrom);
+			while (buffer.remaining() >= BYTES_PER_PID) {
+				retVal.addId(buffer.getLong());
+			}
+			touch(segment);
+			return retVal;
+		} catch (NoSuchFileException e) {
+			return null;
+		} catch (IOException e) {
+			throw new InternalErrorException(
+					Msg.code(2557) + "Failed to read results for search " + theSearch.getUuid() + ": " + e, e);
+		}
+	}
+
+	private Path getSegmentPath(Search theSearch) {
+		Validate.notNull(theSearch.getId(), "Search has not been saved");
+		return myDirectory.resolve(SEGMENT_PREFIX + theSearch.getId() + SEGMENT_SUFFIX);
+	}
+
+	private void touch(Path theSegment) {
+		myLastAccessMillis.put(theSegment.getFileName().toString(), now());
+	}
+
+	private long now() {
+		if (myNowForUnitTest != null) {
+			return myNowForUnitTest;
+		}
+		return System.currentTimeMillis();
+	}
+
+	public static class Job implements HapiJob {
+		@Autowired
+		private ISearchResultCacheSvc myTarget;
+
+		@Override
+		public void execute(JobExecutionContext theContext) {
+			if (myTarget instanceof FileSegmentSearchResultCacheSvcImpl) {
+				((FileSegmentSearchResultCacheSvcImpl) myTarget).pollForExpiredSegmentsAndDeleteThem();
+			}
+		}
+	}
+}
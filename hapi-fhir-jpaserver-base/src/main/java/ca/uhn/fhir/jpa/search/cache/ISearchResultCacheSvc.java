@@ -67,4 +67,16 @@ public interface ISearchResultCacheSvc {
 	@Nullable
 	List<JpaPid> fetchAllResultPids(
 			Search theSearch, RequestDetails theRequestDetails, RequestPartitionId theRequestPartitionId);
+
+	/**
+	 * Can the stored results of the given search be fetched by this server? Implementations which
+	 * store results in a location that is only available to the server which executed the search
+	 * return <code>false</code> for searches which were executed by another server. Such searches
+	 * are not reused, and pages of their results are served by executing the search again.
+	 *
+	 * @since 7.6.0
+	 */
+	default boolean canFetchResults(Search theSearch) {
+		return true;
+	}
 }
@@ -60,6 +60,7 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.PersistenceContextType;
 import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.common.hapi.validation.support.CachingValidationSupport;
 import org.hl7.fhir.instance.model.api.IIdType;
 import org.hl7.fhir.r4.model.CodeSystem;
 import org.hl7.fhir.r4.model.ConceptMap;
@@ -141,6 +142,9 @@ public class TermCodeSystemStorageSvcImpl implements ITermCodeSystemStorageSvc {
 	@Autowired
 	private TermConceptDaoSvc myTermConceptDaoSvc;
 
+	@Autowired
+	private CachingValidationSupport myCachingValidationSupport;
+
 	@Transactional
 	@Override
 	public UploadStatistics applyDeltaCodeSystemsAdd(String theSystem, CustomTerminologySet theAdditions) {
@@ -163,6 +167,7 @@ public class TermCodeSystemStorageSvcImpl implements ITermCodeSystemStorageSvc {
 
 		TermCodeSystemVersion csv = cs.getCurrentVersion();
 		Validate.notNull(csv);
+		TermReadSvcImpl.invalidatePersistentValidationCacheAfterCommit(myCachingValidationSupport);
 
 		CodeSystem codeSystem = myTerminologySvc.fetchCanonicalCodeSystemFromCompleteContext(theSystem);
 		if (codeSystem.getContent() != CodeSystem.CodeSystemContentMode.NOTPRESENT) {
@@ -198,6 +203,7 @@ public class TermCodeSystemStorageSvcImpl implements ITermCodeSystemStorageSvc {
 		if (cs == null) {
 			throw new InvalidRequestException(Msg.code(845) + "Unknown code system: " + theSystem);
 		}
+		TermReadSvcImpl.invalidatePersistentValidationCacheAfterCommit(myCachingValidationSupport);
 		IIdType target = cs.getResource().getIdDt();
 
 		AtomicInteger removeCounter = new AtomicInteger(0);
@@ -418,6 +424,7 @@ public class TermCodeSystemStorageSvcImpl implements ITermCodeSystemStorageSvc {
 		assert TransactionSynchronizationManager.isActualTransactionActive();
 
 		ourLog.debug("Storing code system");
+		TermReadSvcImpl.invalidatePersistentValidationCacheAfterCommit(myCachingValidationSupport);
 
 		TermCodeSystemVersion codeSystemToStore = theCodeSystemVersion;
 		ValidateUtil.isTrueOrThrowInvalidRequest(codeSystemToStore.getResource() != null, "No resource supplied");
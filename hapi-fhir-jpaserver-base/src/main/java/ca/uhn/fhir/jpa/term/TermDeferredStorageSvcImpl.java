@@ -41,6 +41,7 @@ import ca.uhn.fhir.jpa.term.api.ITermDeferredStorageSvc;
 import ca.uhn.fhir.jpa.term.api.ITermVersionAdapterSvc;
 import ca.uhn.fhir.jpa.term.models.TermCodeSystemDeleteJobParameters;
 import ca.uhn.fhir.jpa.term.models.TermCodeSystemDeleteVersionJobParameters;
+import ca.uhn.fhir.jpa.util.QueryChunker;
 import ca.uhn.fhir.rest.api.server.SystemRequestDetails;
 import ca.uhn.fhir.util.StopWatch;
 import ca.uhn.fhir.util.TimeoutManager;
@@ -63,10 +64,15 @@ import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
@@ -81,11 +87,12 @@ public class TermDeferredStorageSvcImpl implements ITermDeferredStorageSvc, IHas
 	private boolean myAllowDeferredTasksTimeout = true;
 	private final List<TermCodeSystem> myDeferredCodeSystemsDeletions = Collections.synchronizedList(new ArrayList<>());
 	private final Queue<TermCodeSystemVersion> myDeferredCodeSystemVersionsDeletions = new ConcurrentLinkedQueue<>();
-	private final List<TermConcept> myDeferredConcepts = Collections.synchronizedList(new ArrayList<>());
+	// These can hold every concept and relationship of a large code system, so we use queues that
+	// can be drained from the head in constant time
+	private final Queue<TermConcept> myDeferredConcepts = new LinkedBlockingQueue<>();
 	private final List<ValueSet> myDeferredValueSets = Collections.synchronizedList(new ArrayList<>());
 	private final List<ConceptMap> myDeferredConceptMaps = Collections.synchronizedList(new ArrayList<>());
-	private final List<TermConceptParentChildLink> myConceptLinksToSaveLater =
-			Collections.synchronizedList(new ArrayList<>());
+	private final Queue<TermConceptParentChildLink> myConceptLinksToSaveLater = new LinkedBlockingQueue<>();
 
 	// TODO - why is this needed? it's cumbersome to maintain; consider removing it
 	/**
@@ -189,11 +196,13 @@ public class TermDeferredStorageSvcImpl implements ITermDeferredStorageSvc, IHas
 
 		int count = Math.min(1000, myDeferredConcepts.size());
 		ourLog.debug("Saving {} deferred concepts...", count);
-		while (codeCount < count && myDeferredConcepts.size() > 0) {
-			TermConcept next = myDeferredConcepts.remove(0);
-			if (myCodeSystemVersionDao
-					.findById(next.getCodeSystemVersion().getPid())
-					.isPresent()) {
+		Map<Long, Boolean> codeSystemVersionPidToExists = new HashMap<>();
+		while (codeCount < count && !myDeferredConcepts.isEmpty()) {
+			TermConcept next = myDeferredConcepts.poll();
+			Long codeSystemVersionPid = next.getCodeSystemVersion().getPid();
+			boolean codeSystemVersionExists = codeSystemVersionPidToExists.computeIfAbsent(
+					codeSystemVersionPid, t -> myCodeSystemVersionDao.findById(t).isPresent());
+			if (codeSystemVersionExists) {
 				try {
 					codeCount += myTermConceptDaoSvc.saveConcept(next);
 				} catch (Exception theE) {
@@ -225,19 +234,31 @@ public class TermDeferredStorageSvcImpl implements ITermDeferredStorageSvc, IHas
 		if (codeCount == 0) {
 			count = Math.min(1000, myConceptLinksToSaveLater.size());
 			ourLog.info("Saving {} deferred concept relationships...", count);
-			while (relCount < count && myConceptLinksToSaveLater.size() > 0) {
-				TermConceptParentChildLink next = myConceptLinksToSaveLater.remove(0);
+			List<TermConceptParentChildLink> links = new ArrayList<>(count);
+			while (links.size() < count && !myConceptLinksToSaveLater.isEmpty()) {
+				links.add(myConceptLinksToSaveLater.poll());
+			}
+
+			// Check that the concepts on both sides of every link in this batch still exist
+			// using a few queries instead of two lookups per link
+			Set<Long> conceptPids = new HashSet<>();
+			for (TermConceptParentChildLink next : links) {
 				assert next.getChild() != null;
 				assert next.getParent() != null;
+				if (next.getChild().getId() != null) {
+					conceptPids.add(next.getChild().getId());
+				}
+				if (next.getParent().getId() != null) {
+					conceptPids.add(next.getParent().getId());
+				}
+			}
+			Set<Long> existingConceptPids = new HashSet<>();
+			new QueryChunker<Long>()
+					.chunk(conceptPids, pids -> existingConceptPids.addAll(myConceptDao.findExistingPids(pids)));
 
-				if ((next.getChild().getId() == null
-								|| !myConceptDao
-										.findById(next.getChild().getId())
-										.isPresent())
-						|| (next.getParent().getId() == null
-								|| !myConceptDao
-										.findById(next.getParent().getId())
-										.isPresent())) {
+			for (TermConceptParentChildLink next : links) {
+				if (!existingConceptPids.contains(next.getChild().getId())
+						|| !existingConceptPids.contains(next.getParent().getId())) {
 					ourLog.warn(
 							"Not inserting link from child {} to parent {} because it appears to have been deleted",
 							next.getParent().getCode(),
@@ -511,6 +532,11 @@ public class TermDeferredStorageSvcImpl implements ITermDeferredStorageSvc, IHas
 		myConceptDao = theConceptDao;
 	}
 
+	@VisibleForTesting
+	void setConceptParentChildLinkDaoForUnitTest(ITermConceptParentChildLinkDao theConceptParentChildLinkDao) {
+		myConceptParentChildLinkDao = theConceptParentChildLinkDao;
+	}
+
 	@VisibleForTesting
 	void setCodeSystemVersionDaoForUnitTest(ITermCodeSystemVersionDao theCodeSystemVersionDao) {
 		myCodeSystemVersionDao = theCodeSystemVersionDao;
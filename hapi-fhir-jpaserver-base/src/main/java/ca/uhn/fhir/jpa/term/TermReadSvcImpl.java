@@ -43,6 +43,7 @@ import ca.uhn.fhir.jpa.dao.data.ITermCodeSystemDao;
 import ca.uhn.fhir.jpa.dao.data.ITermCodeSystemVersionDao;
 import ca.uhn.fhir.jpa.dao.data.ITermConceptDao;
 import ca.uhn.fhir.jpa.dao.data.ITermConceptDesignationDao;
+import ca.uhn.fhir.jpa.dao.data.ITermConceptParentChildLinkDao;
 import ca.uhn.fhir.jpa.dao.data.ITermConceptPropertyDao;
 import ca.uhn.fhir.jpa.dao.data.ITermValueSetConceptDao;
 import ca.uhn.fhir.jpa.dao.data.ITermValueSetConceptDesignationDao;
@@ -73,6 +74,7 @@ import ca.uhn.fhir.jpa.term.api.ITermDeferredStorageSvc;
 import ca.uhn.fhir.jpa.term.api.ITermReadSvc;
 import ca.uhn.fhir.jpa.term.api.ReindexTerminologyResult;
 import ca.uhn.fhir.jpa.term.ex.ExpansionTooCostlyException;
+import ca.uhn.fhir.jpa.util.QueryChunker;
 import ca.uhn.fhir.rest.api.Constants;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
 import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
@@ -155,6 +157,7 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.interceptor.NoRollbackRuleAttribute;
 import org.springframework.transaction.interceptor.RuleBasedTransactionAttribute;
+import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.comparator.Comparators;
@@ -262,6 +265,9 @@ public class TermReadSvcImpl implements ITermReadSvc, IHasScheduledJobs {
 	@Autowired
 	private ITermConceptDao myTermConceptDao;
 
+	@Autowired
+	private ITermConceptParentChildLinkDao myConceptParentChildLinkDao;
+
 	@Autowired
 	private ITermValueSetConceptViewDao myTermValueSetConceptViewDao;
 
@@ -494,6 +500,7 @@ public class TermReadSvcImpl implements ITermReadSvc, IHasScheduledJobs {
 	@Transactional
 	public void deleteValueSetAndChildren(ResourceTable theResourceTable) {
 		deleteValueSetForResource(theResourceTable);
+		invalidatePersistentValidationCacheAfterCommit(myCachingValidationSupport);
 	}
 
 	@Override
@@ -1981,6 +1988,11 @@ public class TermReadSvcImpl implements ITermReadSvc, IHasScheduledJobs {
 		}
 	}
 
+	/**
+	 * Adds all descendants of the given concept. The hierarchy is walked one level at a time,
+	 * loading the children of every concept in the current level in a single query, instead of
+	 * loading the child collection of every concept individually.
+	 */
 	private void addConceptAndChildren(
 			IValueSetConceptAccumulator theValueSetCodeAccumulator,
 			Set<String> theAddedCodes,
@@ -1988,22 +2000,33 @@ public class TermReadSvcImpl implements ITermReadSvc, IHasScheduledJobs {
 			String theSystem,
 			boolean theAdd,
 			TermConcept theConcept) {
-		for (TermConcept nextChild : theConcept.getChildCodes()) {
-			boolean added = addCodeIfNotAlreadyAdded(
-					theValueSetCodeAccumulator,
-					theAddedCodes,
-					theAdd,
-					theSystem,
-					theInclude.getVersion(),
-					nextChild.getCode(),
-					nextChild.getDisplay(),
-					nextChild.getId(),
-					nextChild.getParentPidsAsString(),
-					nextChild.getDesignations());
-			if (added) {
-				addConceptAndChildren(
-						theValueSetCodeAccumulator, theAddedCodes, theInclude, theSystem, theAdd, nextChild);
-			}
+		Set<Long> visitedPids = new HashSet<>();
+		visitedPids.add(theConcept.getId());
+		List<Long> currentLevel = List.of(theConcept.getId());
+		while (!currentLevel.isEmpty()) {
+			List<Long> nextLevel = new ArrayList<>();
+			new QueryChunker<Long>().chunk(currentLevel, pids -> {
+				for (TermConcept nextChild : myConceptParentChildLinkDao.findChildrenByParentPids(pids)) {
+					if (!visitedPids.add(nextChild.getId())) {
+						continue;
+					}
+					boolean added = addCodeIfNotAlreadyAdded(
+							theValueSetCodeAccumulator,
+							theAddedCodes,
+							theAdd,
+							theSystem,
+							theInclude.getVersion(),
+							nextChild.getCode(),
+							nextChild.getDisplay(),
+							nextChild.getId(),
+							nextChild.getParentPidsAsString(),
+							nextChild.getDesignations());
+					if (added) {
+						nextLevel.add(nextChild.getId());
+					}
+				}
+			});
+			currentLevel = nextLevel;
 		}
 	}
 
@@ -2035,8 +2058,8 @@ public class TermReadSvcImpl implements ITermReadSvc, IHasScheduledJobs {
 
 		Long totalConcepts = termValueSet.getTotalConcepts();
 
-		deletePreCalculatedValueSetContents(termValueSet);
-
+		// The pre-calculated concepts are kept (they are ignored until the ValueSet is expanded again)
+		// so that the next pre-expansion only needs to apply the differences
 		termValueSet.setExpansionStatus(TermValueSetPreExpansionStatusEnum.NOT_EXPANDED);
 		termValueSet.setExpansionTimestamp(null);
 		myTermValueSetDao.save(termValueSet);
@@ -2455,12 +2478,14 @@ public class TermReadSvcImpl implements ITermReadSvc, IHasScheduledJobs {
 
 				ValueSetConceptAccumulator valueSetConceptAccumulator =
 						myValueSetConceptAccumulatorFactory.create(valueSetToExpand);
+				txTemplate.execute(t -> valueSetConceptAccumulator.loadExistingConcepts());
 				ValueSetExpansionOptions options = new ValueSetExpansionOptions();
 				options.setIncludeHierarchy(true);
 				expandValueSet(options, valueSet, valueSetConceptAccumulator);
 
 				// We are done with this ValueSet.
 				txTemplate.executeWithoutResult(t -> {
+					valueSetConceptAccumulator.deleteUnmatchedExistingConcepts();
 					valueSetToExpand.setExpansionStatus(TermValueSetPreExpansionStatusEnum.EXPANDED);
 					valueSetToExpand.setExpansionTimestamp(new Date());
 					myTermValueSetDao.saveAndFlush(valueSetToExpand);
@@ -2469,10 +2494,11 @@ public class TermReadSvcImpl implements ITermReadSvc, IHasScheduledJobs {
 				afterValueSetExpansionStatusChange();
 
 				ourLog.info(
-						"Pre-expanded ValueSet[{}] with URL[{}] - Saved {} concepts in {}",
+						"Pre-expanded ValueSet[{}] with URL[{}] - Saved {} concepts ({} unchanged) in {}",
 						valueSet.getId(),
 						valueSet.getUrl(),
 						valueSetConceptAccumulator.getConceptsSaved(),
+						valueSetConceptAccumulator.getConceptsKept(),
 						sw);
 
 			} catch (Exception e) {
@@ -2500,6 +2526,27 @@ public class TermReadSvcImpl implements ITermReadSvc, IHasScheduledJobs {
 		myCachingValidationSupport.invalidateCaches();
 	}
 
+	/**
+	 * The persistent validation cache outlives the in-heap caches, so it is cleared whenever
+	 * terminology content is stored. This happens after the commit so that a concurrent
+	 * validation can't repopulate it from the content being replaced.
+	 */
+	static void invalidatePersistentValidationCacheAfterCommit(CachingValidationSupport theCachingValidationSupport) {
+		if (theCachingValidationSupport == null || theCachingValidationSupport.getPersistentCache() == null) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					theCachingValidationSupport.invalidatePersistentCache();
+				}
+			});
+		} else {
+			theCachingValidationSupport.invalidatePersistentCache();
+		}
+	}
+
 	private synchronized boolean isPreExpandingValueSets() {
 		return myPreExpandingValueSets;
 	}
@@ -2541,6 +2588,7 @@ public class TermReadSvcImpl implements ITermReadSvc, IHasScheduledJobs {
 		ourLog.info(
 				"Storing TermValueSet for {}",
 				theValueSet.getIdElement().toVersionless().getValueAsString());
+		invalidatePersistentValidationCacheAfterCommit(myCachingValidationSupport);
 
 		/*
 		 * Get CodeSystem and validate CodeSystemVersion
@@ -2551,6 +2599,22 @@ public class TermReadSvcImpl implements ITermReadSvc, IHasScheduledJobs {
 		termValueSet.setVersion(theValueSet.getVersion());
 		termValueSet.setName(theValueSet.hasName() ? theValueSet.getName() : null);
 
+		// If the URL, version and name are unchanged, keep the existing TermValueSet and its
+		// pre-calculated concepts so that the next pre-expansion only needs to apply the differences
+		Optional<TermValueSet> optionalExistingTermValueSetForResource =
+				myTermValueSetDao.findByResourcePid(theResourceTable.getId());
+		if (optionalExistingTermValueSetForResource.isPresent()) {
+			TermValueSet existingTermValueSet = optionalExistingTermValueSetForResource.get();
+			if (Objects.equals(existingTermValueSet.getUrl(), termValueSet.getUrl())
+					&& Objects.equals(existingTermValueSet.getVersion(), termValueSet.getVersion())
+					&& Objects.equals(existingTermValueSet.getName(), termValueSet.getName())) {
+				existingTermValueSet.setExpansionStatus(TermValueSetPreExpansionStatusEnum.NOT_EXPANDED);
+				existingTermValueSet.setExpansionTimestamp(null);
+				myTermValueSetDao.save(existingTermValueSet);
+				return;
+			}
+		}
+
 		// Delete version being replaced
 		deleteValueSetForResource(theResourceTable);
 
@@ -2641,14 +2705,18 @@ public class TermReadSvcImpl implements ITermReadSvc, IHasScheduledJobs {
 		TermConcept codeB = findCode(codeBSystemIdentifier, conceptB.getCode())
 				.orElseThrow(() -> new InvalidRequestException("Unknown code: " + conceptB));
 
-		SearchSession searchSession = Search.session(myEntityManager);
-
+		/*
+		 * Each concept stores the PIDs of all of its ancestors (not only its direct parents),
+		 * computed when the code system was loaded, so subsumption can be tested directly
+		 * against the two concepts we have already loaded without walking the hierarchy
+		 * or querying the fulltext index.
+		 */
 		ConceptSubsumptionOutcome subsumes;
-		subsumes = testForSubsumption(searchSession, codeA, codeB, ConceptSubsumptionOutcome.SUBSUMES);
-		if (subsumes == null) {
-			subsumes = testForSubsumption(searchSession, codeB, codeA, ConceptSubsumptionOutcome.SUBSUMEDBY);
-		}
-		if (subsumes == null) {
+		if (codeB.getAncestorPids().contains(codeA.getId())) {
+			subsumes = ConceptSubsumptionOutcome.SUBSUMES;
+		} else if (codeA.getAncestorPids().contains(codeB.getId())) {
+			subsumes = ConceptSubsumptionOutcome.SUBSUMEDBY;
+		} else {
 			subsumes = ConceptSubsumptionOutcome.NOTSUBSUMED;
 		}
 
@@ -2714,26 +2782,6 @@ public class TermReadSvcImpl implements ITermReadSvc, IHasScheduledJobs {
 		});
 	}
 
-	@Nullable
-	private ConceptSubsumptionOutcome testForSubsumption(
-			SearchSession theSearchSession,
-			TermConcept theLeft,
-			TermConcept theRight,
-			ConceptSubsumptionOutcome theOutput) {
-		List<TermConcept> fetch = theSearchSession
-				.search(TermConcept.class)
-				.where(f -> f.bool()
-						.must(f.match().field("myId").matching(theRight.getId()))
-						.must(f.match().field("myParentPids").matching(Long.toString(theLeft.getId()))))
-				.fetchHits(1);
-
-		if (fetch.size() > 0) {
-			return theOutput;
-		} else {
-			return null;
-		}
-	}
-
 	private ArrayList<FhirVersionIndependentConcept> toVersionIndependentConcepts(
 			String theSystem, Set<TermConcept> codes) {
 		ArrayList<FhirVersionIndependentConcept> retVal = new ArrayList<>(codes.size());
@@ -26,19 +26,34 @@ import ca.uhn.fhir.jpa.entity.TermConceptDesignation;
 import ca.uhn.fhir.jpa.entity.TermValueSet;
 import ca.uhn.fhir.jpa.entity.TermValueSetConcept;
 import ca.uhn.fhir.jpa.entity.TermValueSetConceptDesignation;
+import ca.uhn.fhir.jpa.util.QueryChunker;
 import ca.uhn.fhir.util.ValidateUtil;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import jakarta.annotation.Nonnull;
+import org.springframework.data.domain.Pageable;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.apache.commons.lang3.StringUtils.isAnyBlank;
 import static org.apache.commons.lang3.StringUtils.isNoneBlank;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import static org.apache.commons.lang3.StringUtils.isNotEmpty;
 
 public class ValueSetConceptAccumulator implements IValueSetConceptAccumulator {
 	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(ValueSetConceptAccumulator.class);
+	private static final int LOAD_EXISTING_PAGE_SIZE = 1000;
+	private static final HashFunction ourFingerprintHashFunction = Hashing.murmur3_128();
+
+	@VisibleForTesting
+	static final int REPLACED_CONCEPTS_BATCH_SIZE = 100;
 
 	private TermValueSet myTermValueSet;
 	private final ITermValueSetDao myValueSetDao;
@@ -47,6 +62,20 @@ public class ValueSetConceptAccumulator implements IValueSetConceptAccumulator {
 	private int myConceptsSaved;
 	private int myDesignationsSaved;
 	private int myConceptsExcluded;
+	private int myConceptsKept;
+
+	/*
+	 * The following are only populated in delta mode, see loadExistingConcepts().
+	 *
+	 * - myExistingConcepts: existing concepts which have not (yet) been included again, keyed by system and code
+	 * - myKeptConceptPidsByOrderDelta: kept concepts, keyed by the amount their stored order must change by
+	 * - myKeptConceptsToRelink: kept concepts whose source concept PID or parent PIDs have changed
+	 * - myReplacedConcepts: changed concepts which replace an existing concept, saved once the existing one is deleted
+	 */
+	private Map<String, ExistingConcept> myExistingConcepts;
+	private Map<Integer, List<Long>> myKeptConceptPidsByOrderDelta;
+	private List<ExistingConcept> myKeptConceptsToRelink;
+	private List<ReplacedConcept> myReplacedConcepts;
 
 	private boolean mySupportLegacyLob = false;
 
@@ -78,10 +107,11 @@ public class ValueSetConceptAccumulator implements IValueSetConceptAccumulator {
 			Long theSourceConceptPid,
 			String theSourceConceptDirectParentPids,
 			String theSystemVersion) {
-		saveConcept(
+		includeConceptWithDesignations(
 				theSystem,
 				theCode,
 				theDisplay,
+				null,
 				theSourceConceptPid,
 				theSourceConceptDirectParentPids,
 				theSystemVersion);
@@ -96,17 +126,32 @@ public class ValueSetConceptAccumulator implements IValueSetConceptAccumulator {
 			Long theSourceConceptPid,
 			String theSourceConceptDirectParentPids,
 			String theSystemVersion) {
-		TermValueSetConcept concept = saveConcept(
+		ExistingConcept existingConcept = findExistingConcept(theSystem, theCode);
+		if (existingConcept != null
+				&& existingConcept.myFingerprint == conceptFingerprint(theSystemVersion, theDisplay, theDesignations)) {
+			keepExistingConcept(existingConcept, theSourceConceptPid, theSourceConceptDirectParentPids);
+			return;
+		}
+
+		TermValueSetConcept concept = createConcept(
 				theSystem,
 				theCode,
 				theDisplay,
 				theSourceConceptPid,
 				theSourceConceptDirectParentPids,
 				theSystemVersion);
-		if (theDesignations != null) {
-			for (TermConceptDesignation designation : theDesignations) {
-				saveConceptDesignation(concept, designation);
+		if (existingConcept != null) {
+			// The existing concept has changed, it is deleted (in batches) before it is saved again
+			myReplacedConcepts.add(new ReplacedConcept(existingConcept.myPid, concept, theDesignations));
+			if (myReplacedConcepts.size() >= REPLACED_CONCEPTS_BATCH_SIZE) {
+				saveReplacedConcepts();
 			}
+		} else {
+			saveConcept(concept, theDesignations);
+		}
+
+		if (++myConceptsSaved % 250 == 0) {
+			ourLog.info("Have pre-expanded {} concepts in ValueSet[{}]", myConceptsSaved, myTermValueSet.getUrl());
 		}
 	}
 
@@ -116,6 +161,9 @@ public class ValueSetConceptAccumulator implements IValueSetConceptAccumulator {
 			return false;
 		}
 
+		// Replaced concepts must be stored before they can be excluded
+		saveReplacedConcepts();
+
 		// Get existing entity so it can be deleted.
 		Optional<TermValueSetConcept> optionalConcept;
 		int versionIdx = theSystem.indexOf("|");
@@ -143,6 +191,9 @@ public class ValueSetConceptAccumulator implements IValueSetConceptAccumulator {
 			}
 			myValueSetConceptDao.deleteById(concept.getId());
 			myTermValueSet.decrementTotalConcepts();
+			if (myExistingConcepts != null) {
+				myExistingConcepts.remove(toKey(concept.getSystem(), theCode));
+			}
 			myValueSetDao.save(myTermValueSet);
 			ourLog.debug(
 					"Done excluding [{}|{}] from ValueSet[{}]",
@@ -157,7 +208,7 @@ public class ValueSetConceptAccumulator implements IValueSetConceptAccumulator {
 		return false;
 	}
 
-	private TermValueSetConcept saveConcept(
+	private TermValueSetConcept createConcept(
 			String theSystem,
 			String theCode,
 			String theDisplay,
@@ -190,14 +241,18 @@ public class ValueSetConceptAccumulator implements IValueSetConceptAccumulator {
 			concept.clearSourceConceptDirectParentPidsLob();
 		}
 
-		myValueSetConceptDao.save(concept);
+		return concept;
+	}
+
+	private void saveConcept(TermValueSetConcept theConcept, Collection<TermConceptDesignation> theDesignations) {
+		myValueSetConceptDao.save(theConcept);
 		myValueSetDao.save(myTermValueSet.incrementTotalConcepts());
 
-		if (++myConceptsSaved % 250 == 0) {
-			ourLog.info("Have pre-expanded {} concepts in ValueSet[{}]", myConceptsSaved, myTermValueSet.getUrl());
+		if (theDesignations != null) {
+			for (TermConceptDesignation designation : theDesignations) {
+				saveConceptDesignation(theConcept, designation);
+			}
 		}
-
-		return concept;
 	}
 
 	private TermValueSetConceptDesignation saveConceptDesignation(
@@ -232,8 +287,210 @@ public class ValueSetConceptAccumulator implements IValueSetConceptAccumulator {
 		return designation;
 	}
 
+	/**
+	 * Loads a summary of the concepts already stored for this ValueSet (e.g. by a previous pre-expansion)
+	 * and, if there are any, switches this accumulator into delta mode. In delta mode an included concept
+	 * which is already stored with the same display, system version and designations is kept, a concept
+	 * whose details have changed is replaced, and new concepts are inserted as usual. Existing concepts
+	 * which are not included again are removed by {@link #deleteUnmatchedExistingConcepts()}, which must
+	 * be called once the expansion is complete.
+	 * <p>
+	 * The source concept PID and parent PIDs are not part of the comparison, since they change whenever
+	 * the CodeSystem is stored again. If they have changed, they are updated on the kept concept.
+	 * </p>
+	 * <p>
+	 * Only a fingerprint of each existing concept is held in memory. The existing concepts are moved
+	 * to negative orders here, so that they never clash with the order of a newly saved concept, and
+	 * are given their new order in bulk by {@link #deleteUnmatchedExistingConcepts()}.
+	 * </p>
+	 *
+	 * @return Returns the number of existing concepts
+	 * @since 7.6.0
+	 */
+	public int loadExistingConcepts() {
+		Long valueSetId = myTermValueSet.getId();
+
+		Map<Long, Long> conceptPidToDesignationsFingerprint = new HashMap<>();
+		Long afterPid = -1L;
+		List<Object[]> page;
+		do {
+			page = myValueSetConceptDesignationDao.findDesignationSummariesByTermValueSetId(
+					Pageable.ofSize(LOAD_EXISTING_PAGE_SIZE), valueSetId, afterPid);
+			for (Object[] next : page) {
+				afterPid = (Long) next[0];
+				long fingerprint = designationFingerprint(
+						(String) next[2], (String) next[3], (String) next[4], (String) next[5], (String) next[6]);
+				conceptPidToDesignationsFingerprint.merge((Long) next[1], fingerprint, Long::sum);
+			}
+		} while (page.size() == LOAD_EXISTING_PAGE_SIZE);
+
+		Map<String, ExistingConcept> existingConcepts = new HashMap<>();
+		int minOrder = 0;
+		int maxOrder = -1;
+		afterPid = -1L;
+		do {
+			page = myValueSetConceptDao.findConceptSummariesByTermValueSetId(
+					Pageable.ofSize(LOAD_EXISTING_PAGE_SIZE), valueSetId, afterPid);
+			for (Object[] next : page) {
+				Long pid = (Long) next[0];
+				afterPid = pid;
+				String parentPids = isNotEmpty((String) next[6]) ? (String) next[6] : (String) next[7];
+				long fingerprint = conceptFingerprint(
+						(String) next[2], (String) next[4], conceptPidToDesignationsFingerprint.getOrDefault(pid, 0L));
+				int order = (Integer) next[8];
+				ExistingConcept existingConcept =
+						new ExistingConcept(pid, fingerprint, linkFingerprint((Long) next[5], parentPids), order);
+				existingConcepts.put(toKey((String) next[1], (String) next[3]), existingConcept);
+				minOrder = Math.min(minOrder, order);
+				maxOrder = Math.max(maxOrder, order);
+			}
+		} while (page.size() == LOAD_EXISTING_PAGE_SIZE);
+
+		if (!existingConcepts.isEmpty()) {
+			ourLog.info(
+					"Found {} existing concepts in ValueSet[{}], only changes will be applied",
+					existingConcepts.size(),
+					myTermValueSet.getUrl());
+
+			// Shift every existing order below both zero and the current lowest order, so that
+			// the update can't clash with itself and no new concept can clash with an existing one
+			int orderShift = maxOrder + 1 - minOrder;
+			myValueSetConceptDao.addToOrderByTermValueSetId(valueSetId, -orderShift);
+			existingConcepts.values().forEach(t -> t.myOrder -= orderShift);
+
+			myExistingConcepts = existingConcepts;
+			myKeptConceptPidsByOrderDelta = new HashMap<>();
+			myKeptConceptsToRelink = new ArrayList<>();
+			myReplacedConcepts = new ArrayList<>();
+		}
+		return existingConcepts.size();
+	}
+
+	/**
+	 * In delta mode, saves any outstanding replaced concepts, deletes the existing concepts which were
+	 * not included again, gives the kept concepts their new order and recalculates the totals on the
+	 * ValueSet. Does nothing otherwise.
+	 *
+	 * @since 7.6.0
+	 */
+	public void deleteUnmatchedExistingConcepts() {
+		if (myExistingConcepts == null) {
+			return;
+		}
+
+		saveReplacedConcepts();
+
+		List<Long> unmatchedPids = new ArrayList<>(myExistingConcepts.size());
+		myExistingConcepts.values().forEach(t -> unmatchedPids.add(t.myPid));
+		new QueryChunker<Long>().chunk(unmatchedPids, t -> {
+			myValueSetConceptDesignationDao.deleteByConceptPids(t);
+			myValueSetConceptDao.deleteByPids(t);
+		});
+		ourLog.info(
+				"Kept {} unchanged concepts and removed {} concepts no longer in ValueSet[{}]",
+				myConceptsKept,
+				unmatchedPids.size(),
+				myTermValueSet.getUrl());
+
+		relinkKeptConcepts();
+		myKeptConceptPidsByOrderDelta.forEach((delta, pids) -> new QueryChunker<Long>()
+				.chunk(pids, t -> myValueSetConceptDao.addToOrderByPids(t, delta)));
+
+		myExistingConcepts = null;
+		myKeptConceptPidsByOrderDelta = null;
+		myKeptConceptsToRelink = null;
+		myReplacedConcepts = null;
+		removeGapsFromConceptOrder();
+
+		Long valueSetId = myTermValueSet.getId();
+		myTermValueSet.setTotalConcepts(myValueSetConceptDao.countByTermValueSetId(valueSetId).longValue());
+		myTermValueSet.setTotalConceptDesignations(
+				myValueSetConceptDesignationDao.countByTermValueSetId(valueSetId).longValue());
+		myValueSetDao.save(myTermValueSet);
+	}
+
+	/**
+	 * In delta mode, returns (and removes) the existing concept with the given system and code if there is one
+	 */
+	private ExistingConcept findExistingConcept(String theSystem, String theCode) {
+		if (myExistingConcepts == null || isAnyBlank(theSystem, theCode)) {
+			return null;
+		}
+		int versionIndex = theSystem.indexOf("|");
+		String systemUrl = versionIndex >= 0 ? theSystem.substring(0, versionIndex) : theSystem;
+		return myExistingConcepts.remove(toKey(systemUrl, theCode));
+	}
+
+	/**
+	 * Records that an unchanged existing concept is kept at the current order. Nothing is written
+	 * until {@link #deleteUnmatchedExistingConcepts()} is called.
+	 */
+	private void keepExistingConcept(
+			ExistingConcept theExistingConcept, Long theSourceConceptPid, String theSourceConceptDirectParentPids) {
+		theExistingConcept.myNewOrder = myConceptsSaved;
+		if (theExistingConcept.myLinkFingerprint
+				!= linkFingerprint(theSourceConceptPid, theSourceConceptDirectParentPids)) {
+			theExistingConcept.mySourceConceptPid = theSourceConceptPid;
+			theExistingConcept.mySourceConceptDirectParentPids = theSourceConceptDirectParentPids;
+			myKeptConceptsToRelink.add(theExistingConcept);
+		} else {
+			myKeptConceptPidsByOrderDelta
+					.computeIfAbsent(myConceptsSaved - theExistingConcept.myOrder, t -> new ArrayList<>())
+					.add(theExistingConcept.myPid);
+		}
+
+		myConceptsKept++;
+		if (++myConceptsSaved % 250 == 0) {
+			ourLog.info("Have pre-expanded {} concepts in ValueSet[{}]", myConceptsSaved, myTermValueSet.getUrl());
+		}
+	}
+
+	/**
+	 * Deletes the existing concepts which have been replaced, in one batch, and saves their replacements
+	 */
+	private void saveReplacedConcepts() {
+		if (myReplacedConcepts == null || myReplacedConcepts.isEmpty()) {
+			return;
+		}
+
+		List<Long> replacedPids = new ArrayList<>(myReplacedConcepts.size());
+		myReplacedConcepts.forEach(t -> replacedPids.add(t.myReplacedPid));
+		new QueryChunker<Long>().chunk(replacedPids, t -> {
+			myValueSetConceptDesignationDao.deleteByConceptPids(t);
+			myValueSetConceptDao.deleteByPids(t);
+		});
+
+		for (ReplacedConcept next : myReplacedConcepts) {
+			saveConcept(next.myConcept, next.myDesignations);
+		}
+		myReplacedConcepts.clear();
+	}
+
+	/**
+	 * Updates the order, source concept PID and parent PIDs of the kept concepts whose source concept
+	 * PID or parent PIDs have changed. The concepts are loaded and saved in chunks.
+	 */
+	private void relinkKeptConcepts() {
+		Map<Long, ExistingConcept> pidToConcept = new HashMap<>();
+		myKeptConceptsToRelink.forEach(t -> pidToConcept.put(t.myPid, t));
+		new QueryChunker<Long>().chunk(pidToConcept.keySet(), t -> {
+			List<TermValueSetConcept> concepts = myValueSetConceptDao.findAllById(t);
+			for (TermValueSetConcept concept : concepts) {
+				ExistingConcept keptConcept = pidToConcept.get(concept.getId());
+				concept.setOrder(keptConcept.myNewOrder);
+				concept.setSourceConceptPid(keptConcept.mySourceConceptPid);
+				concept.setSourceConceptDirectParentPids(keptConcept.mySourceConceptDirectParentPids);
+				if (!mySupportLegacyLob) {
+					concept.clearSourceConceptDirectParentPidsLob();
+				}
+			}
+			myValueSetConceptDao.saveAll(concepts);
+		});
+	}
+
 	public Boolean removeGapsFromConceptOrder() {
-		if (myConceptsExcluded <= 0) {
+		if (myConceptsExcluded <= 0 || myExistingConcepts != null) {
+			// In delta mode this is done by deleteUnmatchedExistingConcepts()
 			return false;
 		}
 
@@ -255,6 +512,14 @@ public class ValueSetConceptAccumulator implements IValueSetConceptAccumulator {
 		return myConceptsSaved;
 	}
 
+	/**
+	 * Returns the number of concepts (included in {@link #getConceptsSaved()}) which were
+	 * already stored unchanged and so did not need to be saved again
+	 */
+	public int getConceptsKept() {
+		return myConceptsKept;
+	}
+
 	// TODO: DM 2019-07-16 - We may need TermValueSetConceptProperty, similar to TermConceptProperty.
 	// TODO: DM 2019-07-16 - If so, we should also populate TermValueSetConceptProperty entities here.
 	// TODO: DM 2019-07-30 - Expansions don't include the properties themselves; they may be needed to facilitate
@@ -264,4 +529,98 @@ public class ValueSetConceptAccumulator implements IValueSetConceptAccumulator {
 		mySupportLegacyLob = theSupportLegacyLob;
 		return this;
 	}
+
+	private static String toKey(String theSystem, String theCode) {
+		return theSystem + "|" + theCode;
+	}
+
+	/**
+	 * Fingerprint of the stored content of a concept. The system and code are not included since
+	 * existing concepts are keyed by them.
+	 */
+	private static long conceptFingerprint(
+			String theSystemVersion, String theDisplay, Collection<TermConceptDesignation> theDesignations) {
+		long designationsFingerprint = 0;
+		if (theDesignations != null) {
+			for (TermConceptDesignation next : theDesignations) {
+				boolean hasUse = isNoneBlank(next.getUseSystem(), next.getUseCode());
+				designationsFingerprint += designationFingerprint(
+						next.getLanguage(),
+						hasUse ? next.getUseSystem() : null,
+						hasUse ? next.getUseCode() : null,
+						hasUse && isNotBlank(next.getUseDisplay()) ? next.getUseDisplay() : null,
+						next.getValue());
+			}
+		}
+		return conceptFingerprint(
+				theSystemVersion, isNotBlank(theDisplay) ? theDisplay : null, designationsFingerprint);
+	}
+
+	private static long conceptFingerprint(
+			String theSystemVersion, String theDisplay, long theDesignationsFingerprint) {
+		Hasher hasher = ourFingerprintHashFunction.newHasher();
+		putString(hasher, theSystemVersion);
+		putString(hasher, theDisplay);
+		hasher.putLong(theDesignationsFingerprint);
+		return hasher.hash().asLong();
+	}
+
+	private static long designationFingerprint(
+			String theLanguage, String theUseSystem, String theUseCode, String theUseDisplay, String theValue) {
+		Hasher hasher = ourFingerprintHashFunction.newHasher();
+		putString(hasher, theLanguage);
+		putString(hasher, theUseSystem);
+		putString(hasher, theUseCode);
+		putString(hasher, theUseDisplay);
+		putString(hasher, theValue);
+		return hasher.hash().asLong();
+	}
+
+	private static long linkFingerprint(Long theSourceConceptPid, String theSourceConceptDirectParentPids) {
+		Hasher hasher = ourFingerprintHashFunction.newHasher();
+		hasher.putLong(theSourceConceptPid != null ? theSourceConceptPid : -1L);
+		putString(hasher, isNotEmpty(theSourceConceptDirectParentPids) ? theSourceConceptDirectParentPids : null);
+		return hasher.hash().asLong();
+	}
+
+	private static void putString(Hasher theHasher, String theValue) {
+		if (theValue == null) {
+			theHasher.putInt(-1);
+		} else {
+			theHasher.putInt(theValue.length());
+			theHasher.putUnencodedChars(theValue);
+		}
+	}
+
+	private static class ExistingConcept {
+		private final long myPid;
+		private final long myFingerprint;
+		private final long myLinkFingerprint;
+		private int myOrder;
+		private int myNewOrder;
+		private Long mySourceConceptPid;
+		private String mySourceConceptDirectParentPids;
+
+		private ExistingConcept(long thePid, long theFingerprint, long theLinkFingerprint, int theOrder) {
+			myPid = thePid;
+			myFingerprint = theFingerprint;
+			myLinkFingerprint = theLinkFingerprint;
+			myOrder = theOrder;
+		}
+	}
+
+	private static class ReplacedConcept {
+		private final long myReplacedPid;
+		private final TermValueSetConcept myConcept;
+		private final Collection<TermConceptDesignation> myDesignations;
+
+		private ReplacedConcept(
+				long theReplacedPid,
+				TermValueSetConcept theConcept,
+				Collection<TermConceptDesignation> theDesignations) {
+			myReplacedPid = theReplacedPid;
+			myConcept = theConcept;
+			myDesignations = theDesignations;
+		}
+	}
 }
@@ -73,6 +73,7 @@ public class DaoSearchParamSynchronizerTest {
 		assertEquals(1, addRemoveCount.getAddCount());
 
 		verify(entityManager, never()).remove(any(BaseResourceIndex.class));
-		verify(entityManager, times(1)).merge(THE_SEARCH_PARAM_NUMBER);
+		verify(entityManager, times(1)).persist(THE_SEARCH_PARAM_NUMBER);
+		verify(entityManager, never()).merge(any(BaseResourceIndex.class));
 	}
 }
@@ -0,0 +1,68 @@
+package ca.uhn.fhir.jpa.entity;
+
+import org.junit.jupiter.api.Test;
+
+import static ca.uhn.fhir.jpa.entity.TermConceptParentChildLink.RelationshipTypeEnum.ISA;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TermConceptTest {
+
+	@Test
+	public void testAncestorPidsIncludeAllAncestors() {
+		TermConcept root = newConcept(1L, "root");
+		TermConcept a = newConcept(2L, "a");
+		TermConcept b = newConcept(3L, "b");
+		TermConcept c = newConcept(4L, "c");
+		root.addChild(a, ISA);
+		root.addChild(c, ISA);
+		a.addChild(b, ISA);
+		c.addChild(b, ISA);
+
+		// Parents are always stored before their children
+		root.prePersist();
+		a.prePersist();
+		c.prePersist();
+		b.prePersist();
+
+		assertThat(root.getAncestorPids()).isEmpty();
+		assertThat(a.getAncestorPids()).containsExactlyInAnyOrder(1L);
+		assertThat(c.getAncestorPids()).containsExactlyInAnyOrder(1L);
+		assertThat(b.getAncestorPids()).containsExactlyInAnyOrder(1L, 2L, 4L);
+	}
+
+	@Test
+	public void testAncestorPidsReuseStoredAncestorsOfParent() {
+		TermConcept root = newConcept(1L, "root");
+		TermConcept a = newConcept(2L, "a");
+		TermConcept b = newConcept(3L, "b");
+		root.addChild(a, ISA);
+		a.addChild(b, ISA);
+
+		// The parent's stored ancestors are used as-is instead of walking up the hierarchy again
+		a.setParentPids("1 99");
+		b.prePersist();
+
+		assertThat(b.getAncestorPids()).containsExactlyInAnyOrder(1L, 2L, 99L);
+	}
+
+	@Test
+	public void testAncestorPidsOfRootConcept() {
+		TermConcept root = newConcept(1L, "root");
+		root.prePersist();
+		assertEquals("NONE", root.getParentPidsAsString());
+		assertThat(root.getAncestorPids()).isEmpty();
+	}
+
+	@Test
+	public void testAncestorPidsNotComputed() {
+		assertThat(newConcept(1L, "a").getAncestorPids()).isEmpty();
+	}
+
+	private static TermConcept newConcept(Long thePid, String theCode) {
+		TermConcept retVal = new TermConcept();
+		retVal.setId(thePid);
+		retVal.setCode(theCode);
+		return retVal;
+	}
+}
@@ -0,0 +1,100 @@
+package ca.uhn.fhir.jpa.search.cache;
+
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.jpa.entity.Search;
+import ca.uhn.fhir.jpa.model.dao.JpaPid;
+import ca.uhn.fhir.jpa.model.dao.JpaPidList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class FileSegmentSearchResultCacheSvcImplTest {
+
+	private static final RequestPartitionId ALL_PARTITIONS = RequestPartitionId.allPartitions();
+
+	@TempDir
+	Path myTempDir;
+	private FileSegmentSearchResultCacheSvcImpl mySvc;
+	private final JpaStorageSettings myStorageSettings = new JpaStorageSettings();
+
+	@BeforeEach
+	public void before() {
+		mySvc = new FileSegmentSearchResultCacheSvcImpl(myTempDir);
+		mySvc.setStorageSettingsForUnitTest(myStorageSettings);
+	}
+
+	@Test
+	public void testStoreAndFetch() {
+		Search search = newSearch(1L);
+		JpaPidList first = pids(100, 101, 102);
+		mySvc.storeResults(search, List.of(), first, null, ALL_PARTITIONS);
+		mySvc.storeResults(search, first, pids(103, 104), null, ALL_PARTITIONS);
+
+		assertThat(mySvc.fetchResultPids(search, 1, 4, null, ALL_PARTITIONS))
+			.containsExactly(JpaPid.fromId(101L), JpaPid.fromId(102L), JpaPid.fromId(103L));
+		assertThat(mySvc.fetchResultPids(search, 3, 10, null, ALL_PARTITIONS))
+			.containsExactly(JpaPid.fromId(103L), JpaPid.fromId(104L));
+		assertThat(mySvc.fetchResultPids(search, 10, 20, null, ALL_PARTITIONS)).isEmpty();
+		assertThat(mySvc.fetchAllResultPids(search, null, ALL_PARTITIONS)).hasSize(5);
+		assertTrue(mySvc.canFetchResults(search));
+	}
+
+	@Test
+	public void testFirstStoreReplacesOldSegment() {
+		Search search = newSearch(2L);
+		mySvc.storeResults(search, List.of(), pids(1, 2, 3), null, ALL_PARTITIONS);
+		mySvc.storeResults(search, List.of(), pids(4), null, ALL_PARTITIONS);
+
+		assertThat(mySvc.fetchAllResultPids(search, null, ALL_PARTITIONS)).containsExactly(JpaPid.fromId(4L));
+	}
+
+	@Test
+	public void testUnknownSearch() {
+		assertFalse(mySvc.canFetchResults(newSearch(3L)));
+		assertNull(mySvc.fetchResultPids(newSearch(3L), 0, 10, null, ALL_PARTITIONS));
+		assertNull(mySvc.fetchAllResultPids(newSearch(3L), null, ALL_PARTITIONS));
+	}
+
+	@Test
+	public void testExpiredSegmentsAreDeleted() {
+		Search oldSearch = newSearch(4L);
+		Search newSearch = newSearch(5L);
+
+		long now = System.currentTimeMillis();
+		mySvc.setNowForUnitTest(now - myStorageSettings.getExpireSearchResultsAfterMillis() - 1000);
+		mySvc.storeResults(oldSearch, List.of(), pids(1), null, ALL_PARTITIONS);
+		mySvc.setNowForUnitTest(now);
+		mySvc.storeResults(newSearch, List.of(), pids(2), null, ALL_PARTITIONS);
+
+		mySvc.pollForExpiredSegmentsAndDeleteThem();
+
+		assertNull(mySvc.fetchAllResultPids(oldSearch, null, ALL_PARTITIONS));
+		assertThat(mySvc.fetchAllResultPids(newSearch, null, ALL_PARTITIONS)).containsExactly(JpaPid.fromId(2L));
+	}
+
+	private static Search newSearch(long theId) {
+		Search retVal = mock(Search.class);
+		when(retVal.getId()).thenReturn(theId);
+		when(retVal.getUuid()).thenReturn("uuid-" + theId);
+		return retVal;
+	}
+
+	private static JpaPidList pids(long... theIds) {
+		JpaPidList retVal = new JpaPidList();
+		for (long next : theIds) {
+			retVal.addId(next);
+		}
+		return retVal;
+	}
+}
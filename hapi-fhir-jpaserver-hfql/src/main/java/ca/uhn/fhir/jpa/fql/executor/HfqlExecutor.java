@@ -32,12 +32,16 @@ import ca.uhn.fhir.jpa.fql.parser.HfqlFhirPathParser;
 import ca.uhn.fhir.jpa.fql.parser.HfqlStatement;
 import ca.uhn.fhir.jpa.fql.parser.HfqlStatementParser;
 import ca.uhn.fhir.jpa.fql.util.HfqlConstants;
+import ca.uhn.fhir.jpa.model.entity.ResourceIndexedSearchParamString;
+import ca.uhn.fhir.jpa.model.entity.ResourceIndexedSearchParamToken;
 import ca.uhn.fhir.jpa.searchparam.SearchParameterMap;
 import ca.uhn.fhir.jpa.searchparam.util.JpaParamUtil;
 import ca.uhn.fhir.model.api.IQueryParameterAnd;
 import ca.uhn.fhir.parser.DataFormatException;
 import ca.uhn.fhir.rest.api.Constants;
 import ca.uhn.fhir.rest.api.QualifiedParamList;
+import ca.uhn.fhir.rest.api.SearchTotalModeEnum;
+import ca.uhn.fhir.rest.api.SummaryEnum;
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
 import ca.uhn.fhir.rest.param.DateOrListParam;
@@ -47,13 +51,16 @@ import ca.uhn.fhir.rest.param.ParameterUtil;
 import ca.uhn.fhir.rest.param.QualifierDetails;
 import ca.uhn.fhir.rest.param.TokenOrListParam;
 import ca.uhn.fhir.rest.server.IPagingProvider;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
 import ca.uhn.fhir.rest.server.util.ISearchParamRegistry;
 import ca.uhn.fhir.rest.server.util.ResourceSearchParams;
+import ca.uhn.fhir.util.ThreadPoolUtil;
 import ca.uhn.fhir.util.UrlUtil;
 import com.google.common.collect.Lists;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
 import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
@@ -64,6 +71,7 @@ import org.hl7.fhir.r4.model.DateTimeType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.math.BigDecimal;
 import java.sql.Types;
@@ -77,9 +85,12 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
@@ -98,6 +109,8 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
  */
 public class HfqlExecutor implements IHfqlExecutor {
 	public static final int BATCH_SIZE = 1000;
+	public static final int DEFAULT_EVALUATION_THREAD_COUNT = 4;
+	private static final int MIN_RESOURCES_PER_SLICE = 100;
 	public static final String[] EMPTY_STRING_ARRAY = new String[0];
 	public static final Set<GroupByKey> NULL_GROUP_BY_KEY = Set.of(new GroupByKey(List.of()));
 	private static final Logger ourLog = LoggerFactory.getLogger(HfqlExecutor.class);
@@ -114,6 +127,9 @@ public class HfqlExecutor implements IHfqlExecutor {
 	@Autowired
 	private ISearchParamRegistry mySearchParamRegistry;
 
+	private int myEvaluationThreadCount = DEFAULT_EVALUATION_THREAD_COUNT;
+	private ThreadPoolTaskExecutor myEvaluationExecutor;
+
 	/**
 	 * Constructor
 	 */
@@ -151,6 +167,22 @@ public class HfqlExecutor implements IHfqlExecutor {
 		SearchParameterMap map = new SearchParameterMap();
 		addHfqlWhereClausesToSearchParameterMap(statement, map);
 
+		if (isCountOnlyStatementSatisfiedBySearch(statement)) {
+			/*
+			 * If all we need is a count of the resources matching the search, and there
+			 * is nothing left to evaluate against the individual resources, let the
+			 * database do the counting instead of loading every resource.
+			 */
+			map.setLoadSynchronous(true);
+			map.setSummaryMode(SummaryEnum.COUNT);
+			map.setSearchTotalMode(SearchTotalModeEnum.ACCURATE);
+			IBundleProvider outcome = dao.search(map, theRequestDetails);
+			int count = outcome.sizeOrThrowNpe();
+			List<Object> row = new ArrayList<>();
+			statement.getSelectClauses().forEach(t -> row.add(count));
+			return new StaticHfqlExecutionResult(null, statement, List.of(row));
+		}
+
 		Integer limit = theLimit;
 		if (statement.hasOrderClause()) {
 			/*
@@ -165,14 +197,14 @@ public class HfqlExecutor implements IHfqlExecutor {
 			limit = limit == null ? statement.getLimit() : Math.min(limit, statement.getLimit());
 		}
 
-		HfqlExecutionContext executionContext = new HfqlExecutionContext(myFhirContext.newFhirPath());
 		IBundleProvider outcome = dao.search(map, theRequestDetails);
-		Predicate<IBaseResource> whereClausePredicate = newWhereClausePredicate(executionContext, statement);
 
 		IHfqlExecutionResult executionResult;
 		if (statement.hasCountClauses()) {
-			executionResult = executeCountClause(statement, executionContext, outcome, whereClausePredicate);
+			executionResult = executeCountClause(statement, outcome);
 		} else {
+			HfqlExecutionContext executionContext = new HfqlExecutionContext(myFhirContext.newFhirPath());
+			Predicate<IBaseResource> whereClausePredicate = newWhereClausePredicate(executionContext, statement);
 			executionResult = new LocalSearchHfqlExecutionResult(
 					statement, outcome, executionContext, limit, 0, whereClausePredicate, myFhirContext);
 		}
@@ -208,22 +240,28 @@ public class HfqlExecutor implements IHfqlExecutor {
 	private void massageWhereClauses(HfqlStatement theStatement) {
 		String fromResourceName = theStatement.getFromResourceName();
 		ResourceSearchParams activeSearchParams = mySearchParamRegistry.getActiveSearchParams(fromResourceName);
+		List<HfqlStatement.WhereClause> searchMatchClausesToAdd = new ArrayList<>();
 
 		for (HfqlStatement.WhereClause nextWhereClause : theStatement.getWhereClauses()) {
 
 			String left = null;
 			List<String> rightValues = null;
+			List<String> rawRightValues = null;
 			String comparator;
 			if (isDataValueWhereClause(nextWhereClause)) {
 				left = nextWhereClause.getLeft();
 				comparator = "";
 				rightValues = nextWhereClause.getRightAsStrings();
+				rawRightValues = nextWhereClause.getRight();
 			} else if (nextWhereClause.getOperator() == HfqlStatement.WhereClauseOperatorEnum.UNARY_BOOLEAN
 					&& nextWhereClause.getRightAsStrings().size() > 1) {
 				left = nextWhereClause.getLeft();
 				rightValues = nextWhereClause
 						.getRightAsStrings()
 						.subList(1, nextWhereClause.getRightAsStrings().size());
+				rawRightValues = nextWhereClause
+						.getRight()
+						.subList(1, nextWhereClause.getRight().size());
 				switch (nextWhereClause.getRightAsStrings().get(0)) {
 					case "=":
 						comparator = "";
@@ -271,9 +309,134 @@ public class HfqlExecutor implements IHfqlExecutor {
 							.map(value -> comparator + ParameterUtil.escape(value))
 							.collect(Collectors.joining(","));
 					nextWhereClause.setRight(Constants.PARAM_LASTUPDATED, joinedParamValues);
+				} else if ("".equals(comparator)) {
+					HfqlStatement.WhereClause searchMatchClause = newSearchMatchClauseForIndexedPath(
+							activeSearchParams, fromResourceName, left, rawRightValues);
+					if (searchMatchClause != null) {
+						searchMatchClausesToAdd.add(searchMatchClause);
+					}
 				}
 			}
 		}
+
+		theStatement.getWhereClauses().addAll(searchMatchClausesToAdd);
+	}
+
+	/**
+	 * If a WHERE clause compares a FHIRPath expression for equality with one or more literal
+	 * values, and that expression is exactly the path of an active token, string or date
+	 * search parameter, returns a search_match clause that lets the database narrow the
+	 * candidate resources using the search index.
+	 * <p>
+	 * Search parameter matching is looser than FHIRPath equality (e.g. string parameters
+	 * match a normalized prefix, and date parameters match any overlapping range), so the
+	 * search always returns a superset of the resources matching the original clause. The
+	 * original clause is therefore kept and still evaluated against each resource.
+	 * </p>
+	 *
+	 * @return Returns {@literal null} if the clause can't be satisfied using a search parameter
+	 */
+	@Nullable
+	private static HfqlStatement.WhereClause newSearchMatchClauseForIndexedPath(
+			ResourceSearchParams theActiveSearchParams,
+			String theFromResourceName,
+			String theExpression,
+			List<String> theRawRightValues) {
+		if (theRawRightValues == null || theRawRightValues.isEmpty()) {
+			return null;
+		}
+
+		String expression = theExpression;
+		if (expression.startsWith(theFromResourceName + ".")) {
+			expression = expression.substring(theFromResourceName.length() + 1);
+		} else if (expression.startsWith("Resource.")) {
+			expression = expression.substring("Resource.".length());
+		}
+
+		for (String nextParamName : new TreeSet<>(theActiveSearchParams.getSearchParamNames())) {
+			RuntimeSearchParam nextSearchParam = theActiveSearchParams.get(nextParamName);
+			if (nextParamName.startsWith("_") || isBlank(nextSearchParam.getPath())) {
+				continue;
+			}
+
+			int maxValueLength;
+			boolean allowUnquotedBooleans;
+			switch (nextSearchParam.getParamType()) {
+				case TOKEN:
+					maxValueLength = ResourceIndexedSearchParamToken.MAX_LENGTH;
+					allowUnquotedBooleans = true;
+					break;
+				case STRING:
+					maxValueLength = ResourceIndexedSearchParamString.MAX_LENGTH;
+					allowUnquotedBooleans = false;
+					break;
+				case DATE:
+					maxValueLength = Integer.MAX_VALUE;
+					allowUnquotedBooleans = false;
+					break;
+				default:
+					continue;
+			}
+
+			boolean pathMatches = false;
+			for (String nextPath : nextSearchParam.getPath().split("\\|")) {
+				if (isFhirPathExpressionEquivalent(expression, nextPath.trim(), theFromResourceName)) {
+					pathMatches = true;
+					break;
+				}
+			}
+			if (!pathMatches) {
+				continue;
+			}
+
+			List<String> paramValues = new ArrayList<>();
+			for (String nextRawValue : theRawRightValues) {
+				String value;
+				if (nextRawValue.length() >= 2 && nextRawValue.startsWith("'") && nextRawValue.endsWith("'")) {
+					value = nextRawValue.substring(1, nextRawValue.length() - 1);
+				} else if (allowUnquotedBooleans && ("true".equals(nextRawValue) || "false".equals(nextRawValue))) {
+					value = nextRawValue;
+				} else {
+					// Not a simple literal, so we can't know what the search parameter should match
+					return null;
+				}
+				// Escaped characters within the literal would need to be unescaped first
+				if (value.isEmpty() || value.contains("\\") || value.length() > maxValueLength) {
+					return null;
+				}
+				paramValues.add(ParameterUtil.escape(value));
+			}
+
+			HfqlStatement.WhereClause retVal = new HfqlStatement.WhereClause();
+			retVal.setLeft("id");
+			retVal.setOperator(HfqlStatement.WhereClauseOperatorEnum.SEARCH_MATCH);
+			retVal.setRight(nextParamName, String.join(",", paramValues));
+			return retVal;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns {@literal true} if the statement only selects <code>count(*)</code> with no
+	 * GROUP BY, and all of its WHERE clauses are search_match clauses which are fully
+	 * handled by the search itself.
+	 */
+	private static boolean isCountOnlyStatementSatisfiedBySearch(HfqlStatement theStatement) {
+		if (!theStatement.hasCountClauses() || !theStatement.getGroupByClauses().isEmpty()) {
+			return false;
+		}
+		for (HfqlStatement.SelectClause next : theStatement.getSelectClauses()) {
+			if (next.getOperator() != HfqlStatement.SelectClauseOperator.COUNT || !"*".equals(next.getClause())) {
+				return false;
+			}
+		}
+		for (HfqlStatement.WhereClause next : theStatement.getWhereClauses()) {
+			if (next.getOperator() != HfqlStatement.WhereClauseOperatorEnum.SEARCH_MATCH) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	private void addHfqlWhereClausesToSearchParameterMap(HfqlStatement statement, SearchParameterMap map) {
@@ -401,11 +564,7 @@ public class HfqlExecutor implements IHfqlExecutor {
 				myFhirContext);
 	}
 
-	private IHfqlExecutionResult executeCountClause(
-			HfqlStatement theStatement,
-			HfqlExecutionContext theExecutionContext,
-			IBundleProvider theOutcome,
-			Predicate<IBaseResource> theWhereClausePredicate) {
+	private IHfqlExecutionResult executeCountClause(HfqlStatement theStatement, IBundleProvider theOutcome) {
 
 		Set<String> selectClauses = theStatement.getSelectClauses().stream()
 				.filter(t -> t.getOperator() == HfqlStatement.SelectClauseOperator.SELECT)
@@ -421,54 +580,56 @@ public class HfqlExecutor implements IHfqlExecutor {
 				.map(HfqlStatement.SelectClause::getClause)
 				.collect(Collectors.toSet());
 
+		/*
+		 * Each batch of resources is split into slices which are evaluated in parallel,
+		 * each one producing partial counts which are then merged. FHIRPath engines are
+		 * not thread safe, so every slice gets its own execution context. While a batch is
+		 * being evaluated, the next one is loaded on the calling thread so that database
+		 * access stays on the thread that owns the request.
+		 */
+		int sliceCount = Math.max(1, myEvaluationThreadCount);
+		List<HfqlExecutionContext> sliceExecutionContexts = new ArrayList<>(sliceCount);
+		List<Predicate<IBaseResource>> sliceWhereClausePredicates = new ArrayList<>(sliceCount);
+		for (int i = 0; i < sliceCount; i++) {
+			HfqlExecutionContext executionContext = new HfqlExecutionContext(myFhirContext.newFhirPath());
+			sliceExecutionContexts.add(executionContext);
+			sliceWhereClausePredicates.add(newWhereClausePredicate(executionContext, theStatement));
+		}
+
 		Map<GroupByKey, Map<String, AtomicInteger>> keyCounter = new HashMap<>();
+		List<CompletableFuture<Map<GroupByKey, Map<String, AtomicInteger>>>> pendingSlices = List.of();
 
 		int offset = 0;
-		int batchSize = 1000;
-		while (theOutcome.size() == null || theOutcome.sizeOrThrowNpe() > offset) {
-			List<IBaseResource> resources = theOutcome.getResources(offset, offset + batchSize);
-
-			for (IBaseResource nextResource : resources) {
-
-				if (nextResource != null && theWhereClausePredicate.test(nextResource)) {
-
-					List<List<String>> groupByClauseValues = new ArrayList<>();
+		while (true) {
+			List<IBaseResource> resources = List.of();
+			if (theOutcome.size() == null || theOutcome.sizeOrThrowNpe() > offset) {
+				resources = theOutcome.getResources(offset, offset + BATCH_SIZE);
+				offset += BATCH_SIZE;
+			}
 
-					for (String nextClause : theStatement.getGroupByClauses()) {
-						List<String> nextClauseValues =
-								theExecutionContext.evaluate(nextResource, nextClause, IPrimitiveType.class).stream()
-										.map(IPrimitiveType::getValueAsString)
-										.collect(Collectors.toList());
-						if (nextClauseValues.isEmpty()) {
-							nextClauseValues.add(null);
-						}
-						groupByClauseValues.add(nextClauseValues);
-					}
-					Set<GroupByKey> allKeys = createCrossProduct(groupByClauseValues);
+			for (CompletableFuture<Map<GroupByKey, Map<String, AtomicInteger>>> nextSlice : pendingSlices) {
+				mergePartialCounts(keyCounter, awaitSlice(nextSlice));
+			}
 
-					for (GroupByKey nextKey : allKeys) {
+			if (resources.isEmpty()) {
+				break;
+			}
 
-						Map<String, AtomicInteger> counts = keyCounter.computeIfAbsent(nextKey, t -> new HashMap<>());
-						if (keyCounter.size() >= HfqlConstants.ORDER_AND_GROUP_LIMIT) {
-							throw new InvalidRequestException(Msg.code(2402) + "Can not group on > "
-									+ HfqlConstants.ORDER_AND_GROUP_LIMIT + " terms");
-						}
-						for (String nextCountClause : countClauses) {
-							if (!nextCountClause.equals("*")) {
-								if (theExecutionContext
-										.evaluateFirst(nextResource, nextCountClause, IBase.class)
-										.isEmpty()) {
-									continue;
-								}
-							}
-							counts.computeIfAbsent(nextCountClause, k -> new AtomicInteger())
-									.incrementAndGet();
-						}
-					}
+			int sliceSize = Math.max(MIN_RESOURCES_PER_SLICE, ceilDiv(resources.size(), sliceCount));
+			List<List<IBaseResource>> slices = Lists.partition(resources, sliceSize);
+			pendingSlices = new ArrayList<>(slices.size());
+			for (int i = 0; i < slices.size(); i++) {
+				List<IBaseResource> slice = slices.get(i);
+				HfqlExecutionContext executionContext = sliceExecutionContexts.get(i);
+				Predicate<IBaseResource> whereClausePredicate = sliceWhereClausePredicates.get(i);
+				Supplier<Map<GroupByKey, Map<String, AtomicInteger>>> task = () ->
+						countSlice(theStatement, countClauses, executionContext, whereClausePredicate, slice);
+				if (sliceCount == 1) {
+					pendingSlices.add(CompletableFuture.completedFuture(task.get()));
+				} else {
+					pendingSlices.add(CompletableFuture.supplyAsync(task, getEvaluationExecutor()));
 				}
 			}
-
-			offset += batchSize;
 		}
 
 		List<List<Object>> rows = new ArrayList<>();
@@ -495,6 +656,118 @@ public class HfqlExecutor implements IHfqlExecutor {
 		return new StaticHfqlExecutionResult(null, theStatement, rows);
 	}
 
+	private Map<GroupByKey, Map<String, AtomicInteger>> countSlice(
+			HfqlStatement theStatement,
+			Set<String> theCountClauses,
+			HfqlExecutionContext theExecutionContext,
+			Predicate<IBaseResource> theWhereClausePredicate,
+			List<IBaseResource> theResources) {
+		Map<GroupByKey, Map<String, AtomicInteger>> keyCounter = new HashMap<>();
+
+		for (IBaseResource nextResource : theResources) {
+
+			if (nextResource != null && theWhereClausePredicate.test(nextResource)) {
+
+				List<List<String>> groupByClauseValues = new ArrayList<>();
+
+				for (String nextClause : theStatement.getGroupByClauses()) {
+					List<String> nextClauseValues =
+							theExecutionContext.evaluate(nextResource, nextClause, IPrimitiveType.class).stream()
+									.map(IPrimitiveType::getValueAsString)
+									.collect(Collectors.toList());
+					if (nextClauseValues.isEmpty()) {
+						nextClauseValues.add(null);
+					}
+					groupByClauseValues.add(nextClauseValues);
+				}
+				Set<GroupByKey> allKeys = createCrossProduct(groupByClauseValues);
+
+				for (GroupByKey nextKey : allKeys) {
+
+					Map<String, AtomicInteger> counts = keyCounter.computeIfAbsent(nextKey, t -> new HashMap<>());
+					checkGroupLimit(keyCounter);
+					for (String nextCountClause : theCountClauses) {
+						if (!nextCountClause.equals("*")) {
+							if (theExecutionContext
+									.evaluateFirst(nextResource, nextCountClause, IBase.class)
+									.isEmpty()) {
+								continue;
+							}
+						}
+						counts.computeIfAbsent(nextCountClause, k -> new AtomicInteger())
+								.incrementAndGet();
+					}
+				}
+			}
+		}
+
+		return keyCounter;
+	}
+
+	private static void mergePartialCounts(
+			Map<GroupByKey, Map<String, AtomicInteger>> theKeyCounter,
+			Map<GroupByKey, Map<String, AtomicInteger>> thePartialKeyCounter) {
+		for (Map.Entry<GroupByKey, Map<String, AtomicInteger>> nextEntry : thePartialKeyCounter.entrySet()) {
+			Map<String, AtomicInteger> counts = theKeyCounter.computeIfAbsent(nextEntry.getKey(), t -> new HashMap<>());
+			checkGroupLimit(theKeyCounter);
+			for (Map.Entry<String, AtomicInteger> nextCount : nextEntry.getValue().entrySet()) {
+				counts.computeIfAbsent(nextCount.getKey(), k -> new AtomicInteger())
+						.addAndGet(nextCount.getValue().get());
+			}
+		}
+	}
+
+	private static void checkGroupLimit(Map<GroupByKey, Map<String, AtomicInteger>> theKeyCounter) {
+		if (theKeyCounter.size() >= HfqlConstants.ORDER_AND_GROUP_LIMIT) {
+			throw new InvalidRequestException(
+					Msg.code(2402) + "Can not group on > " + HfqlConstants.ORDER_AND_GROUP_LIMIT + " terms");
+		}
+	}
+
+	private static <T> T awaitSlice(CompletableFuture<T> theSlice) {
+		try {
+			return theSlice.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new InternalErrorException(Msg.code(2562) + e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	private static int ceilDiv(int theDividend, int theDivisor) {
+		return (theDividend + theDivisor - 1) / theDivisor;
+	}
+
+	private synchronized ThreadPoolTaskExecutor getEvaluationExecutor() {
+		if (myEvaluationExecutor == null) {
+			myEvaluationExecutor = ThreadPoolUtil.newThreadPool(
+					myEvaluationThreadCount, myEvaluationThreadCount, "hfql-evaluation-", 0);
+		}
+		return myEvaluationExecutor;
+	}
+
+	@PreDestroy
+	public synchronized void stop() {
+		if (myEvaluationExecutor != null) {
+			myEvaluationExecutor.shutdown();
+			myEvaluationExecutor = null;
+		}
+	}
+
+	/**
+	 * Sets the number of threads used to evaluate FHIRPath expressions in parallel when
+	 * aggregating (count / GROUP BY) over a large number of resources. A value of 1 disables
+	 * parallel evaluation. Defaults to {@link #DEFAULT_EVALUATION_THREAD_COUNT}. This must be
+	 * set before the first statement is executed.
+	 *
+	 * @since 7.6.0
+	 */
+	public void setEvaluationThreadCount(int theEvaluationThreadCount) {
+		Validate.isTrue(theEvaluationThreadCount > 0, "theEvaluationThreadCount must be positive");
+		myEvaluationThreadCount = theEvaluationThreadCount;
+	}
+
 	private Set<GroupByKey> createCrossProduct(List<List<String>> theGroupByClauseValues) {
 		if (theGroupByClauseValues.isEmpty()) {
 			return NULL_GROUP_BY_KEY;
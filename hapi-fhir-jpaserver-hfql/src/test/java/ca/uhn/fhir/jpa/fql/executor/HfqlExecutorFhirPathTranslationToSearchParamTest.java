@@ -2,18 +2,25 @@ package ca.uhn.fhir.jpa.fql.executor;
 
 import ca.uhn.fhir.jpa.api.dao.IFhirResourceDao;
 import ca.uhn.fhir.jpa.searchparam.SearchParameterMap;
+import ca.uhn.fhir.rest.api.SearchTotalModeEnum;
+import ca.uhn.fhir.rest.api.SummaryEnum;
 import ca.uhn.fhir.rest.param.DateParam;
 import ca.uhn.fhir.rest.param.ParamPrefixEnum;
 import ca.uhn.fhir.rest.param.TokenParam;
+import ca.uhn.fhir.rest.server.SimpleBundleProvider;
 import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -98,5 +105,168 @@ public class HfqlExecutorFhirPathTranslationToSearchParamTest extends BaseHfqlEx
 		assertEquals(theExpectedParamPrefix, ((DateParam) map.get("_lastUpdated").get(0).get(0)).getPrefix());
 	}
 
+	@ParameterizedTest
+	@CsvSource(textBlock = """
+		gender = 'male'                 , gender , male
+		Patient.gender = 'male'         , gender , male
+		"gender in ('male', 'female')"  , gender , male|female
+		active = true                   , active , true
+		name.family = 'Simpson'         , family , Simpson
+		birthDate = '2020-01-01'        , birthdate , 2020-01-01
+		"""
+	)
+	public void testIndexedPath(String theExpression, String theExpectedParamName, String theExpectedValues) {
+		IFhirResourceDao<Patient> patientDao = initDao(Patient.class);
+		when(patientDao.search(any(), any())).thenReturn(createProviderWithSomeSimpsonsAndFlanders());
+
+		String statement = """
+			SELECT
+			   id
+			FROM
+			   Patient
+			WHERE
+			   EXPRESSION
+			""";
+		statement = statement.replace("EXPRESSION", theExpression);
+
+		IHfqlExecutionResult result = myHfqlExecutor.executeInitialSearch(statement, null, mySrd);
+		assertThat(result.getStatement().getWhereClauses()).hasSize(2);
+
+		verify(patientDao, times(1)).search(mySearchParameterMapCaptor.capture(), any());
+		SearchParameterMap map = mySearchParameterMapCaptor.getValue();
+		assertThat(map.keySet()).containsExactly(theExpectedParamName);
+		assertThat(map.get(theExpectedParamName)).hasSize(1);
+		List<String> actualValues = map.get(theExpectedParamName).get(0).stream()
+			.map(t -> t.getValueAsQueryToken(myCtx))
+			.toList();
+		assertThat(actualValues).containsExactly(theExpectedValues.split("\\|"));
+	}
+
+	@Test
+	public void testIndexedPath_OriginalClauseIsStillApplied() {
+		IFhirResourceDao<Patient> patientDao = initDao(Patient.class);
+		when(patientDao.search(any(), any())).thenReturn(createProviderWithSomeSimpsonsAndFlanders());
+
+		// The "family" search parameter is a case-insensitive prefix match, so the
+		// FHIRPath expression must still filter the results
+		String statement = """
+			SELECT
+			   name[0].given[0]
+			FROM
+			   Patient
+			WHERE
+			   name.family = 'Flanders'
+			""";
+
+		IHfqlExecutionResult result = myHfqlExecutor.executeInitialSearch(statement, null, mySrd);
+
+		assertThat(readAllRowValues(result)).containsExactly(List.of("Ned"));
+		verify(patientDao, times(1)).search(mySearchParameterMapCaptor.capture(), any());
+		assertThat(mySearchParameterMapCaptor.getValue().keySet()).containsExactly("family");
+	}
+
+	@ParameterizedTest
+	@CsvSource(textBlock = """
+		gender != 'male'
+		birthDate > '2020'
+		name.family.lower() = 'simpson'
+		identifier.value = 'value0'
+		birthDate in (1950)
+		name.family = 'Simp\\son'
+		"""
+	)
+	public void testNotIndexedPath(String theExpression) {
+		IFhirResourceDao<Patient> patientDao = initDao(Patient.class);
+		when(patientDao.search(any(), any())).thenReturn(createProviderWithSomeSimpsonsAndFlanders());
+
+		String statement = """
+			SELECT
+			   id
+			FROM
+			   Patient
+			WHERE
+			   EXPRESSION
+			""";
+		statement = statement.replace("EXPRESSION", theExpression);
+
+		myHfqlExecutor.executeInitialSearch(statement, null, mySrd);
+
+		verify(patientDao, times(1)).search(mySearchParameterMapCaptor.capture(), any());
+		assertTrue(mySearchParameterMapCaptor.getValue().isEmpty());
+	}
+
+	@Test
+	public void testCountWithOnlySearchParameters() {
+		IFhirResourceDao<Patient> patientDao = initDao(Patient.class);
+		when(patientDao.search(any(), any())).thenReturn(new SimpleBundleProvider().setSize(123));
+
+		String statement = """
+			SELECT
+			   count(*)
+			FROM
+			   Patient
+			WHERE
+			   meta.lastUpdated > '2023'
+			""";
+
+		IHfqlExecutionResult result = myHfqlExecutor.executeInitialSearch(statement, null, mySrd);
+
+		assertThat(readAllRowValues(result)).containsExactly(List.of(123));
+		verify(patientDao, times(1)).search(mySearchParameterMapCaptor.capture(), any());
+		SearchParameterMap map = mySearchParameterMapCaptor.getValue();
+		assertTrue(map.isLoadSynchronous());
+		assertEquals(SummaryEnum.COUNT, map.getSummaryMode());
+		assertEquals(SearchTotalModeEnum.ACCURATE, map.getSearchTotalMode());
+	}
+
+	@ParameterizedTest
+	@CsvSource(textBlock = """
+		name.family = 'Simpson'
+		name.family.lower() = 'simpson'
+		name.family != 'Flanders'
+		"""
+	)
+	public void testCountWithFhirPathFilterLoadsResources(String theExpression) {
+		IFhirResourceDao<Patient> patientDao = initDao(Patient.class);
+		when(patientDao.search(any(), any())).thenReturn(createProviderWithSomeSimpsonsAndFlanders());
+
+		String statement = """
+			SELECT
+			   count(*)
+			FROM
+			   Patient
+			WHERE
+			   EXPRESSION
+			""";
+		statement = statement.replace("EXPRESSION", theExpression);
+
+		IHfqlExecutionResult result = myHfqlExecutor.executeInitialSearch(statement, null, mySrd);
+
+		assertThat(readAllRowValues(result)).containsExactly(List.of(4));
+		verify(patientDao, times(1)).search(mySearchParameterMapCaptor.capture(), any());
+		assertNull(mySearchParameterMapCaptor.getValue().getSummaryMode());
+	}
+
+	@Test
+	public void testCountWithGroupByLoadsResources() {
+		IFhirResourceDao<Patient> patientDao = initDao(Patient.class);
+		when(patientDao.search(any(), any())).thenReturn(createProviderWithSomeSimpsonsAndFlanders());
+
+		// GROUP BY is evaluated against the loaded resources, even over an indexed path
+		String statement = """
+			SELECT
+			   name.family, count(*)
+			FROM
+			   Patient
+			GROUP BY
+			   name.family
+			""";
+
+		IHfqlExecutionResult result = myHfqlExecutor.executeInitialSearch(statement, null, mySrd);
+
+		assertThat(readAllRowValues(result)).containsExactlyInAnyOrder(List.of("Simpson", 4), List.of("Flanders", 1));
+		verify(patientDao, times(1)).search(mySearchParameterMapCaptor.capture(), any());
+		assertNull(mySearchParameterMapCaptor.getValue().getSummaryMode());
+	}
 
 }
@@ -345,6 +345,39 @@ public class HfqlExecutorTest extends BaseHfqlExecutorTest {
 		assertThat(rowValues).as(rowValues.toString()).containsExactly(Lists.newArrayList(3, 2));
 	}
 
+	@ParameterizedTest
+	@ValueSource(ints = {1, 4})
+	public void testFromSelectCount_ManyBatches(int theEvaluationThreadCount) {
+		myHfqlExecutor.setEvaluationThreadCount(theEvaluationThreadCount);
+		IFhirResourceDao<Patient> patientDao = initDao(Patient.class);
+
+		List<Patient> patients = new ArrayList<>();
+		for (int i = 0; i < 2500; i++) {
+			Patient patient = new Patient();
+			patient.addName().setFamily("PT" + (i % 3));
+			if (i % 5 == 0) {
+				patient.setActive(true);
+			}
+			patients.add(patient);
+		}
+		when(patientDao.search(any(), any())).thenReturn(new SimpleBundleProvider(patients));
+		String statement = """
+					select name.family, count(*), count(active)
+					from Patient
+					group by name.family
+					order by name.family
+			""";
+
+		IHfqlExecutionResult result = myHfqlExecutor.executeInitialSearch(statement, null, mySrd);
+
+		List<List<Object>> rowValues = readAllRowValues(result);
+		assertThat(rowValues).as(rowValues.toString()).containsExactly(
+			List.of("PT0", 834, 167),
+			List.of("PT1", 833, 166),
+			List.of("PT2", 833, 167)
+		);
+	}
+
 	@Test
 	public void testFromSelectCountOrderBy() {
 		IFhirResourceDao<Patient> patientDao = initDao(Patient.class);
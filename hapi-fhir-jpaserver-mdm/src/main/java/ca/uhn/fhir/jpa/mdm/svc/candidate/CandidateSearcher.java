@@ -22,16 +22,21 @@ package ca.uhn.fhir.jpa.mdm.svc.candidate;
 import ca.uhn.fhir.interceptor.model.RequestPartitionId;
 import ca.uhn.fhir.jpa.api.dao.DaoRegistry;
 import ca.uhn.fhir.jpa.api.dao.IFhirResourceDao;
+import ca.uhn.fhir.jpa.dao.ISearchBuilder;
 import ca.uhn.fhir.jpa.searchparam.SearchParameterMap;
 import ca.uhn.fhir.mdm.api.IMdmSettings;
 import ca.uhn.fhir.mdm.svc.MdmSearchParamSvc;
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.api.server.SystemRequestDetails;
+import ca.uhn.fhir.rest.api.server.storage.IResourcePersistentId;
 import org.hl7.fhir.instance.model.api.IAnyResource;
+import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public class CandidateSearcher {
@@ -75,6 +80,53 @@ public class CandidateSearcher {
 		return Optional.of(retval);
 	}
 
+	/**
+	 * Perform a search for the persistent IDs of mdm candidates, without loading the candidate resources.
+	 * This allows candidates found by several candidate searches to be loaded only once, and searches
+	 * returning too many candidates to be rejected without loading any resources.
+	 *
+	 * @param theResourceType     the type of resources searched on
+	 * @param theResourceCriteria the criteria used to search for the candidates
+	 * @param thePartitionId      the partition for the search
+	 * @return Optional.empty() if >= IMdmSettings.getCandidateSearchLimit() candidates are found, otherwise
+	 * return the persistent IDs of the candidates.
+	 * @since 7.6.0
+	 */
+	public Optional<List<IResourcePersistentId>> searchForIds(
+			String theResourceType, String theResourceCriteria, RequestPartitionId thePartitionId) {
+		SearchParameterMap searchParameterMap =
+				myMdmSearchParamSvc.mapFromCriteria(theResourceType, theResourceCriteria);
+
+		searchParameterMap.setLoadSynchronousUpTo(myMdmSettings.getCandidateSearchLimit());
+
+		IFhirResourceDao<?> resourceDao = myDaoRegistry.getResourceDao(theResourceType);
+		SystemRequestDetails systemRequestDetails = new SystemRequestDetails();
+		systemRequestDetails.setRequestPartitionId(thePartitionId);
+		List<IResourcePersistentId> retval = resourceDao.searchForIds(searchParameterMap, systemRequestDetails);
+
+		if (retval.size() >= myMdmSettings.getCandidateSearchLimit()) {
+			return Optional.empty();
+		}
+		return Optional.of(retval);
+	}
+
+	/**
+	 * Loads the candidate resources for persistent IDs returned by
+	 * {@link #searchForIds(String, String, RequestPartitionId)}.
+	 *
+	 * @param theResourceType the type of the resources
+	 * @param thePids         the persistent IDs to load. Must not contain duplicates.
+	 * @since 7.6.0
+	 */
+	@SuppressWarnings("unchecked")
+	public List<IBaseResource> loadResourcesByIds(String theResourceType, Collection<IResourcePersistentId> thePids) {
+		if (thePids.isEmpty()) {
+			return List.of();
+		}
+		ISearchBuilder searchBuilder = myMdmSearchParamSvc.generateSearchBuilderForType(theResourceType);
+		return searchBuilder.loadResourcesByPid(thePids, new SystemRequestDetails());
+	}
+
 	/**
 	 * Perform a search for mdm candidates.
 	 *
@@ -26,7 +26,6 @@ import ca.uhn.fhir.mdm.api.IMdmSettings;
 import ca.uhn.fhir.mdm.log.Logs;
 import ca.uhn.fhir.mdm.rules.json.MdmFilterSearchParamJson;
 import ca.uhn.fhir.mdm.rules.json.MdmResourceSearchParamJson;
-import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.api.server.storage.IResourcePersistentId;
 import org.hl7.fhir.instance.model.api.IAnyResource;
 import org.hl7.fhir.instance.model.api.IBaseResource;
@@ -35,9 +34,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -77,7 +77,9 @@ public class MdmCandidateSearchSvc {
 	@Transactional
 	public Collection<IAnyResource> findCandidates(
 			String theResourceType, IAnyResource theResource, RequestPartitionId theRequestPartitionId) {
-		Map<IResourcePersistentId, IAnyResource> matchedPidsToResources = new HashMap<>();
+		// Candidates are keyed by the persistent ID value so that a candidate found by
+		// several candidate searches is only loaded once
+		Map<Object, IResourcePersistentId> matchedPids = new LinkedHashMap<>();
 		List<MdmFilterSearchParamJson> filterSearchParams =
 				myMdmSettings.getMdmRules().getCandidateFilterSearchParams();
 		List<String> filterCriteria = buildFilterQuery(filterSearchParams, theResourceType);
@@ -88,7 +90,7 @@ public class MdmCandidateSearchSvc {
 		// must perform one search per MdmResourceSearchParamJson.
 		if (candidateSearchParams.isEmpty()) {
 			searchForIdsAndAddToMap(
-					theResourceType, theResource, matchedPidsToResources, filterCriteria, null, theRequestPartitionId);
+					theResourceType, theResource, matchedPids, filterCriteria, null, theRequestPartitionId);
 		} else {
 			for (MdmResourceSearchParamJson resourceSearchParam : candidateSearchParams) {
 
@@ -99,7 +101,7 @@ public class MdmCandidateSearchSvc {
 				searchForIdsAndAddToMap(
 						theResourceType,
 						theResource,
-						matchedPidsToResources,
+						matchedPids,
 						filterCriteria,
 						resourceSearchParam,
 						theRequestPartitionId);
@@ -109,20 +111,28 @@ public class MdmCandidateSearchSvc {
 		// Sometimes, we are running this function on a resource that has not yet been persisted,
 		// so it may not have an ID yet, precluding the need to remove it.
 		if (theResource.getIdElement().getIdPart() != null) {
-			if (matchedPidsToResources.remove(
-							myIdHelperService.getPidOrNull(RequestPartitionId.allPartitions(), theResource))
-					!= null) {
+			IResourcePersistentId incomingPid =
+					myIdHelperService.getPidOrNull(RequestPartitionId.allPartitions(), theResource);
+			if (incomingPid != null && matchedPids.remove(incomingPid.getId()) != null) {
 				ourLog.debug(
 						"Removing incoming resource {} from list of candidates.",
 						theResource.getIdElement().toUnqualifiedVersionless());
 			}
 		}
 
+		// Load all the candidates found by the searches at once
+		List<IAnyResource> candidates = new ArrayList<>(matchedPids.size());
+		for (IBaseResource next : myCandidateSearcher.loadResourcesByIds(theResourceType, matchedPids.values())) {
+			if (next != null) {
+				candidates.add((IAnyResource) next);
+			}
+		}
+
 		ourLog.info(
 				"Candidate search found {} matching resources for {}",
-				matchedPidsToResources.size(),
+				candidates.size(),
 				idOrType(theResource, theResourceType));
-		return matchedPidsToResources.values();
+		return candidates;
 	}
 
 	private boolean isSearchParamForResource(String theResourceType, MdmResourceSearchParamJson resourceSearchParam) {
@@ -133,15 +143,14 @@ public class MdmCandidateSearchSvc {
 	/*
 	 * Helper method which performs too much work currently.
 	 * 1. Build a full query string for the given filter and resource criteria.
-	 * 2. Convert that URL to a SearchParameterMap.
-	 * 3. Execute a Synchronous search on the DAO using that parameter map.
-	 * 4. Store all results in `theMatchedPidsToResources`
+	 * 2. Convert that URL to a SearchParameterMap and search for the IDs of the matching resources.
+	 *    The resources themselves are loaded once all searches have been performed.
+	 * 3. Store all results in `theMatchedPids`
 	 */
-	@SuppressWarnings("rawtypes")
 	private void searchForIdsAndAddToMap(
 			String theResourceType,
 			IAnyResource theResource,
-			Map<IResourcePersistentId, IAnyResource> theMatchedPidsToResources,
+			Map<Object, IResourcePersistentId> theMatchedPids,
 			List<String> theFilterCriteria,
 			MdmResourceSearchParamJson resourceSearchParam,
 			RequestPartitionId theRequestPartitionId) {
@@ -155,22 +164,20 @@ public class MdmCandidateSearchSvc {
 		ourLog.debug("Searching for {} candidates with {}", theResourceType, resourceCriteria);
 
 		// 2.
-		Optional<IBundleProvider> bundleProvider =
-				myCandidateSearcher.search(theResourceType, resourceCriteria, theRequestPartitionId);
-		if (!bundleProvider.isPresent()) {
+		Optional<List<IResourcePersistentId>> pids =
+				myCandidateSearcher.searchForIds(theResourceType, resourceCriteria, theRequestPartitionId);
+		if (!pids.isPresent()) {
 			throw new TooManyCandidatesException(Msg.code(762) + "More than " + myMdmSettings.getCandidateSearchLimit()
 					+ " candidate matches found for " + resourceCriteria + ".  Aborting mdm matching. Updating the "
 					+ "candidate search parameters is strongly recommended for better performance of MDM.");
 		}
-		List<IBaseResource> resources = bundleProvider.get().getAllResources();
 
-		int initialSize = theMatchedPidsToResources.size();
+		int initialSize = theMatchedPids.size();
 
-		// 4.
-		resources.forEach(resource -> theMatchedPidsToResources.put(
-				myIdHelperService.getPidOrNull(RequestPartitionId.allPartitions(), resource), (IAnyResource) resource));
+		// 3.
+		pids.get().forEach(pid -> theMatchedPids.putIfAbsent(pid.getId(), pid));
 
-		int newSize = theMatchedPidsToResources.size();
+		int newSize = theMatchedPids.size();
 
 		if (ourLog.isDebugEnabled()) {
 			ourLog.debug("Candidate search added {} {}s", newSize - initialSize, theResourceType);
@@ -1,12 +1,15 @@
 package ca.uhn.fhir.jpa.mdm.svc.candidate;
 
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
 import ca.uhn.fhir.jpa.api.dao.DaoRegistry;
 import ca.uhn.fhir.jpa.api.dao.IFhirResourceDao;
+import ca.uhn.fhir.jpa.model.dao.JpaPid;
 import ca.uhn.fhir.jpa.searchparam.SearchParameterMap;
 import ca.uhn.fhir.mdm.api.IMdmRuleValidator;
 import ca.uhn.fhir.mdm.rules.config.MdmSettings;
 import ca.uhn.fhir.mdm.svc.MdmSearchParamSvc;
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.api.server.storage.IResourcePersistentId;
 import ca.uhn.fhir.rest.server.SimpleBundleProvider;
 import org.hl7.fhir.r4.model.Patient;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +19,8 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -66,4 +71,32 @@ class CandidateSearcherTest {
 		boolean shouldNotFailBecauseOfTooManyMatches = offset < 0;
 		assertTrue(result.isPresent() == shouldNotFailBecauseOfTooManyMatches);
 	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {-1, 0, +1})
+	public void testSearchForIdsLimit(int offset) {
+		// setup
+		String criteria = "?active=true";
+		SearchParameterMap map = new SearchParameterMap();
+		String resourceType = "Patient";
+		when(myMdmSearchParamSvc.mapFromCriteria(resourceType, criteria)).thenReturn(map);
+		IFhirResourceDao<Patient> dao = mock(IFhirResourceDao.class);
+		when(myDaoRegistry.getResourceDao(resourceType)).thenReturn(dao);
+		int candidateSearchLimit = 2401;
+		myMdmSettings.setCandidateSearchLimit(candidateSearchLimit);
+		List<IResourcePersistentId> pids = new ArrayList<>();
+		for (long i = 0; i < candidateSearchLimit + offset; i++) {
+			pids.add(JpaPid.fromId(i));
+		}
+		when(dao.searchForIds(eq(map), any())).thenReturn(pids);
+
+		Optional<List<IResourcePersistentId>> result =
+			myCandidateSearcher.searchForIds(resourceType, criteria, RequestPartitionId.allPartitions());
+
+		// validate
+		assertTrue(map.isLoadSynchronous());
+		assertEquals(candidateSearchLimit, map.getLoadSynchronousUpTo());
+		boolean shouldNotFailBecauseOfTooManyMatches = offset < 0;
+		assertTrue(result.isPresent() == shouldNotFailBecauseOfTooManyMatches);
+	}
 }
@@ -21,6 +21,7 @@ package ca.uhn.fhir.jpa.model.config;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.Validate;
 import org.hl7.fhir.dstu2.model.Subscription;
 
 import java.util.Collections;
@@ -45,6 +46,8 @@ public abstract class BaseSubscriptionSettings {
 	 */
 	private boolean myAllowOnlyInMemorySubscriptions = false;
 
+	private int myRestHookDeliveryMaxBatchSize = 1;
+
 	/**
 	 * This setting indicates which subscription channel types are supported by the server.  Any subscriptions submitted
 	 * to the server matching these types will be activated.
@@ -235,4 +238,41 @@ public abstract class BaseSubscriptionSettings {
 	public void setTriggerSubscriptionsForNonVersioningChanges(boolean theTriggerSubscriptionsForNonVersioningChanges) {
 		myTriggerSubscriptionsForNonVersioningChanges = theTriggerSubscriptionsForNonVersioningChanges;
 	}
+
+	/**
+	 * If set to a value greater than 1 (default is 1), rest-hook deliveries for the same subscription which
+	 * are being processed concurrently (i.e. by different consumers of the subscription's delivery channel)
+	 * are combined into a single FHIR transaction Bundle containing up to this many entries, instead of
+	 * sending one request per notification. Only the most recent change to each resource is included in
+	 * a combined Bundle. While a combined request is in flight, further deliveries for the same subscription
+	 * wait for it to complete, which limits each subscription to a single in-flight request.
+	 * <p>
+	 * This only applies to subscriptions which deliver a full resource payload without
+	 * payload search criteria.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	public int getRestHookDeliveryMaxBatchSize() {
+		return myRestHookDeliveryMaxBatchSize;
+	}
+
+	/**
+	 * If set to a value greater than 1 (default is 1), rest-hook deliveries for the same subscription which
+	 * are being processed concurrently (i.e. by different consumers of the subscription's delivery channel)
+	 * are combined into a single FHIR transaction Bundle containing up to this many entries, instead of
+	 * sending one request per notification. Only the most recent change to each resource is included in
+	 * a combined Bundle. While a combined request is in flight, further deliveries for the same subscription
+	 * wait for it to complete, which limits each subscription to a single in-flight request.
+	 * <p>
+	 * This only applies to subscriptions which deliver a full resource payload without
+	 * payload search criteria.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	public void setRestHookDeliveryMaxBatchSize(int theRestHookDeliveryMaxBatchSize) {
+		Validate.isTrue(theRestHookDeliveryMaxBatchSize >= 1, "theRestHookDeliveryMaxBatchSize must be at least 1");
+		myRestHookDeliveryMaxBatchSize = theRestHookDeliveryMaxBatchSize;
+	}
 }
@@ -0,0 +1,314 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Model
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.model.dao;
+
+import ca.uhn.fhir.i18n.Msg;
+import org.hl7.fhir.instance.model.api.IIdType;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * A compact {@link java.util.List} of {@link JpaPid} which stores the resource PIDs in a primitive
+ * <code>long[]</code> instead of holding one boxed object per entry. This is intended for
+ * accumulating large numbers of search results (e.g. in the search task) where an
+ * <code>ArrayList&lt;JpaPid&gt;</code> would create several objects per matched resource.
+ * <p>
+ * The version, resource type and associated resource ID of each PID are retained as well, but
+ * the arrays holding them are only allocated once a PID carrying one of these values is added.
+ * </p>
+ * <p>
+ * Note that {@link #get(int)} creates a new {@link JpaPid} on every call, so modifying the
+ * returned object does not modify the contents of the list. Use {@link #set(int, JpaPid)} for that.
+ * This class is not thread safe.
+ * </p>
+ *
+ * @since 7.6.0
+ */
+public class JpaPidList extends AbstractList<JpaPid> implements RandomAccess {
+
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final long NO_VERSION = Long.MIN_VALUE;
+
+	private long[] myIds;
+	private long[] myVersions;
+	private String[] myResourceTypes;
+	private IIdType[] myAssociatedResourceIds;
+	private int mySize;
+
+	/**
+	 * Constructor
+	 */
+	public JpaPidList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theInitialCapacity The number of PIDs which can be added before the list needs to grow
+	 */
+	public JpaPidList(int theInitialCapacity) {
+		myIds = new long[Math.max(theInitialCapacity, 1)];
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param thePids The PIDs to copy into this list
+	 */
+	public JpaPidList(Collection<JpaPid> thePids) {
+		this(thePids.size());
+		addAll(thePids);
+	}
+
+	/**
+	 * Returns the resource PID at the given index without creating a {@link JpaPid}
+	 */
+	public long getId(int theIndex) {
+		checkIndex(theIndex);
+		return myIds[theIndex];
+	}
+
+	/**
+	 * Appends a resource PID with no version, resource type or associated resource ID
+	 */
+	public void addId(long theId) {
+		ensureCapacity(mySize + 1);
+		myIds[mySize] = theId;
+		mySize++;
+		modCount++;
+	}
+
+	@Override
+	public JpaPid get(int theIndex) {
+		checkIndex(theIndex);
+		Long version = null;
+		if (myVersions != null && myVersions[theIndex] != NO_VERSION) {
+			version = myVersions[theIndex];
+		}
+		String resourceType = myResourceTypes != null ? myResourceTypes[theIndex] : null;
+
+		JpaPid retVal;
+		if (resourceType != null) {
+			retVal = JpaPid.fromIdAndVersionAndResourceType(myIds[theIndex], version, resourceType);
+		} else if (version != null) {
+			retVal = JpaPid.fromIdAndVersion(myIds[theIndex], version);
+		} else {
+			retVal = JpaPid.fromId(myIds[theIndex]);
+		}
+		if (myAssociatedResourceIds != null && myAssociatedResourceIds[theIndex] != null) {
+			retVal.setAssociatedResourceId(myAssociatedResourceIds[theIndex]);
+		}
+		return retVal;
+	}
+
+	@Override
+	public int size() {
+		return mySize;
+	}
+
+	@Override
+	public boolean add(JpaPid thePid) {
+		ensureCapacity(mySize + 1);
+		mySize++;
+		store(mySize - 1, thePid);
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public void add(int theIndex, JpaPid thePid) {
+		if (theIndex == mySize) {
+			add(thePid);
+			return;
+		}
+		checkIndex(theIndex);
+		ensureCapacity(mySize + 1);
+		shift(theIndex, theIndex + 1, mySize - theIndex);
+		mySize++;
+		store(theIndex, thePid);
+		modCount++;
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends JpaPid> thePids) {
+		if (thePids.isEmpty()) {
+			return false;
+		}
+		if (thePids instanceof JpaPidList) {
+			JpaPidList other = (JpaPidList) thePids;
+			int otherSize = other.mySize;
+			ensureCapacity(mySize + otherSize);
+			System.arraycopy(other.myIds, 0, myIds, mySize, otherSize);
+			if (other.myVersions != null) {
+				ensureVersions();
+				System.arraycopy(other.myVersions, 0, myVersions, mySize, otherSize);
+			} else if (myVersions != null) {
+				Arrays.fill(myVersions, mySize, mySize + otherSize, NO_VERSION);
+			}
+			if (other.myResourceTypes != null) {
+				ensureResourceTypes();
+				System.arraycopy(other.myResourceTypes, 0, myResourceTypes, mySize, otherSize);
+			}
+			if (other.myAssociatedResourceIds != null) {
+				ensureAssociatedResourceIds();
+				System.arraycopy(other.myAssociatedResourceIds, 0, myAssociatedResourceIds, mySize, otherSize);
+			}
+			mySize += otherSize;
+			modCount++;
+			return true;
+		}
+
+		ensureCapacity(mySize + thePids.size());
+		for (JpaPid next : thePids) {
+			add(next);
+		}
+		return true;
+	}
+
+	@Override
+	public JpaPid set(int theIndex, JpaPid thePid) {
+		JpaPid retVal = get(theIndex);
+		store(theIndex, thePid);
+		return retVal;
+	}
+
+	@Override
+	public JpaPid remove(int theIndex) {
+		JpaPid retVal = get(theIndex);
+		shift(theIndex + 1, theIndex, mySize - theIndex - 1);
+		mySize--;
+		if (myResourceTypes != null) {
+			myResourceTypes[mySize] = null;
+		}
+		if (myAssociatedResourceIds != null) {
+			myAssociatedResourceIds[mySize] = null;
+		}
+		modCount++;
+		return retVal;
+	}
+
+	@Override
+	public void clear() {
+		if (myResourceTypes != null) {
+			Arrays.fill(myResourceTypes, 0, mySize, null);
+		}
+		if (myAssociatedResourceIds != null) {
+			Arrays.fill(myAssociatedResourceIds, 0, mySize, null);
+		}
+		mySize = 0;
+		modCount++;
+	}
+
+	/**
+	 * Returns a copy of the resource PIDs in this list
+	 */
+	public long[] toIdArray() {
+		return Arrays.copyOf(myIds, mySize);
+	}
+
+	private void store(int theIndex, JpaPid thePid) {
+		myIds[theIndex] = thePid.getId();
+
+		Long version = thePid.getVersion();
+		if (version != null) {
+			ensureVersions();
+			myVersions[theIndex] = version;
+		} else if (myVersions != null) {
+			myVersions[theIndex] = NO_VERSION;
+		}
+
+		String resourceType = thePid.getResourceType();
+		if (resourceType != null) {
+			ensureResourceTypes();
+		}
+		if (myResourceTypes != null) {
+			myResourceTypes[theIndex] = resourceType;
+		}
+
+		IIdType associatedResourceId = thePid.getAssociatedResourceId();
+		if (associatedResourceId != null) {
+			ensureAssociatedResourceIds();
+		}
+		if (myAssociatedResourceIds != null) {
+			myAssociatedResourceIds[theIndex] = associatedResourceId;
+		}
+	}
+
+	private void shift(int theFrom, int theTo, int theLength) {
+		System.arraycopy(myIds, theFrom, myIds, theTo, theLength);
+		if (myVersions != null) {
+			System.arraycopy(myVersions, theFrom, myVersions, theTo, theLength);
+		}
+		if (myResourceTypes != null) {
+			System.arraycopy(myResourceTypes, theFrom, myResourceTypes, theTo, theLength);
+		}
+		if (myAssociatedResourceIds != null) {
+			System.arraycopy(myAssociatedResourceIds, theFrom, myAssociatedResourceIds, theTo, theLength);
+		}
+	}
+
+	private void ensureCapacity(int theMinCapacity) {
+		if (theMinCapacity <= myIds.length) {
+			return;
+		}
+		int newCapacity = Math.max(theMinCapacity, myIds.length + (myIds.length >> 1));
+		myIds = Arrays.copyOf(myIds, newCapacity);
+		if (myVersions != null) {
+			int oldLength = myVersions.length;
+			myVersions = Arrays.copyOf(myVersions, newCapacity);
+			Arrays.fill(myVersions, oldLength, newCapacity, NO_VERSION);
+		}
+		if (myResourceTypes != null) {
+			myResourceTypes = Arrays.copyOf(myResourceTypes, newCapacity);
+		}
+		if (myAssociatedResourceIds != null) {
+			myAssociatedResourceIds = Arrays.copyOf(myAssociatedResourceIds, newCapacity);
+		}
+	}
+
+	private void ensureVersions() {
+		if (myVersions == null) {
+			myVersions = new long[myIds.length];
+			Arrays.fill(myVersions, NO_VERSION);
+		}
+	}
+
+	private void ensureResourceTypes() {
+		if (myResourceTypes == null) {
+			myResourceTypes = new String[myIds.length];
+		}
+	}
+
+	private void ensureAssociatedResourceIds() {
+		if (myAssociatedResourceIds == null) {
+			myAssociatedResourceIds = new IIdType[myIds.length];
+		}
+	}
+
+	private void checkIndex(int theIndex) {
+		if (theIndex < 0 || theIndex >= mySize) {
+			throw new IndexOutOfBoundsException(Msg.code(2553) + "Index: " + theIndex + ", Size: " + mySize);
+		}
+	}
+}
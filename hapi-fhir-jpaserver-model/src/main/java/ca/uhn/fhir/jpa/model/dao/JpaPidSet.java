@@ -0,0 +1,341 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Model
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.model.dao;
+
+import ca.uhn.fhir.i18n.Msg;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A compact {@link java.util.Set} of {@link JpaPid} which stores unversioned resource PIDs in a
+ * primitive open-addressing hash table instead of a <code>HashSet</code> of boxed objects. This
+ * is intended for the large "already seen" PID sets kept by the search builder, where a
+ * <code>HashSet&lt;JpaPid&gt;</code> costs several objects per matched resource.
+ * <p>
+ * Membership follows {@link JpaPid#equals(Object)}, i.e. two PIDs are the same if they have the
+ * same ID and version. Versioned PIDs, and unversioned PIDs carrying a resource type or an
+ * associated resource ID, are rare in searches and are additionally kept as objects so that
+ * iteration returns them unchanged. Any other PID is returned from the iterator as a new
+ * {@link JpaPid} created with {@link JpaPid#fromId(Long)}.
+ * </p>
+ * <p>
+ * The iterator does not support {@link Iterator#remove()}. This class is not thread safe.
+ * </p>
+ *
+ * @since 7.6.0
+ */
+public class JpaPidSet extends AbstractSet<JpaPid> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * Slots containing this value are empty, so the PID 0 is tracked separately
+	 */
+	private static final long EMPTY = 0L;
+
+	private long[] myTable;
+	private int myMask;
+	private int myTableCount;
+	private boolean myContainsZero;
+	private Map<Long, JpaPid> myUnversionedPidsWithDetails;
+	private Set<JpaPid> myVersionedPids;
+
+	/**
+	 * Constructor
+	 */
+	public JpaPidSet() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theExpectedSize The number of PIDs which can be added before the set needs to grow
+	 */
+	public JpaPidSet(int theExpectedSize) {
+		allocate(tableSizeFor(theExpectedSize));
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param thePids The PIDs to copy into this set
+	 */
+	public JpaPidSet(Collection<JpaPid> thePids) {
+		this(thePids.size());
+		addAll(thePids);
+	}
+
+	/**
+	 * Returns <code>true</code> if this set contains an unversioned PID with the given ID
+	 */
+	public boolean containsId(long theId) {
+		if (theId == EMPTY) {
+			return myContainsZero;
+		}
+		return myTable[findSlot(theId)] == theId;
+	}
+
+	/**
+	 * Adds an unversioned PID with the given ID
+	 *
+	 * @return Returns <code>true</code> if the set did not already contain the PID
+	 */
+	public boolean addId(long theId) {
+		if (theId == EMPTY) {
+			if (myContainsZero) {
+				return false;
+			}
+			myContainsZero = true;
+			return true;
+		}
+
+		int slot = findSlot(theId);
+		if (myTable[slot] == theId) {
+			return false;
+		}
+		myTable[slot] = theId;
+		myTableCount++;
+		if (myTableCount * 2 > myTable.length) {
+			rehash(myTable.length * 2);
+		}
+		return true;
+	}
+
+	@Override
+	public boolean contains(Object theObject) {
+		if (!(theObject instanceof JpaPid)) {
+			return false;
+		}
+		JpaPid pid = (JpaPid) theObject;
+		if (pid.getVersion() != null) {
+			return myVersionedPids != null && myVersionedPids.contains(pid);
+		}
+		return containsId(pid.getId());
+	}
+
+	@Override
+	public boolean add(JpaPid thePid) {
+		if (thePid.getVersion() != null) {
+			if (myVersionedPids == null) {
+				myVersionedPids = new HashSet<>();
+			}
+			return myVersionedPids.add(thePid);
+		}
+
+		long id = thePid.getId();
+		boolean retVal = addId(id);
+		if (retVal && (thePid.getResourceType() != null || thePid.getAssociatedResourceId() != null)) {
+			if (myUnversionedPidsWithDetails == null) {
+				myUnversionedPidsWithDetails = new HashMap<>();
+			}
+			myUnversionedPidsWithDetails.put(id, thePid);
+		}
+		return retVal;
+	}
+
+	@Override
+	public boolean remove(Object theObject) {
+		if (!(theObject instanceof JpaPid)) {
+			return false;
+		}
+		JpaPid pid = (JpaPid) theObject;
+		if (pid.getVersion() != null) {
+			return myVersionedPids != null && myVersionedPids.remove(pid);
+		}
+
+		long id = pid.getId();
+		boolean retVal;
+		if (id == EMPTY) {
+			retVal = myContainsZero;
+			myContainsZero = false;
+		} else {
+			int slot = findSlot(id);
+			retVal = myTable[slot] == id;
+			if (retVal) {
+				removeSlot(slot);
+			}
+		}
+		if (retVal && myUnversionedPidsWithDetails != null) {
+			myUnversionedPidsWithDetails.remove(id);
+		}
+		return retVal;
+	}
+
+	@Override
+	public int size() {
+		int retVal = myTableCount;
+		if (myContainsZero) {
+			retVal++;
+		}
+		if (myVersionedPids != null) {
+			retVal += myVersionedPids.size();
+		}
+		return retVal;
+	}
+
+	@Override
+	public void clear() {
+		allocate(tableSizeFor(DEFAULT_CAPACITY));
+		myContainsZero = false;
+		myUnversionedPidsWithDetails = null;
+		myVersionedPids = null;
+	}
+
+	@Override
+	public Iterator<JpaPid> iterator() {
+		return new JpaPidSetIterator();
+	}
+
+	private JpaPid toPid(long theId) {
+		if (myUnversionedPidsWithDetails != null) {
+			JpaPid retVal = myUnversionedPidsWithDetails.get(theId);
+			if (retVal != null) {
+				return retVal;
+			}
+		}
+		return JpaPid.fromId(theId);
+	}
+
+	/**
+	 * Returns the slot containing the given ID, or the empty slot where it would be inserted
+	 */
+	private int findSlot(long theId) {
+		int slot = hash(theId) & myMask;
+		while (myTable[slot] != EMPTY && myTable[slot] != theId) {
+			slot = (slot + 1) & myMask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Removes the entry at the given slot, shifting back any following entries in the same
+	 * probe sequence so that no tombstones are needed
+	 */
+	private void removeSlot(int theSlot) {
+		int gap = theSlot;
+		int next = theSlot;
+		while (true) {
+			next = (next + 1) & myMask;
+			long id = myTable[next];
+			if (id == EMPTY) {
+				break;
+			}
+			int home = hash(id) & myMask;
+			boolean canMove;
+			if (next > gap) {
+				canMove = home <= gap || home > next;
+			} else {
+				canMove = home <= gap && home > next;
+			}
+			if (canMove) {
+				myTable[gap] = id;
+				gap = next;
+			}
+		}
+		myTable[gap] = EMPTY;
+		myTableCount--;
+	}
+
+	private void rehash(int theNewSize) {
+		long[] oldTable = myTable;
+		allocate(theNewSize);
+		for (long next : oldTable) {
+			if (next != EMPTY) {
+				myTable[findSlot(next)] = next;
+				myTableCount++;
+			}
+		}
+	}
+
+	private void allocate(int theSize) {
+		myTable = new long[theSize];
+		myMask = theSize - 1;
+		myTableCount = 0;
+	}
+
+	private static int tableSizeFor(int theExpectedSize) {
+		int retVal = DEFAULT_CAPACITY;
+		while (retVal < theExpectedSize * 2L && retVal < (1 << 30)) {
+			retVal <<= 1;
+		}
+		return retVal;
+	}
+
+	private static int hash(long theId) {
+		long h = theId * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	private class JpaPidSetIterator implements Iterator<JpaPid> {
+
+		private final long[] myIteratorTable = myTable;
+		private final Iterator<JpaPid> myVersionedIterator =
+				myVersionedPids != null ? myVersionedPids.iterator() : null;
+		private boolean myZeroPending = myContainsZero;
+		private int mySlot = -1;
+
+		@Override
+		public boolean hasNext() {
+			if (myZeroPending) {
+				return true;
+			}
+			if (advanceSlot() < myIteratorTable.length) {
+				return true;
+			}
+			return myVersionedIterator != null && myVersionedIterator.hasNext();
+		}
+
+		@Override
+		public JpaPid next() {
+			if (myZeroPending) {
+				myZeroPending = false;
+				return toPid(EMPTY);
+			}
+			int slot = advanceSlot();
+			if (slot < myIteratorTable.length) {
+				mySlot = slot;
+				return toPid(myIteratorTable[slot]);
+			}
+			if (myVersionedIterator != null) {
+				return myVersionedIterator.next();
+			}
+			throw new NoSuchElementException(Msg.code(2554) + "No more PIDs in set");
+		}
+
+		/**
+		 * Returns the next non-empty slot after the current one, or the table length if there is none
+		 */
+		private int advanceSlot() {
+			int slot = mySlot + 1;
+			while (slot < myIteratorTable.length && myIteratorTable[slot] == EMPTY) {
+				slot++;
+			}
+			return slot;
+		}
+	}
+}
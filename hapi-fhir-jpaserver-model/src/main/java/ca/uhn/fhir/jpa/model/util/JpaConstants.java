@@ -299,6 +299,14 @@ public class JpaConstants {
 	public static final String BULK_META_EXTENSION_JOB_ID = "https://hapifhir.org/NamingSystem/bulk-export-job-id";
 	public static final String BULK_META_EXTENSION_RESOURCE_TYPE =
 			"https://hapifhir.org/NamingSystem/bulk-export-binary-resource-type";
+	/**
+	 * Extension on each OperationOutcome written by the $validate-bulk operation, holding the
+	 * ID of the resource that the OperationOutcome applies to
+	 *
+	 * @since 7.6.0
+	 */
+	public static final String BULK_VALIDATE_EXTENSION_RESOURCE_ID =
+			"https://hapifhir.org/NamingSystem/bulk-validate-resource-id";
 	public static final Set<String> UNDESIRED_RESOURCE_LINKAGES_FOR_EVERYTHING_ON_PATIENT_INSTANCE =
 			Set.of("Provenance", "List", "Group");
 
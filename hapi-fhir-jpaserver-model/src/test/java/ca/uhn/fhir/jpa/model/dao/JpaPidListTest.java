@@ -0,0 +1,87 @@
+package ca.uhn.fhir.jpa.model.dao;
+
+import org.hl7.fhir.r4.model.IdType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JpaPidListTest {
+
+	@Test
+	public void testAddAndGet() {
+		JpaPidList list = new JpaPidList(2);
+		for (long i = 0; i < 100; i++) {
+			list.add(JpaPid.fromId(i));
+		}
+
+		assertEquals(100, list.size());
+		assertEquals(JpaPid.fromId(57L), list.get(57));
+		assertEquals(57L, list.getId(57));
+		assertNull(list.get(57).getVersion());
+		assertEquals(99L, list.toIdArray()[99]);
+	}
+
+	@Test
+	public void testRetainsVersionAndResourceType() {
+		JpaPidList list = new JpaPidList();
+		list.add(JpaPid.fromId(1L));
+		list.add(JpaPid.fromIdAndVersionAndResourceType(2L, 3L, "Patient"));
+		JpaPid withAssociatedId = JpaPid.fromId(4L);
+		withAssociatedId.setAssociatedResourceId(new IdType("Observation/A"));
+		list.add(withAssociatedId);
+
+		assertNull(list.get(0).getVersion());
+		assertNull(list.get(0).getResourceType());
+		assertEquals(3L, list.get(1).getVersion());
+		assertEquals("Patient", list.get(1).getResourceType());
+		assertEquals("Observation/A", list.get(2).getAssociatedResourceId().getValue());
+		assertNull(list.get(2).getVersion());
+	}
+
+	@Test
+	public void testRemoveAndInsert() {
+		JpaPidList list = new JpaPidList();
+		list.add(JpaPid.fromId(1L));
+		list.add(JpaPid.fromIdAndVersion(2L, 5L));
+		list.add(JpaPid.fromId(3L));
+
+		assertEquals(JpaPid.fromIdAndVersion(2L, 5L), list.remove(1));
+		list.add(0, JpaPid.fromIdAndVersion(0L, 1L));
+
+		assertThat(list).containsExactly(JpaPid.fromIdAndVersion(0L, 1L), JpaPid.fromId(1L), JpaPid.fromId(3L));
+		assertThrows(IndexOutOfBoundsException.class, () -> list.get(3));
+	}
+
+	@Test
+	public void testAddAllAndClear() {
+		JpaPidList versioned = new JpaPidList();
+		versioned.add(JpaPid.fromIdAndVersion(10L, 2L));
+		List<JpaPid> plain = new ArrayList<>();
+		plain.add(JpaPid.fromId(11L));
+
+		JpaPidList list = new JpaPidList();
+		list.addId(9L);
+		list.addAll(versioned);
+		list.addAll(plain);
+		list.addAll(list);
+
+		assertThat(list).containsExactly(
+			JpaPid.fromId(9L),
+			JpaPid.fromIdAndVersion(10L, 2L),
+			JpaPid.fromId(11L),
+			JpaPid.fromId(9L),
+			JpaPid.fromIdAndVersion(10L, 2L),
+			JpaPid.fromId(11L));
+
+		list.clear();
+		assertThat(list).isEmpty();
+		list.addId(12L);
+		assertNull(list.get(0).getVersion());
+	}
+}
@@ -0,0 +1,76 @@
+package ca.uhn.fhir.jpa.model.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JpaPidSetTest {
+
+	@Test
+	public void testAddAndContains() {
+		JpaPidSet set = new JpaPidSet();
+		Set<JpaPid> expected = new HashSet<>();
+		for (long i = -50; i < 5000; i += 3) {
+			assertTrue(set.add(JpaPid.fromId(i)));
+			expected.add(JpaPid.fromId(i));
+		}
+
+		assertFalse(set.add(JpaPid.fromId(0L)));
+		assertFalse(set.add(JpaPid.fromId(4999L)));
+		assertTrue(set.contains(JpaPid.fromId(-50L)));
+		assertTrue(set.containsId(100L));
+		assertFalse(set.containsId(101L));
+		assertEquals(expected.size(), set.size());
+		assertEquals(expected, set);
+		assertEquals(expected, new HashSet<>(set));
+	}
+
+	@Test
+	public void testVersionedPidsAreDistinct() {
+		JpaPidSet set = new JpaPidSet();
+		assertTrue(set.add(JpaPid.fromId(1L)));
+		assertTrue(set.add(JpaPid.fromIdAndVersion(1L, 2L)));
+		assertFalse(set.add(JpaPid.fromIdAndVersion(1L, 2L)));
+		assertFalse(set.add(JpaPid.fromIdAndResourceType(1L, "Patient")));
+
+		assertEquals(2, set.size());
+		assertFalse(set.contains(JpaPid.fromIdAndVersion(1L, 3L)));
+		assertThat(set).containsExactlyInAnyOrder(JpaPid.fromId(1L), JpaPid.fromIdAndVersion(1L, 2L));
+	}
+
+	@Test
+	public void testIteratorReturnsPidsWithResourceType() {
+		JpaPid pid = JpaPid.fromIdAndResourceType(7L, "Observation");
+		JpaPidSet set = new JpaPidSet(List.of(pid));
+
+		assertSame(pid, set.iterator().next());
+	}
+
+	@Test
+	public void testRemove() {
+		JpaPidSet set = new JpaPidSet();
+		for (long i = 0; i < 1000; i++) {
+			set.add(JpaPid.fromId(i));
+		}
+		for (long i = 0; i < 1000; i += 2) {
+			assertTrue(set.remove(JpaPid.fromId(i)));
+		}
+		assertFalse(set.remove(JpaPid.fromId(0L)));
+
+		assertEquals(500, set.size());
+		for (long i = 0; i < 1000; i++) {
+			assertEquals(i % 2 == 1, set.containsId(i), "PID " + i);
+		}
+
+		set.clear();
+		assertThat(set).isEmpty();
+	}
+}
@@ -129,6 +129,11 @@ public class SubscriptionChannelRegistry {
 			ourLog.warn("Failed to remove subscription {} from channel {}", theActiveSubscription.getId(), channelName);
 		}
 
+		SubscriptionChannelWithHandlers channelWithHandlers = myDeliveryReceiverChannels.get(channelName);
+		if (channelWithHandlers != null) {
+			channelWithHandlers.evictSubscription(theActiveSubscription.getId());
+		}
+
 		// This was the last one.  Close and remove the channel
 		if (!myActiveSubscriptionByChannelName.containsKey(channelName)) {
 			SubscriptionChannelWithHandlers channel = myDeliveryReceiverChannels.get(channelName);
@@ -140,6 +145,17 @@ public class SubscriptionChannelRegistry {
 		}
 	}
 
+	/**
+	 * Called when an active subscription has been updated in place, reusing its existing channel
+	 */
+	public synchronized void update(ActiveSubscription theActiveSubscription) {
+		SubscriptionChannelWithHandlers channelWithHandlers =
+				myDeliveryReceiverChannels.get(theActiveSubscription.getChannelName());
+		if (channelWithHandlers != null) {
+			channelWithHandlers.evictSubscription(theActiveSubscription.getId());
+		}
+	}
+
 	public synchronized SubscriptionChannelWithHandlers getDeliveryReceiverChannel(String theChannelName) {
 		return myDeliveryReceiverChannels.get(theChannelName);
 	}
@@ -19,6 +19,7 @@
  */
 package ca.uhn.fhir.jpa.subscription.channel.subscription;
 
+import ca.uhn.fhir.jpa.subscription.match.deliver.BaseSubscriptionDeliverySubscriber;
 import ca.uhn.fhir.jpa.subscription.match.registry.ActiveSubscription;
 import com.google.common.annotations.VisibleForTesting;
 import org.slf4j.Logger;
@@ -66,6 +67,19 @@ public class SubscriptionChannelWithHandlers implements Closeable {
 		}
 	}
 
+	/**
+	 * Lets the delivery handlers discard any state they keep for the given subscription
+	 *
+	 * @see BaseSubscriptionDeliverySubscriber#evictSubscription(String)
+	 */
+	public void evictSubscription(String theSubscriptionId) {
+		for (MessageHandler next : myDeliveryHandlerSet) {
+			if (next instanceof BaseSubscriptionDeliverySubscriber) {
+				((BaseSubscriptionDeliverySubscriber) next).evictSubscription(theSubscriptionId);
+			}
+		}
+	}
+
 	@VisibleForTesting
 	public MessageHandler getDeliveryHandlerForUnitTest() {
 		return myDeliveryHandlerSet.iterator().next();
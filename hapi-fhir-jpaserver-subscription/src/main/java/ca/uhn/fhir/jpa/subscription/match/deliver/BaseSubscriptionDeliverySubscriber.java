@@ -128,6 +128,18 @@ public abstract class BaseSubscriptionDeliverySubscriber implements MessageHandl
 
 	public abstract void handleMessage(ResourceDeliveryMessage theMessage) throws Exception;
 
+	/**
+	 * Called when the subscription with the given ID is unregistered or updated, so that any
+	 * state kept for it by this subscriber (e.g. a client built from its endpoint and headers)
+	 * can be discarded. The default implementation does nothing.
+	 *
+	 * @param theSubscriptionId The ID part of the subscription ID
+	 * @since 7.6.0
+	 */
+	public void evictSubscription(String theSubscriptionId) {
+		// nothing
+	}
+
 	protected IBaseBundle createDeliveryBundleForPayloadSearchCriteria(
 			CanonicalSubscription theSubscription, IBaseResource thePayloadResource) {
 		String resType = theSubscription
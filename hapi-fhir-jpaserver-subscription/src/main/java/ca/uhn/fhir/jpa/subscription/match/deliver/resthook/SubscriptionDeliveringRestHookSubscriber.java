@@ -26,6 +26,7 @@ import ca.uhn.fhir.interceptor.api.Pointcut;
 import ca.uhn.fhir.interceptor.model.RequestPartitionId;
 import ca.uhn.fhir.jpa.api.dao.DaoRegistry;
 import ca.uhn.fhir.jpa.api.dao.IFhirResourceDao;
+import ca.uhn.fhir.jpa.model.config.SubscriptionSettings;
 import ca.uhn.fhir.jpa.subscription.match.deliver.BaseSubscriptionDeliverySubscriber;
 import ca.uhn.fhir.jpa.subscription.model.CanonicalSubscription;
 import ca.uhn.fhir.jpa.subscription.model.ResourceDeliveryMessage;
@@ -43,9 +44,11 @@ import ca.uhn.fhir.rest.gclient.IClientExecutable;
 import ca.uhn.fhir.rest.server.exceptions.ResourceGoneException;
 import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
 import ca.uhn.fhir.rest.server.messaging.BaseResourceModifiedMessage;
+import ca.uhn.fhir.util.BundleBuilder;
 import ca.uhn.fhir.util.BundleUtil;
 import ca.uhn.fhir.util.Logs;
 import ca.uhn.fhir.util.StopWatch;
+import com.google.common.annotations.VisibleForTesting;
 import jakarta.annotation.Nullable;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseResource;
@@ -57,12 +60,19 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.messaging.MessagingException;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
+import static org.apache.commons.lang3.StringUtils.defaultString;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 @Scope("prototype")
@@ -72,6 +82,17 @@ public class SubscriptionDeliveringRestHookSubscriber extends BaseSubscriptionDe
 	@Autowired
 	private DaoRegistry myDaoRegistry;
 
+	@Autowired
+	private SubscriptionSettings mySubscriptionSettings;
+
+	/**
+	 * A single delivery channel (and therefore a single instance of this class) can carry
+	 * deliveries for several subscriptions, so clients and queued deliveries are kept per
+	 * subscription. Entries are removed by {@link #evictSubscription(String)} when the
+	 * subscription is unregistered or updated.
+	 */
+	private final Map<String, DeliveryTarget> myDeliveryTargets = new ConcurrentHashMap<>();
+
 	/**
 	 * Constructor
 	 */
@@ -90,6 +111,11 @@ public class SubscriptionDeliveringRestHookSubscriber extends BaseSubscriptionDe
 		doDelivery(theMsg, theSubscription, thePayloadType, theClient, payloadResource);
 	}
 
+	/**
+	 * Sends a single delivery. Note that when rest-hook delivery batching is enabled
+	 * (see {@link SubscriptionSettings#setRestHookDeliveryMaxBatchSize(int)}), deliveries
+	 * which are combined with others are sent by {@code doBatchDelivery(..)} instead.
+	 */
 	protected void doDelivery(
 			ResourceDeliveryMessage theMsg,
 			CanonicalSubscription theSubscription,
@@ -269,29 +295,231 @@ public class SubscriptionDeliveringRestHookSubscriber extends BaseSubscriptionDe
 
 		// Create the client request
 		myFhirContext.getRestfulClientFactory().setServerValidationMode(ServerValidationModeEnum.NEVER);
+		DeliveryTarget target = null;
 		IGenericClient client = null;
 		if (isNotBlank(endpointUrl)) {
-			client = myFhirContext.newRestfulGenericClient(endpointUrl);
+			target = getDeliveryTarget(subscription, endpointUrl);
+			client = target.myClient;
+		}
+
+		if (target != null && isBatchable(theMessage, subscription, payloadType)) {
+			deliverPayloadBatched(theMessage, subscription, payloadType, target);
+		} else {
+			deliverPayload(theMessage, subscription, payloadType, client);
+		}
+
+		// Interceptor call: SUBSCRIPTION_AFTER_REST_HOOK_DELIVERY
+		params = new HookParams()
+				.add(CanonicalSubscription.class, subscription)
+				.add(ResourceDeliveryMessage.class, theMessage);
+		if (!getInterceptorBroadcaster().callHooks(Pointcut.SUBSCRIPTION_AFTER_REST_HOOK_DELIVERY, params)) {
+			//noinspection UnnecessaryReturnStatement
+			return;
+		}
+	}
+
+	/**
+	 * Clients are reused for as long as the subscription endpoint and headers don't change, so that
+	 * the client (and its interceptors) isn't rebuilt for every delivery. Connections are pooled by
+	 * the underlying restful client factory.
+	 */
+	private DeliveryTarget getDeliveryTarget(CanonicalSubscription theSubscription, String theEndpointUrl) {
+		String key = defaultString(theSubscription.getIdElementString());
+		List<String> headers = theSubscription.getHeaders();
+		DeliveryTarget target = myDeliveryTargets.get(key);
+		if (target != null && target.isFor(theEndpointUrl, headers)) {
+			return target;
+		}
+
+		return myDeliveryTargets.compute(key, (k, existing) -> {
+			if (existing != null) {
+				if (existing.isFor(theEndpointUrl, headers)) {
+					return existing;
+				}
+				existing.close();
+			}
+
+			IGenericClient client = myFhirContext.newRestfulGenericClient(theEndpointUrl);
 
 			// Additional headers specified in the subscription
-			List<String> headers = subscription.getHeaders();
 			for (String next : headers) {
 				if (isNotBlank(next)) {
 					client.registerInterceptor(new SimpleRequestHeaderInterceptor(next));
 				}
 			}
+
+			return new DeliveryTarget(theSubscription.getIdPart(), theEndpointUrl, new ArrayList<>(headers), client);
+		});
+	}
+
+	@Override
+	public void evictSubscription(String theSubscriptionId) {
+		myDeliveryTargets.values().removeIf(t -> {
+			if (theSubscriptionId.equals(t.mySubscriptionId)) {
+				t.close();
+				return true;
+			}
+			return false;
+		});
+	}
+
+	@VisibleForTesting
+	public int getDeliveryTargetCountForUnitTest() {
+		return myDeliveryTargets.size();
+	}
+
+	private boolean isBatchable(
+			ResourceDeliveryMessage theMsg, CanonicalSubscription theSubscription, EncodingEnum thePayloadType) {
+		if (mySubscriptionSettings.getRestHookDeliveryMaxBatchSize() <= 1
+				|| thePayloadType == null
+				|| theSubscription.isTopicSubscription()
+				|| isNotBlank(theSubscription.getPayloadSearchCriteria())) {
+			return false;
 		}
+		switch (theMsg.getOperationType()) {
+			case CREATE:
+			case UPDATE:
+			case DELETE:
+				return true;
+			default:
+				return false;
+		}
+	}
 
-		deliverPayload(theMessage, subscription, payloadType, client);
+	/**
+	 * Queues the delivery and then either sends it along with any other queued deliveries for this
+	 * subscription and endpoint, or waits for another thread to do so. Each caller blocks until the request
+	 * containing its delivery has completed, and gets the failure if that request failed, so that
+	 * retries are still handled per message by the delivery channel.
+	 */
+	private void deliverPayloadBatched(
+			ResourceDeliveryMessage theMsg,
+			CanonicalSubscription theSubscription,
+			EncodingEnum thePayloadType,
+			DeliveryTarget theTarget) {
+		IBaseResource payloadResource = getAndMassagePayload(theMsg, theSubscription);
+		if (payloadResource == null) {
+			doDelivery(theMsg, theSubscription, thePayloadType, theTarget.myClient, null);
+			return;
+		}
 
-		// Interceptor call: SUBSCRIPTION_AFTER_REST_HOOK_DELIVERY
-		params = new HookParams()
-				.add(CanonicalSubscription.class, subscription)
-				.add(ResourceDeliveryMessage.class, theMessage);
-		if (!getInterceptorBroadcaster().callHooks(Pointcut.SUBSCRIPTION_AFTER_REST_HOOK_DELIVERY, params)) {
-			//noinspection UnnecessaryReturnStatement
+		PendingDelivery pendingDelivery = new PendingDelivery(theMsg, payloadResource);
+		if (!theTarget.enqueue(pendingDelivery)) {
+			// The subscription was updated or unregistered since the target was looked up
+			IGenericClient client = getDeliveryTarget(theSubscription, theSubscription.getEndpointUrl()).myClient;
+			doDelivery(theMsg, theSubscription, thePayloadType, client, payloadResource);
 			return;
 		}
+
+		while (!pendingDelivery.myDone) {
+			theTarget.myBatchDeliveryLock.lock();
+			try {
+				if (!pendingDelivery.myDone) {
+					List<PendingDelivery> batch = new ArrayList<>();
+					synchronized (theTarget.myPendingDeliveries) {
+						int maxBatchSize = mySubscriptionSettings.getRestHookDeliveryMaxBatchSize();
+						while (batch.size() < maxBatchSize && !theTarget.myPendingDeliveries.isEmpty()) {
+							batch.add(theTarget.myPendingDeliveries.poll());
+						}
+					}
+					deliverBatch(batch, theSubscription, thePayloadType, theTarget.myClient);
+				}
+			} finally {
+				theTarget.myBatchDeliveryLock.unlock();
+			}
+		}
+
+		if (pendingDelivery.myFailure != null) {
+			throw pendingDelivery.myFailure;
+		}
+	}
+
+	private void deliverBatch(
+			List<PendingDelivery> theBatch,
+			CanonicalSubscription theSubscription,
+			EncodingEnum thePayloadType,
+			IGenericClient theClient) {
+		RuntimeException failure = null;
+		try {
+			if (theBatch.size() == 1) {
+				PendingDelivery delivery = theBatch.get(0);
+				doDelivery(delivery.myMessage, theSubscription, thePayloadType, theClient, delivery.myPayloadResource);
+			} else {
+				List<ResourceDeliveryMessage> messages = new ArrayList<>(theBatch.size());
+				Map<ResourceDeliveryMessage, IBaseResource> payloads = new IdentityHashMap<>();
+				for (PendingDelivery next : theBatch) {
+					messages.add(next.myMessage);
+					payloads.put(next.myMessage, next.myPayloadResource);
+				}
+				doBatchDelivery(messages, payloads, theSubscription, thePayloadType, theClient);
+			}
+		} catch (RuntimeException e) {
+			failure = e;
+		}
+
+		for (PendingDelivery next : theBatch) {
+			next.myFailure = failure;
+			next.myDone = true;
+		}
+	}
+
+	/**
+	 * Sends several deliveries for the same subscription and endpoint as a single transaction
+	 * Bundle. This is used instead of {@code doDelivery(..)} for deliveries which are combined
+	 * when rest-hook delivery batching is enabled, so subclasses which customize the delivery
+	 * should override both methods.
+	 *
+	 * @param theMessages The messages being delivered, in the order they were received
+	 * @param thePayloads The payload resource for each message
+	 */
+	protected void doBatchDelivery(
+			List<ResourceDeliveryMessage> theMessages,
+			Map<ResourceDeliveryMessage, IBaseResource> thePayloads,
+			CanonicalSubscription theSubscription,
+			EncodingEnum thePayloadType,
+			IGenericClient theClient) {
+		StopWatch sw = new StopWatch();
+		IBaseBundle bundle = createCoalescedBundle(theMessages, thePayloads);
+		theClient.transaction().withBundle(bundle).encoded(thePayloadType).execute();
+
+		Logs.getSubscriptionTroubleshootingLog()
+				.debug(
+						"Delivered {} rest-hook payloads in a single transaction for {} in {}",
+						theMessages.size(),
+						theSubscription
+								.getIdElement(myFhirContext)
+								.toUnqualifiedVersionless()
+								.getValue(),
+						sw);
+	}
+
+	/**
+	 * A transaction can't modify the same resource more than once, so only the most
+	 * recent change to each resource is included.
+	 */
+	private IBaseBundle createCoalescedBundle(
+			List<ResourceDeliveryMessage> theMessages, Map<ResourceDeliveryMessage, IBaseResource> thePayloads) {
+		Map<String, ResourceDeliveryMessage> latestChanges = new LinkedHashMap<>();
+		for (ResourceDeliveryMessage next : theMessages) {
+			String resourceId = next.getPayloadId(myFhirContext).toUnqualifiedVersionless().getValue();
+			latestChanges.remove(resourceId);
+			latestChanges.put(resourceId, next);
+		}
+
+		BundleBuilder builder = new BundleBuilder(myFhirContext);
+		for (ResourceDeliveryMessage next : latestChanges.values()) {
+			if (next.getOperationType() == BaseResourceModifiedMessage.OperationTypeEnum.DELETE) {
+				builder.addTransactionDeleteEntry(next.getPayloadId(myFhirContext));
+			} else {
+				builder.addTransactionUpdateEntry(thePayloads.get(next));
+			}
+		}
+		return builder.getBundle();
+	}
+
+	@VisibleForTesting
+	public void setSubscriptionSettingsForUnitTest(SubscriptionSettings theSubscriptionSettings) {
+		mySubscriptionSettings = theSubscriptionSettings;
 	}
 
 	/**
@@ -343,4 +571,59 @@ public class SubscriptionDeliveringRestHookSubscriber extends BaseSubscriptionDe
 		}
 		return headers;
 	}
+
+	private static class PendingDelivery {
+		private final ResourceDeliveryMessage myMessage;
+		private final IBaseResource myPayloadResource;
+		private volatile boolean myDone;
+		private volatile RuntimeException myFailure;
+
+		private PendingDelivery(ResourceDeliveryMessage theMessage, IBaseResource thePayloadResource) {
+			myMessage = theMessage;
+			myPayloadResource = thePayloadResource;
+		}
+	}
+
+	/**
+	 * The client and the queued deliveries for one subscription endpoint. Once closed, no further
+	 * deliveries are queued. Deliveries which were already queued are still sent, since every one
+	 * of them has a waiting caller which drains the queue.
+	 */
+	private static class DeliveryTarget {
+		private final String mySubscriptionId;
+		private final String myEndpointUrl;
+		private final List<String> myHeaders;
+		private final IGenericClient myClient;
+		private final Deque<PendingDelivery> myPendingDeliveries = new ArrayDeque<>();
+		private final ReentrantLock myBatchDeliveryLock = new ReentrantLock();
+		private boolean myClosed;
+
+		private DeliveryTarget(
+				String theSubscriptionId, String theEndpointUrl, List<String> theHeaders, IGenericClient theClient) {
+			mySubscriptionId = theSubscriptionId;
+			myEndpointUrl = theEndpointUrl;
+			myHeaders = theHeaders;
+			myClient = theClient;
+		}
+
+		private boolean isFor(String theEndpointUrl, List<String> theHeaders) {
+			return myEndpointUrl.equals(theEndpointUrl) && myHeaders.equals(theHeaders);
+		}
+
+		private boolean enqueue(PendingDelivery thePendingDelivery) {
+			synchronized (myPendingDeliveries) {
+				if (myClosed) {
+					return false;
+				}
+				myPendingDeliveries.add(thePendingDelivery);
+				return true;
+			}
+		}
+
+		private void close() {
+			synchronized (myPendingDeliveries) {
+				myClosed = true;
+			}
+		}
+	}
 }
@@ -129,7 +129,9 @@ public class SubscriptionMatchingSubscriber implements MessageHandler {
 	private void doMatchActiveSubscriptionsAndDeliver(ResourceModifiedMessage theMsg) {
 		IIdType resourceId = theMsg.getPayloadId(myFhirContext);
 
-		Collection<ActiveSubscription> subscriptions = mySubscriptionRegistry.getAllNonTopicSubscriptions();
+		// Only subscriptions whose criteria could match the resource are returned here
+		Collection<ActiveSubscription> subscriptions =
+				mySubscriptionRegistry.getNonTopicSubscriptionCandidates(theMsg.getNewPayload(myFhirContext));
 
 		ourLog.trace("Testing {} subscriptions for applicability", subscriptions.size());
 		boolean anySubscriptionsMatchedResource = false;
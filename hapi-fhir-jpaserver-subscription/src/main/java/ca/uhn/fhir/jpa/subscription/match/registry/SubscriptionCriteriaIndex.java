@@ -0,0 +1,402 @@
+/*-
+ * #%L
+ * HAPI FHIR Subscription Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.subscription.match.registry;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.RuntimeSearchParam;
+import ca.uhn.fhir.jpa.model.entity.ResourceIndexedSearchParamToken;
+import ca.uhn.fhir.jpa.model.entity.ResourceLink;
+import ca.uhn.fhir.jpa.searchparam.extractor.ISearchParamExtractor;
+import ca.uhn.fhir.jpa.searchparam.extractor.ResourceIndexedSearchParams;
+import ca.uhn.fhir.jpa.searchparam.matcher.IndexedSearchParamExtractor;
+import ca.uhn.fhir.jpa.subscription.match.matcher.subscriber.SubscriptionCriteriaParser;
+import ca.uhn.fhir.jpa.subscription.model.CanonicalSubscription;
+import ca.uhn.fhir.model.primitive.IdDt;
+import ca.uhn.fhir.rest.api.RestSearchParameterTypeEnum;
+import ca.uhn.fhir.rest.server.util.ISearchParamRegistry;
+import ca.uhn.fhir.util.UrlUtil;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * An inverted index over the criteria of the active subscriptions, used to avoid
+ * testing every subscription against every modified resource.
+ * <p>
+ * When a subscription with a search expression criteria is registered, one of its
+ * token or reference parameters is chosen as the index key, e.g. the subscription
+ * <code>Observation?patient=Patient/123&amp;code=http://loinc.org|1234-5</code> is
+ * indexed under <code>Observation/patient/123</code> or <code>Observation/code/1234-5</code>.
+ * A resource can only match such a subscription if its own extracted search parameters
+ * contain that key, so when a resource is modified only subscriptions whose keys appear
+ * in the resource (plus any subscriptions that could not be indexed) are returned as
+ * candidates. Candidates still need to be tested with the subscription matcher, the
+ * index only ever narrows the set of subscriptions to test.
+ * </p>
+ * <p>
+ * Parameters are only used as index keys if they have no modifiers or chains, and
+ * every value has an explicit code (tokens) or resource ID (references). Token codes
+ * are compared case-insensitively, since this is how the matcher compares them.
+ * </p>
+ *
+ * @since 7.6.0
+ */
+public class SubscriptionCriteriaIndex {
+	private static final Logger ourLog = LoggerFactory.getLogger(SubscriptionCriteriaIndex.class);
+
+	/**
+	 * Resource type -> Parameter name -> Index value -> Subscription IDs
+	 */
+	private final Map<String, Map<String, Map<String, Set<String>>>> myIndex = new ConcurrentHashMap<>();
+	/**
+	 * Resource type -> IDs of subscriptions with a search expression that could not be indexed
+	 */
+	private final Map<String, Set<String>> myUnindexedSubscriptionIds = new ConcurrentHashMap<>();
+	/**
+	 * IDs of subscriptions that must be tested for every resource (multitype, star, unparseable criteria)
+	 */
+	private final Set<String> myAlwaysTestedSubscriptionIds = ConcurrentHashMap.newKeySet();
+
+	private final Map<String, IndexEntry> mySubscriptionIdToEntry = new ConcurrentHashMap<>();
+
+	@Autowired
+	private FhirContext myFhirContext;
+
+	@Autowired
+	private ISearchParamRegistry mySearchParamRegistry;
+
+	@Autowired
+	private IndexedSearchParamExtractor myIndexedSearchParamExtractor;
+
+	/**
+	 * Adds the given subscription to the index, replacing any existing entry with the same ID.
+	 * Topic subscriptions are not indexed.
+	 */
+	public synchronized void add(String theSubscriptionId, CanonicalSubscription theSubscription) {
+		remove(theSubscriptionId);
+		if (theSubscription.isTopicSubscription()) {
+			return;
+		}
+
+		IndexEntry entry = createIndexEntry(theSubscription.getCriteriaString());
+		mySubscriptionIdToEntry.put(theSubscriptionId, entry);
+
+		if (entry.myResourceType == null) {
+			myAlwaysTestedSubscriptionIds.add(theSubscriptionId);
+		} else if (entry.myParamName == null) {
+			myUnindexedSubscriptionIds
+					.computeIfAbsent(entry.myResourceType, t -> ConcurrentHashMap.newKeySet())
+					.add(theSubscriptionId);
+		} else {
+			Map<String, Set<String>> valueToIds = myIndex.computeIfAbsent(
+							entry.myResourceType, t -> new ConcurrentHashMap<>())
+					.computeIfAbsent(entry.myParamName, t -> new ConcurrentHashMap<>());
+			for (String nextValue : entry.myValues) {
+				valueToIds
+						.computeIfAbsent(nextValue, t -> ConcurrentHashMap.newKeySet())
+						.add(theSubscriptionId);
+			}
+		}
+
+		ourLog.trace("Indexed subscription {} as {}", theSubscriptionId, entry);
+	}
+
+	/**
+	 * Removes the given subscription from the index if present
+	 */
+	public synchronized void remove(String theSubscriptionId) {
+		IndexEntry entry = mySubscriptionIdToEntry.remove(theSubscriptionId);
+		if (entry == null) {
+			return;
+		}
+
+		if (entry.myResourceType == null) {
+			myAlwaysTestedSubscriptionIds.remove(theSubscriptionId);
+		} else if (entry.myParamName == null) {
+			Set<String> ids = myUnindexedSubscriptionIds.get(entry.myResourceType);
+			if (ids != null) {
+				ids.remove(theSubscriptionId);
+				if (ids.isEmpty()) {
+					myUnindexedSubscriptionIds.remove(entry.myResourceType);
+				}
+			}
+		} else {
+			Map<String, Map<String, Set<String>>> paramToValues = myIndex.get(entry.myResourceType);
+			Map<String, Set<String>> valueToIds = paramToValues != null ? paramToValues.get(entry.myParamName) : null;
+			if (valueToIds != null) {
+				for (String nextValue : entry.myValues) {
+					Set<String> ids = valueToIds.get(nextValue);
+					if (ids != null) {
+						ids.remove(theSubscriptionId);
+						if (ids.isEmpty()) {
+							valueToIds.remove(nextValue);
+						}
+					}
+				}
+				if (valueToIds.isEmpty()) {
+					paramToValues.remove(entry.myParamName);
+				}
+				if (paramToValues.isEmpty()) {
+					myIndex.remove(entry.myResourceType);
+				}
+			}
+		}
+	}
+
+	public synchronized void clear() {
+		myIndex.clear();
+		myUnindexedSubscriptionIds.clear();
+		myAlwaysTestedSubscriptionIds.clear();
+		mySubscriptionIdToEntry.clear();
+	}
+
+	/**
+	 * Returns the IDs of all indexed subscriptions that could possibly match the given resource, or
+	 * {@literal null} if the candidates could not be determined (in which case every subscription
+	 * should be tested).
+	 */
+	@Nullable
+	public Set<String> getCandidateSubscriptionIds(@Nonnull IBaseResource theResource) {
+		String resourceType = myFhirContext.getResourceType(theResource);
+
+		Set<String> retVal = new HashSet<>(myAlwaysTestedSubscriptionIds);
+		Set<String> unindexed = myUnindexedSubscriptionIds.get(resourceType);
+		if (unindexed != null) {
+			retVal.addAll(unindexed);
+		}
+
+		Map<String, Map<String, Set<String>>> paramToValues = myIndex.get(resourceType);
+		if (paramToValues == null || paramToValues.isEmpty()) {
+			return retVal;
+		}
+
+		Map<String, Set<String>> resourceValues;
+		try {
+			resourceValues = extractIndexValues(theResource, resourceType, paramToValues.keySet());
+		} catch (Exception e) {
+			ourLog.warn(
+					"Failed to extract subscription index values from resource {}, testing all subscriptions: {}",
+					theResource.getIdElement().toUnqualifiedVersionless().getValue(),
+					e.toString());
+			return null;
+		}
+
+		for (Map.Entry<String, Set<String>> nextParam : resourceValues.entrySet()) {
+			Map<String, Set<String>> valueToIds = paramToValues.get(nextParam.getKey());
+			if (valueToIds == null) {
+				continue;
+			}
+			for (String nextValue : nextParam.getValue()) {
+				Set<String> ids = valueToIds.get(nextValue);
+				if (ids != null) {
+					retVal.addAll(ids);
+				}
+			}
+		}
+
+		return retVal;
+	}
+
+	public int size() {
+		return mySubscriptionIdToEntry.size();
+	}
+
+	/**
+	 * @return Parameter name -> values present in the resource for that parameter
+	 */
+	private Map<String, Set<String>> extractIndexValues(
+			IBaseResource theResource, String theResourceType, Set<String> theParamNames) {
+		ISearchParamExtractor.ISearchParamFilter filter = theSearchParams -> theSearchParams.stream()
+				.filter(t -> theParamNames.contains(t.getName()))
+				.collect(Collectors.toList());
+		ResourceIndexedSearchParams params =
+				myIndexedSearchParamExtractor.extractIndexedSearchParams(theResource, null, filter);
+
+		Map<String, Set<String>> retVal = new HashMap<>();
+		for (ResourceIndexedSearchParamToken next : params.myTokenParams) {
+			if (next.getParamName() != null && isNotBlank(next.getValue())) {
+				retVal.computeIfAbsent(next.getParamName(), t -> new HashSet<>())
+						.add(normalizeTokenValue(next.getValue()));
+			}
+		}
+
+		if (!params.myLinks.isEmpty()) {
+			// Several parameters can share a path (e.g. a custom parameter aliasing a built-in one),
+			// so a link is attributed to every parameter with its source path
+			Map<String, List<String>> pathToParamNames = new HashMap<>();
+			for (String nextParamName : theParamNames) {
+				RuntimeSearchParam paramDef = mySearchParamRegistry.getActiveSearchParam(theResourceType, nextParamName);
+				if (paramDef != null && paramDef.getParamType() == RestSearchParameterTypeEnum.REFERENCE) {
+					for (String nextPath : paramDef.getPathsSplitForResourceType(theResourceType)) {
+						pathToParamNames
+								.computeIfAbsent(nextPath.toLowerCase(Locale.ROOT), t -> new ArrayList<>())
+								.add(nextParamName);
+					}
+				}
+			}
+			for (ResourceLink next : params.myLinks) {
+				if (next.getSourcePath() == null || isBlank(next.getTargetResourceId())) {
+					continue;
+				}
+				List<String> paramNames = pathToParamNames.get(next.getSourcePath().toLowerCase(Locale.ROOT));
+				if (paramNames != null) {
+					for (String nextParamName : paramNames) {
+						retVal.computeIfAbsent(nextParamName, t -> new HashSet<>())
+								.add(next.getTargetResourceId());
+					}
+				}
+			}
+		}
+
+		return retVal;
+	}
+
+	@Nonnull
+	private IndexEntry createIndexEntry(String theCriteriaString) {
+		SubscriptionCriteriaParser.SubscriptionCriteria criteria = SubscriptionCriteriaParser.parse(theCriteriaString);
+		if (criteria == null || criteria.getType() != SubscriptionCriteriaParser.TypeEnum.SEARCH_EXPRESSION) {
+			return new IndexEntry(null, null, null);
+		}
+
+		String resourceType = criteria.getApplicableResourceTypes().iterator().next();
+		String criteriaString = criteria.getCriteria();
+		int questionMarkIdx = criteriaString.indexOf('?');
+		if (questionMarkIdx == -1) {
+			return new IndexEntry(resourceType, null, null);
+		}
+
+		String bestParamName = null;
+		Set<String> bestValues = null;
+		Map<String, String[]> parameters = UrlUtil.parseQueryString(criteriaString.substring(questionMarkIdx + 1));
+		for (Map.Entry<String, String[]> nextParam : parameters.entrySet()) {
+			RestSearchParameterTypeEnum paramType = getIndexableParamType(resourceType, nextParam.getKey());
+			if (paramType == null) {
+				continue;
+			}
+
+			// Each value is an AND clause, so any one of them is enough to narrow the candidates
+			for (String nextAndValue : nextParam.getValue()) {
+				Set<String> values = toIndexValues(paramType, nextAndValue);
+				if (values != null && (bestValues == null || values.size() < bestValues.size())) {
+					bestParamName = nextParam.getKey();
+					bestValues = values;
+				}
+			}
+		}
+
+		return new IndexEntry(resourceType, bestParamName, bestValues);
+	}
+
+	@Nullable
+	private RestSearchParameterTypeEnum getIndexableParamType(String theResourceType, String theParamName) {
+		if (theParamName.startsWith("_") || theParamName.contains(":") || theParamName.contains(".")) {
+			return null;
+		}
+		RuntimeSearchParam paramDef = mySearchParamRegistry.getActiveSearchParam(theResourceType, theParamName);
+		if (paramDef == null) {
+			return null;
+		}
+		switch (paramDef.getParamType()) {
+			case TOKEN:
+			case REFERENCE:
+				return paramDef.getParamType();
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * @return The index values for a comma separated (OR) list of parameter values, or {@literal null} if
+	 * any of them can't be indexed
+	 */
+	@Nullable
+	private static Set<String> toIndexValues(RestSearchParameterTypeEnum theParamType, String theValue) {
+		if (isBlank(theValue) || theValue.contains("\\")) {
+			return null;
+		}
+
+		Set<String> retVal = new HashSet<>();
+		for (String nextValue : theValue.split(",")) {
+			String indexValue;
+			if (theParamType == RestSearchParameterTypeEnum.TOKEN) {
+				indexValue = nextValue.substring(nextValue.lastIndexOf('|') + 1);
+				indexValue = isBlank(indexValue) ? null : normalizeTokenValue(indexValue);
+			} else {
+				indexValue = nextValue.contains("?") ? null : new IdDt(nextValue).getIdPart();
+			}
+			if (isBlank(indexValue)) {
+				return null;
+			}
+			retVal.add(indexValue);
+		}
+		return retVal;
+	}
+
+	/**
+	 * Folds a token value so that two values which are {@link String#equalsIgnoreCase(String) equal ignoring case}
+	 * always produce the same index value
+	 */
+	private static String normalizeTokenValue(String theValue) {
+		StringBuilder retVal = new StringBuilder(theValue.length());
+		for (int i = 0; i < theValue.length(); i++) {
+			retVal.append(Character.toLowerCase(Character.toUpperCase(theValue.charAt(i))));
+		}
+		return retVal.toString();
+	}
+
+	private static class IndexEntry {
+		private final String myResourceType;
+		private final String myParamName;
+		private final Set<String> myValues;
+
+		private IndexEntry(String theResourceType, String theParamName, Set<String> theValues) {
+			myResourceType = theResourceType;
+			myParamName = theParamName;
+			myValues = theValues;
+		}
+
+		@Override
+		public String toString() {
+			List<String> parts = new ArrayList<>();
+			parts.add(myResourceType != null ? myResourceType : "*");
+			if (myParamName != null) {
+				parts.add(myParamName);
+				parts.add(String.valueOf(myValues));
+			}
+			return String.join("/", parts);
+		}
+	}
+}
@@ -27,6 +27,7 @@ import ca.uhn.fhir.jpa.subscription.channel.subscription.SubscriptionChannelRegi
 import ca.uhn.fhir.jpa.subscription.model.CanonicalSubscription;
 import ca.uhn.fhir.jpa.subscription.model.ChannelRetryConfiguration;
 import ca.uhn.fhir.util.HapiExtensions;
+import jakarta.annotation.Nullable;
 import jakarta.annotation.PreDestroy;
 import org.apache.commons.lang3.Validate;
 import org.hl7.fhir.instance.model.api.IBaseResource;
@@ -36,10 +37,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Cache of active subscriptions.  When a new subscription is added to the cache, a new Spring Channel is created
@@ -62,6 +65,9 @@ public class SubscriptionRegistry {
 	@Autowired
 	private IInterceptorBroadcaster myInterceptorBroadcaster;
 
+	@Autowired
+	private SubscriptionCriteriaIndex mySubscriptionCriteriaIndex;
+
 	/**
 	 * Constructor
 	 */
@@ -132,6 +138,7 @@ public class SubscriptionRegistry {
 		// add to our registries
 		mySubscriptionChannelRegistry.add(activeSubscription);
 		myActiveSubscriptionCache.put(subscriptionId, activeSubscription);
+		mySubscriptionCriteriaIndex.add(subscriptionId, theCanonicalSubscription);
 
 		ourLog.info(
 				"Registered active subscription Subscription/{} - Have {} registered",
@@ -148,6 +155,7 @@ public class SubscriptionRegistry {
 
 		ActiveSubscription activeSubscription = myActiveSubscriptionCache.remove(theSubscriptionId);
 		if (activeSubscription != null) {
+			mySubscriptionCriteriaIndex.remove(theSubscriptionId);
 			mySubscriptionChannelRegistry.remove(activeSubscription);
 			ourLog.info(
 					"Unregistered active subscription {} - Have {} registered",
@@ -214,6 +222,8 @@ public class SubscriptionRegistry {
 		Validate.notNull(activeSubscription);
 		CanonicalSubscription canonicalized = mySubscriptionCanonicalizer.canonicalize(theSubscription);
 		activeSubscription.setSubscription(canonicalized);
+		mySubscriptionCriteriaIndex.add(theId.getIdPart(), canonicalized);
+		mySubscriptionChannelRegistry.update(activeSubscription);
 
 		// Interceptor call: SUBSCRIPTION_AFTER_ACTIVE_SUBSCRIPTION_REGISTERED
 		HookParams params = new HookParams().add(CanonicalSubscription.class, canonicalized);
@@ -232,4 +242,29 @@ public class SubscriptionRegistry {
 	public synchronized List<ActiveSubscription> getAllNonTopicSubscriptions() {
 		return myActiveSubscriptionCache.getAllNonTopicSubscriptions();
 	}
+
+	/**
+	 * Returns the non-topic subscriptions which could possibly match the given resource, using the
+	 * {@link SubscriptionCriteriaIndex}. The returned subscriptions still need to be tested against the
+	 * resource. If the resource is {@literal null} or the candidates can't be determined, all non-topic
+	 * subscriptions are returned.
+	 *
+	 * @since 7.6.0
+	 */
+	public List<ActiveSubscription> getNonTopicSubscriptionCandidates(@Nullable IBaseResource theResource) {
+		Set<String> candidateIds =
+				theResource != null ? mySubscriptionCriteriaIndex.getCandidateSubscriptionIds(theResource) : null;
+		if (candidateIds == null) {
+			return getAllNonTopicSubscriptions();
+		}
+
+		List<ActiveSubscription> retVal = new ArrayList<>(candidateIds.size());
+		for (String nextId : candidateIds) {
+			ActiveSubscription activeSubscription = myActiveSubscriptionCache.get(nextId);
+			if (activeSubscription != null && !activeSubscription.getSubscription().isTopicSubscription()) {
+				retVal.add(activeSubscription);
+			}
+		}
+		return retVal;
+	}
 }
@@ -5,10 +5,12 @@ import ca.uhn.fhir.jpa.subscription.channel.api.ChannelConsumerSettings;
 import ca.uhn.fhir.jpa.subscription.channel.api.ChannelProducerSettings;
 import ca.uhn.fhir.jpa.subscription.channel.api.IChannelProducer;
 import ca.uhn.fhir.jpa.subscription.channel.api.IChannelReceiver;
+import ca.uhn.fhir.jpa.subscription.match.deliver.BaseSubscriptionDeliverySubscriber;
 import ca.uhn.fhir.jpa.subscription.match.registry.ActiveSubscription;
 import ca.uhn.fhir.jpa.subscription.model.CanonicalSubscription;
 import ca.uhn.fhir.jpa.subscription.model.CanonicalSubscriptionChannelType;
 import ca.uhn.fhir.jpa.subscription.model.ChannelRetryConfiguration;
+import org.hl7.fhir.r4.model.IdType;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -41,7 +43,14 @@ public class SubscriptionChannelRegistryTest {
 	private SubscriptionChannelRegistry mySubscriptionChannelRegistry;
 
 	private ActiveSubscription createActiveSubscription(String theChannelName, int theRetryCount) {
+		return createActiveSubscription(theChannelName, theRetryCount, null);
+	}
+
+	private ActiveSubscription createActiveSubscription(String theChannelName, int theRetryCount, String theId) {
 		CanonicalSubscription subscription = new CanonicalSubscription();
+		if (theId != null) {
+			subscription.setIdElement(new IdType(theId));
+		}
 		subscription.setChannelType(CanonicalSubscriptionChannelType.RESTHOOK);
 		ChannelRetryConfiguration configuration = new ChannelRetryConfiguration();
 		configuration.setRetryCount(theRetryCount);
@@ -100,6 +109,33 @@ public class SubscriptionChannelRegistryTest {
 		verifySettingsHaveRetryConfig(producerCaptor.getValue(), retryCount);
 	}
 
+	@Test
+	public void removeAndUpdate_channelStillInUse_evictsSubscriptionFromHandlers() {
+		String channelName = "test";
+		ActiveSubscription activeSubscription1 = createActiveSubscription(channelName, 5, "Subscription/1");
+		ActiveSubscription activeSubscription2 = createActiveSubscription(channelName, 5, "Subscription/2");
+
+		BaseSubscriptionDeliverySubscriber deliveryHandler = mock(BaseSubscriptionDeliverySubscriber.class);
+		when(mySubscriptionChannelFactory.newDeliveryReceivingChannel(anyString(), any(ChannelConsumerSettings.class)))
+			.thenReturn(mock(IChannelReceiver.class));
+		when(mySubscriptionChannelFactory.newDeliverySendingChannel(anyString(), any(ChannelProducerSettings.class)))
+			.thenReturn(mock(IChannelProducer.class));
+		when(mySubscriptionDeliveryHandlerFactory.createDeliveryHandler(any(CanonicalSubscriptionChannelType.class)))
+			.thenReturn(Optional.of(deliveryHandler));
+
+		mySubscriptionChannelRegistry.add(activeSubscription1);
+		mySubscriptionChannelRegistry.add(activeSubscription2);
+
+		// test
+		mySubscriptionChannelRegistry.update(activeSubscription2);
+		mySubscriptionChannelRegistry.remove(activeSubscription1);
+
+		// verify
+		verify(deliveryHandler).evictSubscription("2");
+		verify(deliveryHandler).evictSubscription("1");
+		assertNotNull(mySubscriptionChannelRegistry.getDeliveryReceiverChannel(channelName));
+	}
+
 	/**
 	 * Verifies the retry configs for the channel
 	 * @param theSettings
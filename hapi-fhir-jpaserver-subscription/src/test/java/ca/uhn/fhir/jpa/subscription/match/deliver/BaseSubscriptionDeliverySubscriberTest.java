@@ -8,6 +8,7 @@ import ca.uhn.fhir.interceptor.api.Pointcut;
 import ca.uhn.fhir.interceptor.model.RequestPartitionId;
 import ca.uhn.fhir.jpa.api.dao.DaoRegistry;
 import ca.uhn.fhir.jpa.api.dao.IFhirResourceDao;
+import ca.uhn.fhir.jpa.model.config.SubscriptionSettings;
 import ca.uhn.fhir.jpa.searchparam.MatchUrlService;
 import ca.uhn.fhir.jpa.searchparam.SearchParameterMap;
 import ca.uhn.fhir.jpa.subscription.channel.api.IChannelFactory;
@@ -31,6 +32,8 @@ import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import ca.uhn.fhir.subscription.api.IResourceModifiedMessagePersistenceSvc;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import jakarta.annotation.Nonnull;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.IdType;
 import org.hl7.fhir.r4.model.Patient;
@@ -52,14 +55,23 @@ import org.springframework.messaging.support.GenericMessage;
 
 import java.net.URISyntaxException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -90,6 +102,8 @@ public class BaseSubscriptionDeliverySubscriberTest {
 	private IRestfulClientFactory myRestfulClientFactory;
 	@Mock(answer = Answers.RETURNS_DEEP_STUBS)
 	private IGenericClient myGenericClient;
+	@Mock(answer = Answers.RETURNS_DEEP_STUBS)
+	private IGenericClient myOtherGenericClient;
 
 	@Mock
 	private DaoRegistry myDaoRegistry;
@@ -106,12 +120,15 @@ public class BaseSubscriptionDeliverySubscriberTest {
 	@Mock
 	private IEmailSender myEmailSender;
 
+	private final SubscriptionSettings mySubscriptionSettings = new SubscriptionSettings();
+
 	@BeforeEach
 	public void before() {
 		mySubscriber = new SubscriptionDeliveringRestHookSubscriber();
 		mySubscriber.setFhirContextForUnitTest(myCtx);
 		mySubscriber.setInterceptorBroadcasterForUnitTest(myInterceptorBroadcaster);
 		mySubscriber.setSubscriptionRegistryForUnitTest(mySubscriptionRegistry);
+		mySubscriber.setSubscriptionSettingsForUnitTest(mySubscriptionSettings);
 
 		myMessageSubscriber = new SubscriptionDeliveringMessageSubscriber(myChannelFactory);
 		myMessageSubscriber.setFhirContextForUnitTest(myCtx);
@@ -164,6 +181,129 @@ public class BaseSubscriptionDeliverySubscriberTest {
 		verify(myGenericClient, times(1)).update();
 	}
 
+	@Test
+	public void testRestHookDeliveryBatched_SingleDeliveryUsesUpdate() {
+		mySubscriptionSettings.setRestHookDeliveryMaxBatchSize(10);
+		when(myInterceptorBroadcaster.callHooks(any(), any())).thenReturn(true);
+
+		mySubscriber.handleMessage(new ResourceDeliveryJsonMessage(generateDeliveryMessage("Patient/1")));
+
+		verify(myGenericClient, times(1)).update();
+		verify(myGenericClient, times(0)).transaction();
+	}
+
+	@Test
+	public void testRestHookDeliveryBatched_ConcurrentDeliveriesAreCoalesced() throws Exception {
+		mySubscriptionSettings.setRestHookDeliveryMaxBatchSize(10);
+		when(myInterceptorBroadcaster.callHooks(any(), any())).thenReturn(true);
+
+		// The first delivery blocks until released, so that the others queue up behind it
+		CountDownLatch firstDeliveryStarted = new CountDownLatch(1);
+		CountDownLatch releaseFirstDelivery = new CountDownLatch(1);
+		when(myGenericClient.update().resource(any(IBaseResource.class)).execute()).thenAnswer(t -> {
+			firstDeliveryStarted.countDown();
+			releaseFirstDelivery.await();
+			return null;
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<?> first = executor.submit(() -> mySubscriber.handleMessage(new ResourceDeliveryJsonMessage(generateDeliveryMessage("Patient/1"))));
+			assertTrue(firstDeliveryStarted.await(10, TimeUnit.SECONDS));
+
+			List<Thread> waitingThreads = new CopyOnWriteArrayList<>();
+			List<Future<?>> others = new ArrayList<>();
+			for (String nextId : List.of("Patient/2", "Patient/3", "Patient/2")) {
+				others.add(executor.submit(() -> {
+					waitingThreads.add(Thread.currentThread());
+					mySubscriber.handleMessage(new ResourceDeliveryJsonMessage(generateDeliveryMessage(nextId)));
+				}));
+			}
+			await().until(() -> waitingThreads.size() == 3 && waitingThreads.stream().allMatch(t -> t.getState() == Thread.State.WAITING));
+
+			releaseFirstDelivery.countDown();
+			first.get(10, TimeUnit.SECONDS);
+			for (Future<?> next : others) {
+				next.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		ArgumentCaptor<IBaseBundle> bundleCaptor = ArgumentCaptor.forClass(IBaseBundle.class);
+		verify(myGenericClient.transaction(), times(1)).withBundle(bundleCaptor.capture());
+		Bundle bundle = (Bundle) bundleCaptor.getValue();
+		assertThat(bundle.getEntry())
+			.extracting(t -> t.getRequest().getUrl())
+			.containsExactlyInAnyOrder("Patient/2", "Patient/3");
+	}
+
+	@Test
+	public void testRestHookDeliveryBatched_DeliveriesForOtherSubscriptionsAreNotQueued() throws Exception {
+		mySubscriptionSettings.setRestHookDeliveryMaxBatchSize(10);
+		when(myInterceptorBroadcaster.callHooks(any(), any())).thenReturn(true);
+		when(myRestfulClientFactory.newGenericClient("http://example.com/other")).thenReturn(myOtherGenericClient);
+
+		// The delivery for the first subscription blocks until released
+		CountDownLatch firstDeliveryStarted = new CountDownLatch(1);
+		CountDownLatch releaseFirstDelivery = new CountDownLatch(1);
+		when(myGenericClient.update().resource(any(IBaseResource.class)).execute()).thenAnswer(t -> {
+			firstDeliveryStarted.countDown();
+			releaseFirstDelivery.await();
+			return null;
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<?> first = executor.submit(() -> mySubscriber.handleMessage(new ResourceDeliveryJsonMessage(generateDeliveryMessage("Patient/1"))));
+			assertTrue(firstDeliveryStarted.await(10, TimeUnit.SECONDS));
+
+			// A delivery for another subscription on the same channel goes straight to its own endpoint
+			ResourceDeliveryMessage otherMessage = generateDeliveryMessage("Patient/2");
+			otherMessage.getSubscription().setIdElement(new IdType("Subscription/456"));
+			otherMessage.getSubscription().setEndpointUrl("http://example.com/other");
+			executor.submit(() -> mySubscriber.handleMessage(new ResourceDeliveryJsonMessage(otherMessage))).get(10, TimeUnit.SECONDS);
+
+			releaseFirstDelivery.countDown();
+			first.get(10, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		verify(myOtherGenericClient, times(1)).update();
+		verify(myGenericClient, times(0)).transaction();
+	}
+
+	@Test
+	public void testRestHookDeliveryTargetsAreReplacedAndEvicted() {
+		when(myInterceptorBroadcaster.callHooks(any(), any())).thenReturn(true);
+
+		mySubscriber.handleMessage(new ResourceDeliveryJsonMessage(generateDeliveryMessage("Patient/1")));
+		mySubscriber.handleMessage(new ResourceDeliveryJsonMessage(generateDeliveryMessage("Patient/2")));
+		assertEquals(1, mySubscriber.getDeliveryTargetCountForUnitTest());
+		verify(myRestfulClientFactory, times(1)).newGenericClient("http://example.com/fhir");
+
+		// A changed endpoint replaces the existing client instead of adding another one
+		when(myRestfulClientFactory.newGenericClient("http://example.com/other")).thenReturn(myOtherGenericClient);
+		ResourceDeliveryMessage movedMessage = generateDeliveryMessage("Patient/3");
+		movedMessage.getSubscription().setEndpointUrl("http://example.com/other");
+		mySubscriber.handleMessage(new ResourceDeliveryJsonMessage(movedMessage));
+		assertEquals(1, mySubscriber.getDeliveryTargetCountForUnitTest());
+		verify(myOtherGenericClient, times(1)).update();
+
+		// Evicting another subscription leaves this one alone
+		mySubscriber.evictSubscription("456");
+		assertEquals(1, mySubscriber.getDeliveryTargetCountForUnitTest());
+
+		mySubscriber.evictSubscription("123");
+		assertEquals(0, mySubscriber.getDeliveryTargetCountForUnitTest());
+
+		// The next delivery builds a new client
+		mySubscriber.handleMessage(new ResourceDeliveryJsonMessage(generateDeliveryMessage("Patient/4")));
+		assertEquals(1, mySubscriber.getDeliveryTargetCountForUnitTest());
+		verify(myRestfulClientFactory, times(2)).newGenericClient("http://example.com/fhir");
+	}
+
 	@Test
 	public void testRestHookDeliveryFails_ShouldRollBack() {
 		when(myInterceptorBroadcaster.callHooks(any(), any())).thenReturn(true);
@@ -456,6 +596,17 @@ public class BaseSubscriptionDeliverySubscriberTest {
 		return patient;
 	}
 
+	@Nonnull
+	private ResourceDeliveryMessage generateDeliveryMessage(String theResourceId) {
+		Patient patient = generatePatient();
+		patient.setId(theResourceId);
+		ResourceDeliveryMessage retVal = new ResourceDeliveryMessage();
+		retVal.setSubscription(generateSubscription());
+		retVal.setPayload(myCtx, patient, EncodingEnum.JSON);
+		retVal.setOperationType(ResourceModifiedMessage.OperationTypeEnum.UPDATE);
+		return retVal;
+	}
+
 	@Nonnull
 	private CanonicalSubscription generateSubscription() {
 		CanonicalSubscription subscription = new CanonicalSubscription();
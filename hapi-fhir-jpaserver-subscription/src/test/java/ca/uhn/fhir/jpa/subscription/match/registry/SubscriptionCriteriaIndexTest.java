@@ -0,0 +1,170 @@
+package ca.uhn.fhir.jpa.subscription.match.registry;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.RuntimeSearchParam;
+import ca.uhn.fhir.jpa.model.config.PartitionSettings;
+import ca.uhn.fhir.jpa.model.entity.ResourceIndexedSearchParamToken;
+import ca.uhn.fhir.jpa.model.entity.ResourceLink;
+import ca.uhn.fhir.jpa.model.entity.ResourceTable;
+import ca.uhn.fhir.jpa.searchparam.extractor.ResourceIndexedSearchParams;
+import ca.uhn.fhir.jpa.searchparam.matcher.IndexedSearchParamExtractor;
+import ca.uhn.fhir.jpa.subscription.model.CanonicalSubscription;
+import ca.uhn.fhir.rest.api.RestSearchParameterTypeEnum;
+import ca.uhn.fhir.rest.server.util.ISearchParamRegistry;
+import org.hl7.fhir.r4.model.Observation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class SubscriptionCriteriaIndexTest {
+	private static final FhirContext ourFhirContext = FhirContext.forR4Cached();
+
+	@Spy
+	private FhirContext myFhirContext = ourFhirContext;
+	@Mock
+	private ISearchParamRegistry mySearchParamRegistry;
+	@Mock
+	private IndexedSearchParamExtractor myIndexedSearchParamExtractor;
+	@InjectMocks
+	private SubscriptionCriteriaIndex mySvc;
+
+	@BeforeEach
+	public void before() {
+		lenient()
+				.when(mySearchParamRegistry.getActiveSearchParam(eq("Observation"), anyString()))
+				.thenAnswer(t -> ourFhirContext.getResourceDefinition("Observation").getSearchParam(t.getArgument(1)));
+	}
+
+	@Test
+	public void testTokenCriteria() {
+		mySvc.add("code-a", newSubscription("Observation?code=http://loinc.org|A"));
+		mySvc.add("code-b-or-c", newSubscription("Observation?code=B,c"));
+		mySvc.add("code-d", newSubscription("Observation?code=D&status=final"));
+		mySvc.add("status-final", newSubscription("Observation?status=final"));
+		assertEquals(4, mySvc.size());
+
+		when(myIndexedSearchParamExtractor.extractIndexedSearchParams(any(), any(), any()))
+				.thenReturn(newParams(token("code", "http://foo", "C"), token("status", null, "preliminary")));
+
+		assertThat(mySvc.getCandidateSubscriptionIds(new Observation())).containsExactly("code-b-or-c");
+	}
+
+	@Test
+	public void testReferenceCriteria() {
+		mySvc.add("patient-123", newSubscription("Observation?patient=Patient/123&code=A,B,C"));
+		mySvc.add("patient-456", newSubscription("Observation?patient=456"));
+
+		String path = ourFhirContext
+				.getResourceDefinition("Observation")
+				.getSearchParam("patient")
+				.getPathsSplitForResourceType("Observation")
+				.get(0);
+		ResourceLink link = ResourceLink.forLocalReference(path, new ResourceTable(), "Patient", 1L, "123", new Date(), null);
+		ResourceIndexedSearchParams params = newParams();
+		params.myLinks.add(link);
+		when(myIndexedSearchParamExtractor.extractIndexedSearchParams(any(), any(), any())).thenReturn(params);
+
+		assertThat(mySvc.getCandidateSubscriptionIds(new Observation())).containsExactly("patient-123");
+	}
+
+	@Test
+	public void testReferenceCriteriaWithParametersSharingAPath() {
+		RuntimeSearchParam subject = ourFhirContext.getResourceDefinition("Observation").getSearchParam("subject");
+		RuntimeSearchParam alias = new RuntimeSearchParam(
+				null, null, "subject-alias", null, subject.getPath(), RestSearchParameterTypeEnum.REFERENCE,
+				null, null, RuntimeSearchParam.RuntimeSearchParamStatusEnum.ACTIVE, null);
+		when(mySearchParamRegistry.getActiveSearchParam("Observation", "subject-alias")).thenReturn(alias);
+
+		mySvc.add("subject", newSubscription("Observation?subject=Patient/123"));
+		mySvc.add("subject-alias", newSubscription("Observation?subject-alias=Patient/123"));
+
+		String path = subject.getPathsSplitForResourceType("Observation").get(0);
+		ResourceLink link = ResourceLink.forLocalReference(path, new ResourceTable(), "Patient", 1L, "123", new Date(), null);
+		ResourceIndexedSearchParams params = newParams();
+		params.myLinks.add(link);
+		when(myIndexedSearchParamExtractor.extractIndexedSearchParams(any(), any(), any())).thenReturn(params);
+
+		assertThat(mySvc.getCandidateSubscriptionIds(new Observation()))
+				.containsExactlyInAnyOrder("subject", "subject-alias");
+	}
+
+	@Test
+	public void testUnindexableCriteriaAreAlwaysCandidates() {
+		mySvc.add("modifier", newSubscription("Observation?code:not=A"));
+		mySvc.add("chain", newSubscription("Observation?patient.name=smith"));
+		mySvc.add("system-only", newSubscription("Observation?code=http://loinc.org|"));
+		mySvc.add("no-params", newSubscription("Observation"));
+		mySvc.add("star", newSubscription("[*]"));
+		mySvc.add("other-type", newSubscription("Patient?gender=male"));
+
+		assertThat(mySvc.getCandidateSubscriptionIds(new Observation()))
+				.containsExactlyInAnyOrder("modifier", "chain", "system-only", "no-params", "star");
+
+		// Nothing is indexed by value, so there is no need to extract the resource parameters
+		verify(myIndexedSearchParamExtractor, never()).extractIndexedSearchParams(any(), any(), any());
+	}
+
+	@Test
+	public void testUpdateAndRemove() {
+		mySvc.add("sub", newSubscription("Observation?code=A"));
+		mySvc.add("sub", newSubscription("Observation?code=B"));
+		assertEquals(1, mySvc.size());
+
+		when(myIndexedSearchParamExtractor.extractIndexedSearchParams(any(), any(), any()))
+				.thenReturn(newParams(token("code", null, "a")));
+		assertThat(mySvc.getCandidateSubscriptionIds(new Observation())).isEmpty();
+
+		when(myIndexedSearchParamExtractor.extractIndexedSearchParams(any(), any(), any()))
+				.thenReturn(newParams(token("code", null, "b")));
+		assertThat(mySvc.getCandidateSubscriptionIds(new Observation())).containsExactly("sub");
+
+		mySvc.remove("sub");
+		assertEquals(0, mySvc.size());
+		assertThat(mySvc.getCandidateSubscriptionIds(new Observation())).isEmpty();
+	}
+
+	@Test
+	public void testExtractionFailureMeansNoFiltering() {
+		mySvc.add("sub", newSubscription("Observation?code=A"));
+		when(myIndexedSearchParamExtractor.extractIndexedSearchParams(any(), any(), any()))
+				.thenThrow(new IllegalStateException("FAILED"));
+
+		assertNull(mySvc.getCandidateSubscriptionIds(new Observation()));
+	}
+
+	private static CanonicalSubscription newSubscription(String theCriteria) {
+		CanonicalSubscription retVal = new CanonicalSubscription();
+		retVal.setCriteriaString(theCriteria);
+		return retVal;
+	}
+
+	private static ResourceIndexedSearchParamToken token(String theParamName, String theSystem, String theValue) {
+		return new ResourceIndexedSearchParamToken(new PartitionSettings(), "Observation", theParamName, theSystem, theValue);
+	}
+
+	private static ResourceIndexedSearchParams newParams(ResourceIndexedSearchParamToken... theTokens) {
+		ResourceIndexedSearchParams retVal = ResourceIndexedSearchParams.withSets();
+		for (ResourceIndexedSearchParamToken next : theTokens) {
+			retVal.myTokenParams.add(next);
+		}
+		return retVal;
+	}
+}
@@ -46,6 +46,9 @@ public class SubscriptionRegistryTest {
 	@Mock
 	IInterceptorBroadcaster myInterceptorBroadcaster;
 
+	@Mock
+	SubscriptionCriteriaIndex mySubscriptionCriteriaIndex;
+
 	@InjectMocks
 	SubscriptionRegistry mySubscriptionRegistry;
 
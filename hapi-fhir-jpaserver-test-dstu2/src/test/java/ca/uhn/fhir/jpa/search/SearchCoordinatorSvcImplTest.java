@@ -75,6 +75,7 @@ import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -139,6 +140,7 @@ public class SearchCoordinatorSvcImplTest extends BaseSearchSvc {
 			myExceptionSvc,
 			myBeanFactory
 		);
+		lenient().when(mySearchResultCacheSvc.canFetchResults(any())).thenReturn(true);
 	}
 
 	@Test
@@ -578,6 +580,32 @@ public class SearchCoordinatorSvcImplTest extends BaseSearchSvc {
 
 	}
 
+	/**
+	 * Simulate a search whose results were stored on another server
+	 */
+	@Test
+	public void testFetchResultsNotAvailableOnThisServer() {
+		when(myDaoRegistry.getResourceDao(anyString())).thenReturn(myCallingDao);
+		when(mySearchBuilderFactory.newSearchBuilder(any(), any(), any())).thenReturn(mySearchBuilder);
+		when(mySearchBuilder.createQuery(any(), any(), any(), nullable(RequestPartitionId.class)))
+			.thenReturn(new SlowIterator(createPidSequence(50).iterator(), 0));
+
+		Search search = new Search();
+		search.setUuid("0000-1111");
+		search.setResourceType("Patient");
+		search.setStatus(SearchStatusEnum.FINISHED);
+		search.setNumFound(50);
+		search.setSearchParameterMap(new SearchParameterMap());
+		when(mySearchCacheSvc.fetchByUuid(eq("0000-1111"), any())).thenReturn(Optional.of(search));
+		when(mySearchResultCacheSvc.canFetchResults(same(search))).thenReturn(false);
+
+		List<JpaPid> pids = mySvc.getResources("0000-1111", 10, 20, null, null);
+
+		assertThat(pids).containsExactlyElementsOf(createPidSequence(50).subList(10, 20));
+		verify(mySearchBuilder).setMaxResultsToFetch(20);
+		verify(mySearchResultCacheSvc, never()).fetchResultPids(any(), anyInt(), anyInt(), any(), any());
+	}
+
 	/**
 	 * Simulate results being removed from the search result cache but not the search cache
 	 */
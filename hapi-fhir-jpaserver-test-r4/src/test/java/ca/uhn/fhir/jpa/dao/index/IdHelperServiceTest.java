@@ -2,6 +2,7 @@ package ca.uhn.fhir.jpa.dao.index;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.interceptor.model.RequestPartitionId;
 import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
 import ca.uhn.fhir.jpa.dao.data.IResourceTableDao;
@@ -9,13 +10,19 @@ import ca.uhn.fhir.jpa.model.config.PartitionSettings;
 import ca.uhn.fhir.jpa.model.cross.IResourceLookup;
 import ca.uhn.fhir.jpa.model.dao.JpaPid;
 import ca.uhn.fhir.jpa.util.MemoryCacheService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaQuery;
 import org.hl7.fhir.r4.model.Patient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
@@ -23,14 +30,20 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,6 +61,12 @@ public class IdHelperServiceTest {
 	@Mock
 	private PartitionSettings myPartitionSettings;
 
+	@Mock(answer = Answers.RETURNS_DEEP_STUBS)
+	private EntityManager myEntityManager;
+
+	@Spy
+	private FhirContext myFhirCtx = FhirContext.forR4Cached();
+
 	@InjectMocks
 	private IdHelperService myHelperService;
 
@@ -128,11 +147,8 @@ public class IdHelperServiceTest {
 		JpaPid blue = JpaPid.fromIdAndVersion(456L, 456L);
 
 		// we will pretend the lookup value is in the cache
-		when(myMemoryCacheService.getThenPutAfterCommit(any(MemoryCacheService.CacheEnum.class),
-			Mockito.anyString(),
-			any(Function.class)))
-			.thenReturn(red)
-			.thenReturn(blue);
+		when(myMemoryCacheService.getAllPresent(eq(MemoryCacheService.CacheEnum.FORCED_ID_TO_PID), anyList()))
+			.thenAnswer(t -> cacheEntries(t.getArgument(1), red, blue));
 
 		// test
 		Map<String, JpaPid> map = myHelperService.resolveResourcePersistentIds(
@@ -180,10 +196,8 @@ public class IdHelperServiceTest {
 		JpaPid resourcePersistentId1 = JpaPid.fromId(1L);
 		JpaPid resourcePersistentId2 = JpaPid.fromId(2L);
 		JpaPid resourcePersistentId3 = JpaPid.fromId(3L);
-		when(myMemoryCacheService.getThenPutAfterCommit(any(), any(), any()))
-			.thenReturn(resourcePersistentId1)
-			.thenReturn(resourcePersistentId2)
-			.thenReturn(resourcePersistentId3);
+		when(myMemoryCacheService.getAllPresent(eq(MemoryCacheService.CacheEnum.FORCED_ID_TO_PID), anyList()))
+			.thenAnswer(t -> cacheEntries(t.getArgument(1), resourcePersistentId1, resourcePersistentId2, resourcePersistentId3));
 		Map<String, JpaPid> result = myHelperService.resolveResourcePersistentIds(partitionId, resourceType, ids)
 			.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue()));
 		assertThat(result.keySet()).hasSize(3);
@@ -204,4 +218,45 @@ public class IdHelperServiceTest {
 		JpaPid result = myHelperService.resolveResourcePersistentIds(partitionId, resourceType, id.toString());
 		assertEquals(id, result.getId());
 	}
+
+	@Test
+	public void testResolveResourcePersistentIds_cacheMissesAreResolvedTogether() {
+		RequestPartitionId partitionId = RequestPartitionId.allPartitions();
+		String resourceType = "Patient";
+		List<String> ids = Arrays.asList("A", "B", "C");
+
+		JpaPid cachedPid = JpaPid.fromId(1L);
+		when(myMemoryCacheService.getAllPresent(eq(MemoryCacheService.CacheEnum.FORCED_ID_TO_PID), anyList()))
+			.thenAnswer(t -> cacheEntries(t.getArgument(1), cachedPid));
+
+		List<Tuple> results = List.of(newTuple(2L, resourceType, "B"), newTuple(3L, resourceType, "C"));
+		when(myEntityManager.createQuery(ArgumentMatchers.<CriteriaQuery<Tuple>>any()).getResultList()).thenReturn(results);
+
+		Map<String, JpaPid> result = myHelperService.resolveResourcePersistentIds(partitionId, resourceType, ids);
+
+		assertEquals(1L, result.get("A").getId());
+		assertEquals(2L, result.get("B").getId());
+		assertEquals(3L, result.get("C").getId());
+		verify(myEntityManager.createQuery(ArgumentMatchers.<CriteriaQuery<Tuple>>any()), times(1)).getResultList();
+		verify(myMemoryCacheService, never()).getThenPutAfterCommit(any(), any(), any());
+	}
+
+	/**
+	 * Builds a map of cache entries for the first keys which were looked up
+	 */
+	private static Map<String, JpaPid> cacheEntries(List<String> theKeys, JpaPid... thePids) {
+		Map<String, JpaPid> retVal = new HashMap<>();
+		for (int i = 0; i < thePids.length; i++) {
+			retVal.put(theKeys.get(i), thePids[i]);
+		}
+		return retVal;
+	}
+
+	private static Tuple newTuple(Long theResourceId, String theResourceType, String theForcedId) {
+		Tuple tuple = mock(Tuple.class);
+		when(tuple.get(0, Long.class)).thenReturn(theResourceId);
+		when(tuple.get(1, String.class)).thenReturn(theResourceType);
+		when(tuple.get(2, String.class)).thenReturn(theForcedId);
+		return tuple;
+	}
 }
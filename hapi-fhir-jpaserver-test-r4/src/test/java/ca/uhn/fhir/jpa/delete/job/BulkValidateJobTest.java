@@ -0,0 +1,219 @@
+package ca.uhn.fhir.jpa.delete.job;
+
+import ca.uhn.fhir.batch2.api.IJobCoordinator;
+import ca.uhn.fhir.batch2.jobs.validate.BulkValidateAppCtx;
+import ca.uhn.fhir.batch2.jobs.validate.BulkValidateJobParameters;
+import ca.uhn.fhir.batch2.jobs.validate.BulkValidateJobResults;
+import ca.uhn.fhir.batch2.jobs.validate.BulkValidateStep;
+import ca.uhn.fhir.batch2.model.JobInstance;
+import ca.uhn.fhir.batch2.model.JobInstanceStartRequest;
+import ca.uhn.fhir.batch2.model.StatusEnum;
+import ca.uhn.fhir.jpa.batch.models.Batch2JobStartResponse;
+import ca.uhn.fhir.jpa.model.util.JpaConstants;
+import ca.uhn.fhir.jpa.test.BaseJpaR4Test;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.util.JsonUtil;
+import ca.uhn.fhir.validation.IInstanceValidatorModule;
+import ca.uhn.fhir.validation.IValidationContext;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Binary;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.OperationOutcome;
+import org.hl7.fhir.r4.model.StringType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BulkValidateJobTest extends BaseJpaR4Test {
+
+	@Autowired
+	private IJobCoordinator myJobCoordinator;
+
+	@Autowired
+	private BulkValidateStep myBulkValidateStep;
+
+	@Autowired
+	private IInstanceValidatorModule myInstanceValidator;
+
+	@AfterEach
+	public void after() {
+		myBulkValidateStep.setInstanceValidatorForUnitTest(myInstanceValidator);
+	}
+
+	@Test
+	public void testValidate_ReportsOnlyInvalidResources() {
+		// Setup
+		List<String> patientIds = createValidPatients();
+		List<String> observationIds = createInvalidObservations();
+
+		// Test
+		JobInstance instance = runJob(new BulkValidateJobParameters());
+
+		// Verify
+		assertEquals(StatusEnum.COMPLETED, instance.getStatus());
+		BulkValidateJobResults results = JsonUtil.deserialize(instance.getReport(), BulkValidateJobResults.class);
+		assertEquals(5, results.getResourceCount());
+		assertEquals(2, results.getResourcesWithIssuesCount());
+
+		List<OperationOutcome> outcomes = readOperationOutcomes(results);
+		assertThat(outcomes).extracting(this::getResourceId).containsExactlyInAnyOrderElementsOf(observationIds);
+		assertThat(outcomes).extracting(this::getResourceId).doesNotContainAnyElementsOf(patientIds);
+		for (OperationOutcome next : outcomes) {
+			assertThat(next.getIssue())
+				.isNotEmpty()
+				.allMatch(t -> t.getSeverity() == OperationOutcome.IssueSeverity.ERROR);
+			assertThat(next.getIssue())
+				.anyMatch(t -> t.getDiagnostics().contains("Observation.status"));
+		}
+	}
+
+	@Test
+	public void testValidate_MinimumSeverityWarningIncludesWarnings() {
+		// Setup
+		List<String> patientIds = createValidPatients();
+		List<String> observationIds = createInvalidObservations();
+
+		// Test
+		JobInstance instance = runJob(new BulkValidateJobParameters().setMinimumSeverity("warning"));
+
+		// Verify - none of the resources have a narrative, which is a best practice warning
+		BulkValidateJobResults results = JsonUtil.deserialize(instance.getReport(), BulkValidateJobResults.class);
+		assertEquals(5, results.getResourceCount());
+		assertEquals(5, results.getResourcesWithIssuesCount());
+
+		List<OperationOutcome> outcomes = readOperationOutcomes(results);
+		List<String> expectedIds = new ArrayList<>(patientIds);
+		expectedIds.addAll(observationIds);
+		assertThat(outcomes).extracting(this::getResourceId).containsExactlyInAnyOrderElementsOf(expectedIds);
+		Set<OperationOutcome.IssueSeverity> severities = outcomes.stream()
+			.flatMap(t -> t.getIssue().stream())
+			.map(OperationOutcome.OperationOutcomeIssueComponent::getSeverity)
+			.collect(Collectors.toSet());
+		assertThat(severities)
+			.contains(OperationOutcome.IssueSeverity.WARNING, OperationOutcome.IssueSeverity.ERROR)
+			.doesNotContain(OperationOutcome.IssueSeverity.INFORMATION);
+	}
+
+	@Test
+	public void testValidate_NoIssuesWritesNoBinaries() {
+		// Setup
+		createValidPatients();
+
+		// Test
+		JobInstance instance = runJob(new BulkValidateJobParameters());
+
+		// Verify
+		assertEquals(StatusEnum.COMPLETED, instance.getStatus());
+		BulkValidateJobResults results = JsonUtil.deserialize(instance.getReport(), BulkValidateJobResults.class);
+		assertEquals(3, results.getResourceCount());
+		assertEquals(0, results.getResourcesWithIssuesCount());
+		assertThat(results.getBinaryIds()).isEmpty();
+	}
+
+	@Test
+	public void testValidate_UrlRestrictsResources() {
+		// Setup
+		createValidPatients();
+		createInvalidObservations();
+
+		// Test
+		BulkValidateJobParameters parameters = new BulkValidateJobParameters();
+		parameters.addUrl("Patient?");
+		JobInstance instance = runJob(parameters);
+
+		// Verify
+		BulkValidateJobResults results = JsonUtil.deserialize(instance.getReport(), BulkValidateJobResults.class);
+		assertEquals(3, results.getResourceCount());
+		assertEquals(0, results.getResourcesWithIssuesCount());
+	}
+
+	@Test
+	public void testValidate_ValidatorFailureIsRecoveredError() {
+		// Setup
+		createValidPatients();
+		List<String> observationIds = createInvalidObservations();
+		createPatient(withId("FAIL"), withActiveTrue());
+
+		myBulkValidateStep.setInstanceValidatorForUnitTest(new IInstanceValidatorModule() {
+			@Override
+			public void validateResource(IValidationContext<IBaseResource> theCtx) {
+				if ("FAIL".equals(theCtx.getResource().getIdElement().getIdPart())) {
+					throw new InternalErrorException("Simulated validator failure");
+				}
+				myInstanceValidator.validateResource(theCtx);
+			}
+		});
+
+		// Test
+		JobInstance instance = runJob(new BulkValidateJobParameters());
+
+		// Verify - the failure is counted but doesn't fail the job or the rest of the chunk
+		assertEquals(StatusEnum.COMPLETED, instance.getStatus());
+		assertEquals(1, instance.getErrorCount());
+		BulkValidateJobResults results = JsonUtil.deserialize(instance.getReport(), BulkValidateJobResults.class);
+		assertEquals(6, results.getResourceCount());
+		assertEquals(2, results.getResourcesWithIssuesCount());
+		assertThat(readOperationOutcomes(results))
+			.extracting(this::getResourceId)
+			.containsExactlyInAnyOrderElementsOf(observationIds);
+	}
+
+	private JobInstance runJob(BulkValidateJobParameters theParameters) {
+		JobInstanceStartRequest startRequest = new JobInstanceStartRequest();
+		startRequest.setJobDefinitionId(BulkValidateAppCtx.JOB_BULK_VALIDATE);
+		startRequest.setParameters(theParameters);
+		Batch2JobStartResponse startResponse = myJobCoordinator.startInstance(mySrd, startRequest);
+		return myBatch2JobHelper.awaitJobCompletion(startResponse);
+	}
+
+	private List<String> createValidPatients() {
+		List<String> retVal = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			retVal.add(createPatient(withActiveTrue(), withFamily("Simpson" + i)).toUnqualifiedVersionless().getValue());
+		}
+		return retVal;
+	}
+
+	/**
+	 * Observation.status and Observation.code are both required
+	 */
+	private List<String> createInvalidObservations() {
+		List<String> retVal = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			Observation obs = new Observation();
+			obs.addNote().setText("Note " + i);
+			retVal.add(myObservationDao.create(obs, mySrd).getId().toUnqualifiedVersionless().getValue());
+		}
+		return retVal;
+	}
+
+	private List<OperationOutcome> readOperationOutcomes(BulkValidateJobResults theResults) {
+		List<OperationOutcome> retVal = new ArrayList<>();
+		for (String nextBinaryId : theResults.getBinaryIds()) {
+			Binary binary = myBinaryDao.read(new IdType(nextBinaryId), mySrd);
+			assertEquals(Constants.CT_FHIR_NDJSON, binary.getContentType());
+			String ndjson = new String(binary.getContent(), StandardCharsets.UTF_8);
+			for (String nextLine : ndjson.split("\n")) {
+				retVal.add(myFhirContext.newJsonParser().parseResource(OperationOutcome.class, nextLine));
+			}
+		}
+		return retVal;
+	}
+
+	private String getResourceId(OperationOutcome theOperationOutcome) {
+		return ((StringType) theOperationOutcome
+			.getExtensionByUrl(JpaConstants.BULK_VALIDATE_EXTENSION_RESOURCE_ID)
+			.getValue()).getValue();
+	}
+}
@@ -0,0 +1,159 @@
+package ca.uhn.fhir.jpa.provider.r4;
+
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.jpa.entity.Search;
+import ca.uhn.fhir.jpa.entity.SearchTypeEnum;
+import ca.uhn.fhir.jpa.provider.BaseResourceProviderR4Test;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.SearchTotalModeEnum;
+import ca.uhn.fhir.rest.api.server.SystemRequestDetails;
+import ca.uhn.fhir.rest.gclient.IQuery;
+import ca.uhn.fhir.util.BundleUtil;
+import org.apache.commons.lang3.StringUtils;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hl7.fhir.instance.model.api.IBaseBundle.LINK_NEXT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class KeysetPagingR4Test extends BaseResourceProviderR4Test {
+
+	@Override
+	@BeforeEach
+	public void before() throws Exception {
+		super.before();
+		myStorageSettings.setKeysetPagingEnabled(true);
+		myStorageSettings.setReuseCachedSearchResultsForMillis(null);
+	}
+
+	@Override
+	@AfterEach
+	public void after() throws Exception {
+		super.after();
+		JpaStorageSettings defaults = new JpaStorageSettings();
+		myStorageSettings.setKeysetPagingEnabled(defaults.isKeysetPagingEnabled());
+		myStorageSettings.setReuseCachedSearchResultsForMillis(defaults.getReuseCachedSearchResultsForMillis());
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+		"_lastUpdated, true",
+		"_lastUpdated, false",
+		"_id,          true",
+		"_id,          false",
+	})
+	public void testPageThroughAllResults(String theSortParam, boolean theAscending) {
+		List<String> expectedIds = createPatients(25);
+		if (theSortParam.equals("_id")) {
+			Collections.sort(expectedIds);
+		}
+		if (!theAscending) {
+			Collections.reverse(expectedIds);
+		}
+
+		IQuery<Bundle> query = myClient.search().forResource(Patient.class).count(10).returnBundle(Bundle.class);
+		if (theAscending) {
+			query = query.sort().ascending(theSortParam);
+		} else {
+			query = query.sort().descending(theSortParam);
+		}
+		Bundle page = query.execute();
+
+		List<String> actualIds = new ArrayList<>();
+		List<Integer> pageSizes = new ArrayList<>();
+		while (true) {
+			List<Patient> patients = BundleUtil.toListOfResourcesOfType(myFhirContext, page, Patient.class);
+			pageSizes.add(patients.size());
+			patients.forEach(t -> actualIds.add(t.getIdElement().getIdPart()));
+
+			String nextUrl = BundleUtil.getLinkUrlOfType(myFhirContext, page, LINK_NEXT);
+			if (nextUrl == null) {
+				break;
+			}
+			assertThat(nextUrl).contains(Constants.PARAM_PAGEID + "=");
+			page = myClient.loadPage().next(page).execute();
+		}
+
+		assertThat(pageSizes).containsExactly(10, 10, 5);
+		assertEquals(expectedIds, actualIds);
+
+		// No results should have been written to the search result table
+		runInTransaction(() -> {
+			List<Search> searches = mySearchEntityDao.findAll();
+			assertThat(searches).hasSize(1);
+			assertEquals(SearchTypeEnum.KEYSET_SEARCH, searches.get(0).getSearchType());
+			assertEquals(0, mySearchResultDao.count());
+		});
+	}
+
+	@Test
+	public void testKeysetPredicateReusesSortedResourceTable() {
+		createPatients(5);
+
+		Bundle page = myClient
+				.search()
+				.forResource(Patient.class)
+				.where(Patient.FAMILY.matches().value("FAM"))
+				.sort()
+				.ascending("_lastUpdated")
+				.count(2)
+				.returnBundle(Bundle.class)
+				.execute();
+
+		myCaptureQueriesListener.clear();
+		page = myClient.loadPage().next(page).execute();
+		assertThat(BundleUtil.toListOfResourcesOfType(myFhirContext, page, Patient.class)).hasSize(2);
+
+		String searchSql = myCaptureQueriesListener.getSelectQueries().stream()
+				.map(t -> t.getSql(true, false))
+				.filter(t -> t.contains("HFJ_SPIDX_STRING"))
+				.findFirst()
+				.orElseThrow();
+		assertEquals(1, StringUtils.countMatches(searchSql, "HFJ_RESOURCE "), searchSql);
+	}
+
+	@Test
+	public void testNotUsedWhenTotalRequested() {
+		createPatients(5);
+
+		Bundle page = myClient
+				.search()
+				.forResource(Patient.class)
+				.sort()
+				.ascending("_lastUpdated")
+				.count(2)
+				.totalMode(SearchTotalModeEnum.ACCURATE)
+				.returnBundle(Bundle.class)
+				.execute();
+
+		assertEquals(5, page.getTotal());
+		runInTransaction(() -> {
+			List<Search> searches = mySearchEntityDao.findAll();
+			assertThat(searches).hasSize(1);
+			assertEquals(SearchTypeEnum.SEARCH, searches.get(0).getSearchType());
+		});
+	}
+
+	private List<String> createPatients(int theCount) {
+		List<String> retVal = new ArrayList<>();
+		for (int i = 0; i < theCount; i++) {
+			Patient patient = new Patient();
+			patient.addName().setFamily("FAM" + i);
+			retVal.add(myPatientDao
+					.create(patient, new SystemRequestDetails())
+					.getId()
+					.getIdPart());
+		}
+		return retVal;
+	}
+}
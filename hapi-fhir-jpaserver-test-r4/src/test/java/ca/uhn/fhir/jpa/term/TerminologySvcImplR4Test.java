@@ -15,10 +15,13 @@ import ca.uhn.fhir.jpa.test.Batch2JobHelper;
 import ca.uhn.fhir.rest.server.exceptions.UnprocessableEntityException;
 import org.hl7.fhir.instance.model.api.IIdType;
 import org.hl7.fhir.r4.model.CodeSystem;
+import org.hl7.fhir.r4.model.CodeType;
 import org.hl7.fhir.r4.model.CodeableConcept;
 import org.hl7.fhir.r4.model.Coding;
 import org.hl7.fhir.r4.model.ConceptMap;
+import org.hl7.fhir.r4.model.UriType;
 import org.hl7.fhir.r4.model.ValueSet;
+import org.hl7.fhir.r4.model.codesystems.ConceptSubsumptionOutcome;
 import org.hl7.fhir.r4.model.codesystems.HttpVerb;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -354,6 +357,24 @@ public class TerminologySvcImplR4Test extends BaseTermR4Test {
 		assertEquals("Systolic blood pressure at First encounter", result.getDisplay());
 	}
 
+	@Test
+	public void testSubsumesAgainstRootConcept() {
+		CodeSystem codeSystem = new CodeSystem();
+		codeSystem.setUrl(CS_URL);
+		codeSystem.setContent(CodeSystem.CodeSystemContentMode.COMPLETE);
+		CodeSystem.ConceptDefinitionComponent root = codeSystem.addConcept().setCode("ROOT");
+		root.addConcept().setCode("CHILD").addConcept().setCode("GRANDCHILD");
+		codeSystem.addConcept().setCode("OTHER");
+		myCodeSystemDao.create(codeSystem, mySrd);
+
+		runInTransaction(() -> {
+			assertEquals(ConceptSubsumptionOutcome.SUBSUMES, myTermSvc.subsumes(new CodeType("ROOT"), new CodeType("CHILD"), new UriType(CS_URL), null, null).getOutcome());
+			assertEquals(ConceptSubsumptionOutcome.SUBSUMES, myTermSvc.subsumes(new CodeType("ROOT"), new CodeType("GRANDCHILD"), new UriType(CS_URL), null, null).getOutcome());
+			assertEquals(ConceptSubsumptionOutcome.SUBSUMEDBY, myTermSvc.subsumes(new CodeType("GRANDCHILD"), new CodeType("ROOT"), new UriType(CS_URL), null, null).getOutcome());
+			assertEquals(ConceptSubsumptionOutcome.NOTSUBSUMED, myTermSvc.subsumes(new CodeType("ROOT"), new CodeType("OTHER"), new UriType(CS_URL), null, null).getOutcome());
+		});
+	}
+
 	@Test
 	public void testCreateCodeSystemTwoVersions() {
 		CodeSystem codeSystem = new CodeSystem();
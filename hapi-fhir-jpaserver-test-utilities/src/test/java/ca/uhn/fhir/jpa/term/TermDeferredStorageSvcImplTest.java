@@ -5,6 +5,7 @@ import ca.uhn.fhir.batch2.model.JobInstance;
 import ca.uhn.fhir.batch2.model.StatusEnum;
 import ca.uhn.fhir.jpa.dao.data.ITermCodeSystemVersionDao;
 import ca.uhn.fhir.jpa.dao.data.ITermConceptDao;
+import ca.uhn.fhir.jpa.dao.data.ITermConceptParentChildLinkDao;
 import ca.uhn.fhir.jpa.entity.TermCodeSystemVersion;
 import ca.uhn.fhir.jpa.entity.TermConcept;
 import ca.uhn.fhir.jpa.entity.TermConceptParentChildLink;
@@ -17,10 +18,12 @@ import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
@@ -40,6 +43,8 @@ public class TermDeferredStorageSvcImplTest {
 	private ITermConceptDao myConceptDao;
 	@Mock
 	private ITermCodeSystemVersionDao myTermCodeSystemVersionDao;
+	@Mock
+	private ITermConceptParentChildLinkDao myConceptParentChildLinkDao;
 
 	@Mock
 	private IJobCoordinator myJobCoordinator;
@@ -166,4 +171,48 @@ public class TermDeferredStorageSvcImplTest {
 		verifyNoMoreInteractions(myTermConceptDaoSvc);
 	}
 
+	@Test
+	public void testSaveDeferred_Concepts_CodeSystemVersionCheckedOncePerBatch() {
+		TermCodeSystemVersion myTermCodeSystemVersion = new TermCodeSystemVersion();
+		myTermCodeSystemVersion.setId(1L);
+		TermConcept conceptA = new TermConcept(myTermCodeSystemVersion, "CODE_A");
+		TermConcept conceptB = new TermConcept(myTermCodeSystemVersion, "CODE_B");
+
+		TermDeferredStorageSvcImpl svc = new TermDeferredStorageSvcImpl();
+		svc.setTransactionManagerForUnitTest(myTxManager);
+		svc.setTermConceptDaoSvc(myTermConceptDaoSvc);
+
+		when(myTermCodeSystemVersionDao.findById(anyLong())).thenReturn(Optional.of(myTermCodeSystemVersion));
+		when(myTermConceptDaoSvc.saveConcept(any())).thenReturn(1);
+		svc.setCodeSystemVersionDaoForUnitTest(myTermCodeSystemVersionDao);
+		svc.setProcessDeferred(true);
+		svc.addConceptToStorageQueue(conceptA);
+		svc.addConceptToStorageQueue(conceptB);
+		svc.saveDeferred();
+
+		verify(myTermConceptDaoSvc, times(1)).saveConcept(same(conceptA));
+		verify(myTermConceptDaoSvc, times(1)).saveConcept(same(conceptB));
+		verify(myTermCodeSystemVersionDao, times(1)).findById(eq(1L));
+	}
+
+	@Test
+	public void testSaveDeferred_ConceptParentChildLink() {
+		TermConceptParentChildLink conceptLink = new TermConceptParentChildLink();
+		conceptLink.setChild(new TermConcept().setId(111L));
+		conceptLink.setParent(new TermConcept().setId(222L));
+
+		TermDeferredStorageSvcImpl svc = new TermDeferredStorageSvcImpl();
+		svc.setTransactionManagerForUnitTest(myTxManager);
+		svc.setTermConceptDaoSvc(myTermConceptDaoSvc);
+		svc.setConceptDaoForUnitTest(myConceptDao);
+		svc.setConceptParentChildLinkDaoForUnitTest(myConceptParentChildLinkDao);
+		when(myConceptDao.findExistingPids(any())).thenReturn(List.of(111L, 222L));
+		svc.setProcessDeferred(true);
+		svc.addConceptLinkToStorageQueue(conceptLink);
+		svc.saveDeferred();
+
+		verify(myConceptDao, times(1)).findExistingPids(any());
+		verify(myConceptParentChildLinkDao, times(1)).save(same(conceptLink));
+	}
+
 }
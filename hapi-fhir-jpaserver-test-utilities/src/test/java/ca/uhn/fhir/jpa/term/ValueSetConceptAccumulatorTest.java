@@ -12,14 +12,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -96,4 +104,109 @@ public class ValueSetConceptAccumulatorTest {
 
 	}
 
+	@Test
+	public void testDeltaMode_UnchangedConceptIsKept() {
+		List<Object[]> existing = new ArrayList<>();
+		existing.add(new Object[]{1L, "sys", null, "code", "display", null, "1 2", null, 0});
+		when(myValueSetConceptDao.findConceptSummariesByTermValueSetId(any(), any(), any())).thenReturn(existing);
+		when(myValueSetConceptDao.countByTermValueSetId(any())).thenReturn(1);
+		when(myValueSetDesignationDao.countByTermValueSetId(any())).thenReturn(0);
+
+		assertEquals(1, myAccumulator.loadExistingConcepts());
+		verify(myValueSetConceptDao, times(1)).addToOrderByTermValueSetId(any(), eq(-1));
+		myAccumulator.includeConcept("sys", "code", "display", null, "1 2", null);
+		myAccumulator.deleteUnmatchedExistingConcepts();
+
+		verify(myValueSetConceptDao, times(1)).addToOrderByPids(eq(List.of(1L)), eq(1));
+		verify(myValueSetConceptDao, never()).save(any());
+		verify(myValueSetConceptDao, never()).findAllById(any());
+		verify(myValueSetConceptDao, never()).updateOrderById(any(), anyInt());
+		verify(myValueSetConceptDao, never()).deleteByPids(any());
+		assertEquals(1, myAccumulator.getConceptsSaved());
+		assertEquals(1, myAccumulator.getConceptsKept());
+		assertEquals(1L, myValueSet.getTotalConcepts());
+	}
+
+	@Test
+	public void testDeltaMode_ConceptWithNewSourceConceptPidsIsKeptAndRelinked() {
+		List<Object[]> existing = new ArrayList<>();
+		existing.add(new Object[]{1L, "sys", null, "code", "display", 10L, "1 2", null, 0});
+		when(myValueSetConceptDao.findConceptSummariesByTermValueSetId(any(), any(), any())).thenReturn(existing);
+		TermValueSetConcept storedConcept = spy(new TermValueSetConcept().setOrder(-1));
+		doReturn(1L).when(storedConcept).getId();
+		when(myValueSetConceptDao.findAllById(eq(List.of(1L)))).thenReturn(List.of(storedConcept));
+		when(myValueSetConceptDao.countByTermValueSetId(any())).thenReturn(1);
+		when(myValueSetDesignationDao.countByTermValueSetId(any())).thenReturn(0);
+
+		assertEquals(1, myAccumulator.loadExistingConcepts());
+		myAccumulator.includeConcept("sys", "code", "display", 20L, "3 4", null);
+		myAccumulator.deleteUnmatchedExistingConcepts();
+
+		verify(myValueSetConceptDao, times(1)).saveAll(eq(List.of(storedConcept)));
+		assertEquals(0, storedConcept.getOrder());
+		verify(storedConcept, times(1)).setSourceConceptPid(eq(20L));
+		assertEquals("3 4", storedConcept.getSourceConceptDirectParentPids());
+		verify(myValueSetConceptDao, never()).save(any());
+		verify(myValueSetConceptDao, never()).addToOrderByPids(any(), anyInt());
+		verify(myValueSetConceptDao, never()).deleteByPids(any());
+		assertEquals(1, myAccumulator.getConceptsKept());
+	}
+
+	@Test
+	public void testDeltaMode_ChangedMovedAndRemovedConcepts() {
+		List<Object[]> existing = new ArrayList<>();
+		existing.add(new Object[]{1L, "sys", null, "A", "Display A", null, null, null, 0});
+		existing.add(new Object[]{2L, "sys", null, "B", "Display B", null, null, null, 1});
+		existing.add(new Object[]{3L, "sys", null, "C", "Display C", null, null, null, 2});
+		when(myValueSetConceptDao.findConceptSummariesByTermValueSetId(any(), any(), any())).thenReturn(existing);
+		when(myValueSetConceptDao.countByTermValueSetId(any())).thenReturn(2);
+		when(myValueSetDesignationDao.countByTermValueSetId(any())).thenReturn(0);
+
+		assertEquals(3, myAccumulator.loadExistingConcepts());
+		verify(myValueSetConceptDao, times(1)).addToOrderByTermValueSetId(any(), eq(-3));
+
+		// B has a new display, so it is replaced and takes over the order of A
+		myAccumulator.includeConcept("sys", "B", "Display B2", null, null, null);
+		// A is unchanged, so it is only moved
+		myAccumulator.includeConcept("sys", "A", "Display A", null, null, null);
+		verify(myValueSetConceptDao, never()).deleteByPids(any());
+		verify(myValueSetConceptDao, never()).save(any());
+
+		// C was not included again
+		myAccumulator.deleteUnmatchedExistingConcepts();
+		InOrder inOrder = inOrder(myValueSetConceptDao);
+		inOrder.verify(myValueSetConceptDao, times(1)).deleteByPids(eq(List.of(2L)));
+		ArgumentCaptor<TermValueSetConcept> captor = ArgumentCaptor.forClass(TermValueSetConcept.class);
+		inOrder.verify(myValueSetConceptDao, times(1)).save(captor.capture());
+		inOrder.verify(myValueSetConceptDao, times(1)).deleteByPids(eq(List.of(3L)));
+		inOrder.verify(myValueSetConceptDao, times(1)).addToOrderByPids(eq(List.of(1L)), eq(4));
+		verify(myValueSetDesignationDao, times(1)).deleteByConceptPids(eq(List.of(3L)));
+		verify(myValueSetConceptDao, never()).updateOrderById(any(), anyInt());
+
+		assertEquals("B", captor.getValue().getCode());
+		assertEquals(0, captor.getValue().getOrder());
+		assertEquals(1, myAccumulator.getConceptsKept());
+		assertEquals(2L, myValueSet.getTotalConcepts());
+	}
+
+	@Test
+	public void testDeltaMode_ChangedConceptsAreReplacedInBatches() {
+		int count = ValueSetConceptAccumulator.REPLACED_CONCEPTS_BATCH_SIZE + 1;
+		List<Object[]> existing = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			existing.add(new Object[]{(long) i, "sys", null, "code" + i, "display", null, null, null, i});
+		}
+		when(myValueSetConceptDao.findConceptSummariesByTermValueSetId(any(), any(), any())).thenReturn(existing);
+
+		myAccumulator.loadExistingConcepts();
+		for (int i = 0; i < count; i++) {
+			myAccumulator.includeConcept("sys", "code" + i, "new display", null, null, null);
+		}
+
+		ArgumentCaptor<List<Long>> captor = ArgumentCaptor.forClass(List.class);
+		verify(myValueSetConceptDao, times(1)).deleteByPids(captor.capture());
+		assertEquals(ValueSetConceptAccumulator.REPLACED_CONCEPTS_BATCH_SIZE, captor.getValue().size());
+		verify(myValueSetConceptDao, times(ValueSetConceptAccumulator.REPLACED_CONCEPTS_BATCH_SIZE)).save(any());
+	}
+
 }
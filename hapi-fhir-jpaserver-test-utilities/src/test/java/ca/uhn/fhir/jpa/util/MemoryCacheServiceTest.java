@@ -64,6 +64,21 @@ class MemoryCacheServiceTest {
 		assertEquals(tagDef, retVal);
 	}
 
+	@Test
+	public void testHitAndMissCounts() {
+		MemoryCacheService.CacheEnum cache = MemoryCacheService.CacheEnum.FORCED_ID_TO_PID;
+		mySvc.put(cache, "A", "1");
+		mySvc.put(cache, "B", "2");
+
+		assertEquals("1", mySvc.getIfPresent(cache, "A"));
+		assertNull(mySvc.getIfPresent(cache, "C"));
+		assertThat(mySvc.<String, String>getAllPresent(cache, List.of("A", "B", "D"))).hasSize(2);
+
+		assertEquals(3, mySvc.getHitCount(cache));
+		assertEquals(2, mySvc.getMissCount(cache));
+		assertEquals(0, mySvc.getHitCount(MemoryCacheService.CacheEnum.TAG_DEFINITION));
+	}
+
 	@Nested
 	public static class CaffeineAbuseTest {
 
@@ -39,6 +39,9 @@ import ca.uhn.fhir.mdm.rules.matcher.models.IMdmFieldMatcher;
 import ca.uhn.fhir.mdm.rules.matcher.models.MatchTypeEnum;
 import org.slf4j.Logger;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class MdmMatcherFactory implements IMatcherFactory {
 	private static final Logger ourLog = Logs.getMdmTroubleshootingLog();
 
@@ -47,6 +50,12 @@ public class MdmMatcherFactory implements IMatcherFactory {
 
 	private final INicknameSvc myNicknameSvc;
 
+	/**
+	 * Matchers are stateless apart from the values they cache, so a single instance is shared
+	 * per match type in order for those cached values to be reused across comparisons.
+	 */
+	private final Map<MatchTypeEnum, IMdmFieldMatcher> myFieldMatchers = new ConcurrentHashMap<>();
+
 	public MdmMatcherFactory(FhirContext theFhirContext, IMdmSettings theSettings, INicknameSvc theNicknameSvc) {
 		myFhirContext = theFhirContext;
 		myMdmSettings = theSettings;
@@ -55,6 +64,13 @@ public class MdmMatcherFactory implements IMatcherFactory {
 
 	@Override
 	public IMdmFieldMatcher getFieldMatcherForMatchType(MatchTypeEnum theMdmMatcherEnum) {
+		if (theMdmMatcherEnum == null) {
+			return newFieldMatcher(null);
+		}
+		return myFieldMatchers.computeIfAbsent(theMdmMatcherEnum, this::newFieldMatcher);
+	}
+
+	private IMdmFieldMatcher newFieldMatcher(MatchTypeEnum theMdmMatcherEnum) {
 		String matchTypeName;
 		if (theMdmMatcherEnum != null) {
 			switch (theMdmMatcherEnum) {
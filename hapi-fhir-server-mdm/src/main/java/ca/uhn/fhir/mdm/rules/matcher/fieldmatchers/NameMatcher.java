@@ -22,7 +22,9 @@ package ca.uhn.fhir.mdm.rules.matcher.fieldmatchers;
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.mdm.rules.json.MdmMatcherJson;
 import ca.uhn.fhir.mdm.rules.matcher.models.IMdmFieldMatcher;
+import ca.uhn.fhir.mdm.rules.matcher.util.StringMatcherUtils;
 import ca.uhn.fhir.mdm.util.NameUtil;
+import ca.uhn.fhir.sl.cache.Cache;
 import ca.uhn.fhir.util.StringUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.hl7.fhir.instance.model.api.IBase;
@@ -39,6 +41,8 @@ public class NameMatcher implements IMdmFieldMatcher {
 
 	private final FhirContext myFhirContext;
 
+	private final Cache<String, String> myNormalizedNames = StringMatcherUtils.newValueCache();
+
 	public NameMatcher(FhirContext theFhirContext, MdmNameMatchModeEnum theMatchMode) {
 		myMatchMode = theMatchMode;
 		myFhirContext = theFhirContext;
@@ -58,14 +62,10 @@ public class NameMatcher implements IMdmFieldMatcher {
 		List<String> rightGivenNames = NameUtil.extractGivenNames(myFhirContext, theRightBase);
 
 		if (!theParams.getExact()) {
-			leftFamilyName = StringUtil.normalizeStringForSearchIndexing(leftFamilyName);
-			rightFamilyName = StringUtil.normalizeStringForSearchIndexing(rightFamilyName);
-			leftGivenNames = leftGivenNames.stream()
-					.map(StringUtil::normalizeStringForSearchIndexing)
-					.collect(Collectors.toList());
-			rightGivenNames = rightGivenNames.stream()
-					.map(StringUtil::normalizeStringForSearchIndexing)
-					.collect(Collectors.toList());
+			leftFamilyName = normalize(leftFamilyName);
+			rightFamilyName = normalize(rightFamilyName);
+			leftGivenNames = leftGivenNames.stream().map(this::normalize).collect(Collectors.toList());
+			rightGivenNames = rightGivenNames.stream().map(this::normalize).collect(Collectors.toList());
 		}
 
 		for (String leftGivenName : leftGivenNames) {
@@ -79,4 +79,11 @@ public class NameMatcher implements IMdmFieldMatcher {
 
 		return match;
 	}
+
+	private String normalize(String theName) {
+		if (theName == null) {
+			return null;
+		}
+		return myNormalizedNames.get(theName, StringUtil::normalizeStringForSearchIndexing);
+	}
 }
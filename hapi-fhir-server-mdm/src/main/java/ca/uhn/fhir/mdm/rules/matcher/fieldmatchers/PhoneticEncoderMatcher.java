@@ -24,6 +24,7 @@ import ca.uhn.fhir.context.phonetic.PhoneticEncoderEnum;
 import ca.uhn.fhir.mdm.rules.json.MdmMatcherJson;
 import ca.uhn.fhir.mdm.rules.matcher.models.IMdmFieldMatcher;
 import ca.uhn.fhir.mdm.rules.matcher.util.StringMatcherUtils;
+import ca.uhn.fhir.sl.cache.Cache;
 import ca.uhn.fhir.util.PhoneticEncoderUtil;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IPrimitiveType;
@@ -34,13 +35,21 @@ public class PhoneticEncoderMatcher implements IMdmFieldMatcher {
 	private static final Logger ourLog = LoggerFactory.getLogger(PhoneticEncoderMatcher.class);
 
 	private final IPhoneticEncoder myStringEncoder;
+	private final Cache<String, String> myEncodedValues = StringMatcherUtils.newValueCache();
 
 	public PhoneticEncoderMatcher(PhoneticEncoderEnum thePhoneticEnum) {
 		myStringEncoder = PhoneticEncoderUtil.getEncoder(thePhoneticEnum.name());
 	}
 
 	public boolean matches(String theLeftString, String theRightString) {
-		return myStringEncoder.encode(theLeftString).equals(myStringEncoder.encode(theRightString));
+		return encode(theLeftString).equals(encode(theRightString));
+	}
+
+	private String encode(String theString) {
+		if (theString == null) {
+			return myStringEncoder.encode(null);
+		}
+		return myEncodedValues.get(theString, myStringEncoder::encode);
 	}
 
 	@Override
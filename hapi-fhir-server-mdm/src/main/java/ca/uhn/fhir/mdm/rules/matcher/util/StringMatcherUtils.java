@@ -19,10 +19,17 @@
  */
 package ca.uhn.fhir.mdm.rules.matcher.util;
 
+import ca.uhn.fhir.sl.cache.Cache;
+import ca.uhn.fhir.sl.cache.CacheFactory;
 import ca.uhn.fhir.util.StringUtil;
 import org.hl7.fhir.instance.model.api.IPrimitiveType;
 
+import java.util.concurrent.TimeUnit;
+
 public class StringMatcherUtils {
+	private static final long VALUE_CACHE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+	private static final long VALUE_CACHE_MAX_SIZE = 10000;
+
 	public static String extractString(IPrimitiveType<?> thePrimitive, boolean theExact) {
 		String theString = thePrimitive.getValueAsString();
 		if (theExact) {
@@ -30,4 +37,15 @@ public class StringMatcherUtils {
 		}
 		return StringUtil.normalizeStringForSearchIndexing(theString);
 	}
+
+	/**
+	 * Creates a bounded cache for values derived from a single field value (e.g. a normalized
+	 * string or a phonetic code). A source resource is compared against many candidates, so
+	 * caching these values avoids computing them again for every pair of resources.
+	 *
+	 * @since 7.6.0
+	 */
+	public static <V> Cache<String, V> newValueCache() {
+		return CacheFactory.build(VALUE_CACHE_TIMEOUT_MILLIS, VALUE_CACHE_MAX_SIZE);
+	}
 }
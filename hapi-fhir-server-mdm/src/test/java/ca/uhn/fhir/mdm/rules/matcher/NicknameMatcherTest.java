@@ -9,8 +9,12 @@ import org.hl7.fhir.r4.model.StringType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class NicknameMatcherTest {
 	IMdmFieldMatcher matcher;
@@ -43,6 +47,21 @@ class NicknameMatcherTest {
 		assertFalse(match("Allen", "Allan"));
 	}
 
+	@Test
+	public void testMatchesReflectReloadedNicknames() {
+		INicknameSvc nicknameSvc = mock(INicknameSvc.class);
+		when(nicknameSvc.getEquivalentNames("ken"))
+			.thenReturn(Set.of("ken"))
+			.thenReturn(Set.of("ken", "bob"));
+		when(nicknameSvc.getEquivalentNames("bob")).thenReturn(Set.of("bob"));
+		matcher = new NicknameMatcher(nicknameSvc);
+
+		assertFalse(match("Ken", "Bob"));
+
+		// The nickname service now returns the nicknames of a newly loaded resource
+		assertTrue(match("Ken", "Bob"));
+	}
+
 	private boolean match(String theFirst, String theSecond) {
 		MdmMatcherJson json = new MdmMatcherJson();
 		json.setExact(true);
@@ -0,0 +1,318 @@
+/*-
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.server;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The response handed to the handler of a request which is processed asynchronously by
+ * {@link RestfulServer}. Once the request has been {@link #finish(IResponseAction) finished}
+ * (because the handler returned, or because the container timed the request out or reported an
+ * error), every further write by the handler is silently dropped. This matters because the
+ * container may recycle the underlying response for another request as soon as the asynchronous
+ * context has been completed, while the handler may still be running.
+ * <p>
+ * Writes and {@link #finish(IResponseAction)} are serialized on a single lock, so a write which is
+ * in progress when the request times out completes before the error response is sent, and no
+ * write can start after that.
+ * </p>
+ */
+class AsyncRequestResponseWrapper extends HttpServletResponseWrapper {
+
+	private final Object myLock = new Object();
+	private boolean myFinished;
+	private ServletOutputStream myOutputStream;
+	private PrintWriter myWriter;
+
+	AsyncRequestResponseWrapper(HttpServletResponse theResponse) {
+		super(theResponse);
+	}
+
+	/**
+	 * Marks the request as finished and performs the given action (typically sending an error
+	 * response and/or completing the asynchronous context) against the underlying response.
+	 *
+	 * @return Returns <code>true</code> if the request was not already finished, in which case the
+	 * 	action was performed
+	 */
+	boolean finish(IResponseAction theAction) throws IOException {
+		synchronized (myLock) {
+			if (myFinished) {
+				return false;
+			}
+			myFinished = true;
+			theAction.run();
+			return true;
+		}
+	}
+
+	boolean isFinished() {
+		synchronized (myLock) {
+			return myFinished;
+		}
+	}
+
+	@Override
+	public boolean isCommitted() {
+		synchronized (myLock) {
+			return myFinished || super.isCommitted();
+		}
+	}
+
+	@Override
+	public void addCookie(Cookie theCookie) {
+		ifNotFinished(() -> super.addCookie(theCookie));
+	}
+
+	@Override
+	public void sendError(int theStatusCode, String theMessage) throws IOException {
+		ifNotFinishedIo(() -> super.sendError(theStatusCode, theMessage));
+	}
+
+	@Override
+	public void sendError(int theStatusCode) throws IOException {
+		ifNotFinishedIo(() -> super.sendError(theStatusCode));
+	}
+
+	@Override
+	public void sendRedirect(String theLocation) throws IOException {
+		ifNotFinishedIo(() -> super.sendRedirect(theLocation));
+	}
+
+	@Override
+	public void setDateHeader(String theName, long theDate) {
+		ifNotFinished(() -> super.setDateHeader(theName, theDate));
+	}
+
+	@Override
+	public void addDateHeader(String theName, long theDate) {
+		ifNotFinished(() -> super.addDateHeader(theName, theDate));
+	}
+
+	@Override
+	public void setHeader(String theName, String theValue) {
+		ifNotFinished(() -> super.setHeader(theName, theValue));
+	}
+
+	@Override
+	public void addHeader(String theName, String theValue) {
+		ifNotFinished(() -> super.addHeader(theName, theValue));
+	}
+
+	@Override
+	public void setIntHeader(String theName, int theValue) {
+		ifNotFinished(() -> super.setIntHeader(theName, theValue));
+	}
+
+	@Override
+	public void addIntHeader(String theName, int theValue) {
+		ifNotFinished(() -> super.addIntHeader(theName, theValue));
+	}
+
+	@Override
+	public void setStatus(int theStatusCode) {
+		ifNotFinished(() -> super.setStatus(theStatusCode));
+	}
+
+	@Override
+	public void setTrailerFields(Supplier<Map<String, String>> theSupplier) {
+		ifNotFinished(() -> super.setTrailerFields(theSupplier));
+	}
+
+	@Override
+	public void setCharacterEncoding(String theCharset) {
+		ifNotFinished(() -> super.setCharacterEncoding(theCharset));
+	}
+
+	@Override
+	public void setContentLength(int theLength) {
+		ifNotFinished(() -> super.setContentLength(theLength));
+	}
+
+	@Override
+	public void setContentLengthLong(long theLength) {
+		ifNotFinished(() -> super.setContentLengthLong(theLength));
+	}
+
+	@Override
+	public void setContentType(String theType) {
+		ifNotFinished(() -> super.setContentType(theType));
+	}
+
+	@Override
+	public void setBufferSize(int theSize) {
+		ifNotFinished(() -> super.setBufferSize(theSize));
+	}
+
+	@Override
+	public void setLocale(Locale theLocale) {
+		ifNotFinished(() -> super.setLocale(theLocale));
+	}
+
+	@Override
+	public void flushBuffer() throws IOException {
+		ifNotFinishedIo(super::flushBuffer);
+	}
+
+	@Override
+	public void resetBuffer() {
+		ifNotFinished(super::resetBuffer);
+	}
+
+	@Override
+	public void reset() {
+		ifNotFinished(super::reset);
+	}
+
+	@Override
+	public ServletOutputStream getOutputStream() throws IOException {
+		synchronized (myLock) {
+			if (myOutputStream == null) {
+				myOutputStream = new GuardedOutputStream(myFinished ? null : super.getOutputStream());
+			}
+			return myOutputStream;
+		}
+	}
+
+	@Override
+	public PrintWriter getWriter() throws IOException {
+		synchronized (myLock) {
+			if (myWriter == null) {
+				myWriter = new PrintWriter(new GuardedWriter(myFinished ? null : super.getWriter()));
+			}
+			return myWriter;
+		}
+	}
+
+	private void ifNotFinished(Runnable theAction) {
+		synchronized (myLock) {
+			if (!myFinished) {
+				theAction.run();
+			}
+		}
+	}
+
+	private void ifNotFinishedIo(IResponseAction theAction) throws IOException {
+		synchronized (myLock) {
+			if (!myFinished) {
+				theAction.run();
+			}
+		}
+	}
+
+	@FunctionalInterface
+	interface IResponseAction {
+		void run() throws IOException;
+	}
+
+	private class GuardedOutputStream extends ServletOutputStream {
+
+		private final ServletOutputStream myDelegate;
+
+		/**
+		 * @param theDelegate The underlying stream, or <code>null</code> if the request was
+		 *                    already finished when the stream was requested
+		 */
+		private GuardedOutputStream(ServletOutputStream theDelegate) {
+			myDelegate = theDelegate;
+		}
+
+		@Override
+		public boolean isReady() {
+			synchronized (myLock) {
+				return myFinished || myDelegate.isReady();
+			}
+		}
+
+		@Override
+		public void setWriteListener(WriteListener theWriteListener) {
+			ifNotFinished(() -> myDelegate.setWriteListener(theWriteListener));
+		}
+
+		@Override
+		public void write(int theByte) throws IOException {
+			ifNotFinishedIo(() -> myDelegate.write(theByte));
+		}
+
+		@Override
+		public void write(byte[] theBytes, int theOffset, int theLength) throws IOException {
+			ifNotFinishedIo(() -> myDelegate.write(theBytes, theOffset, theLength));
+		}
+
+		@Override
+		public void flush() throws IOException {
+			ifNotFinishedIo(myDelegate::flush);
+		}
+
+		@Override
+		public void close() throws IOException {
+			ifNotFinishedIo(myDelegate::close);
+		}
+	}
+
+	private class GuardedWriter extends Writer {
+
+		private final Writer myDelegate;
+
+		/**
+		 * @param theDelegate The underlying writer, or <code>null</code> if the request was
+		 *                    already finished when the writer was requested
+		 */
+		private GuardedWriter(Writer theDelegate) {
+			myDelegate = theDelegate;
+		}
+
+		@Override
+		public void write(int theChar) throws IOException {
+			ifNotFinishedIo(() -> myDelegate.write(theChar));
+		}
+
+		@Override
+		public void write(char[] theChars, int theOffset, int theLength) throws IOException {
+			ifNotFinishedIo(() -> myDelegate.write(theChars, theOffset, theLength));
+		}
+
+		@Override
+		public void write(String theString, int theOffset, int theLength) throws IOException {
+			ifNotFinishedIo(() -> myDelegate.write(theString, theOffset, theLength));
+		}
+
+		@Override
+		public void flush() throws IOException {
+			ifNotFinishedIo(myDelegate::flush);
+		}
+
+		@Override
+		public void close() throws IOException {
+			ifNotFinishedIo(myDelegate::close);
+		}
+	}
+}
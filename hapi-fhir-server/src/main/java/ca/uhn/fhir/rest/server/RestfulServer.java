@@ -67,6 +67,9 @@ import ca.uhn.fhir.util.VersionUtil;
 import com.google.common.collect.Lists;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.UnavailableException;
 import jakarta.servlet.http.HttpServlet;
@@ -101,6 +104,8 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.jar.Manifest;
@@ -174,6 +179,8 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 	private ITenantIdentificationStrategy myTenantIdentificationStrategy;
 	private PreferReturnEnum myDefaultPreferReturn = DEFAULT_PREFER_RETURN;
 	private ElementsSupportEnum myElementsSupport = ElementsSupportEnum.EXTENDED;
+	private Executor myAsyncRequestExecutor;
+	private long myAsyncRequestTimeoutMillis = 0;
 
 	/**
 	 * Constructor. Note that if no {@link FhirContext} is passed in to the server (either through the constructor, or
@@ -1930,7 +1937,111 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 			return;
 		}
 
-		switch (method) {
+		Executor asyncRequestExecutor = myAsyncRequestExecutor;
+		if (asyncRequestExecutor != null && theReq.isAsyncSupported() && !theReq.isAsyncStarted()) {
+			serviceAsynchronously(asyncRequestExecutor, method, theReq, theResp);
+			return;
+		}
+
+		dispatchRequest(method, theReq, theResp);
+	}
+
+	/**
+	 * Releases the container thread by putting the request into asynchronous mode, and then
+	 * handles it on the given executor. If the executor rejects the request, it is handled
+	 * on the container thread instead.
+	 * <p>
+	 * If the container times the request out or reports an error before the handler has
+	 * finished, the request is completed with a 503 or 500 response respectively. The handler
+	 * writes through an {@link AsyncRequestResponseWrapper}, so anything it writes after that
+	 * point is discarded instead of reaching a response the container may have recycled. A
+	 * handler which has not started yet is skipped.
+	 * </p>
+	 */
+	private void serviceAsynchronously(
+			Executor theExecutor, RequestTypeEnum theMethod, HttpServletRequest theReq, HttpServletResponse theResp) {
+		AsyncContext asyncContext = theReq.startAsync(theReq, theResp);
+		asyncContext.setTimeout(myAsyncRequestTimeoutMillis);
+
+		AsyncRequestResponseWrapper response = new AsyncRequestResponseWrapper(theResp);
+		asyncContext.addListener(new AsyncListener() {
+			@Override
+			public void onComplete(AsyncEvent theEvent) throws IOException {
+				response.finish(() -> {});
+			}
+
+			@Override
+			public void onTimeout(AsyncEvent theEvent) throws IOException {
+				response.finish(() -> {
+					ourLog.warn("Asynchronous request timed out after {}ms", myAsyncRequestTimeoutMillis);
+					sendAsyncErrorAndComplete(asyncContext, theResp, HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+				});
+			}
+
+			@Override
+			public void onError(AsyncEvent theEvent) throws IOException {
+				response.finish(() -> {
+					ourLog.warn("Asynchronous request failed", theEvent.getThrowable());
+					sendAsyncErrorAndComplete(asyncContext, theResp, Constants.STATUS_HTTP_500_INTERNAL_ERROR);
+				});
+			}
+
+			@Override
+			public void onStartAsync(AsyncEvent theEvent) {
+				// nothing
+			}
+		});
+
+		Runnable task = () -> {
+			if (response.isFinished()) {
+				ourLog.debug("Skipping asynchronous request which has already been completed");
+				return;
+			}
+			try {
+				dispatchRequest(theMethod, theReq, response);
+			} catch (Exception e) {
+				ourLog.error("Failure during asynchronous request handling", e);
+				try {
+					if (!response.isCommitted()) {
+						response.sendError(Constants.STATUS_HTTP_500_INTERNAL_ERROR);
+					}
+				} catch (IOException e2) {
+					ourLog.debug("Failed to send error response", e2);
+				}
+			} finally {
+				try {
+					response.finish(asyncContext::complete);
+				} catch (IOException e) {
+					// can't happen, completing the context does not write to the response
+					ourLog.debug("Failed to complete asynchronous request", e);
+				}
+			}
+		};
+
+		try {
+			theExecutor.execute(task);
+		} catch (RejectedExecutionException e) {
+			ourLog.warn("Asynchronous request executor rejected request, handling it synchronously: {}", e.toString());
+			task.run();
+		}
+	}
+
+	private static void sendAsyncErrorAndComplete(
+			AsyncContext theAsyncContext, HttpServletResponse theResp, int theStatusCode) {
+		try {
+			if (!theResp.isCommitted()) {
+				theResp.sendError(theStatusCode);
+			}
+		} catch (IOException | IllegalStateException e) {
+			ourLog.debug("Failed to send error response", e);
+		} finally {
+			theAsyncContext.complete();
+		}
+	}
+
+	private void dispatchRequest(RequestTypeEnum theMethod, HttpServletRequest theReq, HttpServletResponse theResp)
+			throws ServletException, IOException {
+		switch (theMethod) {
 			case DELETE:
 				doDelete(theReq, theResp);
 				break;
@@ -1952,7 +2063,7 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 			case HEAD:
 			case CONNECT:
 			default:
-				handleRequest(method, theReq, theResp);
+				handleRequest(theMethod, theReq, theResp);
 				break;
 		}
 	}
@@ -2104,6 +2215,60 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 		myDefaultPreferReturn = theDefaultPreferReturn;
 	}
 
+	/**
+	 * If set (default is <code>null</code>), requests are handled in Servlet asynchronous mode:
+	 * the container thread which received the request is released immediately, and the
+	 * request is processed on a thread supplied by the given executor. This keeps slow
+	 * operations (e.g. waiting for the first page of a large search, <code>$everything</code>
+	 * or bulk export polling) from tying up the container's request thread pool, and allows
+	 * the processing threads to be sized independently of the container. On Java 21 and
+	 * above, an executor which creates a virtual thread per task can be used.
+	 * <p>
+	 * Asynchronous handling is only used for requests where the servlet and all filters
+	 * in the chain are registered as supporting asynchronous requests. Note that filters
+	 * will see the filter chain return before the response has been written, and that
+	 * thread-local state populated by filters (e.g. a security context) is not available
+	 * on the executor thread unless the executor propagates it.
+	 * </p>
+	 * <p>
+	 * The executor is not shut down when the server is destroyed.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	public void setAsyncRequestExecutor(@Nullable Executor theAsyncRequestExecutor) {
+		myAsyncRequestExecutor = theAsyncRequestExecutor;
+	}
+
+	/**
+	 * @see #setAsyncRequestExecutor(Executor)
+	 * @since 7.6.0
+	 */
+	@Nullable
+	public Executor getAsyncRequestExecutor() {
+		return myAsyncRequestExecutor;
+	}
+
+	/**
+	 * Sets the timeout applied to requests handled asynchronously (see
+	 * {@link #setAsyncRequestExecutor(Executor)}). A value of zero or less means that
+	 * requests never time out, which is also the behaviour of synchronous requests.
+	 * Default is <code>0</code>.
+	 *
+	 * @since 7.6.0
+	 */
+	public void setAsyncRequestTimeoutMillis(long theAsyncRequestTimeoutMillis) {
+		myAsyncRequestTimeoutMillis = theAsyncRequestTimeoutMillis;
+	}
+
+	/**
+	 * @see #setAsyncRequestTimeoutMillis(long)
+	 * @since 7.6.0
+	 */
+	public long getAsyncRequestTimeoutMillis() {
+		return myAsyncRequestTimeoutMillis;
+	}
+
 	/**
 	 * Create a CapabilityStatement based on the given request
 	 */
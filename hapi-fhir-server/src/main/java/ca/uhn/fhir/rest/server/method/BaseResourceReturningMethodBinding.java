@@ -24,6 +24,7 @@ import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.RuntimeResourceDefinition;
 import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.interceptor.api.HookParams;
+import ca.uhn.fhir.interceptor.api.IInterceptorBroadcaster;
 import ca.uhn.fhir.interceptor.api.Pointcut;
 import ca.uhn.fhir.model.api.IResource;
 import ca.uhn.fhir.model.api.Include;
@@ -331,6 +332,11 @@ public abstract class BaseResourceReturningMethodBinding extends BaseMethodBindi
 	}
 
 	public static boolean callOutgoingResponseHook(RequestDetails theRequest, ResponseDetails theResponseDetails) {
+		IInterceptorBroadcaster interceptorBroadcaster = theRequest.getInterceptorBroadcaster();
+		if (interceptorBroadcaster == null || !interceptorBroadcaster.hasHooks(Pointcut.SERVER_OUTGOING_RESPONSE)) {
+			return true;
+		}
+
 		HttpServletRequest servletRequest = null;
 		HttpServletResponse servletResponse = null;
 		if (theRequest instanceof ServletRequestDetails) {
@@ -345,10 +351,7 @@ public abstract class BaseResourceReturningMethodBinding extends BaseMethodBindi
 		responseParams.add(ResponseDetails.class, theResponseDetails);
 		responseParams.add(HttpServletRequest.class, servletRequest);
 		responseParams.add(HttpServletResponse.class, servletResponse);
-		if (theRequest.getInterceptorBroadcaster() != null) {
-			return theRequest.getInterceptorBroadcaster().callHooks(Pointcut.SERVER_OUTGOING_RESPONSE, responseParams);
-		}
-		return true;
+		return interceptorBroadcaster.callHooks(Pointcut.SERVER_OUTGOING_RESPONSE, responseParams);
 	}
 
 	public static void callOutgoingFailureOperationOutcomeHook(
@@ -226,6 +226,20 @@ public class ProviderConstants {
 	 */
 	public static final String OPERATION_REINDEX_TERMINOLOGY = "$reindex-terminology";
 
+	/**
+	 * Operation name for the $validate-bulk operation
+	 *
+	 * @since 7.6.0
+	 */
+	public static final String OPERATION_VALIDATE_BULK = "$validate-bulk";
+
+	/**
+	 * url of resources to validate for the $validate-bulk operation
+	 *
+	 * @since 7.6.0
+	 */
+	public static final String OPERATION_VALIDATE_BULK_PARAM_URL = "url";
+
 	@Deprecated
 	public static final String MARK_ALL_RESOURCES_FOR_REINDEXING = "$mark-all-resources-for-reindexing";
 	/**
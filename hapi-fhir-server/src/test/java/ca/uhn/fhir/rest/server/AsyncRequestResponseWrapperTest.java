@@ -0,0 +1,152 @@
+package ca.uhn.fhir.rest.server;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AsyncRequestResponseWrapperTest {
+
+	@Mock
+	private HttpServletResponse myResponse;
+
+	@Mock
+	private ServletOutputStream myOutputStream;
+
+	@Test
+	public void testWritesBeforeFinishReachResponse() throws IOException {
+		StringWriter body = new StringWriter();
+		when(myResponse.getWriter()).thenReturn(new PrintWriter(body));
+		AsyncRequestResponseWrapper response = new AsyncRequestResponseWrapper(myResponse);
+
+		response.setStatus(200);
+		response.setContentType("application/fhir+json");
+		PrintWriter writer = response.getWriter();
+		writer.write("{\"resourceType\":\"Patient\"}");
+		writer.flush();
+
+		verify(myResponse).setStatus(200);
+		verify(myResponse).setContentType("application/fhir+json");
+		assertThat(body.toString()).isEqualTo("{\"resourceType\":\"Patient\"}");
+	}
+
+	@Test
+	public void testLateWritesNeverReachResponse() throws IOException {
+		StringWriter body = new StringWriter();
+		when(myResponse.getWriter()).thenReturn(new PrintWriter(body));
+		when(myResponse.getOutputStream()).thenReturn(myOutputStream);
+		AsyncRequestResponseWrapper response = new AsyncRequestResponseWrapper(myResponse);
+
+		// The handler obtained its writer and stream before the request timed out
+		PrintWriter writer = response.getWriter();
+		ServletOutputStream outputStream = response.getOutputStream();
+
+		assertTrue(response.finish(() -> myResponse.sendError(503)));
+		verify(myResponse).sendError(503);
+
+		// Everything the handler does from here on is dropped
+		response.setStatus(200);
+		response.setHeader("Content-Location", "Patient/A");
+		response.setContentType("application/fhir+json");
+		response.sendError(500);
+		writer.write("{\"resourceType\":\"Patient\"}");
+		writer.flush();
+		writer.close();
+		outputStream.write(new byte[] {1, 2, 3}, 0, 3);
+		outputStream.flush();
+		response.flushBuffer();
+
+		assertTrue(response.isFinished());
+		assertTrue(response.isCommitted());
+		assertThat(body.toString()).isEmpty();
+		verify(myResponse, never()).setStatus(anyInt());
+		verify(myResponse, never()).setHeader(anyString(), anyString());
+		verify(myResponse, never()).setContentType(anyString());
+		verify(myResponse, never()).sendError(500);
+		verify(myResponse, never()).flushBuffer();
+		verify(myOutputStream, never()).write(any(), anyInt(), anyInt());
+		verify(myOutputStream, never()).flush();
+	}
+
+	@Test
+	public void testWriterRequestedAfterFinishIsNotObtainedFromResponse() throws IOException {
+		AsyncRequestResponseWrapper response = new AsyncRequestResponseWrapper(myResponse);
+		assertTrue(response.finish(() -> {}));
+
+		response.getWriter().write("late");
+		response.getOutputStream().write(1);
+
+		verify(myResponse, never()).getWriter();
+		verify(myResponse, never()).getOutputStream();
+		verifyNoMoreInteractions(myResponse);
+	}
+
+	@Test
+	public void testFinishOnlyOnce() throws IOException {
+		AsyncRequestResponseWrapper response = new AsyncRequestResponseWrapper(myResponse);
+
+		assertTrue(response.finish(() -> myResponse.sendError(503)));
+		assertFalse(response.finish(() -> myResponse.sendError(500)));
+
+		verify(myResponse).sendError(503);
+		verify(myResponse, never()).sendError(500);
+	}
+
+	@Test
+	public void testFinishWaitsForWriteInProgress() throws Exception {
+		CountDownLatch writeStarted = new CountDownLatch(1);
+		CountDownLatch releaseWrite = new CountDownLatch(1);
+		when(myResponse.getOutputStream()).thenReturn(myOutputStream);
+		doAnswer(t -> {
+			writeStarted.countDown();
+			releaseWrite.await(10, TimeUnit.SECONDS);
+			return null;
+		}).when(myOutputStream).write(any(), anyInt(), anyInt());
+		AsyncRequestResponseWrapper response = new AsyncRequestResponseWrapper(myResponse);
+		ServletOutputStream outputStream = response.getOutputStream();
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			executor.submit(() -> {
+				outputStream.write(new byte[] {1}, 0, 1);
+				return null;
+			});
+			assertTrue(writeStarted.await(10, TimeUnit.SECONDS));
+
+			Future<Boolean> finished = executor.submit(() -> response.finish(() -> myResponse.sendError(503)));
+			Thread.sleep(100);
+			assertFalse(finished.isDone());
+			verify(myResponse, never()).sendError(anyInt());
+
+			releaseWrite.countDown();
+			assertTrue(finished.get(10, TimeUnit.SECONDS));
+			verify(myResponse).sendError(503);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,113 @@
+/*-
+ * #%L
+ * hapi-fhir-storage-batch2-jobs
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.batch2.jobs.validate;
+
+import ca.uhn.fhir.batch2.api.IJobCoordinator;
+import ca.uhn.fhir.batch2.api.IJobPartitionProvider;
+import ca.uhn.fhir.batch2.api.IJobStepWorker;
+import ca.uhn.fhir.batch2.api.VoidModel;
+import ca.uhn.fhir.batch2.jobs.chunk.ChunkRangeJson;
+import ca.uhn.fhir.batch2.jobs.chunk.ResourceIdListWorkChunkJson;
+import ca.uhn.fhir.batch2.jobs.parameters.UrlListValidator;
+import ca.uhn.fhir.batch2.jobs.parameters.UrlPartitioner;
+import ca.uhn.fhir.batch2.jobs.step.GenerateRangeChunksStep;
+import ca.uhn.fhir.batch2.jobs.step.LoadIdsStep;
+import ca.uhn.fhir.batch2.model.JobDefinition;
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.jpa.api.svc.IBatch2DaoSvc;
+import ca.uhn.fhir.rest.server.provider.ProviderConstants;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
+
+@Configuration
+public class BulkValidateAppCtx {
+
+	public static final String JOB_BULK_VALIDATE = "BULK_VALIDATE";
+
+	@Bean
+	public JobDefinition<BulkValidateJobParameters> bulkValidateJobDefinition(IBatch2DaoSvc theBatch2DaoSvc) {
+		return JobDefinition.newBuilder()
+				.setJobDefinitionId(JOB_BULK_VALIDATE)
+				.setJobDescription("Validate existing resources")
+				.setJobDefinitionVersion(1)
+				.setParametersType(BulkValidateJobParameters.class)
+				.setParametersValidator(bulkValidateJobParametersValidator(theBatch2DaoSvc))
+				.gatedExecution()
+				.addFirstStep(
+						"generate-ranges",
+						"Generate data ranges to validate",
+						ChunkRangeJson.class,
+						bulkValidateGenerateRangeChunksStep())
+				.addIntermediateStep(
+						"load-ids",
+						"Load IDs of resources to validate",
+						ResourceIdListWorkChunkJson.class,
+						bulkValidateLoadIdsStep(theBatch2DaoSvc))
+				.addIntermediateStep(
+						"validate",
+						"Validate the resources and write the results to binaries",
+						BulkValidateBinaryJson.class,
+						bulkValidateStep())
+				.addFinalReducerStep(
+						"create-report",
+						"Create the bulk validation report",
+						BulkValidateJobResults.class,
+						bulkValidateCreateReportStep())
+				.build();
+	}
+
+	@Bean
+	public IJobStepWorker<BulkValidateJobParameters, VoidModel, ChunkRangeJson> bulkValidateGenerateRangeChunksStep() {
+		return new GenerateRangeChunksStep<>();
+	}
+
+	@Bean
+	public IJobStepWorker<BulkValidateJobParameters, ChunkRangeJson, ResourceIdListWorkChunkJson>
+			bulkValidateLoadIdsStep(IBatch2DaoSvc theBatch2DaoSvc) {
+		return new LoadIdsStep<>(theBatch2DaoSvc);
+	}
+
+	@Bean
+	public BulkValidateJobParametersValidator bulkValidateJobParametersValidator(IBatch2DaoSvc theBatch2DaoSvc) {
+		return new BulkValidateJobParametersValidator(
+				new UrlListValidator(ProviderConstants.OPERATION_VALIDATE_BULK, theBatch2DaoSvc));
+	}
+
+	@Bean
+	public BulkValidateStep bulkValidateStep() {
+		return new BulkValidateStep();
+	}
+
+	@Bean
+	@Scope("prototype")
+	public BulkValidateCreateReportStep bulkValidateCreateReportStep() {
+		return new BulkValidateCreateReportStep();
+	}
+
+	@Bean
+	public BulkValidateProvider bulkValidateProvider(
+			FhirContext theFhirContext,
+			IJobCoordinator theJobCoordinator,
+			IJobPartitionProvider theJobPartitionHandler,
+			UrlPartitioner theUrlPartitioner) {
+		return new BulkValidateProvider(theFhirContext, theJobCoordinator, theJobPartitionHandler, theUrlPartitioner);
+	}
+}
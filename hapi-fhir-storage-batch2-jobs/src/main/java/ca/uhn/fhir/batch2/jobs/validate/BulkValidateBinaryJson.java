@@ -0,0 +1,68 @@
+/*-
+ * #%L
+ * hapi-fhir-storage-batch2-jobs
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.batch2.jobs.validate;
+
+import ca.uhn.fhir.model.api.IModelJson;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The output of a single validation work chunk
+ */
+public class BulkValidateBinaryJson implements IModelJson {
+
+	@JsonProperty("binaryId")
+	private String myBinaryId;
+
+	@JsonProperty("resourceCount")
+	private int myResourceCount;
+
+	@JsonProperty("resourcesWithIssuesCount")
+	private int myResourcesWithIssuesCount;
+
+	public BulkValidateBinaryJson() {}
+
+	/**
+	 * The ID of the NDJSON Binary holding the OperationOutcomes for this chunk, or {@literal null}
+	 * if no resource in the chunk had any issues at or above the minimum severity
+	 */
+	public String getBinaryId() {
+		return myBinaryId;
+	}
+
+	public void setBinaryId(String theBinaryId) {
+		myBinaryId = theBinaryId;
+	}
+
+	public int getResourceCount() {
+		return myResourceCount;
+	}
+
+	public void setResourceCount(int theResourceCount) {
+		myResourceCount = theResourceCount;
+	}
+
+	public int getResourcesWithIssuesCount() {
+		return myResourcesWithIssuesCount;
+	}
+
+	public void setResourcesWithIssuesCount(int theResourcesWithIssuesCount) {
+		myResourcesWithIssuesCount = theResourcesWithIssuesCount;
+	}
+}
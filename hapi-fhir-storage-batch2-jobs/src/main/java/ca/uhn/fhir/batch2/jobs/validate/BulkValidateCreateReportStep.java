@@ -0,0 +1,78 @@
+/*-
+ * #%L
+ * hapi-fhir-storage-batch2-jobs
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.batch2.jobs.validate;
+
+import ca.uhn.fhir.batch2.api.ChunkExecutionDetails;
+import ca.uhn.fhir.batch2.api.IJobDataSink;
+import ca.uhn.fhir.batch2.api.IReductionStepWorker;
+import ca.uhn.fhir.batch2.api.JobExecutionFailedException;
+import ca.uhn.fhir.batch2.api.RunOutcome;
+import ca.uhn.fhir.batch2.api.StepExecutionDetails;
+import ca.uhn.fhir.batch2.model.ChunkOutcome;
+import jakarta.annotation.Nonnull;
+import org.slf4j.Logger;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+public class BulkValidateCreateReportStep
+		implements IReductionStepWorker<BulkValidateJobParameters, BulkValidateBinaryJson, BulkValidateJobResults> {
+	private static final Logger ourLog = getLogger(BulkValidateCreateReportStep.class);
+
+	private BulkValidateJobResults myResults;
+
+	@Nonnull
+	@Override
+	public RunOutcome run(
+			@Nonnull StepExecutionDetails<BulkValidateJobParameters, BulkValidateBinaryJson> theStepExecutionDetails,
+			@Nonnull IJobDataSink<BulkValidateJobResults> theDataSink)
+			throws JobExecutionFailedException {
+		BulkValidateJobResults results = myResults != null ? myResults : new BulkValidateJobResults();
+		myResults = null;
+
+		ourLog.info(
+				"Bulk validation of {} resources complete, {} with issues - Instance[{}]",
+				results.getResourceCount(),
+				results.getResourcesWithIssuesCount(),
+				theStepExecutionDetails.getInstance().getInstanceId());
+
+		// accept saves the report
+		theDataSink.accept(results);
+		return RunOutcome.SUCCESS;
+	}
+
+	@Nonnull
+	@Override
+	public ChunkOutcome consume(
+			ChunkExecutionDetails<BulkValidateJobParameters, BulkValidateBinaryJson> theChunkDetails) {
+		BulkValidateBinaryJson data = theChunkDetails.getData();
+		if (myResults == null) {
+			myResults = new BulkValidateJobResults();
+		}
+
+		myResults.setResourceCount(myResults.getResourceCount() + data.getResourceCount());
+		myResults.setResourcesWithIssuesCount(
+				myResults.getResourcesWithIssuesCount() + data.getResourcesWithIssuesCount());
+		if (data.getBinaryId() != null) {
+			myResults.getBinaryIds().add(data.getBinaryId());
+		}
+
+		return ChunkOutcome.SUCCESS();
+	}
+}
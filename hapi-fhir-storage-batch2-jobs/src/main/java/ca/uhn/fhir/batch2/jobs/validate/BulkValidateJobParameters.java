@@ -0,0 +1,72 @@
+/*-
+ * #%L
+ * hapi-fhir-storage-batch2-jobs
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.batch2.jobs.validate;
+
+import ca.uhn.fhir.batch2.jobs.parameters.JobParameters;
+import ca.uhn.fhir.validation.ResultSeverityEnum;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.annotation.Nullable;
+
+import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
+
+public class BulkValidateJobParameters extends JobParameters {
+
+	public static final String PROFILE = "profile";
+	public static final String MINIMUM_SEVERITY = "minimumSeverity";
+	public static final String MINIMUM_SEVERITY_DEFAULT = "error";
+
+	@JsonProperty(value = PROFILE, required = false)
+	@Nullable
+	private String myProfile;
+
+	@JsonProperty(value = MINIMUM_SEVERITY, defaultValue = MINIMUM_SEVERITY_DEFAULT, required = false)
+	@Nullable
+	private String myMinimumSeverity;
+
+	/**
+	 * The profile to validate against, in addition to any profiles declared by the resources themselves
+	 */
+	@Nullable
+	public String getProfile() {
+		return myProfile;
+	}
+
+	public BulkValidateJobParameters setProfile(@Nullable String theProfile) {
+		myProfile = theProfile;
+		return this;
+	}
+
+	/**
+	 * Issues below this severity are not written to the job output
+	 */
+	public String getMinimumSeverity() {
+		return defaultIfNull(myMinimumSeverity, MINIMUM_SEVERITY_DEFAULT);
+	}
+
+	public BulkValidateJobParameters setMinimumSeverity(@Nullable String theMinimumSeverity) {
+		myMinimumSeverity = theMinimumSeverity;
+		return this;
+	}
+
+	@Nullable
+	public ResultSeverityEnum getMinimumSeverityEnum() {
+		return ResultSeverityEnum.fromCode(getMinimumSeverity());
+	}
+}
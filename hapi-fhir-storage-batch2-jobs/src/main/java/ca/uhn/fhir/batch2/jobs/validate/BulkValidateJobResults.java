@@ -0,0 +1,73 @@
+/*-
+ * #%L
+ * hapi-fhir-storage-batch2-jobs
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.batch2.jobs.validate;
+
+import ca.uhn.fhir.model.api.IModelJson;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The report of a completed bulk validation job
+ */
+public class BulkValidateJobResults implements IModelJson {
+
+	@JsonProperty("binaryIds")
+	private List<String> myBinaryIds;
+
+	@JsonProperty("resourceCount")
+	private long myResourceCount;
+
+	@JsonProperty("resourcesWithIssuesCount")
+	private long myResourcesWithIssuesCount;
+
+	public BulkValidateJobResults() {}
+
+	/**
+	 * The IDs of the NDJSON Binaries holding the OperationOutcomes of the resources with issues
+	 */
+	public List<String> getBinaryIds() {
+		if (myBinaryIds == null) {
+			myBinaryIds = new ArrayList<>();
+		}
+		return myBinaryIds;
+	}
+
+	public void setBinaryIds(List<String> theBinaryIds) {
+		myBinaryIds = theBinaryIds;
+	}
+
+	public long getResourceCount() {
+		return myResourceCount;
+	}
+
+	public void setResourceCount(long theResourceCount) {
+		myResourceCount = theResourceCount;
+	}
+
+	public long getResourcesWithIssuesCount() {
+		return myResourcesWithIssuesCount;
+	}
+
+	public void setResourcesWithIssuesCount(long theResourcesWithIssuesCount) {
+		myResourcesWithIssuesCount = theResourcesWithIssuesCount;
+	}
+}
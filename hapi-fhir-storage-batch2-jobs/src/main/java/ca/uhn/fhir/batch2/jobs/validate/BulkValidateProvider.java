@@ -0,0 +1,122 @@
+/*-
+ * #%L
+ * hapi-fhir-storage-batch2-jobs
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.batch2.jobs.validate;
+
+import ca.uhn.fhir.batch2.api.IJobCoordinator;
+import ca.uhn.fhir.batch2.api.IJobPartitionProvider;
+import ca.uhn.fhir.batch2.jobs.parameters.UrlPartitioner;
+import ca.uhn.fhir.batch2.model.JobInstanceStartRequest;
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.jpa.batch.models.Batch2JobStartResponse;
+import ca.uhn.fhir.model.api.annotation.Description;
+import ca.uhn.fhir.rest.annotation.Operation;
+import ca.uhn.fhir.rest.annotation.OperationParam;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.server.provider.ProviderConstants;
+import ca.uhn.fhir.util.ParametersUtil;
+import ca.uhn.fhir.util.UrlUtil;
+import ca.uhn.fhir.util.ValidateUtil;
+import ca.uhn.fhir.validation.ResultSeverityEnum;
+import org.apache.commons.lang3.StringUtils;
+import org.hl7.fhir.instance.model.api.IBaseParameters;
+import org.hl7.fhir.instance.model.api.IPrimitiveType;
+
+import java.util.List;
+
+import static ca.uhn.fhir.batch2.jobs.validate.BulkValidateJobParameters.MINIMUM_SEVERITY;
+import static ca.uhn.fhir.batch2.jobs.validate.BulkValidateJobParameters.PROFILE;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+public class BulkValidateProvider {
+
+	private final FhirContext myFhirContext;
+	private final IJobCoordinator myJobCoordinator;
+	private final IJobPartitionProvider myJobPartitionProvider;
+	private final UrlPartitioner myUrlPartitioner;
+
+	/**
+	 * Constructor
+	 */
+	public BulkValidateProvider(
+			FhirContext theFhirContext,
+			IJobCoordinator theJobCoordinator,
+			IJobPartitionProvider theJobPartitionProvider,
+			UrlPartitioner theUrlPartitioner) {
+		myFhirContext = theFhirContext;
+		myJobCoordinator = theJobCoordinator;
+		myJobPartitionProvider = theJobPartitionProvider;
+		myUrlPartitioner = theUrlPartitioner;
+	}
+
+	@Operation(name = ProviderConstants.OPERATION_VALIDATE_BULK, idempotent = false)
+	public IBaseParameters validateBulk(
+			@Description(
+							"Optionally provides one ore more relative search parameter URLs (e.g. \"Patient?active=true\" or \"Observation?\") that will be validated. If no URLs are provided, all resources of all types will be validated.")
+					@OperationParam(
+							name = ProviderConstants.OPERATION_VALIDATE_BULK_PARAM_URL,
+							typeName = "string",
+							min = 0,
+							max = OperationParam.MAX_UNLIMITED)
+					List<IPrimitiveType<String>> theUrlsToValidate,
+			@Description("Optionally provides the canonical URL of a profile to validate all resources against")
+					@OperationParam(name = PROFILE, typeName = "uri", min = 0, max = 1)
+					IPrimitiveType<String> theProfile,
+			@Description("The minimum severity of the issues to report (default: "
+							+ BulkValidateJobParameters.MINIMUM_SEVERITY_DEFAULT + ")")
+					@OperationParam(name = MINIMUM_SEVERITY, typeName = "code", min = 0, max = 1)
+					IPrimitiveType<String> theMinimumSeverity,
+			RequestDetails theRequestDetails) {
+
+		BulkValidateJobParameters params = new BulkValidateJobParameters();
+
+		if (theProfile != null && isNotBlank(theProfile.getValue())) {
+			params.setProfile(theProfile.getValue());
+		}
+		if (theMinimumSeverity != null && theMinimumSeverity.getValue() != null) {
+			String value = theMinimumSeverity.getValue();
+			ValidateUtil.isTrueOrThrowInvalidRequest(
+					ResultSeverityEnum.fromCode(value) != null,
+					"Invalid " + MINIMUM_SEVERITY + " value: " + UrlUtil.sanitizeUrlPart(value));
+			params.setMinimumSeverity(value);
+		}
+
+		if (theUrlsToValidate != null) {
+			theUrlsToValidate.stream()
+					.map(IPrimitiveType::getValue)
+					.filter(StringUtils::isNotBlank)
+					.map(url -> myUrlPartitioner.partitionUrl(url, theRequestDetails))
+					.forEach(params::addPartitionedUrl);
+		}
+
+		myJobPartitionProvider
+				.getPartitions(theRequestDetails, ProviderConstants.OPERATION_VALIDATE_BULK)
+				.forEach(params::addRequestPartitionId);
+
+		JobInstanceStartRequest request = new JobInstanceStartRequest();
+		request.setJobDefinitionId(BulkValidateAppCtx.JOB_BULK_VALIDATE);
+		request.setParameters(params);
+		Batch2JobStartResponse response = myJobCoordinator.startInstance(theRequestDetails, request);
+
+		IBaseParameters retVal = ParametersUtil.newInstance(myFhirContext);
+		ParametersUtil.addParameterToParametersString(
+				myFhirContext, retVal, ProviderConstants.OPERATION_BATCH_RESPONSE_JOB_ID, response.getInstanceId());
+		return retVal;
+	}
+}
@@ -0,0 +1,221 @@
+/*-
+ * #%L
+ * hapi-fhir-storage-batch2-jobs
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.batch2.jobs.validate;
+
+import ca.uhn.fhir.batch2.api.IJobDataSink;
+import ca.uhn.fhir.batch2.api.IJobStepWorker;
+import ca.uhn.fhir.batch2.api.JobExecutionFailedException;
+import ca.uhn.fhir.batch2.api.RunOutcome;
+import ca.uhn.fhir.batch2.api.StepExecutionDetails;
+import ca.uhn.fhir.batch2.jobs.chunk.ResourceIdListWorkChunkJson;
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.api.dao.DaoRegistry;
+import ca.uhn.fhir.jpa.api.dao.IFhirResourceDao;
+import ca.uhn.fhir.jpa.api.dao.IFhirSystemDao;
+import ca.uhn.fhir.jpa.api.svc.IIdHelperService;
+import ca.uhn.fhir.jpa.dao.tx.HapiTransactionService;
+import ca.uhn.fhir.jpa.model.util.JpaConstants;
+import ca.uhn.fhir.jpa.util.RandomTextUtils;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.server.SystemRequestDetails;
+import ca.uhn.fhir.rest.api.server.storage.IResourcePersistentId;
+import ca.uhn.fhir.util.BinaryUtil;
+import ca.uhn.fhir.util.ExtensionUtil;
+import ca.uhn.fhir.util.StopWatch;
+import ca.uhn.fhir.validation.FhirValidator;
+import ca.uhn.fhir.validation.IInstanceValidatorModule;
+import ca.uhn.fhir.validation.ResultSeverityEnum;
+import ca.uhn.fhir.validation.SingleValidationMessage;
+import ca.uhn.fhir.validation.ValidationOptions;
+import ca.uhn.fhir.validation.ValidationResult;
+import com.google.common.annotations.VisibleForTesting;
+import jakarta.annotation.Nonnull;
+import org.hl7.fhir.instance.model.api.IBaseBinary;
+import org.hl7.fhir.instance.model.api.IBaseHasExtensions;
+import org.hl7.fhir.instance.model.api.IBaseOperationOutcome;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Validates the resources in a single work chunk and writes an OperationOutcome for every
+ * resource with issues at or above the requested minimum severity to an NDJSON Binary.
+ * Each OperationOutcome carries an extension with the ID of the resource it applies to.
+ * The resources are loaded in a short read-only transaction, and validated outside of it
+ * so that slow terminology lookups don't hold a database connection.
+ */
+public class BulkValidateStep
+		implements IJobStepWorker<BulkValidateJobParameters, ResourceIdListWorkChunkJson, BulkValidateBinaryJson> {
+
+	private static final Logger ourLog = LoggerFactory.getLogger(BulkValidateStep.class);
+
+	@Autowired
+	private HapiTransactionService myHapiTransactionService;
+
+	@Autowired
+	private IFhirSystemDao<?, ?> mySystemDao;
+
+	@Autowired
+	private DaoRegistry myDaoRegistry;
+
+	@Autowired
+	private IIdHelperService<IResourcePersistentId> myIdHelperService;
+
+	@Autowired
+	private FhirContext myFhirContext;
+
+	@Autowired
+	private ApplicationContext myApplicationContext;
+
+	private IInstanceValidatorModule myInstanceValidator;
+
+	@Nonnull
+	@Override
+	public RunOutcome run(
+			@Nonnull StepExecutionDetails<BulkValidateJobParameters, ResourceIdListWorkChunkJson> theStepExecutionDetails,
+			@Nonnull IJobDataSink<BulkValidateBinaryJson> theDataSink)
+			throws JobExecutionFailedException {
+		ResourceIdListWorkChunkJson data = theStepExecutionDetails.getData();
+		BulkValidateJobParameters parameters = theStepExecutionDetails.getParameters();
+		String instanceId = theStepExecutionDetails.getInstance().getInstanceId();
+		String chunkId = theStepExecutionDetails.getChunkId();
+
+		StopWatch sw = new StopWatch();
+		List<IBaseResource> resources = myHapiTransactionService
+				.withSystemRequest()
+				.withRequestPartitionId(data.getRequestPartitionId())
+				.readOnly()
+				.execute(() -> loadResources(data));
+		ourLog.info("Loaded {} resources in {} - Instance[{}] Chunk[{}]", resources.size(), sw, instanceId, chunkId);
+
+		sw.restart();
+		FhirValidator validator = myFhirContext.newValidator();
+		validator.registerValidatorModule(getInstanceValidator());
+		ValidationOptions options = new ValidationOptions().addProfileIfNotBlank(parameters.getProfile());
+		ResultSeverityEnum minimumSeverity = parameters.getMinimumSeverityEnum();
+		IParser parser = myFhirContext.newJsonParser();
+
+		StringBuilder ndjson = new StringBuilder();
+		int resourcesWithIssues = 0;
+		for (IBaseResource next : resources) {
+			String resourceId = next.getIdElement().toUnqualifiedVersionless().getValue();
+			List<SingleValidationMessage> issues;
+			try {
+				issues = validator.validateWithResult(next, options).getMessages().stream()
+						.filter(t -> t.getSeverity() != null && t.getSeverity().ordinal() >= minimumSeverity.ordinal())
+						.collect(Collectors.toList());
+			} catch (Exception e) {
+				ourLog.debug("Failure validating {}", resourceId, e);
+				theDataSink.recoveredError("Failure validating " + resourceId + ": " + e.getMessage());
+				continue;
+			}
+			if (issues.isEmpty()) {
+				continue;
+			}
+
+			IBaseOperationOutcome oo = new ValidationResult(myFhirContext, issues).toOperationOutcome();
+			if (oo instanceof IBaseHasExtensions) {
+				ExtensionUtil.setExtensionAsString(
+						myFhirContext, oo, JpaConstants.BULK_VALIDATE_EXTENSION_RESOURCE_ID, resourceId);
+			}
+			ndjson.append(parser.encodeResourceToString(oo)).append('\n');
+			resourcesWithIssues++;
+		}
+
+		BulkValidateBinaryJson output = new BulkValidateBinaryJson();
+		output.setResourceCount(resources.size());
+		output.setResourcesWithIssuesCount(resourcesWithIssues);
+		if (resourcesWithIssues > 0) {
+			output.setBinaryId(writeBinary(ndjson.toString()));
+		}
+		theDataSink.accept(output);
+
+		ourLog.info(
+				"Validated {} resources in {} - {}/sec - {} with issues - Instance[{}] Chunk[{}]",
+				resources.size(),
+				sw,
+				sw.formatThroughput(resources.size(), TimeUnit.SECONDS),
+				resourcesWithIssues,
+				instanceId,
+				chunkId);
+
+		return new RunOutcome(resources.size());
+	}
+
+	private List<IBaseResource> loadResources(ResourceIdListWorkChunkJson theData) {
+		List<IResourcePersistentId> persistentIds = theData.getResourcePersistentIds(myIdHelperService);
+		mySystemDao.preFetchResources(persistentIds, false);
+
+		List<IBaseResource> retVal = new ArrayList<>(persistentIds.size());
+		for (int i = 0; i < persistentIds.size(); i++) {
+			IFhirResourceDao<?> dao = myDaoRegistry.getResourceDao(theData.getResourceType(i));
+			IBaseResource resource = dao.readByPid(persistentIds.get(i));
+			if (resource != null) {
+				retVal.add(resource);
+			}
+		}
+		return retVal;
+	}
+
+	private String writeBinary(String theNdjson) {
+		@SuppressWarnings("unchecked")
+		IFhirResourceDao<IBaseBinary> binaryDao = myDaoRegistry.getResourceDao("Binary");
+
+		IBaseBinary binary = BinaryUtil.newBinary(myFhirContext);
+		binary.setContentType(Constants.CT_FHIR_NDJSON);
+		binary.setContent(theNdjson.getBytes(StandardCharsets.UTF_8));
+
+		// Use a random ID to make it harder to guess IDs, the same way that bulk export does
+		binary.setId(RandomTextUtils.newSecureRandomAlphaNumericString(32));
+
+		SystemRequestDetails srd = new SystemRequestDetails();
+		srd.setRequestPartitionId(RequestPartitionId.defaultPartition());
+		return binaryDao.update(binary, srd).getId().toUnqualifiedVersionless().getValue();
+	}
+
+	@VisibleForTesting
+	public void setInstanceValidatorForUnitTest(IInstanceValidatorModule theInstanceValidator) {
+		myInstanceValidator = theInstanceValidator;
+	}
+
+	private IInstanceValidatorModule getInstanceValidator() {
+		if (myInstanceValidator == null) {
+			try {
+				myInstanceValidator = myApplicationContext.getBean(IInstanceValidatorModule.class);
+			} catch (Exception e) {
+				throw new JobExecutionFailedException(
+						Msg.code(2561) + "No instance validator is available for bulk validation: " + e.getMessage(),
+						e);
+			}
+		}
+		return myInstanceValidator;
+	}
+}
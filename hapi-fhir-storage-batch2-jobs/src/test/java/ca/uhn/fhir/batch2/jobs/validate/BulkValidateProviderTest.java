@@ -0,0 +1,158 @@
+package ca.uhn.fhir.batch2.jobs.validate;
+
+import ca.uhn.fhir.batch2.api.IJobCoordinator;
+import ca.uhn.fhir.batch2.api.IJobPartitionProvider;
+import ca.uhn.fhir.batch2.jobs.parameters.PartitionedUrl;
+import ca.uhn.fhir.batch2.jobs.parameters.UrlPartitioner;
+import ca.uhn.fhir.batch2.model.JobInstanceStartRequest;
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.batch.models.Batch2JobStartResponse;
+import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
+import ca.uhn.fhir.rest.server.provider.ProviderConstants;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import ca.uhn.fhir.validation.ResultSeverityEnum;
+import org.hl7.fhir.r4.model.CodeType;
+import org.hl7.fhir.r4.model.Parameters;
+import org.hl7.fhir.r4.model.StringType;
+import org.hl7.fhir.r4.model.UriType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNotNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BulkValidateProviderTest {
+	public static final String TEST_JOB_ID = "test-job-id";
+
+	@Spy
+	private final FhirContext myCtx = FhirContext.forR4Cached();
+
+	@RegisterExtension
+	private final RestfulServerExtension myServerExtension = new RestfulServerExtension(myCtx);
+
+	@Mock
+	private IJobCoordinator myJobCoordinator;
+	@Mock
+	private UrlPartitioner myUrlPartitioner;
+	@Mock
+	private IJobPartitionProvider myJobPartitionProvider;
+
+	@Captor
+	private ArgumentCaptor<JobInstanceStartRequest> myStartRequestCaptor;
+
+	@InjectMocks
+	private BulkValidateProvider mySvc;
+
+	@BeforeEach
+	public void beforeEach() {
+		myServerExtension.registerProvider(mySvc);
+	}
+
+	@AfterEach
+	public void afterEach() {
+		myServerExtension.unregisterProvider(mySvc);
+	}
+
+	@Test
+	public void testValidateBulk_ByUrl() {
+		// setup
+		String url = "Observation?status=final";
+		Parameters input = new Parameters();
+		input.addParameter(ProviderConstants.OPERATION_VALIDATE_BULK_PARAM_URL, url);
+		input.addParameter(BulkValidateJobParameters.PROFILE, new UriType("http://example.com/StructureDefinition/obs"));
+		input.addParameter(BulkValidateJobParameters.MINIMUM_SEVERITY, new CodeType("warning"));
+
+		when(myJobCoordinator.startInstance(isNotNull(), any())).thenReturn(createJobStartResponse());
+		when(myJobPartitionProvider.getPartitions(any(), any())).thenReturn(List.of(RequestPartitionId.allPartitions()));
+		when(myUrlPartitioner.partitionUrl(anyString(), any())).thenReturn(new PartitionedUrl().setUrl(url).setRequestPartitionId(RequestPartitionId.defaultPartition()));
+
+		// Execute
+		Parameters response = myServerExtension
+			.getFhirClient()
+			.operation()
+			.onServer()
+			.named(ProviderConstants.OPERATION_VALIDATE_BULK)
+			.withParameters(input)
+			.execute();
+
+		// Verify
+		StringType jobId = (StringType) response.getParameterValue(ProviderConstants.OPERATION_BATCH_RESPONSE_JOB_ID);
+		assertEquals(TEST_JOB_ID, jobId.getValue());
+
+		verify(myJobCoordinator, times(1)).startInstance(isNotNull(), myStartRequestCaptor.capture());
+		assertEquals(BulkValidateAppCtx.JOB_BULK_VALIDATE, myStartRequestCaptor.getValue().getJobDefinitionId());
+		BulkValidateJobParameters params = myStartRequestCaptor.getValue().getParameters(BulkValidateJobParameters.class);
+		assertThat(params.getPartitionedUrls()).hasSize(1);
+		assertEquals(url, params.getPartitionedUrls().get(0).getUrl());
+		assertEquals("http://example.com/StructureDefinition/obs", params.getProfile());
+		assertEquals(ResultSeverityEnum.WARNING, params.getMinimumSeverityEnum());
+	}
+
+	@Test
+	public void testValidateBulk_NoUrl() {
+		// setup
+		when(myJobCoordinator.startInstance(isNotNull(), any())).thenReturn(createJobStartResponse());
+		when(myJobPartitionProvider.getPartitions(any(), any())).thenReturn(List.of(RequestPartitionId.allPartitions()));
+
+		// Execute
+		myServerExtension
+			.getFhirClient()
+			.operation()
+			.onServer()
+			.named(ProviderConstants.OPERATION_VALIDATE_BULK)
+			.withNoParameters(Parameters.class)
+			.execute();
+
+		// Verify
+		verify(myJobCoordinator, times(1)).startInstance(isNotNull(), myStartRequestCaptor.capture());
+		BulkValidateJobParameters params = myStartRequestCaptor.getValue().getParameters(BulkValidateJobParameters.class);
+		assertThat(params.getPartitionedUrls()).isEmpty();
+		assertNull(params.getProfile());
+		assertEquals(ResultSeverityEnum.ERROR, params.getMinimumSeverityEnum());
+	}
+
+	@Test
+	public void testValidateBulk_InvalidSeverity() {
+		Parameters input = new Parameters();
+		input.addParameter(BulkValidateJobParameters.MINIMUM_SEVERITY, new CodeType("bogus"));
+
+		assertThatThrownBy(() -> myServerExtension
+			.getFhirClient()
+			.operation()
+			.onServer()
+			.named(ProviderConstants.OPERATION_VALIDATE_BULK)
+			.withParameters(input)
+			.execute())
+			.isInstanceOf(InvalidRequestException.class)
+			.hasMessageContaining("Invalid minimumSeverity value: bogus");
+		verify(myJobCoordinator, never()).startInstance(any(), any());
+	}
+
+	private Batch2JobStartResponse createJobStartResponse() {
+		Batch2JobStartResponse response = new Batch2JobStartResponse();
+		response.setInstanceId(TEST_JOB_ID);
+		return response;
+	}
+}
@@ -38,15 +38,21 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -241,6 +247,108 @@ public interface IWorkChunkStateTransitions extends IWorkChunkCommon, WorkChunkT
 		latch.awaitExpected();
 	}
 
+	@Test
+	default void enqueueWorkChunksForProcessing_enqueuesOnlyREADYChunks() {
+		// setup
+		getTestManager().disableWorkChunkMessageHandler();
+
+		StringBuilder sb = new StringBuilder();
+		// first step is always complete
+		sb.append("1|COMPLETED");
+		for (WorkChunkStatusEnum status : WorkChunkStatusEnum.values()) {
+			// second step for all other workchunks
+			sb.append("\n2|").append(status.name());
+		}
+		JobDefinition<?> jobDef = getTestManager().withJobDefinition(false);
+		String instanceId = getTestManager().createAndStoreJobInstance(jobDef);
+		JobMaintenanceStateInformation stateInformation = new JobMaintenanceStateInformation(
+			instanceId,
+			jobDef,
+			sb.toString()
+		);
+		getTestManager().createChunksInStates(stateInformation);
+
+		List<String> chunkIds = stateInformation.getInitialWorkChunks().stream().map(WorkChunk::getId).toList();
+		Set<String> expectedChunkIds = stateInformation.getInitialWorkChunks()
+			.stream()
+			.filter(t -> t.getStatus() == WorkChunkStatusEnum.READY)
+			.map(WorkChunk::getId)
+			.collect(Collectors.toSet());
+
+		// test
+		List<Set<String>> enqueued = new ArrayList<>();
+		getTestManager().getSvc().enqueueWorkChunksForProcessing(chunkIds, enqueued::add);
+
+		// verify - only the READY chunk was moved to QUEUED
+		assertThat(enqueued).hasSize(1);
+		assertEquals(expectedChunkIds, enqueued.get(0));
+		for (String chunkId : expectedChunkIds) {
+			assertEquals(WorkChunkStatusEnum.QUEUED, getTestManager().freshFetchWorkChunk(chunkId).getStatus());
+		}
+
+		// a second attempt finds nothing left to enqueue
+		getTestManager().getSvc().enqueueWorkChunksForProcessing(chunkIds, enqueued::add);
+		assertThat(enqueued.get(1)).isEmpty();
+	}
+
+	@Test
+	default void enqueueWorkChunksForProcessing_skipsChunksLockedByAnotherTransaction() throws InterruptedException, ExecutionException, TimeoutException {
+		// setup
+		getTestManager().disableWorkChunkMessageHandler();
+		JobDefinition<?> jobDef = getTestManager().withJobDefinition(false);
+		String instanceId = getTestManager().createAndStoreJobInstance(jobDef);
+		JobMaintenanceStateInformation stateInformation = new JobMaintenanceStateInformation(
+			instanceId,
+			jobDef,
+			"""
+				1|COMPLETED
+				2|READY
+				2|READY
+			"""
+		);
+		getTestManager().createChunksInStates(stateInformation);
+		List<String> chunkIds = stateInformation.getInitialWorkChunks()
+			.stream()
+			.filter(t -> t.getStatus() == WorkChunkStatusEnum.READY)
+			.map(WorkChunk::getId)
+			.toList();
+		String lockedChunkId = chunkIds.get(0);
+		String otherChunkId = chunkIds.get(1);
+
+		CountDownLatch lockedLatch = new CountDownLatch(1);
+		CountDownLatch releaseLatch = new CountDownLatch(1);
+		ExecutorService workerThreads = Executors.newFixedThreadPool(2, new BasicThreadFactory.Builder().namingPattern("Enqueue-locked-%d").build());
+		try {
+			// thread 1 - enqueue the first chunk, and hold its row lock by not committing yet
+			Future<?> lockingResult = workerThreads.submit(() -> getTestManager().getSvc().enqueueWorkChunkForProcessing(lockedChunkId, updated -> {
+				lockedLatch.countDown();
+				try {
+					assertTrue(releaseLatch.await(10, TimeUnit.SECONDS));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}));
+			assertTrue(lockedLatch.await(10, TimeUnit.SECONDS));
+
+			// test - thread 2 enqueues both chunks while the first one is locked
+			List<Set<String>> enqueued = new ArrayList<>();
+			Future<?> batchResult = workerThreads.submit(() -> getTestManager().getSvc().enqueueWorkChunksForProcessing(chunkIds, enqueued::add));
+			batchResult.get(10, TimeUnit.SECONDS);
+
+			// verify - the locked chunk was skipped rather than waited for
+			assertThat(enqueued).hasSize(1);
+			assertEquals(Set.of(otherChunkId), enqueued.get(0));
+
+			releaseLatch.countDown();
+			lockingResult.get(10, TimeUnit.SECONDS);
+			assertEquals(WorkChunkStatusEnum.QUEUED, getTestManager().freshFetchWorkChunk(lockedChunkId).getStatus());
+			assertEquals(WorkChunkStatusEnum.QUEUED, getTestManager().freshFetchWorkChunk(otherChunkId).getStatus());
+		} finally {
+			releaseLatch.countDown();
+			workerThreads.shutdownNow();
+		}
+	}
+
 	/**
 	 * Nasty test for a nasty bug.
 	 * We use the transactional-outbox pattern to guarantee at-least-once delivery to the kafka queue by sending to
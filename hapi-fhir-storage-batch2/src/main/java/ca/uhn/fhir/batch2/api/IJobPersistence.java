@@ -38,6 +38,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
@@ -93,6 +94,34 @@ public interface IJobPersistence extends IWorkChunkPersistence {
 	@Transactional(propagation = Propagation.REQUIRES_NEW)
 	void enqueueWorkChunkForProcessing(String theChunkId, Consumer<Integer> theCallback);
 
+	/**
+	 * Moves a batch of work chunks from READY to QUEUED. Chunks which are no longer READY, or which
+	 * are locked by another transaction, are skipped. The callback is invoked with the IDs of the
+	 * chunks which were moved before the transaction which moved them commits, so that they can be
+	 * sent to the work channel using the same transactional-outbox approach as
+	 * {@link #enqueueWorkChunkForProcessing(String, Consumer)}.
+	 * <p>
+	 * The default implementation moves each chunk in its own transaction using
+	 * {@link #enqueueWorkChunkForProcessing(String, Consumer)}, and so invokes the callback once
+	 * for each chunk which was moved. Implementations which move the whole batch in a single
+	 * transaction invoke the callback once.
+	 * </p>
+	 *
+	 * @param theChunkIds The chunk IDs. Callers should keep this to at most a few hundred IDs.
+	 * @param theCallback Invoked with the IDs of the chunks which were moved to QUEUED
+	 * @since 7.6.0
+	 */
+	// on implementations @Transactional(propagation = Propagation.REQUIRES_NEW)
+	default void enqueueWorkChunksForProcessing(Collection<String> theChunkIds, Consumer<Set<String>> theCallback) {
+		for (String chunkId : theChunkIds) {
+			enqueueWorkChunkForProcessing(chunkId, updated -> {
+				if (updated == 1) {
+					theCallback.accept(Set.of(chunkId));
+				}
+			});
+		}
+	}
+
 	/**
 	 * Updates all Work Chunks in POLL_WAITING if their nextPollTime <= now
 	 * for the given Job Instance.
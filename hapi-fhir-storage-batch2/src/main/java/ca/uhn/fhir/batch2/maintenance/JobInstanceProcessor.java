@@ -41,6 +41,8 @@ import org.slf4j.Logger;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
@@ -52,6 +54,8 @@ public class JobInstanceProcessor {
 
 	// 10k; we want to get as many as we can
 	private static final int WORK_CHUNK_METADATA_BATCH_SIZE = 10000;
+	// must divide WORK_CHUNK_METADATA_BATCH_SIZE so that each page is fully enqueued before the next is fetched
+	private static final int ENQUEUE_BATCH_SIZE = 100;
 	private final IJobPersistence myJobPersistence;
 	private final BatchJobSender myBatchJobSender;
 	private final JobChunkProgressAccumulator myProgressAccumulator;
@@ -295,18 +299,25 @@ public class JobInstanceProcessor {
 		Iterator<WorkChunkMetadata> iter = getReadyChunks();
 
 		int counter = 0;
+		List<WorkChunkMetadata> batch = new ArrayList<>(ENQUEUE_BATCH_SIZE);
 		while (iter.hasNext()) {
-			WorkChunkMetadata metadata = iter.next();
+			batch.add(iter.next());
+			counter++;
 
 			/*
-			 * For each chunk id
+			 * For each batch of chunks
 			 * * Move to QUEUE'd
 			 * * Send to topic
 			 * * flush changes
 			 * * commit
 			 */
-			updateChunkAndSendToQueue(metadata);
-			counter++;
+			if (batch.size() >= ENQUEUE_BATCH_SIZE) {
+				updateChunksAndSendToQueue(batch);
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			updateChunksAndSendToQueue(batch);
 		}
 		ourLog.debug(
 				"Encountered {} READY work chunks for job {} of type {}",
@@ -316,31 +327,37 @@ public class JobInstanceProcessor {
 	}
 
 	/**
-	 * Updates the Work Chunk and sends it to the queue.
+	 * Updates a batch of Work Chunks and sends them to the queue. Each chunk is sent
+	 * before the transaction which moved it to QUEUED commits.
 	 *
 	 * Because ReductionSteps are done inline by the maintenance pass,
 	 * those will not be sent to the queue (but they will still have their
 	 * status updated from READY -> QUEUED).
-	 *
-	 * Returns true after processing.
 	 */
-	private void updateChunkAndSendToQueue(WorkChunkMetadata theChunk) {
-		String chunkId = theChunk.getId();
-		myJobPersistence.enqueueWorkChunkForProcessing(chunkId, updated -> {
-			ourLog.info("Updated {} workchunk with id {}", updated, chunkId);
-			if (updated == 1) {
-				sendNotification(theChunk);
-			} else {
-				// means the work chunk is likely already gone...
-				// we'll log and skip it. If it's still in the DB, the next pass
-				// will pick it up. Otherwise, it's no longer important
-				ourLog.error(
-						"Job Instance {} failed to transition work chunk with id {} from READY to QUEUED; found {}, expected 1; skipping work chunk.",
-						theChunk.getInstanceId(),
-						theChunk.getId(),
-						updated);
+	private void updateChunksAndSendToQueue(List<WorkChunkMetadata> theChunks) {
+		List<String> chunkIds = theChunks.stream().map(WorkChunkMetadata::getId).toList();
+		Set<String> allEnqueuedChunkIds = new HashSet<>();
+		myJobPersistence.enqueueWorkChunksForProcessing(chunkIds, enqueuedChunkIds -> {
+			allEnqueuedChunkIds.addAll(enqueuedChunkIds);
+			for (WorkChunkMetadata chunk : theChunks) {
+				if (enqueuedChunkIds.contains(chunk.getId())) {
+					sendNotification(chunk);
+				}
 			}
 		});
+		ourLog.info("Updated {} of {} workchunks to QUEUED", allEnqueuedChunkIds.size(), chunkIds.size());
+
+		for (WorkChunkMetadata chunk : theChunks) {
+			if (!allEnqueuedChunkIds.contains(chunk.getId())) {
+				// means the work chunk is likely already gone, or is being enqueued by
+				// someone else. we'll log and skip it. If it's still READY in the DB,
+				// the next pass will pick it up. Otherwise, it's no longer important
+				ourLog.error(
+						"Job Instance {} failed to transition work chunk with id {} from READY to QUEUED; skipping work chunk.",
+						chunk.getInstanceId(),
+						chunk.getId());
+			}
+		}
 	}
 
 	private void sendNotification(WorkChunkMetadata theChunk) {
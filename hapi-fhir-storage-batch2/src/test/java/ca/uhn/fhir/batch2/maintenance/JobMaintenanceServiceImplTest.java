@@ -44,8 +44,10 @@ import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -200,6 +202,15 @@ public class JobMaintenanceServiceImplTest extends BaseBatch2Test {
 		verifyNoMoreInteractions(myJobPersistence);
 	}
 
+	private void stubEnqueueWorkChunksForProcessing(boolean theEnqueueAll) {
+		doAnswer(args -> {
+			Collection<String> chunkIds = args.getArgument(0);
+			Consumer<Set<String>> callback = args.getArgument(1);
+			callback.accept(theEnqueueAll ? new HashSet<>(chunkIds) : Set.of());
+			return null;
+		}).when(myJobPersistence).enqueueWorkChunksForProcessing(any(), any());
+	}
+
 	private void stubUpdateInstanceCallback(JobInstance theJobInstance) {
 		when(myJobPersistence.updateInstance(eq(INSTANCE_ID), any())).thenAnswer(call->{
 			IJobPersistence.JobInstanceUpdateCallback callback = call.getArgument(1);
@@ -270,11 +281,7 @@ public class JobMaintenanceServiceImplTest extends BaseBatch2Test {
 				// new page every time (called more than once)
 				return getPageOfData(new ArrayList<>(chunks));
 			});
-		doAnswer(a -> {
-			Consumer<Integer> callback = a.getArgument(1);
-			callback.accept(1);
-			return null;
-		}).when(myJobPersistence).enqueueWorkChunkForProcessing(anyString(), any());
+		stubEnqueueWorkChunksForProcessing(true);
 		stubUpdateInstanceCallback(instance1);
 
 		// Execute
@@ -434,7 +441,7 @@ public class JobMaintenanceServiceImplTest extends BaseBatch2Test {
 
 		// verify never updated (should remain in ready state)
 		verify(myJobPersistence, never()).fetchAllWorkChunkMetadataForJobInStates(any(), anyString(), any());
-		verify(myJobPersistence, never()).enqueueWorkChunkForProcessing(anyString(), any());
+		verify(myJobPersistence, never()).enqueueWorkChunksForProcessing(any(), any());
 		verify(myWorkChannelProducer, never()).send(any());
 		verify(myReductionStepExecutorService)
 			.triggerReductionStep(anyString(), any());
@@ -449,11 +456,7 @@ public class JobMaintenanceServiceImplTest extends BaseBatch2Test {
 		);
 
 		// when
-		doAnswer(args -> {
-			Consumer<Integer> consumer = args.getArgument(1);
-			consumer.accept(1);
-			return 1;
-		}).when(myJobPersistence).enqueueWorkChunkForProcessing(anyString(), any());
+		stubEnqueueWorkChunksForProcessing(true);
 
 		Page<WorkChunkMetadata> page = getPageOfData(chunks);
 		when(myJobPersistence.fetchAllWorkChunkMetadataForJobInStates(any(Pageable.class), eq(INSTANCE_ID), any())).thenReturn(page);
@@ -461,8 +464,8 @@ public class JobMaintenanceServiceImplTest extends BaseBatch2Test {
 		// test
 		runEnqueueReadyChunksTest(chunks, createJobDefinition());
 
-		// verify
-		verify(myJobPersistence, times(2)).enqueueWorkChunkForProcessing(anyString(), any());
+		// verify - both chunks are enqueued in a single batch
+		verify(myJobPersistence, times(1)).enqueueWorkChunksForProcessing(eq(List.of(CHUNK_ID, CHUNK_ID)), any());
 		verify(myWorkChannelProducer, times(2)).send(myMessageCaptor.capture());
 		List<Message<JobWorkNotification>> sentMessages = myMessageCaptor.getAllValues();
 		for (Message<JobWorkNotification> msg : sentMessages) {
@@ -485,11 +488,7 @@ public class JobMaintenanceServiceImplTest extends BaseBatch2Test {
 		myLogCapture.setUp(Level.ERROR);
 
 		// when
-		doAnswer(args -> {
-			Consumer<Integer> consumer = args.getArgument(1);
-			consumer.accept(0); // nothing processed
-			return 1;
-		}).when(myJobPersistence).enqueueWorkChunkForProcessing(anyString(), any());
+		stubEnqueueWorkChunksForProcessing(false); // nothing processed
 		doAnswer(args -> {
 			IJobPersistence.JobInstanceUpdateCallback callback = args.getArgument(1);
 
@@ -506,7 +505,7 @@ public class JobMaintenanceServiceImplTest extends BaseBatch2Test {
 		runEnqueueReadyChunksTest(chunks, createJobDefinitionWithReduction());
 
 		// verify
-		verify(myJobPersistence, times(2)).enqueueWorkChunkForProcessing(anyString(), any());
+		verify(myJobPersistence, times(1)).enqueueWorkChunksForProcessing(any(), any());
 		verify(myWorkChannelProducer, never()).send(any());
 
 		List<ILoggingEvent> events = myLogCapture.getLogEvents();
@@ -29,17 +29,21 @@ import ca.uhn.fhir.batch2.jobs.chunk.ResourceIdListWorkChunkJson;
 import ca.uhn.fhir.jpa.api.dao.DaoRegistry;
 import ca.uhn.fhir.jpa.api.dao.IFhirResourceDao;
 import ca.uhn.fhir.jpa.api.svc.IIdHelperService;
+import ca.uhn.fhir.jpa.dao.ISearchBuilder;
+import ca.uhn.fhir.jpa.dao.SearchBuilderFactory;
+import ca.uhn.fhir.jpa.dao.tx.IHapiTransactionService;
 import ca.uhn.fhir.mdm.api.IMdmChannelSubmitterSvc;
 import ca.uhn.fhir.rest.api.server.storage.IResourcePersistentId;
-import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
 import ca.uhn.fhir.rest.server.interceptor.ResponseTerminologyTranslationSvc;
 import ca.uhn.fhir.util.Logs;
+import com.google.common.collect.ArrayListMultimap;
 import jakarta.annotation.Nonnull;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class MdmInflateAndSubmitResourcesStep
@@ -58,6 +62,12 @@ public class MdmInflateAndSubmitResourcesStep
 	@Autowired
 	private IIdHelperService<? extends IResourcePersistentId> myIdHelperService;
 
+	@Autowired
+	private SearchBuilderFactory mySearchBuilderFactory;
+
+	@Autowired
+	private IHapiTransactionService myTransactionService;
+
 	@Nonnull
 	@Override
 	public RunOutcome run(
@@ -88,17 +98,38 @@ public class MdmInflateAndSubmitResourcesStep
 		return new RunOutcome(allResources.size());
 	}
 
+	/**
+	 * Loads the resources for a work chunk using one batched load per resource type, instead
+	 * of reading each resource individually.
+	 */
+	@SuppressWarnings("unchecked")
 	private List<IBaseResource> fetchAllResources(List<? extends IResourcePersistentId> theIds) {
-		List<IBaseResource> resources = new ArrayList<>();
+		ArrayListMultimap<String, IResourcePersistentId> typeToPids = ArrayListMultimap.create();
 		for (IResourcePersistentId id : theIds) {
 			assert id.getResourceType() != null;
-			IFhirResourceDao<?> dao = myDaoRegistry.getResourceDao(id.getResourceType());
-			// This should be a query, but we have PIDs, and we don't have a _pid search param. TODO GGG, figure out how
-			// to make this search by pid.
-			try {
-				resources.add(dao.readByPid(id));
-			} catch (ResourceNotFoundException e) {
-				ourLog.warn("While attempging to send [{}] to the MDM queue, the resource was not found.", id);
+			typeToPids.put(id.getResourceType(), id);
+		}
+
+		List<IBaseResource> resources = new ArrayList<>(theIds.size());
+		for (String resourceType : typeToPids.keySet()) {
+			IFhirResourceDao<?> dao = myDaoRegistry.getResourceDao(resourceType);
+			List<IResourcePersistentId> pids = typeToPids.get(resourceType);
+
+			List<IBaseResource> loaded = new ArrayList<>(pids.size());
+			myTransactionService.withSystemRequest().execute(() -> {
+				ISearchBuilder searchBuilder =
+						mySearchBuilderFactory.newSearchBuilder(dao, resourceType, dao.getResourceType());
+				searchBuilder.loadResourcesByPid(pids, Collections.emptyList(), loaded, false, null);
+			});
+
+			for (int i = 0; i < loaded.size(); i++) {
+				IBaseResource next = loaded.get(i);
+				if (next != null) {
+					resources.add(next);
+				} else {
+					ourLog.warn(
+							"While attempting to send [{}] to the MDM queue, the resource was not found.", pids.get(i));
+				}
 			}
 		}
 		return resources;
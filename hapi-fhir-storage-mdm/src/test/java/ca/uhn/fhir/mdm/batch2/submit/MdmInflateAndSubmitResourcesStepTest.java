@@ -0,0 +1,151 @@
+package ca.uhn.fhir.mdm.batch2.submit;
+
+import ca.uhn.fhir.batch2.api.IJobDataSink;
+import ca.uhn.fhir.batch2.api.RunOutcome;
+import ca.uhn.fhir.batch2.api.StepExecutionDetails;
+import ca.uhn.fhir.batch2.api.VoidModel;
+import ca.uhn.fhir.batch2.jobs.chunk.ResourceIdListWorkChunkJson;
+import ca.uhn.fhir.batch2.jobs.chunk.TypedPidJson;
+import ca.uhn.fhir.batch2.model.JobInstance;
+import ca.uhn.fhir.batch2.model.WorkChunk;
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.api.dao.DaoRegistry;
+import ca.uhn.fhir.jpa.api.dao.IFhirResourceDao;
+import ca.uhn.fhir.jpa.api.svc.IIdHelperService;
+import ca.uhn.fhir.jpa.dao.ISearchBuilder;
+import ca.uhn.fhir.jpa.dao.SearchBuilderFactory;
+import ca.uhn.fhir.jpa.dao.tx.IHapiTransactionService;
+import ca.uhn.fhir.jpa.dao.tx.NonTransactionalHapiTransactionService;
+import ca.uhn.fhir.jpa.model.dao.JpaPid;
+import ca.uhn.fhir.mdm.api.IMdmChannelSubmitterSvc;
+import ca.uhn.fhir.util.Logs;
+import ca.uhn.test.util.LogbackTestExtension;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MdmInflateAndSubmitResourcesStepTest {
+
+	@RegisterExtension
+	LogbackTestExtension myLogCapture = new LogbackTestExtension(Logs.getBatchTroubleshootingLog());
+
+	@Mock
+	private DaoRegistry myDaoRegistry;
+
+	@Mock
+	private IMdmChannelSubmitterSvc myMdmChannelSubmitterSvc;
+
+	@Mock
+	private IIdHelperService<JpaPid> myIdHelperService;
+
+	@Mock
+	private SearchBuilderFactory<JpaPid> mySearchBuilderFactory;
+
+	@Mock
+	private ISearchBuilder<JpaPid> myPatientSearchBuilder;
+
+	@Mock
+	private ISearchBuilder<JpaPid> myObservationSearchBuilder;
+
+	@Spy
+	private IHapiTransactionService myTransactionService = new NonTransactionalHapiTransactionService();
+
+	@InjectMocks
+	private MdmInflateAndSubmitResourcesStep myStep;
+
+	@Test
+	public void testRun_MixedResourceTypesAndMissingResource() {
+		// setup
+		when(myIdHelperService.newPidFromStringIdAndResourceName(anyString(), anyString()))
+			.thenAnswer(t -> JpaPid.fromIdAndResourceType(Long.parseLong(t.getArgument(0)), t.getArgument(1)));
+
+		IFhirResourceDao<?> patientDao = mock(IFhirResourceDao.class);
+		IFhirResourceDao<?> observationDao = mock(IFhirResourceDao.class);
+		when(myDaoRegistry.getResourceDao("Patient")).thenAnswer(t -> patientDao);
+		when(myDaoRegistry.getResourceDao("Observation")).thenAnswer(t -> observationDao);
+		when(mySearchBuilderFactory.newSearchBuilder(eq(patientDao), eq("Patient"), any())).thenReturn(myPatientSearchBuilder);
+		when(mySearchBuilderFactory.newSearchBuilder(eq(observationDao), eq("Observation"), any())).thenReturn(myObservationSearchBuilder);
+
+		Patient patient = new Patient();
+		patient.setId("Patient/1");
+		Observation observation = new Observation();
+		observation.setId("Observation/3");
+		// Patient/2 no longer exists, so the search builder leaves a null in its position
+		stubLoadResourcesByPid(myPatientSearchBuilder, patient, null);
+		stubLoadResourcesByPid(myObservationSearchBuilder, observation);
+
+		ResourceIdListWorkChunkJson data = new ResourceIdListWorkChunkJson(List.of(
+			new TypedPidJson("Patient", "1"),
+			new TypedPidJson("Observation", "3"),
+			new TypedPidJson("Patient", "2")
+		), RequestPartitionId.allPartitions());
+		JobInstance instance = new JobInstance();
+		instance.setInstanceId("instance-id");
+		StepExecutionDetails<MdmSubmitJobParameters, ResourceIdListWorkChunkJson> details = new StepExecutionDetails<>(
+			new MdmSubmitJobParameters(),
+			data,
+			instance,
+			new WorkChunk().setId("chunk-id")
+		);
+		@SuppressWarnings("unchecked")
+		IJobDataSink<VoidModel> sink = mock(IJobDataSink.class);
+
+		// test
+		RunOutcome outcome = myStep.run(details, sink);
+
+		// verify - one load per resource type
+		assertEquals(2, outcome.getRecordsProcessed());
+		ArgumentCaptor<Collection<JpaPid>> patientPidCaptor = ArgumentCaptor.forClass(Collection.class);
+		verify(myPatientSearchBuilder, times(1)).loadResourcesByPid(patientPidCaptor.capture(), any(), any(), anyBoolean(), any());
+		assertThat(patientPidCaptor.getValue()).extracting(JpaPid::getId).containsExactly(1L, 2L);
+		ArgumentCaptor<Collection<JpaPid>> observationPidCaptor = ArgumentCaptor.forClass(Collection.class);
+		verify(myObservationSearchBuilder, times(1)).loadResourcesByPid(observationPidCaptor.capture(), any(), any(), anyBoolean(), any());
+		assertThat(observationPidCaptor.getValue()).extracting(JpaPid::getId).containsExactly(3L);
+
+		// verify - the resources which were found are submitted, the missing one is logged
+		ArgumentCaptor<IBaseResource> resourceCaptor = ArgumentCaptor.forClass(IBaseResource.class);
+		verify(myMdmChannelSubmitterSvc, times(2)).submitResourceToMdmChannel(resourceCaptor.capture());
+		assertThat(resourceCaptor.getAllValues()).containsExactlyInAnyOrder(patient, observation);
+		List<String> warnings = myLogCapture.getLogEvents(t -> t.getLevel() == Level.WARN)
+			.stream()
+			.map(ILoggingEvent::getFormattedMessage)
+			.toList();
+		assertThat(warnings).containsExactly("While attempting to send [2] to the MDM queue, the resource was not found.");
+	}
+
+	private static void stubLoadResourcesByPid(ISearchBuilder<JpaPid> theSearchBuilder, IBaseResource... theResources) {
+		doAnswer(t -> {
+			List<IBaseResource> resourceListToPopulate = t.getArgument(2);
+			resourceListToPopulate.addAll(Arrays.asList(theResources));
+			return null;
+		}).when(theSearchBuilder).loadResourcesByPid(any(), any(), any(), anyBoolean(), any());
+	}
+
+}
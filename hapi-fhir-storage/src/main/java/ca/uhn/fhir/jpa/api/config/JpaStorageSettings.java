@@ -368,6 +368,21 @@ public class JpaStorageSettings extends StorageSettings {
 	 */
 	private boolean myWriteToLegacyLobColumns = false;
 
+	/**
+	 * @since 7.6.0
+	 */
+	private boolean myKeysetPagingEnabled = false;
+
+	/**
+	 * @since 7.6.0
+	 */
+	private String mySearchResultCacheDirectory;
+
+	/**
+	 * @since 7.6.0
+	 */
+	private String myValidationCacheDirectory;
+
 	/**
 	 * Constructor
 	 */
@@ -2489,6 +2504,93 @@ public class JpaStorageSettings extends StorageSettings {
 		myWriteToLegacyLobColumns = theWriteToLegacyLobColumns;
 	}
 
+	/**
+	 * If enabled (default is {@literal false}), searches which are sorted only by
+	 * {@literal _lastUpdated} or {@literal _id} are paged using keyset (also known as "seek")
+	 * pagination. Instead of collecting every matching resource ID into the search result
+	 * table and serving pages using an offset into that table, each page link carries the
+	 * sort key of the last resource on the page, and the next page is fetched by re-running
+	 * the query starting after that key. This means that fetching a deep page costs the
+	 * same as fetching the first page, and the search result table is not populated for
+	 * these searches.
+	 * <p>
+	 * Keyset pages can only be navigated forward (no <code>previous</code> link is
+	 * returned), and searches requesting an accurate total, searches using full-text
+	 * indexing, and <code>$everything</code> operations are never paged this way.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	public boolean isKeysetPagingEnabled() {
+		return myKeysetPagingEnabled;
+	}
+
+	/**
+	 * If enabled (default is {@literal false}), searches which are sorted only by
+	 * {@literal _lastUpdated} or {@literal _id} are paged using keyset (also known as "seek")
+	 * pagination. See {@link #isKeysetPagingEnabled()} for details.
+	 *
+	 * @since 7.6.0
+	 */
+	public void setKeysetPagingEnabled(boolean theKeysetPagingEnabled) {
+		myKeysetPagingEnabled = theKeysetPagingEnabled;
+	}
+
+	/**
+	 * If set (default is {@literal null}), the result PIDs of searches are stored in segment
+	 * files in the given local directory instead of in the HFJ_SEARCH_RESULT table, which
+	 * takes the database out of the paging path for large searches. Searches themselves are
+	 * still stored in the HFJ_SEARCH table.
+	 * <p>
+	 * Because the segment files are local to each server node, a search is only reused by the
+	 * node which executed it, and a paging request which arrives at another node causes the
+	 * search to be executed again on that node. Servers running more than one node should
+	 * route paging requests for a given search to the node which executed it.
+	 * This setting is read when the application context starts, so it must be set before that.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	public String getSearchResultCacheDirectory() {
+		return mySearchResultCacheDirectory;
+	}
+
+	/**
+	 * If set (default is {@literal null}), the result PIDs of searches are stored in segment
+	 * files in the given local directory instead of in the HFJ_SEARCH_RESULT table. See
+	 * {@link #getSearchResultCacheDirectory()} for details.
+	 *
+	 * @since 7.6.0
+	 */
+	public void setSearchResultCacheDirectory(String theSearchResultCacheDirectory) {
+		mySearchResultCacheDirectory = theSearchResultCacheDirectory;
+	}
+
+	/**
+	 * If set (default is {@literal null}), validate-code and ValueSet expansion results cached by
+	 * the validation support chain are also stored in a memory-mapped file in the given local
+	 * directory, so that they survive a restart of the server instead of having to be
+	 * recalculated while the in-memory caches warm up. The file is cleared whenever the
+	 * validation caches are invalidated, e.g. because a ValueSet has been pre-expanded.
+	 * This setting is read when the application context starts, so it must be set before that.
+	 *
+	 * @since 7.6.0
+	 */
+	public String getValidationCacheDirectory() {
+		return myValidationCacheDirectory;
+	}
+
+	/**
+	 * If set (default is {@literal null}), validate-code and ValueSet expansion results cached by
+	 * the validation support chain are also stored in a memory-mapped file in the given local
+	 * directory. See {@link #getValidationCacheDirectory()} for details.
+	 *
+	 * @since 7.6.0
+	 */
+	public void setValidationCacheDirectory(String theValidationCacheDirectory) {
+		myValidationCacheDirectory = theValidationCacheDirectory;
+	}
+
 	/**
 	 * This setting controls whether MdmLink and other non-resource DB history is enabled.
 	 * <p/>
@@ -22,6 +22,7 @@ package ca.uhn.fhir.jpa.dao;
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.interceptor.model.RequestPartitionId;
 import ca.uhn.fhir.jpa.model.search.SearchBuilderLoadIncludesParameters;
+import ca.uhn.fhir.jpa.model.search.SearchKeysetPosition;
 import ca.uhn.fhir.jpa.model.search.SearchRuntimeDetails;
 import ca.uhn.fhir.jpa.searchparam.SearchParameterMap;
 import ca.uhn.fhir.model.api.Include;
@@ -127,4 +128,13 @@ public interface ISearchBuilder<T extends IResourcePersistentId<?>> {
 	void setFetchSize(int theFetchSize);
 
 	void setPreviouslyAddedResourcePids(List<T> thePreviouslyAddedResourcePids);
+
+	/**
+	 * Requests keyset (seek) paging for a search sorted by <code>_lastUpdated</code> or
+	 * <code>_id</code>. Results are ordered by the sort parameter and then by resource PID, and
+	 * only results sorting after the given position are returned.
+	 *
+	 * @since 7.6.0
+	 */
+	void setKeysetPosition(SearchKeysetPosition thePosition);
 }
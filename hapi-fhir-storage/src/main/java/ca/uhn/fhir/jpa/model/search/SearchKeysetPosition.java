@@ -0,0 +1,94 @@
+/*-
+ * #%L
+ * HAPI FHIR Storage api
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.model.search;
+
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * The position within a keyset (seek) paged search. A search using a position
+ * returns only results which sort after the given sort value and resource PID,
+ * where the resource PID is used to break ties between resources sharing the
+ * same sort value.
+ *
+ * @see ca.uhn.fhir.jpa.dao.ISearchBuilder#setKeysetPosition(SearchKeysetPosition)
+ * @since 7.6.0
+ */
+public class SearchKeysetPosition {
+
+	private static final SearchKeysetPosition FIRST_PAGE = new SearchKeysetPosition(null, null);
+
+	private final Object mySortValue;
+	private final Long myResourcePid;
+
+	private SearchKeysetPosition(Object theSortValue, Long theResourcePid) {
+		mySortValue = theSortValue;
+		myResourcePid = theResourcePid;
+	}
+
+	/**
+	 * The sort value of the last resource returned by the previous page. This is a
+	 * {@link java.util.Date} when sorting by <code>_lastUpdated</code> and a
+	 * {@link String} when sorting by <code>_id</code>. Returns {@literal null} for
+	 * the first page.
+	 */
+	@Nullable
+	public Object getSortValue() {
+		return mySortValue;
+	}
+
+	/**
+	 * The PID of the last resource returned by the previous page, or {@literal null}
+	 * for the first page.
+	 */
+	@Nullable
+	public Long getResourcePid() {
+		return myResourcePid;
+	}
+
+	public boolean isFirstPage() {
+		return myResourcePid == null;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+				.append("sortValue", mySortValue)
+				.append("resourcePid", myResourcePid)
+				.toString();
+	}
+
+	/**
+	 * Position for the first page of a keyset paged search
+	 */
+	public static SearchKeysetPosition firstPage() {
+		return FIRST_PAGE;
+	}
+
+	/**
+	 * Position following a resource with the given sort value and PID
+	 */
+	public static SearchKeysetPosition after(Object theSortValue, long theResourcePid) {
+		Validate.notNull(theSortValue, "theSortValue must not be null");
+		return new SearchKeysetPosition(theSortValue, theResourcePid);
+	}
+}
@@ -0,0 +1,213 @@
+/*-
+ * #%L
+ * HAPI FHIR Storage api
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.subscription.channel.impl;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.rest.server.messaging.json.BaseJsonMessage;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link Executor} for {@link LinkedBlockingChannel} which splits work across a fixed number
+ * of shards, each of which has its own queue and a single consumer thread. Messages are assigned
+ * to a shard using their {@link BaseJsonMessage#getMessageKeyOrDefault() message key} (for
+ * subscription messages this is the ID of the resource that changed), so all messages with the
+ * same key are handled in the order they were sent, while messages with different keys are
+ * handled in parallel. Messages without a key are spread across the shards.
+ * <p>
+ * Because every shard has exactly one consumer, producers for different shards never contend
+ * with each other and the consumer never contends with other consumers. When a shard's queue is
+ * full, senders block until space is available.
+ * </p>
+ *
+ * @since 7.6.0
+ */
+public class KeyShardedExecutor implements Executor {
+	private static final Logger ourLog = LoggerFactory.getLogger(KeyShardedExecutor.class);
+
+	private final Shard[] myShards;
+	private final AtomicInteger myUnkeyedCounter = new AtomicInteger();
+
+	/**
+	 * Constructor
+	 *
+	 * @param theThreadNamePrefix       Prefix for the consumer thread names, the shard index is appended
+	 * @param theShardCount             The number of shards (and consumer threads)
+	 * @param theQueueCapacityPerShard The maximum number of queued tasks in each shard
+	 */
+	public KeyShardedExecutor(String theThreadNamePrefix, int theShardCount, int theQueueCapacityPerShard) {
+		Validate.isTrue(theShardCount > 0, "theShardCount must be greater than 0");
+		Validate.isTrue(theQueueCapacityPerShard > 0, "theQueueCapacityPerShard must be greater than 0");
+		myShards = new Shard[theShardCount];
+		for (int i = 0; i < theShardCount; i++) {
+			myShards[i] = new Shard(theThreadNamePrefix + i, theQueueCapacityPerShard);
+		}
+	}
+
+	@Override
+	public void execute(@Nonnull Runnable theTask) {
+		Shard shard = myShards[selectShard(extractKey(theTask))];
+		try {
+			shard.myQueue.put(new QueuedTask(theTask));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InternalErrorException(Msg.code(2559) + "Interrupted while queueing message", e);
+		}
+	}
+
+	int selectShard(@Nullable String theKey) {
+		if (theKey == null) {
+			return Math.floorMod(myUnkeyedCounter.getAndIncrement(), myShards.length);
+		}
+		return Math.floorMod(theKey.hashCode(), myShards.length);
+	}
+
+	public int getShardCount() {
+		return myShards.length;
+	}
+
+	/**
+	 * @return The total number of tasks waiting in all shards
+	 */
+	public int getQueueSize() {
+		int retVal = 0;
+		for (Shard next : myShards) {
+			retVal += next.myQueue.size();
+		}
+		return retVal;
+	}
+
+	/**
+	 * @return The number of tasks waiting in the given shard
+	 */
+	public int getQueueSize(int theShard) {
+		return myShards[theShard].myQueue.size();
+	}
+
+	/**
+	 * @return The number of tasks the given shard has finished handling
+	 */
+	public long getCompletedTaskCount(int theShard) {
+		return myShards[theShard].myCompletedCount.get();
+	}
+
+	/**
+	 * @return The mean time (in milliseconds) that tasks handled by the given shard waited in its queue
+	 */
+	public double getMeanQueueLatencyMillis(int theShard) {
+		Shard shard = myShards[theShard];
+		long count = shard.myCompletedCount.get();
+		if (count == 0) {
+			return 0;
+		}
+		return (double) TimeUnit.NANOSECONDS.toMillis(shard.myTotalQueueLatencyNanos.get()) / count;
+	}
+
+	/**
+	 * @return The longest time (in milliseconds) that a task handled by the given shard waited in its queue
+	 */
+	public long getMaxQueueLatencyMillis(int theShard) {
+		return TimeUnit.NANOSECONDS.toMillis(myShards[theShard].myMaxQueueLatencyNanos.get());
+	}
+
+	/**
+	 * Stops all consumer threads. Tasks that have not yet started are discarded.
+	 */
+	public void shutdown() {
+		for (Shard next : myShards) {
+			next.myThread.interrupt();
+		}
+	}
+
+	@Nullable
+	private static String extractKey(Runnable theTask) {
+		if (theTask instanceof MessageHandlingRunnable) {
+			Message<?> message = ((MessageHandlingRunnable) theTask).getMessage();
+			if (message instanceof BaseJsonMessage) {
+				return ((BaseJsonMessage<?>) message).getMessageKeyOrDefault();
+			}
+		}
+		return null;
+	}
+
+	private static class QueuedTask {
+		private final Runnable myTask;
+		private final long myQueuedNanos = System.nanoTime();
+
+		private QueuedTask(Runnable theTask) {
+			myTask = theTask;
+		}
+	}
+
+	private static class Shard implements Runnable {
+		private final BlockingQueue<QueuedTask> myQueue;
+		private final Thread myThread;
+		private final AtomicLong myCompletedCount = new AtomicLong();
+		private final AtomicLong myTotalQueueLatencyNanos = new AtomicLong();
+		private final AtomicLong myMaxQueueLatencyNanos = new AtomicLong();
+
+		private Shard(String theThreadName, int theQueueCapacity) {
+			myQueue = new LinkedBlockingQueue<>(theQueueCapacity);
+			myThread = new Thread(this, theThreadName);
+			myThread.setDaemon(true);
+			myThread.start();
+		}
+
+		@Override
+		public void run() {
+			while (!Thread.currentThread().isInterrupted()) {
+				QueuedTask next;
+				try {
+					next = myQueue.take();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+
+				long latency = System.nanoTime() - next.myQueuedNanos;
+				myTotalQueueLatencyNanos.addAndGet(latency);
+				myMaxQueueLatencyNanos.accumulateAndGet(latency, Math::max);
+
+				try {
+					next.myTask.run();
+				} catch (Throwable t) {
+					// The channel has already notified its interceptors, we just need to keep this shard alive
+					ourLog.error("Failure handling message on {}: {}", myThread.getName(), t.toString());
+				} finally {
+					myCompletedCount.incrementAndGet();
+				}
+			}
+			ourLog.debug("Shard consumer {} stopped", myThread.getName());
+		}
+	}
+}
@@ -32,14 +32,18 @@ import jakarta.annotation.Nonnull;
 import jakarta.annotation.PreDestroy;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class LinkedBlockingChannelFactory implements IChannelFactory {
 
 	private final IChannelNamer myChannelNamer;
 	private final Map<String, LinkedBlockingChannel> myChannels = Collections.synchronizedMap(new HashMap<>());
+	private final List<KeyShardedExecutor> myShardedExecutors = Collections.synchronizedList(new ArrayList<>());
+	private boolean myShardByMessageKey;
 
 	public LinkedBlockingChannelFactory(IChannelNamer theChannelNamer) {
 		myChannelNamer = theChannelNamer;
@@ -62,6 +66,29 @@ public class LinkedBlockingChannelFactory implements IChannelFactory {
 		return myChannelNamer;
 	}
 
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), channels with more than one concurrent consumer
+	 * are backed by a {@link KeyShardedExecutor} instead of a shared thread pool. Each consumer then owns a shard,
+	 * and messages are assigned to shards by their message key (e.g. the ID of the modified resource) so that
+	 * messages with the same key are always handled in the order they were sent.
+	 * <p>
+	 * This setting only affects channels created after it is set.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	public void setShardByMessageKey(boolean theShardByMessageKey) {
+		myShardByMessageKey = theShardByMessageKey;
+	}
+
+	/**
+	 * @since 7.6.0
+	 * @see #setShardByMessageKey(boolean)
+	 */
+	public boolean isShardByMessageKey() {
+		return myShardByMessageKey;
+	}
+
 	private LinkedBlockingChannel getOrCreateChannel(
 			String theChannelName, int theConcurrentConsumers, IChannelSettings theChannelSettings) {
 		// TODO - does this need retry settings?
@@ -74,6 +101,13 @@ public class LinkedBlockingChannelFactory implements IChannelFactory {
 	@Nonnull
 	private LinkedBlockingChannel buildLinkedBlockingChannel(int theConcurrentConsumers, String theChannelName) {
 		String threadNamePrefix = theChannelName + "-";
+		if (myShardByMessageKey && theConcurrentConsumers > 1) {
+			KeyShardedExecutor executor = new KeyShardedExecutor(
+					threadNamePrefix, theConcurrentConsumers, SubscriptionConstants.DELIVERY_EXECUTOR_QUEUE_SIZE);
+			myShardedExecutors.add(executor);
+			return new LinkedBlockingChannel(theChannelName, executor, executor::getQueueSize);
+		}
+
 		ThreadPoolTaskExecutor threadPoolExecutor = ThreadPoolUtil.newThreadPool(
 				theConcurrentConsumers,
 				theConcurrentConsumers,
@@ -86,5 +120,9 @@ public class LinkedBlockingChannelFactory implements IChannelFactory {
 	@PreDestroy
 	public void stop() {
 		myChannels.clear();
+		synchronized (myShardedExecutors) {
+			myShardedExecutors.forEach(KeyShardedExecutor::shutdown);
+			myShardedExecutors.clear();
+		}
 	}
 }
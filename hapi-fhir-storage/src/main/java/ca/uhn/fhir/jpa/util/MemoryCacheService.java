@@ -33,6 +33,7 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
 import java.util.Collection;
 import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 import static java.util.concurrent.TimeUnit.MINUTES;
@@ -50,6 +51,8 @@ public class MemoryCacheService {
 
 	private final JpaStorageSettings myStorageSettings;
 	private final EnumMap<CacheEnum, Cache<?, ?>> myCaches = new EnumMap<>(CacheEnum.class);
+	private final EnumMap<CacheEnum, LongAdder> myHitCounts = new EnumMap<>(CacheEnum.class);
+	private final EnumMap<CacheEnum, LongAdder> myMissCounts = new EnumMap<>(CacheEnum.class);
 
 	public MemoryCacheService(JpaStorageSettings theStorageSettings) {
 		myStorageSettings = theStorageSettings;
@@ -91,6 +94,8 @@ public class MemoryCacheService {
 			Cache<Object, Object> nextCache = CacheFactory.build(SECONDS.toMillis(timeoutSeconds), maximumSize);
 
 			myCaches.put(next, nextCache);
+			myHitCounts.put(next, new LongAdder());
+			myMissCounts.put(next, new LongAdder());
 		}
 	}
 
@@ -122,7 +127,13 @@ public class MemoryCacheService {
 
 	public <K, V> V getIfPresent(CacheEnum theCache, K theKey) {
 		assert theCache.getKeyType().isAssignableFrom(theKey.getClass());
-		return doGetIfPresent(theCache, theKey);
+		V retVal = doGetIfPresent(theCache, theKey);
+		if (retVal != null) {
+			myHitCounts.get(theCache).increment();
+		} else {
+			myMissCounts.get(theCache).increment();
+		}
+		return retVal;
 	}
 
 	protected <K, V> V doGetIfPresent(CacheEnum theCache, K theKey) {
@@ -164,7 +175,10 @@ public class MemoryCacheService {
 
 	@SuppressWarnings("unchecked")
 	public <K, V> Map<K, V> getAllPresent(CacheEnum theCache, Collection<K> theKeys) {
-		return doGetAllPresent(theCache, theKeys);
+		Map<K, V> retVal = doGetAllPresent(theCache, theKeys);
+		myHitCounts.get(theCache).add(retVal.size());
+		myMissCounts.get(theCache).add(Math.max(0, theKeys.size() - retVal.size()));
+		return retVal;
 	}
 
 	@SuppressWarnings("unchecked")
@@ -184,6 +198,27 @@ public class MemoryCacheService {
 		return getCache(theCache).estimatedSize();
 	}
 
+	/**
+	 * Returns the number of lookups against the given cache which found an entry, counting
+	 * calls to {@link #getIfPresent(CacheEnum, Object)}, {@link #getAllPresent(CacheEnum, Collection)}
+	 * and {@link #getThenPutAfterCommit(CacheEnum, Object, Function)} since this service was created.
+	 *
+	 * @since 7.6.0
+	 */
+	public long getHitCount(CacheEnum theCache) {
+		return myHitCounts.get(theCache).sum();
+	}
+
+	/**
+	 * Returns the number of lookups against the given cache which did not find an entry. See
+	 * {@link #getHitCount(CacheEnum)} for which lookups are counted.
+	 *
+	 * @since 7.6.0
+	 */
+	public long getMissCount(CacheEnum theCache) {
+		return myMissCounts.get(theCache).sum();
+	}
+
 	public void invalidateCaches(CacheEnum... theCaches) {
 		for (CacheEnum next : theCaches) {
 			getCache(next).invalidateAll();
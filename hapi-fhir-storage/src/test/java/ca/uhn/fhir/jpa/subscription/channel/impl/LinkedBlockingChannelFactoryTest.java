@@ -4,6 +4,7 @@ import ca.uhn.fhir.jpa.subscription.channel.api.ChannelConsumerSettings;
 import ca.uhn.fhir.jpa.subscription.channel.api.ChannelProducerSettings;
 import ca.uhn.fhir.jpa.subscription.channel.api.IChannelProducer;
 import ca.uhn.fhir.jpa.subscription.channel.api.IChannelReceiver;
+import ca.uhn.fhir.rest.server.messaging.json.BaseJsonMessage;
 import ca.uhn.test.concurrency.PointcutLatch;
 import jakarta.annotation.Nonnull;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +16,9 @@ import org.springframework.messaging.MessageHeaders;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -100,6 +104,49 @@ class LinkedBlockingChannelFactoryTest {
 		successfulProcessedLatch.await(20, TimeUnit.SECONDS);
 	}
 
+	@Test
+	void testShardByMessageKeyPreservesOrderPerKey() throws InterruptedException {
+		myChannelFactory.setShardByMessageKey(true);
+		ChannelProducerSettings producerSettings = new ChannelProducerSettings();
+		producerSettings.setConcurrentConsumers(4);
+		LinkedBlockingChannel producer = (LinkedBlockingChannel) myChannelFactory.getOrCreateProducer(TEST_CHANNEL_NAME, KeyedTestMessage.class, producerSettings);
+		assertThat(producer.getExecutor()).isInstanceOf(KeyShardedExecutor.class);
+
+		int keyCount = 10;
+		int messagesPerKey = 20;
+		CountDownLatch receivedLatch = new CountDownLatch(keyCount * messagesPerKey);
+		Map<String, List<Integer>> receivedByKey = new ConcurrentHashMap<>();
+		Set<String> threadNames = ConcurrentHashMap.newKeySet();
+		producer.subscribe(msg -> {
+			KeyedTestMessage message = (KeyedTestMessage) msg;
+			threadNames.add(Thread.currentThread().getName());
+			receivedByKey.computeIfAbsent(message.getMessageKey(), t -> new ArrayList<>()).add(message.getSequence());
+			receivedLatch.countDown();
+		});
+
+		for (int sequence = 0; sequence < messagesPerKey; sequence++) {
+			for (int key = 0; key < keyCount; key++) {
+				producer.send(new KeyedTestMessage("Patient/" + key, sequence));
+			}
+		}
+
+		assertThat(receivedLatch.await(20, TimeUnit.SECONDS)).isTrue();
+		assertThat(receivedByKey).hasSize(keyCount);
+		receivedByKey.values().forEach(t -> assertThat(t).isSorted().hasSize(messagesPerKey));
+		assertThat(threadNames).hasSizeGreaterThan(1);
+
+		KeyShardedExecutor executor = (KeyShardedExecutor) producer.getExecutor();
+		await().until(() -> {
+			long completed = 0;
+			for (int i = 0; i < executor.getShardCount(); i++) {
+				completed += executor.getCompletedTaskCount(i);
+			}
+			return completed == keyCount * messagesPerKey;
+		});
+		assertEquals(0, executor.getQueueSize());
+		myChannelFactory.stop();
+	}
+
 	@Nonnull
 	private Runnable failTwiceThenProceed(CountDownLatch theSuccessfulProcessedLatch) {
 		AtomicInteger failCounter = new AtomicInteger(0);
@@ -166,4 +213,28 @@ class LinkedBlockingChannelFactoryTest {
 			return null;
 		}
 	}
+
+	static class KeyedTestMessage extends BaseJsonMessage<String> {
+		private final String myKey;
+		private final int mySequence;
+
+		KeyedTestMessage(String theKey, int theSequence) {
+			myKey = theKey;
+			mySequence = theSequence;
+		}
+
+		@Override
+		public String getPayload() {
+			return myKey + "/" + mySequence;
+		}
+
+		@Override
+		public String getMessageKey() {
+			return myKey;
+		}
+
+		int getSequence() {
+			return mySequence;
+		}
+	}
 }
@@ -0,0 +1,202 @@
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.parser.json.BaseJsonLikeValue;
+import ca.uhn.fhir.test.BaseTest;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class JsonStreamingParserR4Test extends BaseTest {
+	private static final FhirContext ourCtx = FhirContext.forR4();
+	private static final FhirContext ourStreamingCtx = FhirContext.forR4();
+
+	static {
+		ourStreamingCtx.getParserOptions().setUseStreamingJsonParser(true);
+	}
+
+	@Test
+	public void testParseBundle() throws IOException {
+		String input = loadResource("/bundle-with-two-patient-resources.json");
+
+		Bundle expected = ourCtx.newJsonParser().parseResource(Bundle.class, input);
+		Bundle actual = ourStreamingCtx.newJsonParser().parseResource(Bundle.class, input);
+
+		assertEquals(encode(expected), encode(actual));
+		assertEquals(expected.getEntry().size(), actual.getEntry().size());
+	}
+
+	@Test
+	public void testParsePrimitiveAlternatesBeforeAndAfterValue() {
+		String input = """
+			{
+				"resourceType": "Patient",
+				"_birthDate": { "id": "bd", "extension": [ { "url": "http://foo", "valueString": "A" } ] },
+				"birthDate": "2020-01-01",
+				"gender": "male",
+				"_gender": { "id": "g" },
+				"name": [ {
+					"given": [ "A", "B" ],
+					"_given": [ null, { "id": "given2" } ]
+				} ],
+				"_active": { "extension": [ { "url": "http://bar", "valueBoolean": true } ] }
+			}
+			""";
+
+		assertParsesIdentically(input);
+
+		Patient actual = ourStreamingCtx.newJsonParser().parseResource(Patient.class, input);
+		assertEquals("bd", actual.getBirthDateElement().getId());
+		assertEquals("g", actual.getGenderElement().getId());
+		assertEquals("given2", actual.getNameFirstRep().getGiven().get(1).getId());
+		assertThat(actual.getActiveElement().getExtension()).hasSize(1);
+	}
+
+	@Test
+	public void testParseResourceTypeAndUrlNotFirst() {
+		String input = """
+			{
+				"id": "P1",
+				"resourceType": "Patient",
+				"contained": [ {
+					"id": "org",
+					"name": "Org",
+					"resourceType": "Organization"
+				} ],
+				"managingOrganization": { "reference": "#org" },
+				"extension": [ {
+					"valueString": "A",
+					"url": "http://foo"
+				} ]
+			}
+			""";
+
+		assertParsesIdentically(input);
+
+		Patient actual = ourStreamingCtx.newJsonParser().parseResource(Patient.class, input);
+		assertEquals("http://foo", actual.getExtensionFirstRep().getUrl());
+		assertThat(actual.getContained()).hasSize(1);
+	}
+
+	@Test
+	public void testErrorHandlerCallbacks() {
+		String input = """
+			{
+				"resourceType": "Patient",
+				"foo": "bar",
+				"gender": [ "male" ],
+				"maritalStatus": [ { "text": "M" } ],
+				"_birthDate": "2020",
+				"extension": [ { "valueString": "A" } ]
+			}
+			""";
+
+		List<String> expected = new ArrayList<>();
+		ourCtx.newJsonParser().setParserErrorHandler(new RecordingErrorHandler(expected)).parseResource(input);
+		List<String> actual = new ArrayList<>();
+		ourStreamingCtx.newJsonParser().setParserErrorHandler(new RecordingErrorHandler(actual)).parseResource(input);
+
+		assertThat(expected).isNotEmpty();
+		assertThat(actual).containsExactlyInAnyOrderElementsOf(expected);
+	}
+
+	@Test
+	public void testTrailingContent() {
+		String input = "{\"resourceType\":\"Patient\",\"active\":true} {}";
+		try {
+			ourStreamingCtx.newJsonParser().parseResource(input);
+			fail();
+		} catch (DataFormatException e) {
+			assertThat(e.getMessage()).startsWith(Msg.code(2564));
+		}
+	}
+
+	@Test
+	public void testMissingResourceType() {
+		String input = "{\"resourceType\":\"\",\"active\":true}";
+		try {
+			ourStreamingCtx.newJsonParser().parseResource(input);
+			fail();
+		} catch (DataFormatException e) {
+			assertEquals(Msg.code(2565) + "Invalid JSON content detected, missing required element: 'resourceType'", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testComplexElementAlternateAfterElementIsIgnored() {
+		String input = """
+			{
+				"resourceType": "Patient",
+				"_maritalStatus": { "id": "before" },
+				"maritalStatus": { "text": "M" },
+				"managingOrganization": { "reference": "Organization/1" },
+				"_managingOrganization": { "id": "after" }
+			}
+			""";
+
+		Patient expected = ourCtx.newJsonParser().parseResource(Patient.class, input);
+		assertEquals("before", expected.getMaritalStatus().getId());
+		assertEquals("after", expected.getManagingOrganization().getId());
+
+		// See ParserOptions#setUseStreamingJsonParser(boolean) - only an alternate preceding the element is applied
+		Patient actual = ourStreamingCtx.newJsonParser().parseResource(Patient.class, input);
+		assertEquals("before", actual.getMaritalStatus().getId());
+		assertNull(actual.getManagingOrganization().getId());
+		assertEquals("Organization/1", actual.getManagingOrganization().getReference());
+	}
+
+	private static void assertParsesIdentically(String theInput) {
+		IBaseResource expected = ourCtx.newJsonParser().parseResource(theInput);
+		IBaseResource actual = ourStreamingCtx.newJsonParser().parseResource(theInput);
+		assertEquals(encode(expected), encode(actual));
+	}
+
+	private static String encode(IBaseResource theResource) {
+		return ourCtx.newJsonParser().setPrettyPrint(true).encodeResourceToString(theResource);
+	}
+
+	private static class RecordingErrorHandler extends ErrorHandlerAdapter {
+		private final List<String> myCalls;
+
+		private RecordingErrorHandler(List<String> theCalls) {
+			myCalls = theCalls;
+		}
+
+		@Override
+		public void incorrectJsonType(
+				IParseLocation theLocation,
+				String theElementName,
+				BaseJsonLikeValue.ValueType theExpected,
+				BaseJsonLikeValue.ScalarType theExpectedScalarType,
+				BaseJsonLikeValue.ValueType theFound,
+				BaseJsonLikeValue.ScalarType theFoundScalarType) {
+			myCalls.add("incorrectJsonType " + theElementName + " " + theExpected + " " + theFound);
+		}
+
+		@Override
+		public void missingRequiredElement(IParseLocation theLocation, String theElementName) {
+			myCalls.add("missingRequiredElement " + theElementName);
+		}
+
+		@Override
+		public void unexpectedRepeatingElement(IParseLocation theLocation, String theElementName) {
+			myCalls.add("unexpectedRepeatingElement " + theElementName);
+		}
+
+		@Override
+		public void unknownElement(IParseLocation theLocation, String theElementName) {
+			myCalls.add("unknownElement " + theElementName);
+		}
+	}
+}
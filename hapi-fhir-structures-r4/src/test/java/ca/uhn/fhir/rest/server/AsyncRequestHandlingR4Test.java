@@ -0,0 +1,154 @@
+package ca.uhn.fhir.rest.server;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.Read;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.server.exceptions.BaseServerResponseException;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncRequestHandlingR4Test {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+	private static final List<String> ourThreadNames = Collections.synchronizedList(new ArrayList<>());
+	@RegisterExtension
+	private static final RestfulServerExtension ourServer = new RestfulServerExtension(ourCtx)
+		.registerProvider(new MyPatientProvider());
+	private static CountDownLatch ourSlowRequestLatch = new CountDownLatch(0);
+	private ExecutorService myExecutor;
+
+	@BeforeEach
+	public void before() {
+		AtomicInteger counter = new AtomicInteger();
+		myExecutor = Executors.newFixedThreadPool(2, r -> new Thread(r, "async-request-" + counter.incrementAndGet()));
+		ourThreadNames.clear();
+		ourSlowRequestLatch = new CountDownLatch(1);
+	}
+
+	@AfterEach
+	public void after() {
+		ourSlowRequestLatch.countDown();
+		ourServer.getRestfulServer().setAsyncRequestExecutor(null);
+		ourServer.getRestfulServer().setAsyncRequestTimeoutMillis(0);
+		myExecutor.shutdownNow();
+	}
+
+	@Test
+	public void testRequestIsHandledOnExecutor() {
+		ourServer.getRestfulServer().setAsyncRequestExecutor(myExecutor);
+
+		for (int i = 0; i < 5; i++) {
+			Patient patient = ourServer.getFhirClient().read().resource(Patient.class).withId("A").execute();
+			assertEquals("Patient/A", patient.getIdElement().toUnqualifiedVersionless().getValue());
+		}
+
+		assertThat(ourThreadNames).hasSize(5);
+		assertThat(ourThreadNames).allMatch(t -> t.startsWith("async-request-"));
+	}
+
+	@Test
+	public void testErrorResponseIsReturned() {
+		ourServer.getRestfulServer().setAsyncRequestExecutor(myExecutor);
+
+		assertThrows(ResourceNotFoundException.class, () -> ourServer.getFhirClient().read().resource(Patient.class).withId("MISSING").execute());
+	}
+
+	@Test
+	public void testTimedOutRequestReturnsServiceUnavailable() {
+		ourServer.getRestfulServer().setAsyncRequestExecutor(myExecutor);
+		ourServer.getRestfulServer().setAsyncRequestTimeoutMillis(250);
+
+		BaseServerResponseException e = assertThrows(BaseServerResponseException.class, () -> ourServer.getFhirClient().read().resource(Patient.class).withId("SLOW").execute());
+		assertEquals(503, e.getStatusCode());
+
+		// Let the timed out handler write its (late) response, and wait until it has done so
+		CountDownLatch lateWriteCompleted = new CountDownLatch(1);
+		Object interceptor = new Object() {
+			@Hook(Pointcut.SERVER_PROCESSING_COMPLETED)
+			public void completed(RequestDetails theRequestDetails) {
+				if (theRequestDetails.getId() != null && "SLOW".equals(theRequestDetails.getId().getIdPart())) {
+					lateWriteCompleted.countDown();
+				}
+			}
+		};
+		ourServer.getRestfulServer().registerInterceptor(interceptor);
+		try {
+			ourSlowRequestLatch.countDown();
+			assertTrue(lateWriteCompleted.await(10, TimeUnit.SECONDS));
+
+			// The late write must not reach this or any other client
+			for (int i = 0; i < 5; i++) {
+				Patient patient = ourServer.getFhirClient().read().resource(Patient.class).withId("A").execute();
+				assertEquals("A", patient.getIdElement().getIdPart());
+			}
+		} finally {
+			ourServer.getRestfulServer().unregisterInterceptor(interceptor);
+		}
+	}
+
+	@Test
+	public void testRejectedRequestIsHandledSynchronously() {
+		ourServer.getRestfulServer().setAsyncRequestExecutor(t -> {
+			throw new RejectedExecutionException("Queue is full");
+		});
+
+		Patient patient = ourServer.getFhirClient().read().resource(Patient.class).withId("A").execute();
+		assertEquals("A", patient.getIdElement().getIdPart());
+		assertThat(ourThreadNames).noneMatch(t -> t.startsWith("async-request-"));
+	}
+
+	public static class MyPatientProvider implements IResourceProvider {
+
+		@Override
+		public Class<? extends IBaseResource> getResourceType() {
+			return Patient.class;
+		}
+
+		@Read
+		public Patient read(@IdParam IdType theId) {
+			ourThreadNames.add(Thread.currentThread().getName());
+			if ("SLOW".equals(theId.getIdPart())) {
+				try {
+					ourSlowRequestLatch.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				Patient retVal = new Patient();
+				retVal.setId("Patient/LATE");
+				return retVal;
+			}
+			if (!"A".equals(theId.getIdPart())) {
+				throw new ResourceNotFoundException(theId);
+			}
+			Patient retVal = new Patient();
+			retVal.setId(theId.toUnqualifiedVersionless());
+			retVal.setActive(true);
+			return retVal;
+		}
+	}
+}
@@ -187,15 +187,16 @@ public abstract class BaseJettyServerExtension<T extends BaseJettyServerExtensio
 		});
 
 		ServletHolder servletHolder = new ServletHolder(provideServlet());
+		servletHolder.setAsyncSupported(true);
 
 		List<Handler> handlerList = new ArrayList<>();
 
 		ServletContextHandler contextHandler = new ServletContextHandler();
 		contextHandler.setContextPath(myContextPath);
 		contextHandler.addServlet(servletHolder, myServletPath);
-		contextHandler.addFilter(new FilterHolder(requestCapturingFilter()), "/*", EnumSet.allOf(DispatcherType.class));
+		contextHandler.addFilter(newAsyncSupportingFilterHolder(requestCapturingFilter()), "/*", EnumSet.allOf(DispatcherType.class));
 		for (Filter next : myServletFilters) {
-			contextHandler.addFilter(new FilterHolder(next), "/*", EnumSet.allOf(DispatcherType.class));
+			contextHandler.addFilter(newAsyncSupportingFilterHolder(next), "/*", EnumSet.allOf(DispatcherType.class));
 		}
 		handlerList.add(contextHandler);
 
@@ -241,6 +242,12 @@ public abstract class BaseJettyServerExtension<T extends BaseJettyServerExtensio
 		return new RequestCapturingFilter();
 	}
 
+	private static FilterHolder newAsyncSupportingFilterHolder(Filter theFilter) {
+		FilterHolder retVal = new FilterHolder(theFilter);
+		retVal.setAsyncSupported(true);
+		return retVal;
+	}
+
 	public int getPort() {
 		return myPort;
 	}
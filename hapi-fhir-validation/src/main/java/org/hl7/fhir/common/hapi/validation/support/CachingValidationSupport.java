@@ -11,6 +11,7 @@ import ca.uhn.fhir.sl.cache.Cache;
 import ca.uhn.fhir.sl.cache.CacheFactory;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.commons.lang3.time.DateUtils;
 import org.hl7.fhir.instance.model.api.IBaseResource;
@@ -18,7 +19,14 @@ import org.hl7.fhir.instance.model.api.IPrimitiveType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +35,7 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
 import static org.apache.commons.lang3.StringUtils.defaultIfBlank;
@@ -47,6 +56,7 @@ public class CachingValidationSupport extends BaseValidationSupportWrapper imple
 	private final Map<Object, Object> myNonExpiringCache;
 	private final Cache<String, Object> myExpandValueSetCache;
 	private final boolean myIsEnabledValidationForCodingsLogicalAnd;
+	private PersistentValidationCache myPersistentCache;
 
 	/**
 	 * Constructor with default timeouts
@@ -171,9 +181,19 @@ public class CachingValidationSupport extends BaseValidationSupportWrapper imple
 				+ " " + expansionOptions.getFilter()
 				+ " " + expansionOptions.getOffset()
 				+ " " + expansionOptions.getCount();
+		Supplier<String> persistentKey = null;
+		String url = getPrimitiveChildValue(theValueSetToExpand, "url");
+		if (isNotBlank(url)) {
+			persistentKey = () -> key + " " + url + "|"
+					+ defaultString(getPrimitiveChildValue(theValueSetToExpand, "version")) + " "
+					+ getResourceVersionKey(theValueSetToExpand);
+		}
 		return loadFromCache(
 				myExpandValueSetCache,
 				key,
+				persistentKey,
+				this::encodeExpansionOutcome,
+				this::decodeExpansionOutcome,
 				t -> super.expandValueSet(theValidationSupportContext, theExpansionOptions, theValueSetToExpand));
 	}
 
@@ -187,9 +207,14 @@ public class CachingValidationSupport extends BaseValidationSupportWrapper imple
 			String theValueSetUrl) {
 		String key = "validateCode " + theCodeSystem + " " + theCode + " " + defaultString(theDisplay) + " "
 				+ defaultIfBlank(theValueSetUrl, "NO_VS");
+		Supplier<String> persistentKey = () -> key + " " + getCodeSystemVersionKey(theCodeSystem) + " "
+				+ (isNotBlank(theValueSetUrl) ? getResourceVersionKey(fetchValueSet(theValueSetUrl)) : "NO_VS");
 		return loadFromCache(
 				myValidateCodeCache,
 				key,
+				persistentKey,
+				CachingValidationSupport::encodeCodeValidationResult,
+				CachingValidationSupport::decodeCodeValidationResult,
 				t -> super.validateCode(
 						theValidationSupportContext, theOptions, theCodeSystem, theCode, theDisplay, theValueSetUrl));
 	}
@@ -214,19 +239,20 @@ public class CachingValidationSupport extends BaseValidationSupportWrapper imple
 			String theDisplay,
 			@Nonnull IBaseResource theValueSet) {
 
-		BaseRuntimeChildDefinition urlChild =
-				myCtx.getResourceDefinition(theValueSet).getChildByName("url");
-		Optional<String> valueSetUrl = urlChild.getAccessor().getValues(theValueSet).stream()
-				.map(t -> ((IPrimitiveType<?>) t).getValueAsString())
-				.filter(t -> isNotBlank(t))
-				.findFirst();
-		if (valueSetUrl.isPresent()) {
+		String valueSetUrl = getPrimitiveChildValue(theValueSet, "url");
+		if (isNotBlank(valueSetUrl)) {
 			String key =
 					"validateCodeInValueSet " + theValidationOptions.toString() + " " + defaultString(theCodeSystem)
-							+ " " + defaultString(theCode) + " " + defaultString(theDisplay) + " " + valueSetUrl.get();
+							+ " " + defaultString(theCode) + " " + defaultString(theDisplay) + " " + valueSetUrl;
+			Supplier<String> persistentKey = () -> key + "|"
+					+ defaultString(getPrimitiveChildValue(theValueSet, "version")) + " "
+					+ getResourceVersionKey(theValueSet) + " " + getCodeSystemVersionKey(theCodeSystem);
 			return loadFromCache(
 					myValidateCodeCache,
 					key,
+					persistentKey,
+					CachingValidationSupport::encodeCodeValidationResult,
+					CachingValidationSupport::decodeCodeValidationResult,
 					t -> super.validateCodeInValueSet(
 							theValidationSupportContext,
 							theValidationOptions,
@@ -245,6 +271,79 @@ public class CachingValidationSupport extends BaseValidationSupportWrapper imple
 		return loadFromCache(myTranslateCodeCache, theRequest, k -> super.translateConcept(theRequest));
 	}
 
+	@Nullable
+	private String getPrimitiveChildValue(IBaseResource theResource, String theChildName) {
+		BaseRuntimeChildDefinition child = myCtx.getResourceDefinition(theResource).getChildByName(theChildName);
+		return child.getAccessor().getValues(theResource).stream()
+				.map(t -> ((IPrimitiveType<?>) t).getValueAsString())
+				.filter(t -> isNotBlank(t))
+				.findFirst()
+				.orElse(null);
+	}
+
+	private String getCodeSystemVersionKey(@Nullable String theCodeSystem) {
+		return isNotBlank(theCodeSystem) ? getResourceVersionKey(fetchCodeSystem(theCodeSystem)) : "NO_CS";
+	}
+
+	/**
+	 * Identifies the stored version of a CodeSystem or ValueSet, so that persistent cache entries
+	 * computed from an earlier version of the resource are not used after it has been updated
+	 * (including by another server)
+	 */
+	private static String getResourceVersionKey(@Nullable IBaseResource theResource) {
+		if (theResource == null) {
+			return "NONE";
+		}
+		String versionId = defaultIfBlank(
+				theResource.getMeta().getVersionId(), theResource.getIdElement().getVersionIdPart());
+		Date lastUpdated = theResource.getMeta().getLastUpdated();
+		return defaultString(versionId) + "@" + (lastUpdated != null ? lastUpdated.getTime() : "");
+	}
+
+	/**
+	 * Like {@link #loadFromCache(Cache, Object, Function)}, but also checks the persistent
+	 * cache (if one is configured) before invoking the loader, and stores anything the loader
+	 * returns in it.
+	 *
+	 * @param thePersistentKey Supplies the key to use in the persistent cache, or {@literal null} if the
+	 *                         value should not be persisted. It is only invoked on an in-heap cache miss.
+	 * @param theEncoder       Encodes the value, or returns {@literal null} if this particular value can't be persisted
+	 */
+	@Nullable
+	private <T> T loadFromCache(
+			Cache<String, Object> theCache,
+			String theKey,
+			@Nullable Supplier<String> thePersistentKey,
+			Function<T, byte[]> theEncoder,
+			PersistentValueDecoder<T> theDecoder,
+			Function<String, T> theLoader) {
+		PersistentValidationCache persistentCache = myPersistentCache;
+		if (persistentCache == null || thePersistentKey == null) {
+			return loadFromCache(theCache, theKey, theLoader);
+		}
+
+		return loadFromCache(theCache, theKey, key -> {
+			String persistentKey = thePersistentKey.get();
+			byte[] stored = persistentCache.get(persistentKey);
+			if (stored != null) {
+				try {
+					return theDecoder.decode(stored);
+				} catch (Exception e) {
+					ourLog.debug("Failed to decode persistent cache entry for key: {}", persistentKey, e);
+				}
+			}
+
+			T retVal = theLoader.apply(key);
+			if (retVal != null) {
+				byte[] encoded = theEncoder.apply(retVal);
+				if (encoded != null) {
+					persistentCache.put(persistentKey, encoded);
+				}
+			}
+			return retVal;
+		});
+	}
+
 	@SuppressWarnings("OptionalAssignedToNull")
 	@Nullable
 	private <S, T> T loadFromCache(Cache<S, Object> theCache, S theKey, Function<S, T> theLoader) {
@@ -313,6 +412,168 @@ public class CachingValidationSupport extends BaseValidationSupportWrapper imple
 		myCache.invalidateAll();
 		myValidateCodeCache.invalidateAll();
 		myNonExpiringCache.clear();
+		if (myPersistentCache != null) {
+			myPersistentCache.clear();
+		}
+	}
+
+	/**
+	 * Clears the persistent cache (if one is configured) without touching the in-heap caches.
+	 * This should be called whenever terminology content which could affect the cached
+	 * results is stored.
+	 *
+	 * @since 7.6.0
+	 */
+	public void invalidatePersistentCache() {
+		PersistentValidationCache persistentCache = myPersistentCache;
+		if (persistentCache != null) {
+			persistentCache.clear();
+		}
+	}
+
+	/**
+	 * Releases the persistent cache (if one is configured). This is invoked automatically
+	 * when this object is a bean in an application context which is being closed.
+	 *
+	 * @since 7.6.0
+	 */
+	@PreDestroy
+	public void closePersistentCache() {
+		PersistentValidationCache persistentCache = myPersistentCache;
+		if (persistentCache != null) {
+			persistentCache.close();
+		}
+	}
+
+	/**
+	 * Supplies an optional second level cache which validate-code and ValueSet expansion
+	 * results are stored in, so that they survive a restart of the server. Entries are keyed
+	 * by the code system (including its version if one was requested) and the ValueSet URL
+	 * and version, along with the stored version of the CodeSystem and ValueSet resources
+	 * themselves. The whole cache is cleared by {@link #invalidateCaches()}.
+	 *
+	 * @param thePersistentCache The cache to use, or {@literal null} (default) for none
+	 * @since 7.6.0
+	 */
+	public void setPersistentCache(@Nullable PersistentValidationCache thePersistentCache) {
+		myPersistentCache = thePersistentCache;
+	}
+
+	/**
+	 * @since 7.6.0
+	 */
+	@Nullable
+	public PersistentValidationCache getPersistentCache() {
+		return myPersistentCache;
+	}
+
+	@Nullable
+	private byte[] encodeExpansionOutcome(ValueSetExpansionOutcome theOutcome) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			if (theOutcome.getValueSet() != null) {
+				out.writeBoolean(true);
+				writeString(out, myCtx.newJsonParser().encodeResourceToString(theOutcome.getValueSet()));
+			} else {
+				out.writeBoolean(false);
+				writeString(out, theOutcome.getError());
+				out.writeBoolean(theOutcome.getErrorIsFromServer());
+			}
+		} catch (IOException e) {
+			return null;
+		}
+		return bytes.toByteArray();
+	}
+
+	private ValueSetExpansionOutcome decodeExpansionOutcome(byte[] theBytes) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(theBytes));
+		if (in.readBoolean()) {
+			return new ValueSetExpansionOutcome(myCtx.newJsonParser().parseResource(readString(in)));
+		}
+		String error = readString(in);
+		return new ValueSetExpansionOutcome(error, in.readBoolean());
+	}
+
+	@Nullable
+	private static byte[] encodeCodeValidationResult(CodeValidationResult theResult) {
+		if (theResult.getProperties() != null && !theResult.getProperties().isEmpty()) {
+			return null;
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			writeString(out, theResult.getCode());
+			writeString(out, theResult.getMessage());
+			writeString(out, theResult.getSeverity() != null ? theResult.getSeverity().name() : null);
+			writeString(out, theResult.getCodeSystemName());
+			writeString(out, theResult.getCodeSystemVersion());
+			writeString(out, theResult.getDisplay());
+			writeString(out, theResult.getSourceDetails());
+			List<CodeValidationIssue> issues = theResult.getCodeValidationIssues();
+			out.writeInt(issues.size());
+			for (CodeValidationIssue next : issues) {
+				writeString(out, next.getMessage());
+				writeString(out, next.getSeverity() != null ? next.getSeverity().name() : null);
+				writeString(out, next.getCode() != null ? next.getCode().name() : null);
+				writeString(out, next.getCoding() != null ? next.getCoding().name() : null);
+			}
+		} catch (IOException e) {
+			return null;
+		}
+		return bytes.toByteArray();
+	}
+
+	private static CodeValidationResult decodeCodeValidationResult(byte[] theBytes) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(theBytes));
+		CodeValidationResult retVal = new CodeValidationResult();
+		retVal.setCode(readString(in));
+		retVal.setMessage(readString(in));
+		retVal.setSeverity(readEnum(in, IssueSeverity.class));
+		retVal.setCodeSystemName(readString(in));
+		retVal.setCodeSystemVersion(readString(in));
+		retVal.setDisplay(readString(in));
+		retVal.setSourceDetails(readString(in));
+		int issueCount = in.readInt();
+		for (int i = 0; i < issueCount; i++) {
+			String message = readString(in);
+			IssueSeverity severity = readEnum(in, IssueSeverity.class);
+			CodeValidationIssueCode code = readEnum(in, CodeValidationIssueCode.class);
+			CodeValidationIssueCoding coding = readEnum(in, CodeValidationIssueCoding.class);
+			retVal.addCodeValidationIssue(new CodeValidationIssue(message, severity, code, coding));
+		}
+		return retVal;
+	}
+
+	private static void writeString(DataOutputStream theOut, @Nullable String theValue) throws IOException {
+		if (theValue == null) {
+			theOut.writeInt(-1);
+			return;
+		}
+		byte[] bytes = theValue.getBytes(StandardCharsets.UTF_8);
+		theOut.writeInt(bytes.length);
+		theOut.write(bytes);
+	}
+
+	@Nullable
+	private static String readString(DataInputStream theIn) throws IOException {
+		int length = theIn.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		theIn.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	@Nullable
+	private static <E extends Enum<E>> E readEnum(DataInputStream theIn, Class<E> theType) throws IOException {
+		String name = readString(theIn);
+		return name != null ? Enum.valueOf(theType, name) : null;
+	}
+
+	@FunctionalInterface
+	private interface PersistentValueDecoder<T> {
+		T decode(byte[] theBytes) throws IOException;
 	}
 
 	/**
@@ -0,0 +1,273 @@
+package org.hl7.fhir.common.hapi.validation.support;
+
+import ca.uhn.fhir.context.ConfigurationException;
+import ca.uhn.fhir.i18n.Msg;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.time.DateUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A simple persistent key/value store backed by a single memory-mapped file, used by
+ * {@link CachingValidationSupport} as a second level cache so that expensive terminology
+ * results survive a restart of the server.
+ * <p>
+ * The file is a fixed size append-only log of records, preceded by a small header holding
+ * the current write position. The position is only advanced after a record has been fully
+ * written, so a partially written record is simply ignored the next time the file is opened.
+ * When the file is opened, the records are scanned once in order to rebuild the in-heap index
+ * of keys to record offsets. Once the file is full, new values are no longer stored until
+ * {@link #clear()} is called.
+ * </p>
+ * <p>
+ * Records older than the configured maximum age are ignored, which bounds how long a value
+ * can remain stale if the terminology it was computed from was changed while this server
+ * was not running. An exclusive lock is held on the file while it is open. If another
+ * process (e.g. the previous instance during a rolling deploy on the same host) already holds
+ * the lock, this cache is disabled and behaves as if it were always empty.
+ * </p>
+ *
+ * @since 7.6.0
+ */
+public class PersistentValidationCache {
+	public static final int DEFAULT_CAPACITY_BYTES = 128 * 1024 * 1024;
+	public static final long DEFAULT_MAX_AGE_MILLIS = DateUtils.MILLIS_PER_DAY;
+
+	private static final Logger ourLog = LoggerFactory.getLogger(PersistentValidationCache.class);
+	private static final int MAGIC = 0x48564331;
+	private static final int FORMAT_VERSION = 1;
+	private static final int WRITE_POSITION_OFFSET = 8;
+	private static final int HEADER_SIZE = 16;
+
+	private final Path myFile;
+	private final int myCapacityBytes;
+	private final long myMaxAgeMillis;
+	private final Map<String, Integer> myIndex = new ConcurrentHashMap<>();
+	private FileChannel myChannel;
+	private FileLock myLock;
+	private MappedByteBuffer myBuffer;
+	private int myWritePosition;
+	private boolean myFullWarningLogged;
+
+	/**
+	 * Constructor using the default capacity and maximum age
+	 *
+	 * @param theFile The file to store values in. It is created if it does not already exist.
+	 */
+	public PersistentValidationCache(Path theFile) {
+		this(theFile, DEFAULT_CAPACITY_BYTES, DEFAULT_MAX_AGE_MILLIS);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theFile          The file to store values in. It is created if it does not already exist.
+	 * @param theCapacityBytes The size of the file. Values are no longer stored once it is full.
+	 * @param theMaxAgeMillis  Stored values older than this are ignored
+	 */
+	public PersistentValidationCache(Path theFile, int theCapacityBytes, long theMaxAgeMillis) {
+		Validate.notNull(theFile, "theFile must not be null");
+		Validate.isTrue(theCapacityBytes > HEADER_SIZE, "theCapacityBytes must be greater than %d", HEADER_SIZE);
+		Validate.isTrue(theMaxAgeMillis > 0, "theMaxAgeMillis must be positive");
+		myFile = theFile;
+		myCapacityBytes = theCapacityBytes;
+		myMaxAgeMillis = theMaxAgeMillis;
+		open();
+	}
+
+	private void open() {
+		try {
+			Path parent = myFile.toAbsolutePath().getParent();
+			if (parent != null) {
+				Files.createDirectories(parent);
+			}
+			myChannel = FileChannel.open(
+					myFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			try {
+				myLock = myChannel.tryLock();
+			} catch (OverlappingFileLockException e) {
+				myLock = null;
+			}
+			if (myLock == null) {
+				ourLog.warn("Validation cache file {} is in use by another process, persistent cache disabled", myFile);
+				myChannel.close();
+				myChannel = null;
+				return;
+			}
+			myBuffer = myChannel.map(FileChannel.MapMode.READ_WRITE, 0, myCapacityBytes);
+		} catch (IOException e) {
+			throw new ConfigurationException(
+					Msg.code(2560) + "Failed to open validation cache file " + myFile + ": " + e.getMessage(), e);
+		}
+
+		if (!loadIndex()) {
+			ourLog.info("Validation cache file {} is empty or not valid, starting with an empty cache", myFile);
+			clear();
+		} else {
+			ourLog.info("Loaded {} entries from validation cache file {}", myIndex.size(), myFile);
+		}
+	}
+
+	private boolean loadIndex() {
+		ByteBuffer buffer = myBuffer.duplicate();
+		if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+			return false;
+		}
+		int writePosition = buffer.getInt(WRITE_POSITION_OFFSET);
+		if (writePosition < HEADER_SIZE || writePosition > myCapacityBytes) {
+			return false;
+		}
+
+		int position = HEADER_SIZE;
+		while (position < writePosition) {
+			int recordStart = position;
+			if (writePosition - position < Integer.BYTES) {
+				return false;
+			}
+			int keyLength = buffer.getInt(position);
+			position += Integer.BYTES;
+			if (keyLength < 0 || writePosition - position < keyLength + Long.BYTES + Integer.BYTES) {
+				return false;
+			}
+			byte[] keyBytes = new byte[keyLength];
+			buffer.position(position);
+			buffer.get(keyBytes);
+			position += keyLength + Long.BYTES;
+			int valueLength = buffer.getInt(position);
+			position += Integer.BYTES;
+			if (valueLength < 0 || writePosition - position < valueLength) {
+				return false;
+			}
+			position += valueLength;
+			myIndex.put(new String(keyBytes, StandardCharsets.UTF_8), recordStart);
+		}
+
+		myWritePosition = writePosition;
+		return true;
+	}
+
+	/**
+	 * Returns the stored value for the given key, or {@literal null} if there is none
+	 * or it is older than the maximum age
+	 */
+	@Nullable
+	public synchronized byte[] get(String theKey) {
+		Integer recordStart = myIndex.get(theKey);
+		if (recordStart == null || myBuffer == null) {
+			return null;
+		}
+
+		ByteBuffer buffer = myBuffer.duplicate();
+		int position = recordStart + Integer.BYTES + buffer.getInt(recordStart);
+		long storedAt = buffer.getLong(position);
+		if (System.currentTimeMillis() - storedAt > myMaxAgeMillis) {
+			myIndex.remove(theKey);
+			return null;
+		}
+		position += Long.BYTES;
+		byte[] retVal = new byte[buffer.getInt(position)];
+		buffer.position(position + Integer.BYTES);
+		buffer.get(retVal);
+		return retVal;
+	}
+
+	/**
+	 * Stores a value. If a value is already stored for the key it is replaced.
+	 *
+	 * @return Returns {@literal false} if the value could not be stored because the file is full
+	 */
+	public synchronized boolean put(String theKey, byte[] theValue) {
+		if (myBuffer == null) {
+			return false;
+		}
+
+		byte[] keyBytes = theKey.getBytes(StandardCharsets.UTF_8);
+		long recordLength = (long) Integer.BYTES + keyBytes.length + Long.BYTES + Integer.BYTES + theValue.length;
+		if (myWritePosition + recordLength > myCapacityBytes) {
+			if (!myFullWarningLogged) {
+				ourLog.warn(
+						"Validation cache file {} is full ({} bytes), no more values will be stored until it is cleared",
+						myFile,
+						myCapacityBytes);
+				myFullWarningLogged = true;
+			}
+			return false;
+		}
+
+		int recordStart = myWritePosition;
+		ByteBuffer buffer = myBuffer.duplicate();
+		buffer.position(recordStart);
+		buffer.putInt(keyBytes.length);
+		buffer.put(keyBytes);
+		buffer.putLong(System.currentTimeMillis());
+		buffer.putInt(theValue.length);
+		buffer.put(theValue);
+
+		myWritePosition = buffer.position();
+		myBuffer.putInt(WRITE_POSITION_OFFSET, myWritePosition);
+		myIndex.put(theKey, recordStart);
+		return true;
+	}
+
+	/**
+	 * Removes all stored values
+	 */
+	public synchronized void clear() {
+		myIndex.clear();
+		myFullWarningLogged = false;
+		myWritePosition = HEADER_SIZE;
+		if (myBuffer != null) {
+			myBuffer.putInt(0, MAGIC);
+			myBuffer.putInt(4, FORMAT_VERSION);
+			myBuffer.putInt(WRITE_POSITION_OFFSET, myWritePosition);
+		}
+	}
+
+	/**
+	 * Returns the number of keys currently stored, including any which have expired but have
+	 * not yet been read
+	 */
+	public int size() {
+		return myIndex.size();
+	}
+
+	/**
+	 * Returns {@literal false} if the file could not be locked and this cache is disabled
+	 */
+	public boolean isEnabled() {
+		return myBuffer != null;
+	}
+
+	/**
+	 * Flushes all stored values to disk and releases the lock on the file. This cache is
+	 * disabled afterward.
+	 */
+	public synchronized void close() {
+		if (myBuffer == null) {
+			return;
+		}
+		myBuffer.force();
+		myBuffer = null;
+		myIndex.clear();
+		try {
+			myLock.release();
+			myChannel.close();
+		} catch (IOException e) {
+			ourLog.warn("Failed to close validation cache file {}: {}", myFile, e.getMessage());
+		}
+	}
+}
@@ -62,9 +62,16 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 public class VersionSpecificWorkerContextWrapper extends I18nBase implements IWorkerContext {
 	private static final Logger ourLog = LoggerFactory.getLogger(VersionSpecificWorkerContextWrapper.class);
+	private static final String USER_DATA_SOURCE_RESOURCE =
+			VersionSpecificWorkerContextWrapper.class.getName() + "_SOURCE_RESOURCE";
 	private final ValidationSupportContext myValidationSupportContext;
 	private final VersionCanonicalizer myVersionCanonicalizer;
 	private final LoadingCache<ResourceKey, IBaseResource> myFetchResourceCache;
+	/**
+	 * Converted CodeSystems are shared by all validations, so they must never be handed out
+	 * directly. {@link #fetchCodeSystem(String)} returns a copy.
+	 */
+	private final LoadingCache<String, CodeSystem> myFetchCodeSystemCache;
 	private volatile List<StructureDefinition> myAllStructures;
 	private org.hl7.fhir.r5.model.Parameters myExpansionProfile;
 
@@ -77,12 +84,7 @@ public class VersionSpecificWorkerContextWrapper extends I18nBase implements IWo
 
 		myFetchResourceCache = CacheFactory.build(timeoutMillis, 10000, key -> {
 			String fetchResourceName = key.getResourceName();
-			if (myValidationSupportContext
-							.getRootValidationSupport()
-							.getFhirContext()
-							.getVersion()
-							.getVersion()
-					== FhirVersionEnum.DSTU2) {
+			if (isDstu2()) {
 				if ("CodeSystem".equals(fetchResourceName)) {
 					fetchResourceName = "ValueSet";
 				}
@@ -120,12 +122,64 @@ public class VersionSpecificWorkerContextWrapper extends I18nBase implements IWo
 				}
 			}
 
+			if (canonical instanceof org.hl7.fhir.r5.model.ValueSet) {
+				// Binding targets are validated against many times, so keep the resource we converted
+				// from rather than converting the canonical ValueSet back on every code validation
+				canonical.setUserData(USER_DATA_SOURCE_RESOURCE, new SourceResource(canonical, fetched));
+			}
+
 			return canonical;
 		});
 
+		myFetchCodeSystemCache = CacheFactory.build(timeoutMillis, 10000, system -> {
+			IBaseResource fetched =
+					myValidationSupportContext.getRootValidationSupport().fetchCodeSystem(system);
+			if (fetched == null) {
+				return null;
+			}
+			return myVersionCanonicalizer.codeSystemToValidatorCanonical(fetched);
+		});
+
 		setValidationMessageLanguage(getLocale());
 	}
 
+	/**
+	 * The validator may modify the CodeSystems it is given, so a copy of the cached instance
+	 * is returned. Copying is much cheaper than fetching and converting the CodeSystem again.
+	 */
+	@Nullable
+	private static CodeSystem copyOrNull(@Nullable CodeSystem theCodeSystem) {
+		return theCodeSystem != null ? theCodeSystem.copy() : null;
+	}
+
+	private boolean isDstu2() {
+		return myValidationSupportContext
+						.getRootValidationSupport()
+						.getFhirContext()
+						.getVersion()
+						.getVersion()
+				== FhirVersionEnum.DSTU2;
+	}
+
+	/**
+	 * Converts a ValueSet from the validator's canonical model back to the model used by the
+	 * validation support chain, reusing the original resource if the ValueSet was loaded through
+	 * {@link #fetchResource(Class, String)}.
+	 * <p>
+	 * The reused resource is the instance which the validation support chain returned, so it is
+	 * shared in the same way as the chain's own cached conformance resources, and must be treated
+	 * as read-only by the chain (as those already are).
+	 * </p>
+	 */
+	private IBaseResource valueSetFromValidatorCanonical(org.hl7.fhir.r5.model.ValueSet theValueSet) {
+		Object source = theValueSet.getUserData(USER_DATA_SOURCE_RESOURCE);
+		// User data may be copied along with the resource, so make sure this is the instance we converted
+		if (source instanceof SourceResource && ((SourceResource) source).myCanonical == theValueSet) {
+			return ((SourceResource) source).mySource;
+		}
+		return myVersionCanonicalizer.valueSetFromValidatorCanonical(theValueSet);
+	}
+
 	@Override
 	public Set<String> getBinaryKeysAsSet() {
 		throw new UnsupportedOperationException(Msg.code(2118));
@@ -373,7 +427,7 @@ public class VersionSpecificWorkerContextWrapper extends I18nBase implements IWo
 			org.hl7.fhir.r5.model.ValueSet source, boolean cacheOk, boolean Hierarchical) {
 		IBaseResource convertedSource;
 		try {
-			convertedSource = myVersionCanonicalizer.valueSetFromValidatorCanonical(source);
+			convertedSource = valueSetFromValidatorCanonical(source);
 		} catch (FHIRException e) {
 			throw new InternalErrorException(Msg.code(661) + e);
 		}
@@ -428,13 +482,11 @@ public class VersionSpecificWorkerContextWrapper extends I18nBase implements IWo
 
 	@Override
 	public org.hl7.fhir.r5.model.CodeSystem fetchCodeSystem(String system) {
-		IBaseResource fetched =
-				myValidationSupportContext.getRootValidationSupport().fetchCodeSystem(system);
-		if (fetched == null) {
+		if (isBlank(system)) {
 			return null;
 		}
 		try {
-			return (org.hl7.fhir.r5.model.CodeSystem) myVersionCanonicalizer.codeSystemToValidatorCanonical(fetched);
+			return copyOrNull(myFetchCodeSystemCache.get(system));
 		} catch (FHIRException e) {
 			throw new InternalErrorException(Msg.code(665) + e);
 		}
@@ -442,13 +494,11 @@ public class VersionSpecificWorkerContextWrapper extends I18nBase implements IWo
 
 	@Override
 	public CodeSystem fetchCodeSystem(String system, String verison) {
-		IBaseResource fetched =
-				myValidationSupportContext.getRootValidationSupport().fetchCodeSystem(system);
-		if (fetched == null) {
+		if (isBlank(system)) {
 			return null;
 		}
 		try {
-			return (org.hl7.fhir.r5.model.CodeSystem) myVersionCanonicalizer.codeSystemToValidatorCanonical(fetched);
+			return copyOrNull(myFetchCodeSystemCache.get(system));
 		} catch (FHIRException e) {
 			throw new InternalErrorException(Msg.code(1992) + e);
 		}
@@ -734,7 +784,7 @@ public class VersionSpecificWorkerContextWrapper extends I18nBase implements IWo
 
 		try {
 			if (theValueSet != null) {
-				convertedVs = myVersionCanonicalizer.valueSetFromValidatorCanonical(theValueSet);
+				convertedVs = valueSetFromValidatorCanonical(theValueSet);
 			}
 		} catch (FHIRException e) {
 			throw new InternalErrorException(Msg.code(689) + e);
@@ -751,7 +801,7 @@ public class VersionSpecificWorkerContextWrapper extends I18nBase implements IWo
 		IBaseResource convertedVs = null;
 		try {
 			if (theValueSet != null) {
-				convertedVs = myVersionCanonicalizer.valueSetFromValidatorCanonical(theValueSet);
+				convertedVs = valueSetFromValidatorCanonical(theValueSet);
 			}
 		} catch (FHIRException e) {
 			throw new InternalErrorException(Msg.code(690) + e);
@@ -772,7 +822,7 @@ public class VersionSpecificWorkerContextWrapper extends I18nBase implements IWo
 
 		try {
 			if (theValueSet != null) {
-				convertedVs = myVersionCanonicalizer.valueSetFromValidatorCanonical(theValueSet);
+				convertedVs = valueSetFromValidatorCanonical(theValueSet);
 			}
 		} catch (FHIRException e) {
 			throw new InternalErrorException(Msg.code(691) + e);
@@ -927,6 +977,7 @@ public class VersionSpecificWorkerContextWrapper extends I18nBase implements IWo
 
 	public void invalidateCaches() {
 		myFetchResourceCache.invalidateAll();
+		myFetchCodeSystemCache.invalidateAll();
 	}
 
 	@Override
@@ -999,6 +1050,16 @@ public class VersionSpecificWorkerContextWrapper extends I18nBase implements IWo
 				new ValidationSupportContext(theValidationSupport), versionCanonicalizer);
 	}
 
+	private static class SourceResource {
+		private final Resource myCanonical;
+		private final IBaseResource mySource;
+
+		private SourceResource(Resource theCanonical, IBaseResource theSource) {
+			myCanonical = theCanonical;
+			mySource = theSource;
+		}
+	}
+
 	private static class ResourceKey {
 		private final int myHashCode;
 		private final String myResourceName;
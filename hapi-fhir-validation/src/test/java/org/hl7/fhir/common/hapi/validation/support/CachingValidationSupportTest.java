@@ -1,19 +1,25 @@
 package org.hl7.fhir.common.hapi.validation.support;
 
 import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.support.ConceptValidationOptions;
 import ca.uhn.fhir.context.support.IValidationSupport;
+import ca.uhn.fhir.context.support.ValidationSupportContext;
 import com.google.common.collect.Lists;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.r4.model.StructureDefinition;
+import org.hl7.fhir.r4.model.ValueSet;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
 
@@ -21,6 +27,10 @@ import static ca.uhn.fhir.util.TestUtil.sleepAtLeast;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -99,6 +109,91 @@ public class CachingValidationSupportTest {
 		assertEquals(theIsEnabledValidationForCodingsLogicalAnd != null && theIsEnabledValidationForCodingsLogicalAnd, support.isEnabledValidationForCodingsLogicalAnd());
 	}
 
+	@Test
+	public void testPersistentCacheSurvivesRestart(@TempDir Path theTempDir) {
+		Path file = theTempDir.resolve("validation-cache.bin");
+		when(myValidationSupport.getFhirContext()).thenReturn(ourCtx);
+		IValidationSupport.CodeValidationResult result = new IValidationSupport.CodeValidationResult()
+			.setCode("123")
+			.setDisplay("Display")
+			.setCodeSystemVersion("1.0")
+			.setSeverity(IValidationSupport.IssueSeverity.WARNING)
+			.addCodeValidationIssue(new IValidationSupport.CodeValidationIssue("Message", IValidationSupport.IssueSeverity.WARNING, IValidationSupport.CodeValidationIssueCode.INVALID, IValidationSupport.CodeValidationIssueCoding.INVALID_DISPLAY));
+		when(myValidationSupport.validateCode(any(), any(), eq("http://cs|1.0"), eq("123"), any(), eq("http://vs"))).thenReturn(result);
+		ValueSet valueSet = new ValueSet();
+		valueSet.setId("ValueSet/vs");
+		valueSet.setUrl("http://vs");
+		valueSet.setVersion("2");
+		ValueSet expanded = new ValueSet();
+		expanded.getExpansion().addContains().setSystem("http://cs").setCode("123");
+		when(myValidationSupport.expandValueSet(any(), any(), any(IBaseResource.class))).thenReturn(new IValidationSupport.ValueSetExpansionOutcome(expanded));
+
+		// Populate the persistent cache
+		PersistentValidationCache persistentCache = new PersistentValidationCache(file);
+		CachingValidationSupport support = new CachingValidationSupport(myValidationSupport);
+		support.setPersistentCache(persistentCache);
+		support.validateCode(newContext(support), new ConceptValidationOptions(), "http://cs|1.0", "123", null, "http://vs");
+		support.expandValueSet(newContext(support), null, valueSet);
+		assertEquals(2, persistentCache.size());
+		persistentCache.close();
+
+		// Restart
+		support = new CachingValidationSupport(myValidationSupport);
+		support.setPersistentCache(new PersistentValidationCache(file));
+		IValidationSupport.CodeValidationResult actual = support.validateCode(newContext(support), new ConceptValidationOptions(), "http://cs|1.0", "123", null, "http://vs");
+		assertNotNull(actual);
+		assertEquals("123", actual.getCode());
+		assertEquals("Display", actual.getDisplay());
+		assertEquals("1.0", actual.getCodeSystemVersion());
+		assertEquals(IValidationSupport.IssueSeverity.WARNING, actual.getSeverity());
+		assertThat(actual.getCodeValidationIssues()).hasSize(1);
+		assertEquals(IValidationSupport.CodeValidationIssueCoding.INVALID_DISPLAY, actual.getCodeValidationIssues().get(0).getCoding());
+		IValidationSupport.ValueSetExpansionOutcome expansion = support.expandValueSet(newContext(support), null, valueSet);
+		assertNotNull(expansion);
+		assertEquals("123", ((ValueSet) expansion.getValueSet()).getExpansion().getContainsFirstRep().getCode());
+		verify(myValidationSupport, times(1)).validateCode(any(), any(), any(), any(), any(), any());
+		verify(myValidationSupport, times(1)).expandValueSet(any(), any(), any(IBaseResource.class));
+
+		// Invalidating the caches clears the persistent cache too
+		support.invalidateCaches();
+		assertEquals(0, support.getPersistentCache().size());
+		support.validateCode(newContext(support), new ConceptValidationOptions(), "http://cs|1.0", "123", null, "http://vs");
+		verify(myValidationSupport, times(2)).validateCode(any(), any(), any(), any(), any(), any());
+		support.getPersistentCache().close();
+	}
+
+	@Test
+	public void testPersistentCacheKeyIncludesResourceVersion(@TempDir Path theTempDir) {
+		when(myValidationSupport.getFhirContext()).thenReturn(ourCtx);
+		ValueSet expanded = new ValueSet();
+		expanded.getExpansion().addContains().setSystem("http://cs").setCode("123");
+		when(myValidationSupport.expandValueSet(any(), any(), any(IBaseResource.class))).thenReturn(new IValidationSupport.ValueSetExpansionOutcome(expanded));
+
+		PersistentValidationCache persistentCache = new PersistentValidationCache(theTempDir.resolve("validation-cache.bin"));
+		ValueSet valueSet = new ValueSet();
+		valueSet.setId("ValueSet/vs/_history/1");
+		valueSet.setUrl("http://vs");
+
+		CachingValidationSupport support = new CachingValidationSupport(myValidationSupport);
+		support.setPersistentCache(persistentCache);
+		support.expandValueSet(newContext(support), null, valueSet);
+
+		// A new stored version of the same ValueSet (e.g. updated on another server) isn't served from the persistent cache
+		valueSet.setId("ValueSet/vs/_history/2");
+		support = new CachingValidationSupport(myValidationSupport);
+		support.setPersistentCache(persistentCache);
+		support.expandValueSet(newContext(support), null, valueSet);
+		verify(myValidationSupport, times(2)).expandValueSet(any(), any(), any(IBaseResource.class));
+		assertEquals(2, persistentCache.size());
+
+		support.closePersistentCache();
+		assertFalse(persistentCache.isEnabled());
+	}
+
+	private static ValidationSupportContext newContext(IValidationSupport theValidationSupport) {
+		return new ValidationSupportContext(theValidationSupport);
+	}
+
 	@Nonnull
 	private CachingValidationSupport getSupport(@Nullable CachingValidationSupport.CacheTimeouts theCacheTimeouts, @Nullable Boolean theIsEnabledValidationForCodingsLogicalAnd) {
 		if (theCacheTimeouts == null) {
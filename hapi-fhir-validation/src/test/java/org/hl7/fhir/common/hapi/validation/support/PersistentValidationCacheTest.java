@@ -0,0 +1,116 @@
+package org.hl7.fhir.common.hapi.validation.support;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PersistentValidationCacheTest {
+
+	@TempDir
+	private Path myTempDir;
+
+	@Test
+	public void testPutAndGet() {
+		PersistentValidationCache cache = new PersistentValidationCache(myTempDir.resolve("cache.bin"), 4096, 60000);
+		assertTrue(cache.put("A", bytes("value A")));
+		assertTrue(cache.put("B", bytes("value B")));
+		assertTrue(cache.put("A", bytes("value A2")));
+
+		assertArrayEquals(bytes("value A2"), cache.get("A"));
+		assertArrayEquals(bytes("value B"), cache.get("B"));
+		assertNull(cache.get("C"));
+		assertEquals(2, cache.size());
+		cache.close();
+	}
+
+	@Test
+	public void testValuesSurviveReopen() {
+		Path file = myTempDir.resolve("cache.bin");
+		PersistentValidationCache cache = new PersistentValidationCache(file, 4096, 60000);
+		cache.put("A", bytes("value A"));
+		cache.put("B", new byte[0]);
+		cache.close();
+
+		cache = new PersistentValidationCache(file, 4096, 60000);
+		assertEquals(2, cache.size());
+		assertArrayEquals(bytes("value A"), cache.get("A"));
+		assertArrayEquals(new byte[0], cache.get("B"));
+		cache.close();
+	}
+
+	@Test
+	public void testClear() {
+		Path file = myTempDir.resolve("cache.bin");
+		PersistentValidationCache cache = new PersistentValidationCache(file, 4096, 60000);
+		cache.put("A", bytes("value A"));
+		cache.clear();
+		assertNull(cache.get("A"));
+		cache.close();
+
+		cache = new PersistentValidationCache(file, 4096, 60000);
+		assertEquals(0, cache.size());
+		cache.close();
+	}
+
+	@Test
+	public void testFull() {
+		PersistentValidationCache cache = new PersistentValidationCache(myTempDir.resolve("cache.bin"), 64, 60000);
+		assertTrue(cache.put("A", new byte[20]));
+		assertFalse(cache.put("B", new byte[20]));
+		assertNull(cache.get("B"));
+
+		cache.clear();
+		assertTrue(cache.put("B", new byte[20]));
+		cache.close();
+	}
+
+	@Test
+	public void testExpiredValuesAreIgnored() throws InterruptedException {
+		PersistentValidationCache cache = new PersistentValidationCache(myTempDir.resolve("cache.bin"), 4096, 1);
+		cache.put("A", bytes("value A"));
+		Thread.sleep(10);
+		assertNull(cache.get("A"));
+		assertEquals(0, cache.size());
+		cache.close();
+	}
+
+	@Test
+	public void testInvalidFileIsReset() throws Exception {
+		Path file = myTempDir.resolve("cache.bin");
+		Files.write(file, bytes("this is not a cache file"));
+
+		PersistentValidationCache cache = new PersistentValidationCache(file, 4096, 60000);
+		assertEquals(0, cache.size());
+		assertTrue(cache.put("A", bytes("value A")));
+		assertArrayEquals(bytes("value A"), cache.get("A"));
+		cache.close();
+	}
+
+	@Test
+	public void testDisabledWhileLockedByAnotherInstance() {
+		Path file = myTempDir.resolve("cache.bin");
+		PersistentValidationCache cache = new PersistentValidationCache(file, 4096, 60000);
+		cache.put("A", bytes("value A"));
+
+		PersistentValidationCache other = new PersistentValidationCache(file, 4096, 60000);
+		assertFalse(other.isEnabled());
+		assertNull(other.get("A"));
+		assertFalse(other.put("B", bytes("value B")));
+		assertThat(cache.get("A")).isNotNull();
+		cache.close();
+	}
+
+	private static byte[] bytes(String theValue) {
+		return theValue.getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -7,12 +7,21 @@ import ca.uhn.fhir.context.support.ValidationSupportContext;
 import ca.uhn.fhir.fhirpath.BaseValidationTestWithInlineMocks;
 import ca.uhn.fhir.i18n.HapiLocalizer;
 import ca.uhn.hapi.converters.canonical.VersionCanonicalizer;
+import org.hl7.fhir.r5.model.Coding;
 import org.hl7.fhir.r5.model.Resource;
+import org.hl7.fhir.r5.terminologies.utilities.ValidationResult;
+import org.hl7.fhir.utilities.FhirPublication;
+import org.hl7.fhir.utilities.validation.ValidationOptions;
 import org.junit.jupiter.api.Test;
 import org.mockito.quality.Strictness;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.withSettings;
 
@@ -68,6 +77,55 @@ public class VersionSpecificWorkerContextWrapperTest extends BaseValidationTestW
 		wrapper.cacheResource(mock(Resource.class));
 	}
 
+	@Test
+	public void validateCode_valueSetLoadedByWrapper_reusesOriginalValueSet() {
+		FhirContext ctx = FhirContext.forR4Cached();
+		org.hl7.fhir.r4.model.ValueSet valueSet = new org.hl7.fhir.r4.model.ValueSet();
+		valueSet.setUrl("http://vs");
+		valueSet.getCompose().addInclude().setSystem("http://cs").addConcept().setCode("123");
+
+		IValidationSupport validationSupport = mock(IValidationSupport.class, withSettings().strictness(Strictness.LENIENT));
+		when(validationSupport.getFhirContext()).thenReturn(ctx);
+		when(validationSupport.fetchResource(eq(org.hl7.fhir.r4.model.ValueSet.class), eq("http://vs"))).thenReturn(valueSet);
+		when(validationSupport.validateCodeInValueSet(any(), any(), any(), any(), any(), any())).thenReturn(new IValidationSupport.CodeValidationResult().setCode("123"));
+
+		VersionSpecificWorkerContextWrapper wrapper = new VersionSpecificWorkerContextWrapper(new ValidationSupportContext(validationSupport), new VersionCanonicalizer(ctx));
+		org.hl7.fhir.r5.model.ValueSet canonical = wrapper.fetchResource(org.hl7.fhir.r5.model.ValueSet.class, "http://vs");
+		assertThat(canonical).isNotNull();
+
+		ValidationResult result = wrapper.validateCode(new ValidationOptions(FhirPublication.R4), new Coding("http://cs", "123", null), canonical);
+		assertThat(result.isOk()).isTrue();
+		verify(validationSupport).validateCodeInValueSet(any(), any(), eq("http://cs"), eq("123"), any(), same(valueSet));
+	}
+
+	@Test
+	public void fetchCodeSystem_calledRepeatedly_convertsOnceAndReturnsCopies() {
+		FhirContext ctx = FhirContext.forR4Cached();
+		org.hl7.fhir.r4.model.CodeSystem codeSystem = new org.hl7.fhir.r4.model.CodeSystem();
+		codeSystem.setUrl("http://cs");
+		codeSystem.addConcept().setCode("123");
+
+		IValidationSupport validationSupport = mock(IValidationSupport.class, withSettings().strictness(Strictness.LENIENT));
+		when(validationSupport.getFhirContext()).thenReturn(ctx);
+		when(validationSupport.fetchCodeSystem("http://cs")).thenReturn(codeSystem);
+
+		VersionSpecificWorkerContextWrapper wrapper = new VersionSpecificWorkerContextWrapper(new ValidationSupportContext(validationSupport), new VersionCanonicalizer(ctx));
+		org.hl7.fhir.r5.model.CodeSystem first = wrapper.fetchCodeSystem("http://cs");
+		assertThat(first).isNotNull();
+
+		// Each caller gets its own copy, so modifying one doesn't affect later validations
+		first.getConcept().clear();
+		org.hl7.fhir.r5.model.CodeSystem second = wrapper.fetchCodeSystem("http://cs");
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.getConcept()).hasSize(1);
+		assertThat(wrapper.fetchCodeSystem("http://other")).isNull();
+		verify(validationSupport, times(1)).fetchCodeSystem("http://cs");
+
+		wrapper.invalidateCaches();
+		assertThat(wrapper.fetchCodeSystem("http://cs")).isNotSameAs(first);
+		verify(validationSupport, times(2)).fetchCodeSystem("http://cs");
+	}
+
 	private IValidationSupport mockValidationSupportWithTwoBinaries() {
 		IValidationSupport validationSupport;
 		validationSupport = mockValidationSupport();